@@ -45,6 +45,7 @@ import org.auraframework.impl.LoggingServiceImpl;
 import org.auraframework.impl.RenderingServiceImpl;
 import org.auraframework.impl.SerializationServiceImpl;
 import org.auraframework.impl.ServerServiceImpl;
+import org.auraframework.impl.WarmupServiceImpl;
 import org.auraframework.impl.adapter.ConfigAdapterImpl;
 import org.auraframework.impl.adapter.DefinitionParserAdapterImpl;
 import org.auraframework.impl.adapter.GlobalValueProviderAdapterImpl;
@@ -107,6 +108,7 @@ import org.auraframework.service.MetricsService;
 import org.auraframework.service.RenderingService;
 import org.auraframework.service.SerializationService;
 import org.auraframework.service.ServerService;
+import org.auraframework.service.WarmupService;
 import org.auraframework.test.TestContextAdapter;
 import org.auraframework.test.TestContextAdapterImpl;
 import org.auraframework.util.ServiceLoaderImpl.AuraConfiguration;
@@ -146,6 +148,11 @@ public class AuraImplConfig {
         return new ServerServiceImpl();
     }
 
+    @Impl
+    public static WarmupService warmupService() {
+        return new WarmupServiceImpl();
+    }
+
     @Impl
     public static FormatAdapter<?> componentHTMLFormatAdapter() {
         return new ComponentHTMLFormatAdapter();
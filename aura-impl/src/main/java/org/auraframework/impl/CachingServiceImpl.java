@@ -16,6 +16,8 @@
 package org.auraframework.impl;
 
 import com.google.common.base.Optional;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import org.apache.log4j.Logger;
 import org.auraframework.Aura;
 import org.auraframework.annotations.Annotations.ServiceComponent;
@@ -30,11 +32,14 @@ import org.auraframework.service.CachingService;
 import org.auraframework.service.DefinitionService;
 import org.auraframework.system.DependencyEntry;
 import org.auraframework.system.SourceListener;
+import org.auraframework.system.SourceListener.SourceMonitorEvent;
 
 import java.lang.ref.WeakReference;
 import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock.WriteLock;
@@ -56,6 +61,7 @@ public class CachingServiceImpl implements CachingService {
     /** Default size of string caches, in number of entries */
     private final static int STRING_CACHE_SIZE = 100;
     private final static int ALT_STRINGS_CACHE_SIZE = 100;
+    private final static int BYTES_CACHE_SIZE = 100;
 
     /** Default size of client lib caches, in number of entries */
     private final static int CLIENT_LIB_CACHE_SIZE = 30;
@@ -63,6 +69,12 @@ public class CachingServiceImpl implements CachingService {
     private final ReentrantReadWriteLock rwLock = new ReentrantReadWriteLock();
     private final WriteLock wLock = rwLock.writeLock();
 
+    /** Readers stamp their cache writes with the generation instead of taking the read lock */
+    private final boolean lockFreeReads;
+
+    /** The cache generation, incremented on every source change before caches are invalidated */
+    private final AtomicLong generation = new AtomicLong();
+
     @Override
     public <K, T> CacheBuilder<K, T> getCacheBuilder() {
         return new CacheImpl.Builder<>();
@@ -72,14 +84,45 @@ public class CachingServiceImpl implements CachingService {
     private final Cache<DefDescriptor<?>, Optional<? extends Definition>> defsCache;
     private final Cache<String, String> stringsCache;
     private final Cache<String, String> altStringsCache;
+    private final Cache<String, byte[]> bytesCache;
     private final Cache<String, Set<DefDescriptor<?>>> descriptorFilterCache;
     private final Cache<String, DependencyEntry> depsCache;
     private final Cache<String, String> clientLibraryOutputCache;
     private final Cache<DefDescriptor.DescriptorKey, DefDescriptor<? extends Definition>> defDescriptorByNameCache;
 
+    /**
+     * The reverse dependency index, from a descriptor to the uids of the dependency entries that include it.
+     *
+     * Since a dependency entry holds the complete (transitive) set of descriptors for its top level
+     * definition, this is all we need to find the entries affected by a source change. All access to the
+     * index is synchronized on this map.
+     */
+    private final Map<DefDescriptor<?>, Set<String>> dependentUids = Maps.newHashMap();
+
+    /** The dependency set and the depsCache keys of every uid in the reverse dependency index. */
+    private final Map<String, IndexedEntry> indexedEntries = Maps.newHashMap();
+
+    /** The maximum size of the dependency cache, used to bound the reverse dependency index. */
+    private final int depsCacheSize;
+
+    private static class IndexedEntry {
+        private final Set<DefDescriptor<?>> dependencies;
+        private final Set<String> keys = Sets.newHashSet();
+
+        private IndexedEntry(Set<DefDescriptor<?>> dependencies) {
+            this.dependencies = dependencies;
+        }
+    }
+
     private static final Logger logger = Logger.getLogger(CachingServiceImpl.class);
 
     public CachingServiceImpl() {
+        this(Boolean.getBoolean("aura.cache.lockFreeReads"));
+    }
+
+    CachingServiceImpl(boolean lockFreeReads) {
+        this.lockFreeReads = lockFreeReads;
+
         int size = getCacheSize("aura.cache.existsCacheSize", DEFINITION_CACHE_SIZE);
         existsCache = this.<DefDescriptor<?>, Boolean> getCacheBuilder()
                 .setInitialSize(size)
@@ -113,6 +156,14 @@ public class CachingServiceImpl implements CachingService {
                 .setName("altStringsCache")
                 .setSoftValues(true).build();
 
+        size = getCacheSize("aura.cache.bytesCacheSize", BYTES_CACHE_SIZE);
+        bytesCache = this.<String, byte[]> getCacheBuilder()
+                .setInitialSize(size)
+                .setMaximumSize(size)
+                .setRecordStats(true)
+                .setName("bytesCache")
+                .setSoftValues(true).build();
+
         size = getCacheSize("aura.cache.filterCacheSize", FILTER_CACHE_SIZE);
         descriptorFilterCache = this
                 .<String, Set<DefDescriptor<?>>> getCacheBuilder()
@@ -123,6 +174,7 @@ public class CachingServiceImpl implements CachingService {
                 .setSoftValues(true).build();
 
         size = getCacheSize("aura.cache.depsCacheSize", DEPENDENCY_CACHE_SIZE);
+        depsCacheSize = size;
         depsCache = this.<String, DependencyEntry> getCacheBuilder()
                 .setInitialSize(size)
                 .setMaximumSize(size)
@@ -168,6 +220,11 @@ public class CachingServiceImpl implements CachingService {
         return altStringsCache;
     }
 
+    @Override
+    public final Cache<String, byte[]> getBytesCache() {
+        return bytesCache;
+    }
+
     @Override
     public final Cache<String, Set<DefDescriptor<?>>> getDescriptorFilterCache() {
         return descriptorFilterCache;
@@ -178,6 +235,36 @@ public class CachingServiceImpl implements CachingService {
         return depsCache;
     }
 
+    @Override
+    public void putDependencyEntry(String key, DependencyEntry de) {
+        depsCache.put(key, de);
+        if (de.uid == null || de.dependencies == null) {
+            return;
+        }
+        synchronized (dependentUids) {
+            IndexedEntry indexed = indexedEntries.get(de.uid);
+            if (indexed == null) {
+                indexed = new IndexedEntry(de.dependencies);
+                indexedEntries.put(de.uid, indexed);
+                for (DefDescriptor<?> dependency : de.dependencies) {
+                    Set<String> uids = dependentUids.get(dependency);
+                    if (uids == null) {
+                        uids = Sets.newHashSet();
+                        dependentUids.put(dependency, uids);
+                    }
+                    uids.add(de.uid);
+                }
+            }
+            indexed.keys.add(key);
+
+            // entries evicted from the dependency cache leave their uids behind, so drop them once
+            // the index has grown well past what the cache can hold.
+            if (indexedEntries.size() > 2 * depsCacheSize) {
+                pruneDependencyIndex();
+            }
+        }
+    }
+
     @Override
     public final Cache<String, String> getClientLibraryOutputCache() {
         return clientLibraryOutputCache;
@@ -198,14 +285,27 @@ public class CachingServiceImpl implements CachingService {
         return rwLock.writeLock();
     }
 
+    @Override
+    public boolean isLockFreeReads() {
+        return lockFreeReads;
+    }
+
+    @Override
+    public long getCacheGeneration() {
+        return generation.get();
+    }
+
     /**
      * The driver for cache-consistency management in response to source changes. MDR drives the process, will notify
      * all registered listeners while write blocking, then invalidate it's own caches. If this routine can't acquire the
      * lock , it will log it as an non-fatal error, as it only results in staleness.
      *
+     * The cache generation is moved on before anything is invalidated. With lock free reads, the write lock is only
+     * contended by other source changes, and readers that started in an older generation stop publishing to the
+     * shared caches.
+     *
      * @param listeners - collections of listeners to notify of source changes
-     * @param source - DefDescriptor that changed - for granular cache clear (currently not considered here, but other
-     *            listeners may make use of it)
+     * @param source - DefDescriptor that changed - for granular cache clear, null clears everything
      * @param event - what type of event triggered the change
      */
     @Override
@@ -227,8 +327,9 @@ public class CachingServiceImpl implements CachingService {
                 return;
             }
 
-            // successfully acquired the lock, start clearing caches
-            invalidateSourceRelatedCaches(source);
+            // successfully acquired the lock, publish a new generation and start clearing caches
+            generation.incrementAndGet();
+            invalidateSourceRelatedCaches(source, event);
 
             // notify provided listeners, presumably to clear caches
             for (WeakReference<SourceListener> i : listeners) {
@@ -244,16 +345,31 @@ public class CachingServiceImpl implements CachingService {
                 wLock.unlock();
             }
         }
+
+        // Everything was flushed, so queue the applications that were warmed before to be warmed again.
+        if (haveLock && source == null) {
+            Aura.getWarmupService().rewarm();
+        }
     }
 
-    private void invalidateSourceRelatedCaches(DefDescriptor<?> descriptor) {
+    private void invalidateSourceRelatedCaches(DefDescriptor<?> descriptor, SourceMonitorEvent event) {
 
-        depsCache.invalidateAll();
-        descriptorFilterCache.invalidateAll();
-        stringsCache.invalidateAll();
-        altStringsCache.invalidateAll();
         clientLibraryOutputCache.invalidateAll();
 
+        //
+        // Filter results are not keyed by what they depend on, and a changed source can change what a filter
+        // matches (e.g. its access or namespace), so they are always cleared. They are cheap to find again.
+        //
+        descriptorFilterCache.invalidateAll();
+
+        if (descriptor == null || event != SourceMonitorEvent.CHANGED) {
+            //
+            // Creating or deleting a source changes what exists, which can alter how any definition resolves
+            // (and what find returns) without the descriptor ever appearing in a dependency set.
+            //
+            invalidateDependencyCaches();
+        }
+
         if (descriptor == null) {
             defsCache.invalidateAll();
             existsCache.invalidateAll();
@@ -271,15 +387,99 @@ public class CachingServiceImpl implements CachingService {
             defsCache.invalidate(adesc);
             existsCache.invalidate(adesc);
 
+            invalidateDependents(descriptor);
+            invalidateDependents(cdesc);
+            invalidateDependents(adesc);
+
             switch (descriptor.getDefType()) {
             case INCLUDE:
-                invalidateSourceRelatedCaches(descriptor.getBundle());
+                invalidateSourceRelatedCaches(descriptor.getBundle(), event);
                 break;
             default:
             }
         }
     }
 
+    /**
+     * Invalidate everything that is derived from dependency entries.
+     */
+    private void invalidateDependencyCaches() {
+        depsCache.invalidateAll();
+        descriptorFilterCache.invalidateAll();
+        stringsCache.invalidateAll();
+        altStringsCache.invalidateAll();
+        bytesCache.invalidateAll();
+        synchronized (dependentUids) {
+            dependentUids.clear();
+            indexedEntries.clear();
+        }
+    }
+
+    /**
+     * Invalidate the dependency entries that include a descriptor, along with the strings cached against their
+     * uids.
+     *
+     * String cache keys are always of the form uid@descriptor@key, so the uid prefix is sufficient to find them.
+     */
+    private void invalidateDependents(DefDescriptor<?> descriptor) {
+        synchronized (dependentUids) {
+            Set<String> uids = dependentUids.get(descriptor);
+            if (uids == null) {
+                return;
+            }
+            for (String uid : Sets.newHashSet(uids)) {
+                IndexedEntry indexed = removeIndexedEntry(uid);
+                for (String key : indexed.keys) {
+                    // the descriptor only key may have been replaced by an entry with a newer uid.
+                    DependencyEntry de = depsCache.getIfPresent(key);
+                    if (de != null && uid.equals(de.uid)) {
+                        depsCache.invalidate(key);
+                    }
+                }
+                stringsCache.invalidatePartial(uid + "@");
+                altStringsCache.invalidatePartial(uid + "@");
+                bytesCache.invalidatePartial(uid + "@");
+            }
+        }
+    }
+
+    /**
+     * Remove a uid from the reverse dependency index. Must be called while synchronized on the index.
+     */
+    private IndexedEntry removeIndexedEntry(String uid) {
+        IndexedEntry indexed = indexedEntries.remove(uid);
+        for (DefDescriptor<?> dependency : indexed.dependencies) {
+            Set<String> uids = dependentUids.get(dependency);
+            if (uids != null) {
+                uids.remove(uid);
+                if (uids.isEmpty()) {
+                    dependentUids.remove(dependency);
+                }
+            }
+        }
+        return indexed;
+    }
+
+    /**
+     * Drop the uids that no longer have any entry in the dependency cache. Must be called while synchronized on
+     * the index.
+     */
+    private void pruneDependencyIndex() {
+        for (Map.Entry<String, IndexedEntry> entry : Maps.newHashMap(indexedEntries).entrySet()) {
+            boolean live = false;
+            for (String key : entry.getValue().keys) {
+                DependencyEntry de = depsCache.getIfPresent(key);
+                if (de != null && entry.getKey().equals(de.uid)) {
+                    live = true;
+                    break;
+                }
+            }
+            if (!live) {
+                removeIndexedEntry(entry.getKey());
+            }
+        }
+    }
+
     /**
      * Computes a size for a given cache.  The defaults can be overridden
      * with system properties.
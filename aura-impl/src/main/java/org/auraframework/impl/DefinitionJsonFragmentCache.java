@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl;
+
+import org.auraframework.Aura;
+import org.auraframework.def.BaseComponentDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.Definition;
+import org.auraframework.def.EventDef;
+import org.auraframework.def.FlavoredStyleDef;
+import org.auraframework.system.AuraContext;
+import org.auraframework.throwable.quickfix.QuickFixException;
+import org.auraframework.util.json.JsonFragmentCache;
+
+/**
+ * Caches the JSON for component, application and event definitions sent to the client in action responses.
+ *
+ * The JSON for a definition only changes with its uid, the mode, the CSS tokens for the app, and whether its styles
+ * were preloaded, so it is held in the registry string cache under a key made of those. Definitions that are
+ * serialized as just a descriptor (preloaded, or nested in another definition) are not cached, as there is nothing to
+ * save. Neither are definitions the registry has not compiled yet, as compiling them just to make a key would cost
+ * more than it saves.
+ */
+public class DefinitionJsonFragmentCache implements JsonFragmentCache {
+    private final AuraContext context;
+
+    /**
+     * The app CSS cache key, looked up once per cache. This is intentional: a cache is made for a single response,
+     * and the CSS tokens for the app do not change during one.
+     */
+    private String styleKey;
+
+    public DefinitionJsonFragmentCache(AuraContext context) {
+        this.context = context;
+    }
+
+    @Override
+    public String getKey(Object value) {
+        if (!(value instanceof BaseComponentDef || value instanceof EventDef)) {
+            return null;
+        }
+        Definition def = (Definition) value;
+        if (context.isPreloading() || context.getJsonSerializationContext().isSerializing()) {
+            return null;
+        }
+        StringBuilder key = new StringBuilder(64);
+        key.append("JSON:").append(context.getMode().name());
+        if (def instanceof BaseComponentDef) {
+            BaseComponentDef componentDef = (BaseComponentDef) def;
+            if (context.isPreloaded(def.getDescriptor())
+                    || context.getDefRegistry().getClientClassLoaded(def.getDescriptor())) {
+                return null;
+            }
+            DefDescriptor<?> styleDescriptor = componentDef.getStyleDescriptor();
+            DefDescriptor<?> flavoredStyleDescriptor;
+            try {
+                FlavoredStyleDef flavoredStyleDef = componentDef.getFlavoredStyleDef();
+                flavoredStyleDescriptor = flavoredStyleDef != null ? flavoredStyleDef.getDescriptor() : null;
+            } catch (QuickFixException qfe) {
+                return null;
+            }
+            if (styleDescriptor != null || flavoredStyleDescriptor != null) {
+                if (styleKey == null) {
+                    styleKey = Aura.getServerService().getAppCssCacheKey();
+                    if (styleKey == null) {
+                        // dynamic tokens.
+                        return null;
+                    }
+                }
+                key.append(':').append(styleKey);
+                key.append(':').append(styleDescriptor != null && context.isPreloaded(styleDescriptor));
+                key.append(':').append(flavoredStyleDescriptor != null && context.isPreloaded(flavoredStyleDescriptor));
+            }
+        }
+        return key.toString();
+    }
+
+    @Override
+    public String get(Object value, String key) {
+        DefDescriptor<?> descriptor = ((Definition) value).getDescriptor();
+        String uid = getUid(descriptor);
+        return uid == null ? null : context.getDefRegistry().getCachedString(uid, descriptor, key);
+    }
+
+    @Override
+    public void put(Object value, String key, String json) {
+        DefDescriptor<?> descriptor = ((Definition) value).getDescriptor();
+        String uid = getUid(descriptor);
+        if (uid != null) {
+            context.getDefRegistry().putCachedString(uid, descriptor, key, json);
+        }
+    }
+
+    private String getUid(DefDescriptor<?> descriptor) {
+        return context.getDefRegistry().getCachedUid(descriptor);
+    }
+}
@@ -15,21 +15,42 @@
  */
 package org.auraframework.impl;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.text.ParseException;
 import java.time.format.DateTimeParseException;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.TimeZone;
+import java.util.concurrent.Callable;
 
 import org.auraframework.Aura;
+import org.auraframework.adapter.LocalizationAdapter;
+import org.auraframework.cache.Cache;
+import org.auraframework.def.BaseComponentDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.Definition;
+import org.auraframework.impl.adapter.LabelValueProvider;
+import org.auraframework.instance.AuraValueProviderType;
+import org.auraframework.instance.GlobalValueProvider;
 import org.auraframework.service.LocalizationService;
+import org.auraframework.system.AuraContext;
+import org.auraframework.system.MasterDefRegistry;
+import org.auraframework.throwable.AuraRuntimeException;
+import org.auraframework.throwable.quickfix.QuickFixException;
 import org.auraframework.util.AuraLocale;
 import org.auraframework.util.date.DateService;
 import org.auraframework.util.date.DateServiceImpl;
 import org.auraframework.util.number.AuraNumberFormat;
+import org.auraframework.util.number.NumberFormatCache;
 
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+import com.google.common.collect.Maps;
 import com.ibm.icu.text.DateFormat;
 import com.ibm.icu.text.DecimalFormat;
 import com.ibm.icu.text.NumberFormat;
@@ -43,6 +64,14 @@ public class LocalizationServiceImpl implements LocalizationService {
     // make pluggable in the future?
     private final DateService dateService = DateServiceImpl.get();
 
+    /** Default size of the label bundle cache, in number of application and locale pairs */
+    private static final int LABEL_BUNDLE_CACHE_SIZE = 512;
+
+    /** The key of the label index in the registry string cache for an application */
+    private static final String LABEL_INDEX_KEY = "labels";
+
+    private volatile Cache<String, Map<String, Map<String, String>>> labelBundleCache;
+
     /**
      * Used for Serialization to ensure class consistency.
      */
@@ -249,7 +278,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = Aura.getLocalizationAdapter().getAuraLocale().getNumberLocale();
         }
-        NumberFormat nf = NumberFormat.getNumberInstance(locale);
+        NumberFormat nf = NumberFormatCache.getNumberInstance(locale);
         return nf.format(number);
     }
 
@@ -258,7 +287,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = Aura.getLocalizationAdapter().getAuraLocale().getNumberLocale();
         }
-        NumberFormat nf = NumberFormat.getNumberInstance(locale);
+        NumberFormat nf = NumberFormatCache.getNumberInstance(locale);
         return nf.format(number);
     }
 
@@ -267,7 +296,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = Aura.getLocalizationAdapter().getAuraLocale().getNumberLocale();
         }
-        NumberFormat nf = NumberFormat.getNumberInstance(locale);
+        NumberFormat nf = NumberFormatCache.getNumberInstance(locale);
         return nf.format(number);
     }
 
@@ -303,7 +332,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = Aura.getLocalizationAdapter().getAuraLocale().getNumberLocale();
         }
-        NumberFormat nf = NumberFormat.getNumberInstance(locale);
+        NumberFormat nf = NumberFormatCache.getNumberInstance(locale);
         nf.setMinimumFractionDigits(minFractionDigits);
         nf.setMaximumFractionDigits(maxFractionDigits);
         return nf.format(number);
@@ -324,7 +353,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = Aura.getLocalizationAdapter().getAuraLocale().getNumberLocale();
         }
-        NumberFormat nf = NumberFormat.getPercentInstance(locale);
+        NumberFormat nf = NumberFormatCache.getPercentInstance(locale);
         return nf.format(percent);
     }
 
@@ -333,7 +362,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = Aura.getLocalizationAdapter().getAuraLocale().getNumberLocale();
         }
-        NumberFormat nf = NumberFormat.getPercentInstance(locale);
+        NumberFormat nf = NumberFormatCache.getPercentInstance(locale);
         nf.setMinimumFractionDigits(minFractionDigits);
         nf.setMaximumFractionDigits(maxFractionDigits);
         return nf.format(percent);
@@ -354,7 +383,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = Aura.getLocalizationAdapter().getAuraLocale().getNumberLocale();
         }
-        DecimalFormat df = (DecimalFormat) NumberFormat.getCurrencyInstance(locale);
+        DecimalFormat df = NumberFormatCache.getCurrencyInstance(locale);
         return df.format(currency);
     }
 
@@ -372,10 +401,8 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (currency == null) {
             currency = Currency.getInstance(locale);
         }
-        DecimalFormat df = (DecimalFormat) NumberFormat.getCurrencyInstance(locale);
-        // setCurrency will set fraction digits based on locale so that statement needs to happen before if we
-        // want to set fraction digits ourselves
-        df.setCurrency(currency);
+        // the cached copy already has the currency (and its default fraction digits) set, so ours override them
+        DecimalFormat df = NumberFormatCache.getCurrencyInstance(locale, currency);
         df.setMinimumFractionDigits(minFractionDigits);
         df.setMaximumFractionDigits(maxFractionDigits);
         return df.format(value);
@@ -396,7 +423,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = Aura.getLocalizationAdapter().getAuraLocale().getNumberLocale();
         }
-        DecimalFormat df = (DecimalFormat) NumberFormat.getCurrencyInstance(locale);
+        DecimalFormat df = NumberFormatCache.getCurrencyInstance(locale);
         df.setParseBigDecimal(true);
         return df.format(currency);
     }
@@ -415,9 +442,8 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (currency == null) {
             currency = Currency.getInstance(locale);
         }
-        DecimalFormat df = (DecimalFormat) NumberFormat.getCurrencyInstance(locale);
+        DecimalFormat df = NumberFormatCache.getCurrencyInstance(locale, currency);
         df.setParseBigDecimal(true);
-        df.setCurrency(currency);
         df.setMinimumFractionDigits(minFractionDigits);
         df.setMaximumFractionDigits(maxFractionDigits);
         return df.format(value);
@@ -674,7 +700,7 @@ public class LocalizationServiceImpl implements LocalizationService {
 		if (locale == null) {
 			locale = Aura.getLocalizationAdapter().getAuraLocale().getNumberLocale();
 		}
-		NumberFormat nf = NumberFormat.getInstance(locale);
+		NumberFormat nf = NumberFormatCache.getInstance(locale);
 		return AuraNumberFormat.parseStrict(number, nf);
 	}
 
@@ -691,7 +717,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = Aura.getLocalizationAdapter().getAuraLocale().getNumberLocale();
         }
-        NumberFormat nf = NumberFormat.getPercentInstance(locale);
+        NumberFormat nf = NumberFormatCache.getPercentInstance(locale);
         return AuraNumberFormat.parseStrict(percent, nf).doubleValue();
     }
 
@@ -708,7 +734,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = Aura.getLocalizationAdapter().getAuraLocale().getCurrencyLocale();
         }
-        DecimalFormat df = (DecimalFormat) NumberFormat.getCurrencyInstance(locale);
+        DecimalFormat df = NumberFormatCache.getCurrencyInstance(locale);
         df.setParseBigDecimal(true);
         // TODO: use parseStrict when ICU4J is updated >= 51.2
         return ((com.ibm.icu.math.BigDecimal) AuraNumberFormat.parse(currency, df, false)).toBigDecimal();
@@ -732,7 +758,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = Aura.getLocalizationAdapter().getAuraLocale().getNumberLocale();
         }
-        NumberFormat nf = NumberFormat.getNumberInstance(locale);
+        NumberFormat nf = NumberFormatCache.getNumberInstance(locale);
         return nf.format(number);
     }
 
@@ -744,7 +770,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = Aura.getLocalizationAdapter().getAuraLocale().getNumberLocale();
         }
-        NumberFormat nf = NumberFormat.getNumberInstance(locale);
+        NumberFormat nf = NumberFormatCache.getNumberInstance(locale);
         nf.setMinimumFractionDigits(minFractionDigits);
         nf.setMaximumFractionDigits(maxFractionDigits);
         return nf.format(number);
@@ -768,7 +794,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = Aura.getLocalizationAdapter().getAuraLocale().getNumberLocale();
         }
-        DecimalFormat df = (DecimalFormat) NumberFormat.getInstance(locale);
+        DecimalFormat df = (DecimalFormat) NumberFormatCache.getInstance(locale);
         df.setParseBigDecimal(true);
         // icu BigDecimal to java BigDecimal
         if (strict) {
@@ -790,7 +816,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = Aura.getLocalizationAdapter().getAuraLocale().getNumberLocale();
         }
-        NumberFormat nf = NumberFormat.getNumberInstance(locale);
+        NumberFormat nf = NumberFormatCache.getNumberInstance(locale);
         return nf.format(number);
     }
 
@@ -803,10 +829,133 @@ public class LocalizationServiceImpl implements LocalizationService {
             locale = Aura.getLocalizationAdapter().getAuraLocale().getNumberLocale();
         }
 
-        NumberFormat nf = NumberFormat.getNumberInstance(locale);
+        NumberFormat nf = NumberFormatCache.getNumberInstance(locale);
         nf.setMinimumFractionDigits(minFractionDigits);
         nf.setMaximumFractionDigits(maxFractionDigits);
         return nf.format(number);
     }
 
+    /**
+     * Load the labels for the current application.
+     *
+     * The labels used by an application are found once per application uid, by asking each of its dependencies for
+     * its labels, and kept alongside its dependency entry. The resolved labels are then shared between requests for
+     * the same application uid and label cache key (see {@link LocalizationAdapter#getLabelCacheKey()}), so most
+     * requests only copy a bundle of labels into the context. Definitions loaded in the context that are not
+     * dependencies of the application still have their labels retrieved one by one.
+     *
+     * Nothing invalidates a resolved bundle when a label changes at runtime, it is only replaced when the application
+     * uid changes or it is evicted. Adapters with labels that can change must not return a label cache key for them.
+     */
+    @Override
+    public void loadLabels() throws QuickFixException {
+        AuraContext ctx = Aura.getContextService().getCurrentContext();
+        MasterDefRegistry registry = ctx.getDefRegistry();
+        DefDescriptor<? extends BaseComponentDef> app = ctx.getApplicationDescriptor();
+        GlobalValueProvider provider = ctx.getGlobalProviders().get(AuraValueProviderType.LABEL.getPrefix());
+        String labelCacheKey = Aura.getLocalizationAdapter().getLabelCacheKey();
+
+        registry.getDef(app);
+        if (app == null || labelCacheKey == null || !(provider instanceof LabelValueProvider)) {
+            retrieveLabels(registry.filterRegistry(null), null);
+            return;
+        }
+
+        LabelValueProvider labels = (LabelValueProvider) provider;
+        String uid = registry.getUid(null, app);
+        String key = uid + "@" + labelCacheKey;
+        Cache<String, Map<String, Map<String, String>>> cache = getLabelBundleCache();
+        Map<String, Map<String, String>> bundle = cache.getIfPresent(key);
+        if (bundle == null) {
+            bundle = getLabelBundle(labels, getLabelIndex(registry, uid, app, labels));
+            cache.put(key, bundle);
+        } else {
+            labels.putAll(bundle);
+        }
+        retrieveLabels(registry.filterRegistry(null), registry.getDependencies(uid));
+    }
+
+    private static void retrieveLabels(Map<DefDescriptor<? extends Definition>, Definition> defMap,
+            Set<DefDescriptor<?>> skip) throws QuickFixException {
+        for (Map.Entry<DefDescriptor<? extends Definition>, Definition> entry : defMap.entrySet()) {
+            Definition def = entry.getValue();
+            if (def != null && (skip == null || !skip.contains(entry.getKey()))) {
+                def.retrieveLabels();
+            }
+        }
+    }
+
+    /**
+     * Get the labels used by the dependencies of an application, as section.name, one per line.
+     */
+    private static String getLabelIndex(final MasterDefRegistry registry, final String uid,
+            DefDescriptor<?> app, final LabelValueProvider labels) throws QuickFixException {
+        try {
+            return registry.getCachedString(uid, app, LABEL_INDEX_KEY, new Callable<String>() {
+                @Override
+                public String call() throws Exception {
+                    Set<String> recorded;
+                    labels.startRecording();
+                    try {
+                        for (DefDescriptor<?> dependency : registry.getDependencies(uid)) {
+                            Definition def = registry.getDef(dependency);
+                            if (def != null) {
+                                def.retrieveLabels();
+                            }
+                        }
+                    } finally {
+                        recorded = labels.stopRecording();
+                    }
+                    return Joiner.on('\n').join(recorded);
+                }
+            });
+        } catch (IOException ioe) {
+            throw new AuraRuntimeException("Unable to index the labels of " + app, ioe);
+        }
+    }
+
+    /**
+     * Resolve the labels in an index into an unmodifiable bundle, by section and then name.
+     */
+    private static Map<String, Map<String, String>> getLabelBundle(LabelValueProvider labels, String index) {
+        Map<String, Map<String, String>> bundle = Maps.newHashMap();
+        for (String label : Splitter.on('\n').omitEmptyStrings().split(index)) {
+            int dot = label.indexOf('.');
+            String section = label.substring(0, dot);
+            String name = label.substring(dot + 1);
+            Map<String, String> names = bundle.get(section);
+            if (names == null) {
+                names = Maps.newHashMap();
+                bundle.put(section, names);
+            }
+            names.put(name, labels.getLabel(section, name));
+        }
+        for (Map.Entry<String, Map<String, String>> entry : bundle.entrySet()) {
+            entry.setValue(Collections.unmodifiableMap(entry.getValue()));
+        }
+        return Collections.unmodifiableMap(bundle);
+    }
+
+    /**
+     * Get the cache of resolved labels, keyed by application uid and label cache key.
+     */
+    private Cache<String, Map<String, Map<String, String>>> getLabelBundleCache() {
+        Cache<String, Map<String, Map<String, String>>> cache = labelBundleCache;
+        if (cache == null) {
+            synchronized (this) {
+                cache = labelBundleCache;
+                if (cache == null) {
+                    int size = Integer.getInteger("aura.cache.labelBundleCacheSize", LABEL_BUNDLE_CACHE_SIZE);
+                    cache = Aura.getCachingService().<String, Map<String, Map<String, String>>> getCacheBuilder()
+                            .setInitialSize(size)
+                            .setMaximumSize(size)
+                            .setRecordStats(true)
+                            .setName("labelBundleCache")
+                            .setSoftValues(true).build();
+                    labelBundleCache = cache;
+                }
+            }
+        }
+        return cache;
+    }
 }
@@ -16,12 +16,21 @@
 package org.auraframework.impl;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
 import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import org.auraframework.Aura;
 import org.auraframework.css.StyleContext;
@@ -35,31 +44,68 @@ import org.auraframework.def.EventDef;
 import org.auraframework.def.IncludeDefRef;
 import org.auraframework.def.LibraryDef;
 import org.auraframework.def.SVGDef;
+import org.auraframework.impl.adapter.LabelValueProvider;
+import org.auraframework.impl.context.AuraContextServiceImpl;
+import org.auraframework.impl.java.controller.JavaAction;
+import org.auraframework.impl.system.MasterDefRegistryImpl;
+import org.auraframework.impl.util.json.AuraJsonContext;
 import org.auraframework.instance.Action;
+import org.auraframework.instance.AuraValueProviderType;
 import org.auraframework.instance.Event;
+import org.auraframework.instance.GlobalValueProvider;
 import org.auraframework.service.LoggingService;
 import org.auraframework.service.MetricsService;
 import org.auraframework.service.ServerService;
 import org.auraframework.system.AuraContext;
+import org.auraframework.system.AuraContext.Authentication;
 import org.auraframework.system.AuraContext.Format;
 import org.auraframework.system.AuraContext.Mode;
+import org.auraframework.system.Client;
+import org.auraframework.system.DefRegistry;
 import org.auraframework.system.LoggingContext.KeyValueLogger;
 import org.auraframework.system.MasterDefRegistry;
 import org.auraframework.system.Message;
 import org.auraframework.throwable.AuraExecutionException;
+import org.auraframework.throwable.AuraRuntimeException;
 import org.auraframework.throwable.quickfix.QuickFixException;
+import org.auraframework.util.Utf8CapturingWriter;
+import org.auraframework.util.Utf8StreamWriter;
 import org.auraframework.util.json.JsonEncoder;
 import org.auraframework.util.json.JsonSerializationContext;
 
 import com.google.common.base.Joiner;
 import com.google.common.base.Optional;
+import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 public class ServerServiceImpl implements ServerService {
     private static final long serialVersionUID = -2779745160285710414L;
 
+    /**
+     * The default number of threads to run independent actions on, 1 runs all actions sequentially.
+     */
+    private static final int DEFAULT_ACTION_PARALLELISM = Integer.getInteger("aura.actions.parallelism", 1);
+
+    /**
+     * The number of queued actions per thread, past which actions are run on the request thread.
+     */
+    private static final int ACTION_QUEUE_FACTOR = 16;
+
+    private int actionParallelism = DEFAULT_ACTION_PARALLELISM;
+
+    private transient ExecutorService actionExecutor;
+
     @Override
     public void run(Message message, AuraContext context, Writer out, Map<?,?> extras) throws IOException {
+        run(message, context, out, extras, false);
+    }
+
+    @Override
+    public void run(Message message, AuraContext context, Writer out, Map<?,?> extras, boolean stream)
+            throws IOException {
         LoggingService loggingService = Aura.getLoggingService();
         loggingService.startTimer(LoggingService.TIMER_AURA_RUN);
 
@@ -70,6 +116,7 @@ public class ServerServiceImpl implements ServerService {
         List<Action> actions = message.getActions();
         JsonSerializationContext serializationContext = context.getJsonSerializationContext();
         JsonEncoder json = JsonEncoder.createJsonStream(out, serializationContext);
+        json.setFragmentCache(new DefinitionJsonFragmentCache(context));
         try {
             json.writeMapBegin();
             if (extras != null && extras.size() > 0) {
@@ -79,7 +126,10 @@ public class ServerServiceImpl implements ServerService {
             }
             json.writeMapKey("actions");
             json.writeArrayBegin();
-            run(actions, json, 0);
+            if (stream) {
+                json.writeLiteral(ACTION_BOUNDARY);
+            }
+            run(actions, json, 0, stream);
             json.writeArrayEnd();
 
             loggingService.startTimer(LoggingService.TIMER_SERIALIZATION);
@@ -119,32 +169,56 @@ public class ServerServiceImpl implements ServerService {
         }
     }
 
-    private int run(List<Action> actions, JsonEncoder json, int idx) throws IOException {
+    @Override
+    public void run(Message message, AuraContext context, OutputStream out, Map<?,?> extras, boolean stream)
+            throws IOException {
+        Writer writer = new Utf8StreamWriter(out);
+        try {
+            run(message, context, writer, extras, stream);
+        } finally {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Run a list of actions, writing each one out as it completes.
+     *
+     * @param stream if true, each action is followed by a boundary and flushed.
+     */
+    private int run(List<Action> actions, JsonEncoder json, int idx, boolean stream) throws IOException {
         LoggingService loggingService = Aura.getLoggingService();
         AuraContext context = Aura.getContextService().getCurrentContext();
+        Map<Action, Future<ActionResult>> started = startIndependentActions(actions, context, idx);
         for (Action action : actions) {
-            StringBuffer actionAndParams = new StringBuffer(action.getDescriptor().getQualifiedName());
-            KeyValueLogger logger = loggingService.getKeyValueLogger(actionAndParams);
-            if (logger != null) {
-                action.logParams(logger);
-            }
-            String aap = String.valueOf(++idx)+"$"+actionAndParams.toString();
-            loggingService.startAction(aap);
-            Action oldAction = context.setCurrentAction(action);
-            try {
-                //
-                // We clear out action centric references here.
-                //
+            Future<ActionResult> future = started.get(action);
+            if (future != null) {
+                ++idx;
+                finishIndependentAction(action, future, context);
                 json.clearReferences();
-                // DCHASMAN TODO Look into a common base for Action
-                // implementations that we can move the call to
-                // context.setCurrentAction() into!
-                action.run();
-            } catch (AuraExecutionException x) {
-                Aura.getExceptionAdapter().handleException(x, action);
-            } finally {
-                context.setCurrentAction(oldAction);
-                loggingService.stopAction(aap);
+            } else {
+                StringBuffer actionAndParams = new StringBuffer(action.getDescriptor().getQualifiedName());
+                KeyValueLogger logger = loggingService.getKeyValueLogger(actionAndParams);
+                if (logger != null) {
+                    action.logParams(logger);
+                }
+                String aap = String.valueOf(++idx)+"$"+actionAndParams.toString();
+                loggingService.startAction(aap);
+                Action oldAction = context.setCurrentAction(action);
+                try {
+                    //
+                    // We clear out action centric references here.
+                    //
+                    json.clearReferences();
+                    // DCHASMAN TODO Look into a common base for Action
+                    // implementations that we can move the call to
+                    // context.setCurrentAction() into!
+                    action.run();
+                } catch (AuraExecutionException x) {
+                    Aura.getExceptionAdapter().handleException(x, action);
+                } finally {
+                    context.setCurrentAction(oldAction);
+                    loggingService.stopAction(aap);
+                }
             }
             loggingService.startTimer(LoggingService.TIMER_SERIALIZATION);
             loggingService.startTimer(LoggingService.TIMER_SERIALIZATION_AURA);
@@ -154,26 +228,271 @@ public class ServerServiceImpl implements ServerService {
                 loggingService.stopTimer(LoggingService.TIMER_SERIALIZATION_AURA);
                 loggingService.stopTimer(LoggingService.TIMER_SERIALIZATION);
             }
+            if (stream) {
+                json.writeLiteral(ACTION_BOUNDARY);
+                json.flush();
+            }
 
             List<Action> additionalActions = action.getActions();
 
             // Recursively process any additional actions created by the
             // action
             if (additionalActions != null && !additionalActions.isEmpty()) {
-                idx = run(additionalActions, json, idx);
+                idx = run(additionalActions, json, idx, stream);
             }
         }
         return idx;
     }
 
+    /**
+     * Start the independent actions in a boxcar on the action executor.
+     *
+     * Only Java actions marked with @IndependentAction are started, and only when parallel action execution is turned
+     * on. Anything the executor cannot take right now is simply run in order with the other actions.
+     *
+     * @return the started actions, with futures for what they left in their contexts.
+     */
+    private Map<Action, Future<ActionResult>> startIndependentActions(List<Action> actions, AuraContext context,
+            int idx) {
+        Map<Action, Future<ActionResult>> started = Maps.newIdentityHashMap();
+        if (actionParallelism <= 1 || actions.size() < 2) {
+            return started;
+        }
+        ActionContextState state = null;
+        LoggingService loggingService = Aura.getLoggingService();
+        for (Action action : actions) {
+            idx++;
+            if (!(action instanceof JavaAction) || !((JavaAction) action).isIndependent()) {
+                continue;
+            }
+            if (state == null) {
+                state = new ActionContextState(context);
+            }
+            StringBuffer actionAndParams = new StringBuffer(action.getDescriptor().getQualifiedName());
+            KeyValueLogger logger = loggingService.getKeyValueLogger(actionAndParams);
+            if (logger != null) {
+                action.logParams(logger);
+            }
+            String aap = String.valueOf(idx)+"$"+actionAndParams.toString();
+            try {
+                started.put(action, getActionExecutor().submit(new IndependentActionTask(action, aap, state)));
+            } catch (RejectedExecutionException ree) {
+                // run it with the others.
+            }
+        }
+        return started;
+    }
+
+    /**
+     * Wait for an independent action, and bring what it left in its context into the request context: the definitions
+     * and labels it loaded, which the response has to include, and the events it fired.
+     */
+    private void finishIndependentAction(Action action, Future<ActionResult> future, AuraContext context)
+            throws IOException {
+        ActionResult result;
+        try {
+            result = future.get();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new AuraRuntimeException(ie);
+        } catch (ExecutionException ee) {
+            Throwables.propagateIfPossible(ee.getCause(), IOException.class);
+            throw new AuraRuntimeException(ee.getCause());
+        }
+        MasterDefRegistry mdr = context.getDefRegistry();
+        if (mdr instanceof MasterDefRegistryImpl && result.registry instanceof MasterDefRegistryImpl) {
+            ((MasterDefRegistryImpl) mdr).addDefs((MasterDefRegistryImpl) result.registry);
+        }
+        String labelPrefix = AuraValueProviderType.LABEL.getPrefix();
+        GlobalValueProvider labels = context.getGlobalProviders().get(labelPrefix);
+        GlobalValueProvider actionLabels = result.globalProviders.get(labelPrefix);
+        if (labels instanceof LabelValueProvider && actionLabels instanceof LabelValueProvider) {
+            ((LabelValueProvider) labels).putAll((LabelValueProvider) actionLabels);
+        }
+        for (Event event : result.events) {
+            try {
+                context.addClientApplicationEvent(event);
+            } catch (Exception e) {
+                throw new AuraRuntimeException(e);
+            }
+        }
+    }
+
+    private synchronized ExecutorService getActionExecutor() {
+        if (actionExecutor == null) {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(actionParallelism, actionParallelism,
+                    60, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(actionParallelism * ACTION_QUEUE_FACTOR),
+                    new ThreadFactoryBuilder().setDaemon(true).setNameFormat("aura-action-%d").build());
+            executor.allowCoreThreadTimeOut(true);
+            actionExecutor = executor;
+        }
+        return actionExecutor;
+    }
+
+    /**
+     * Set the number of threads used to run independent actions.
+     *
+     * @param actionParallelism the number of threads, 1 runs all actions sequentially.
+     */
+    synchronized void setActionParallelism(int actionParallelism) {
+        this.actionParallelism = actionParallelism;
+        if (actionExecutor != null) {
+            actionExecutor.shutdown();
+            actionExecutor = null;
+        }
+    }
+
+    /**
+     * A copy of the request context state that actions can see, taken on the request thread.
+     */
+    private static class ActionContextState {
+        private final DefRegistry<?>[] registries;
+        private final Map<DefType, String> defaultPrefixes;
+        private final StyleContext styleContext;
+        private final Mode mode;
+        private final Format format;
+        private final Authentication access;
+        private final DefDescriptor<? extends BaseComponentDef> appDesc;
+        private final boolean isDebugToolEnabled;
+        private final String num;
+        private final String contextPath;
+        private final Client client;
+        private final String frameworkUID;
+        private final List<Locale> requestedLocales;
+        private final Map<DefDescriptor<?>, String> loaded;
+        private final Map<DefDescriptor<?>, String> clientLoaded;
+        private final Map<String, Object> globals = Maps.newHashMap();
+
+        private ActionContextState(AuraContext context) {
+            // The registries include any extra source loaders the request context was started with.
+            MasterDefRegistry mdr = context.getDefRegistry();
+            this.registries = mdr instanceof MasterDefRegistryImpl ? ((MasterDefRegistryImpl) mdr).getAllRegistries()
+                    : null;
+            this.defaultPrefixes = context.getDefaultPrefixes();
+            this.styleContext = context.getStyleContext();
+            this.mode = context.getMode();
+            this.format = context.getFormat();
+            this.access = context.getAccess();
+            this.appDesc = context.getApplicationDescriptor();
+            this.isDebugToolEnabled = context.getIsDebugToolEnabled();
+            this.num = context.getNum();
+            this.contextPath = context.getContextPath();
+            this.client = context.getClient();
+            this.frameworkUID = context.getFrameworkUID();
+            this.requestedLocales = context.getRequestedLocales();
+            this.loaded = Maps.newLinkedHashMap(context.getLoaded());
+            this.clientLoaded = Maps.newLinkedHashMap(context.getClientLoaded());
+            for (Map.Entry<String, AuraContext.GlobalValue> entry : context.getGlobals().entrySet()) {
+                globals.put(entry.getKey(), entry.getValue().getValue());
+            }
+        }
+
+        /**
+         * Start a context (and logging context) with this state on the current thread.
+         */
+        private AuraContext startContext() {
+            AuraContext context;
+            if (registries != null) {
+                // Each action gets its own registry and global value providers, as they are not thread safe, but
+                // over the same registries.
+                Aura.getLoggingService().establish();
+                context = AuraImpl.getContextAdapter().establish(mode, new MasterDefRegistryImpl(registries),
+                        defaultPrefixes, format, access, AuraJsonContext.createContext(mode, true),
+                        AuraContextServiceImpl.createGlobalProviders(), appDesc, isDebugToolEnabled);
+            } else {
+                context = Aura.getContextService().startContext(mode, format, access, appDesc, isDebugToolEnabled);
+            }
+            context.setStyleContext(styleContext);
+            context.setNum(num);
+            context.setContextPath(contextPath);
+            context.setClient(client);
+            context.setFrameworkUID(frameworkUID);
+            context.setRequestedLocales(requestedLocales);
+            context.setClientLoaded(clientLoaded);
+            for (Map.Entry<DefDescriptor<?>, String> entry : loaded.entrySet()) {
+                context.addLoaded(entry.getKey(), entry.getValue());
+            }
+            for (Map.Entry<String, Object> entry : globals.entrySet()) {
+                context.setGlobalValue(entry.getKey(), entry.getValue());
+            }
+            return context;
+        }
+    }
+
+    /**
+     * What an independent action left in its context.
+     */
+    private static class ActionResult {
+        private final List<Event> events;
+        private final MasterDefRegistry registry;
+        private final Map<String, GlobalValueProvider> globalProviders;
+
+        private ActionResult(AuraContext context) {
+            this.events = Lists.newArrayList(context.getClientEvents());
+            this.registry = context.getDefRegistry();
+            this.globalProviders = context.getGlobalProviders();
+        }
+    }
+
+    /**
+     * Runs an independent action in a context of its own.
+     */
+    private static class IndependentActionTask implements Callable<ActionResult> {
+        private final Action action;
+        private final String aap;
+        private final ActionContextState state;
+
+        private IndependentActionTask(Action action, String aap, ActionContextState state) {
+            this.action = action;
+            this.aap = aap;
+            this.state = state;
+        }
+
+        @Override
+        public ActionResult call() throws Exception {
+            AuraContext context = state.startContext();
+            try {
+                LoggingService loggingService = Aura.getLoggingService();
+                loggingService.startAction(aap);
+                context.setCurrentAction(action);
+                try {
+                    action.run();
+                } catch (AuraExecutionException x) {
+                    Aura.getExceptionAdapter().handleException(x, action);
+                } finally {
+                    context.setCurrentAction(null);
+                    loggingService.stopAction(aap);
+                }
+                return new ActionResult(context);
+            } finally {
+                Aura.getContextService().endContext();
+            }
+        }
+    }
+
     @Override
-    public void writeAppCss(final Set<DefDescriptor<?>> dependencies, Writer out) throws IOException, QuickFixException {
+    public void writeAppCss(Set<DefDescriptor<?>> dependencies, Writer out) throws IOException, QuickFixException {
+        writeAppCss(dependencies, out, null);
+    }
+
+    @Override
+    public void writeAppCss(Set<DefDescriptor<?>> dependencies, OutputStream out)
+            throws IOException, QuickFixException {
+        writeAppCss(dependencies, null, out);
+    }
 
+    @Override
+    public String getAppCssCacheKey() {
         AuraContext context = Aura.getContextService().getCurrentContext();
         boolean minify = context.getMode().minify();
 
         StyleContext styleContext = context.getStyleContext();
 
+        // TODONM undo this cache skipping
+        if (styleContext.getTokens().hasDynamicTokens()) {
+            return null;
+        }
+
         // build cache key
         final StringBuilder keyBuilder = new StringBuilder(64);
         keyBuilder.append("CSS:");
@@ -209,37 +528,22 @@ public class ServerServiceImpl implements ServerService {
 
         // app uid
         DefDescriptor<?> appDesc = context.getLoadingApplicationDescriptor();
-        final String uid = context.getUid(appDesc);
-        keyBuilder.append(uid);
-
-        final String key = keyBuilder.toString();
-        context.setPreloading(true);
-
-        String cached = null;
-        final boolean skipCache = styleContext.getTokens().hasDynamicTokens(); // TODONM undo this cache skipping
-        if (skipCache) {
-            cached = getAppCssString(dependencies);
-        } else {
-            cached = context.getDefRegistry().getAltCachedString(uid, appDesc, key,
-                new Callable<String>() {
-                    @Override
-                    public String call() throws Exception {
-                        return getAppCssString(dependencies);
-                    }
-                }
-            );
-        }
+        keyBuilder.append(context.getUid(appDesc));
 
-        if (out != null) {
-            out.append(cached);
-        }
+        return keyBuilder.toString();
     }
 
-    private String getAppCssString(Set<DefDescriptor<?>> dependencies) throws QuickFixException, IOException {
-        Collection<BaseStyleDef> orderedStyleDefs = filterAndLoad(BaseStyleDef.class, dependencies, null);
-        StringBuffer sb = new StringBuffer();
-        Aura.getSerializationService().writeCollection(orderedStyleDefs, BaseStyleDef.class, sb, "CSS");
-        return sb.toString();
+    private void writeAppCss(final Set<DefDescriptor<?>> dependencies, Writer writer, OutputStream stream)
+            throws IOException, QuickFixException {
+        String key = getAppCssCacheKey();
+
+        writeCached(key, writer, stream, new OutputGenerator() {
+            @Override
+            public void write(Writer out) throws IOException, QuickFixException {
+                Collection<BaseStyleDef> orderedStyleDefs = filterAndLoad(BaseStyleDef.class, dependencies, null);
+                Aura.getSerializationService().writeCollection(orderedStyleDefs, BaseStyleDef.class, out, "CSS");
+            }
+        });
     }
 
     @Override
@@ -289,57 +593,120 @@ public class ServerServiceImpl implements ServerService {
     }
 
     @Override
-    public void writeDefinitions(final Set<DefDescriptor<?>> dependencies, Writer out)
+    public void writeDefinitions(Set<DefDescriptor<?>> dependencies, Writer out)
+            throws IOException, QuickFixException {
+        writeDefinitions(dependencies, out, null);
+    }
+
+    @Override
+    public void writeDefinitions(Set<DefDescriptor<?>> dependencies, OutputStream out)
             throws IOException, QuickFixException {
+        writeDefinitions(dependencies, null, out);
+    }
 
+    @Override
+    public String getDefinitionsCacheKey() {
         AuraContext context = Aura.getContextService().getCurrentContext();
         final boolean minify = context.getMode().minify();
-
-        context.setPreloading(true);
         DefDescriptor<?> appDesc = context.getLoadingApplicationDescriptor();
 
         final String mKey = minify ? "MIN:" : "DEV:";
-        final String uid = context.getUid(appDesc);
-        final String key = "JS:" + mKey + uid;
-
-        String cached = context.getDefRegistry().getAltCachedString(uid, appDesc, key,
-                new Callable<String>() {
-                    @Override
-                    public String call() throws Exception {
-                        String res = getDefinitionsString(dependencies, key);
-                        //log the cache miss here
-                        Aura.getCachingService().getAltStringsCache().logCacheStatus("cache miss for key: "+key+";");
-                        return res;
-                    }
-                });
+        return "JS:" + mKey + context.getUid(appDesc);
+    }
+
+    private void writeDefinitions(final Set<DefDescriptor<?>> dependencies, Writer writer, OutputStream stream)
+            throws IOException, QuickFixException {
+        String key = getDefinitionsCacheKey();
+
+        writeCached(key, writer, stream, new OutputGenerator() {
+            @Override
+            public void write(Writer out) throws IOException, QuickFixException {
+                Collection<BaseComponentDef> componentDefs = filterAndLoad(BaseComponentDef.class, dependencies, null);
+                Collection<LibraryDef> libraryDefs = filterAndLoad(LibraryDef.class, dependencies, null);
+                Collection<EventDef> events = filterAndLoad(EventDef.class, dependencies, null);
+                Collection<ControllerDef> controllers = filterAndLoad(ControllerDef.class, dependencies, ACF);
+
+                writeDefinitions(out, componentDefs, libraryDefs, events, controllers);
+            }
+        });
+    }
+
+    /**
+     * Generates output that is not in the cache.
+     */
+    private static interface OutputGenerator {
+        /**
+         * Write the output. Everything needed should be loaded before anything is written, so that a
+         * QuickFixException never leaves partial output behind.
+         */
+        void write(Writer out) throws IOException, QuickFixException;
+    }
+
+    /**
+     * Write output for the loading app to either a writer or a stream (or neither, just to fill the cache).
+     *
+     * On a cache miss, the output is generated into memory as UTF-8 and cached, and only then written out, so that
+     * concurrent misses for the same key, which wait for the first one to generate the output rather than generating
+     * it again, never wait on the network I/O of another request, and a failure while generating never leaves partial
+     * output behind. Output that is not cached is streamed as it is generated.
+     *
+     * @param key the key in the bytes cache, or null if the output should not be cached.
+     */
+    private void writeCached(final String key, Writer writer, OutputStream stream, final OutputGenerator generator)
+            throws IOException, QuickFixException {
+        AuraContext context = Aura.getContextService().getCurrentContext();
+        context.setPreloading(true);
 
-        if (out != null) {
-            out.append(cached);
+        if (key == null) {
+            Writer out = stream != null ? new Utf8StreamWriter(stream) : writer;
+            if (out != null) {
+                generator.write(out);
+                out.flush();
+            } else {
+                generator.write(new Utf8CapturingWriter());
+            }
+            return;
+        }
+
+        DefDescriptor<?> appDesc = context.getLoadingApplicationDescriptor();
+        String uid = context.getUid(appDesc);
+        byte[] cached = context.getDefRegistry().getCachedBytes(uid, appDesc, key, new Callable<byte[]>() {
+            @Override
+            public byte[] call() throws Exception {
+                Utf8CapturingWriter capture = new Utf8CapturingWriter();
+                generator.write(capture);
+                //log the cache miss here
+                Aura.getCachingService().getBytesCache().logCacheStatus("cache miss for key: "+key+";");
+                return capture.toByteArray();
+            }
+        });
+
+        if (stream != null) {
+            stream.write(cached);
+        } else if (writer != null) {
+            Utf8CapturingWriter.writeTo(cached, writer);
         }
     }
 
-    private String getDefinitionsString (Set<DefDescriptor<?>> dependencies, String key)
+    private void writeDefinitions(Writer out, Collection<BaseComponentDef> componentDefs,
+            Collection<LibraryDef> libraryDefs, Collection<EventDef> events, Collection<ControllerDef> controllers)
             throws QuickFixException, IOException {
 
         AuraContext context = Aura.getContextService().getCurrentContext();
         boolean minify = context.getMode().minify();
         MasterDefRegistry masterDefRegistry = context.getDefRegistry();
 
-        StringBuilder sb = new StringBuilder();
-
         // Append component classes.
-        Collection<BaseComponentDef> componentDefs = filterAndLoad(BaseComponentDef.class, dependencies, null);
         for (BaseComponentDef def : componentDefs) {
-            sb.append(def.getCode(minify));
+            out.append(def.getCode(minify));
             masterDefRegistry.setClientClassLoaded(def.getDescriptor(), true);
         }
 
         // Process Libraries with a lower granularity level, to prevent duplication of external includes.
-        Collection<LibraryDef> libraryDefs = filterAndLoad(LibraryDef.class, dependencies, null);
         for (LibraryDef libraryDef : libraryDefs) {
             List<IncludeDefRef> includeDefs = libraryDef.getIncludes();
             for (IncludeDefRef defRef : includeDefs) {
-                sb.append(defRef.getCode(minify));
+                out.append(defRef.getCode(minify));
                 masterDefRegistry.setClientClassLoaded(defRef.getDescriptor(), true);
             }
         }
@@ -349,27 +716,26 @@ public class ServerServiceImpl implements ServerService {
         // no ref support needed for defs
         serializationContext.pushRefSupport(false);
 
-        sb.append("$A.clientService.initDefs({");
+        out.append("$A.clientService.initDefs({");
 
         // append namespaces.
-        sb.append("ns:{");
-        sb.append(" internal:");
-        JsonEncoder.serialize(Aura.getConfigAdapter().getInternalNamespaces(), sb, context.getJsonSerializationContext());
-        sb.append(" ,");
-        sb.append(" privileged:");
-        JsonEncoder.serialize(Aura.getConfigAdapter().getPrivilegedNamespaces(), sb, context.getJsonSerializationContext());
-        sb.append("},");
+        out.append("ns:{");
+        out.append(" internal:");
+        JsonEncoder.serialize(Aura.getConfigAdapter().getInternalNamespaces(), out, context.getJsonSerializationContext());
+        out.append(" ,");
+        out.append(" privileged:");
+        JsonEncoder.serialize(Aura.getConfigAdapter().getPrivilegedNamespaces(), out, context.getJsonSerializationContext());
+        out.append("},");
 
         // append event definitions
-        sb.append("eventDefs:");
-        Collection<EventDef> events = filterAndLoad(EventDef.class, dependencies, null);
-        Aura.getSerializationService().writeCollection(events, EventDef.class, sb, "JSON");
-        sb.append(",");
+        out.append("eventDefs:");
+        Aura.getSerializationService().writeCollection(events, EventDef.class, out, "JSON");
+        out.append(",");
 
         // append library definitions
-        sb.append("libraryDefs:");
-        Aura.getSerializationService().writeCollection(libraryDefs, LibraryDef.class, sb, "JSON");
-        sb.append(",");
+        out.append("libraryDefs:");
+        Aura.getSerializationService().writeCollection(libraryDefs, LibraryDef.class, out, "JSON");
+        out.append(",");
 
         //
         // append controller definitions
@@ -377,20 +743,17 @@ public class ServerServiceImpl implements ServerService {
         // as it walked the namespaces looking up the same descriptor, with a string.format that had
         // the namespace but did not use it. This ends up just getting a single controller.
         //
-        sb.append("controllerDefs:");
-        Collection<ControllerDef> controllers = filterAndLoad(ControllerDef.class, dependencies, ACF);
-        Aura.getSerializationService().writeCollection(controllers, ControllerDef.class, sb, "JSON");
-        sb.append(",");
+        out.append("controllerDefs:");
+        Aura.getSerializationService().writeCollection(controllers, ControllerDef.class, out, "JSON");
+        out.append(",");
 
         // append component definitions
-        sb.append("componentDefs:");
-        Aura.getSerializationService().writeCollection(componentDefs, BaseComponentDef.class, sb, "JSON");
+        out.append("componentDefs:");
+        Aura.getSerializationService().writeCollection(componentDefs, BaseComponentDef.class, out, "JSON");
 
-        sb.append("});\n\n");
+        out.append("});\n\n");
 
         serializationContext.popRefSupport();
-
-        return sb.toString();
     }
 
     @Override
@@ -0,0 +1,279 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+import org.auraframework.Aura;
+import org.auraframework.annotations.Annotations.ServiceComponent;
+import org.auraframework.def.ApplicationDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.service.ContextService;
+import org.auraframework.service.WarmupService;
+import org.auraframework.system.AuraContext;
+import org.auraframework.system.AuraContext.Authentication;
+import org.auraframework.system.AuraContext.Format;
+import org.auraframework.system.AuraContext.Mode;
+import org.auraframework.system.Client;
+import org.auraframework.throwable.quickfix.QuickFixException;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Warms the caches for applications on a small pool of background threads.
+ *
+ * Each application is warmed in its own contexts, one per resource, so that the dependencies end up in the deps
+ * cache, and app.js and app.css in the alt strings cache, under the same keys that requests will use.
+ */
+@ServiceComponent
+public class WarmupServiceImpl implements WarmupService {
+    private static final long serialVersionUID = -3719862418224372617L;
+
+    private static final Logger logger = Logger.getLogger(WarmupServiceImpl.class);
+
+    /** The system property naming a manifest to warm on startup. */
+    public static final String MANIFEST_PROPERTY = "aura.warmup.manifest";
+
+    private static final int THREADS = Integer.getInteger("aura.warmup.threads", 2);
+
+    /**
+     * An application to warm, as read from a manifest.
+     */
+    static class Entry {
+        final String descriptor;
+        final Mode mode;
+        final String userAgent;
+        final Authentication access;
+
+        Entry(String descriptor, Mode mode, String userAgent, Authentication access) {
+            this.descriptor = descriptor;
+            this.mode = mode;
+            this.userAgent = userAgent;
+            this.access = access;
+        }
+    }
+
+    private transient ExecutorService executor;
+    private transient List<Entry> lastEntries = Collections.emptyList();
+    private int total;
+    private int completed;
+    private int failed;
+    private boolean warmed;
+
+    @Override
+    public void warm(Reader manifest) throws IOException {
+        List<Entry> entries = parse(manifest);
+        synchronized (this) {
+            lastEntries = entries;
+        }
+        submit(entries);
+    }
+
+    @Override
+    public void warmConfigured() {
+        String path = System.getProperty(MANIFEST_PROPERTY);
+        if (path == null || path.isEmpty()) {
+            return;
+        }
+        try (Reader reader = Files.newBufferedReader(Paths.get(path), StandardCharsets.UTF_8)) {
+            warm(reader);
+        } catch (IOException ioe) {
+            logger.error("Unable to read warmup manifest " + path, ioe);
+        }
+    }
+
+    @Override
+    public void rewarm() {
+        List<Entry> entries;
+        synchronized (this) {
+            entries = lastEntries;
+        }
+        submit(entries);
+    }
+
+    @Override
+    public synchronized int getTotal() {
+        return total;
+    }
+
+    @Override
+    public synchronized int getCompleted() {
+        return completed;
+    }
+
+    @Override
+    public synchronized int getFailed() {
+        return failed;
+    }
+
+    @Override
+    public synchronized boolean isComplete() {
+        return completed + failed == total;
+    }
+
+    @Override
+    public synchronized boolean isWarmed() {
+        return warmed || isComplete();
+    }
+
+    @Override
+    public synchronized boolean awaitCompletion(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (!isComplete()) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        return true;
+    }
+
+    /**
+     * Parse a manifest.
+     *
+     * Each line is a descriptor, optionally followed by a mode (PROD by default), a user agent and an authentication
+     * (AUTHENTICATED by default), separated by tabs.
+     */
+    static List<Entry> parse(Reader manifest) throws IOException {
+        List<Entry> entries = Lists.newArrayList();
+        BufferedReader reader = new BufferedReader(manifest);
+        String line;
+
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\t", 4);
+            Mode mode = Mode.PROD;
+            String userAgent = null;
+            Authentication access = Authentication.AUTHENTICATED;
+            if (fields.length > 1 && !fields[1].trim().isEmpty()) {
+                try {
+                    mode = Mode.valueOf(fields[1].trim().toUpperCase());
+                } catch (IllegalArgumentException iae) {
+                    throw new IOException("Invalid mode in warmup manifest: " + line);
+                }
+            }
+            if (fields.length > 2 && !fields[2].trim().isEmpty()) {
+                userAgent = fields[2].trim();
+            }
+            if (fields.length > 3 && !fields[3].trim().isEmpty()) {
+                try {
+                    access = Authentication.valueOf(fields[3].trim().toUpperCase());
+                } catch (IllegalArgumentException iae) {
+                    throw new IOException("Invalid authentication in warmup manifest: " + line);
+                }
+            }
+            entries.add(new Entry(fields[0].trim(), mode, userAgent, access));
+        }
+        return entries;
+    }
+
+    private synchronized void submit(List<Entry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(THREADS,
+                    new ThreadFactoryBuilder().setDaemon(true).setNameFormat("aura-warmup-%d").build());
+        }
+        total += entries.size();
+        for (final Entry entry : entries) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    done(warm(entry));
+                }
+            });
+        }
+    }
+
+    private synchronized void done(boolean success) {
+        if (success) {
+            completed += 1;
+        } else {
+            failed += 1;
+        }
+        if (isComplete()) {
+            warmed = true;
+        }
+        notifyAll();
+    }
+
+    /**
+     * Warm a single application.
+     *
+     * @return true if the application was warmed.
+     */
+    private boolean warm(Entry entry) {
+        ContextService contextService = Aura.getContextService();
+        Client client = new Client(entry.userAgent);
+        long start = System.currentTimeMillis();
+
+        try {
+            DefDescriptor<ApplicationDef> appDesc;
+
+            AuraContext context = contextService.startContext(entry.mode, Format.JS, entry.access);
+            try {
+                appDesc = Aura.getDefinitionService().getDefDescriptor(entry.descriptor, ApplicationDef.class);
+                context.setApplicationDescriptor(appDesc);
+                context.setClient(client);
+                Aura.getServerService().writeDefinitions(getDependencies(context, appDesc), (OutputStream) null);
+            } finally {
+                contextService.endContext();
+            }
+
+            context = contextService.startContext(entry.mode, Format.CSS, entry.access, appDesc);
+            try {
+                context.setClient(client);
+                Aura.getServerService().writeAppCss(getDependencies(context, appDesc), (OutputStream) null);
+            } finally {
+                contextService.endContext();
+            }
+        } catch (Exception e) {
+            logger.warn("Unable to warm " + entry.descriptor + " in " + entry.mode + " " + entry.access, e);
+            return false;
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Warmed " + entry.descriptor + " in " + entry.mode + " in "
+                    + (System.currentTimeMillis() - start) + "ms");
+        }
+        return true;
+    }
+
+    private Set<DefDescriptor<?>> getDependencies(AuraContext context, DefDescriptor<ApplicationDef> appDesc)
+            throws QuickFixException {
+        context.setPreloading(true);
+        Aura.getDefinitionService().updateLoaded(appDesc);
+        return context.getDefRegistry().getDependencies(context.getUid(appDesc));
+    }
+}
@@ -15,9 +15,12 @@
  */
 package org.auraframework.impl.adapter;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.auraframework.Aura;
 import org.auraframework.def.DefDescriptor;
@@ -39,6 +42,11 @@ public class LabelValueProvider implements GlobalValueProvider {
     // MapValueProvider...
     private final Map<String, Map<String, String>> labels;
 
+    /**
+     * The labels asked for since {@link #startRecording()}, as section.name, or null if not recording.
+     */
+    private Set<String> recorded;
+
     public LabelValueProvider() {
         labels = Maps.newHashMap();
     }
@@ -46,24 +54,79 @@ public class LabelValueProvider implements GlobalValueProvider {
     @Override
     public Object getValue(PropertyReference expr) {
         List<String> parts = expr.getList();
-        String section = parts.get(0);
-        String param = parts.get(1);
+        return getLabel(parts.get(0), parts.get(1));
+    }
+
+    /**
+     * Get a label, resolving it through the localization adapter the first time it is asked for.
+     *
+     * @param section the label section.
+     * @param name the label name.
+     * @return the label, unescaped.
+     */
+    public String getLabel(String section, String name) {
         Map<String, String> m = labels.get(section);
         if (m == null) {
             m = new HashMap<>();
             labels.put(section, m);
         }
-        String ret = m.get(param);
+        String ret = m.get(name);
         if (ret == null) {
-            String label = Aura.getLocalizationAdapter().getLabel(section, param);
+            String label = Aura.getLocalizationAdapter().getLabel(section, name);
             // people escape stuff like &copy; in the labels, aura doesn't need
             // that.
             ret = AuraTextUtil.unescapeOutput(label, false);
-            m.put(param, ret);
+            m.put(name, ret);
+        }
+        if (recorded != null) {
+            recorded.add(section + "." + name);
         }
         return ret;
     }
 
+    /**
+     * Add labels that were already resolved, e.g. from a cached bundle.
+     *
+     * @param bundle the unescaped labels, by section and then name.
+     */
+    public void putAll(Map<String, Map<String, String>> bundle) {
+        for (Map.Entry<String, Map<String, String>> section : bundle.entrySet()) {
+            Map<String, String> m = labels.get(section.getKey());
+            if (m == null) {
+                m = new HashMap<>();
+                labels.put(section.getKey(), m);
+            }
+            m.putAll(section.getValue());
+        }
+    }
+
+    /**
+     * Add the labels another provider resolved, e.g. one used on another thread.
+     *
+     * @param other the provider to take the labels from.
+     */
+    public void putAll(LabelValueProvider other) {
+        putAll(other.labels);
+    }
+
+    /**
+     * Start recording the labels that are asked for.
+     */
+    public void startRecording() {
+        recorded = new LinkedHashSet<>();
+    }
+
+    /**
+     * Stop recording.
+     *
+     * @return the labels asked for since {@link #startRecording()}, as section.name.
+     */
+    public Set<String> stopRecording() {
+        Set<String> ret = recorded;
+        recorded = null;
+        return ret != null ? ret : Collections.<String> emptySet();
+    }
+
     @Override
     public ValueProviderType getValueProviderKey() {
         return AuraValueProviderType.LABEL;
@@ -32,6 +32,7 @@ import org.auraframework.system.Message;
 import org.auraframework.throwable.quickfix.QuickFixException;
 import org.auraframework.util.json.JsonEncoder;
 import org.auraframework.util.json.JsonReader;
+import org.auraframework.util.json.JsonStreamReader;
 
 import com.google.common.collect.Lists;
 
@@ -51,7 +52,11 @@ public class MessageJSONFormatAdapter extends JSONFormatAdapter<Message> {
     @SuppressWarnings("unchecked")
     @Override
     public Message read(Reader in) throws IOException, QuickFixException {
-        Map<?, ?> message = (Map<?, ?>) new JsonReader().read(in);
+        Object value = new JsonReader().read(in);
+        if (!(value instanceof Map)) {
+            throw new JsonStreamReader.JsonParseException("Invalid message, expected an object");
+        }
+        Map<?, ?> message = (Map<?, ?>) value;
 
         List<?> actions = (List<?>) message.get("actions");
         List<Action> actionList = Lists.newArrayList();
@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.cache;
+
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import org.auraframework.cache.Cache;
+import org.auraframework.service.CachingService;
+
+/**
+ * A view of a shared cache for a reader that does not hold the cache read lock.
+ *
+ * The view remembers the cache generation that was current when it was created. Once a source change has moved the
+ * generation on, writes through the view are dropped, as they may have been computed from definitions that have
+ * since been invalidated. The generation is incremented before any cache is cleared, so re-checking it after a write
+ * is enough to catch a write that raced with the clear.
+ *
+ * Reads are re-checked the same way: a value read after the generation moved on may come from a cache that is only
+ * partly cleared, so it is treated as a miss and the reader compiles the definition again. A reader does keep what it
+ * read before the source change, so a single request that straddles a change may see some definitions from before it
+ * and some from after it. That is no different from the locking mode, where the read lock is only held for each
+ * lookup and not for the whole request.
+ */
+public class GenerationCache<K, T> implements Cache<K, T> {
+    private final Cache<K, T> cache;
+    private final CachingService cachingService;
+    private final long generation;
+
+    public GenerationCache(Cache<K, T> cache, CachingService cachingService, long generation) {
+        this.cache = cache;
+        this.cachingService = cachingService;
+        this.generation = generation;
+    }
+
+    /**
+     * Is the generation this view was created with still current?
+     */
+    public boolean isCurrent() {
+        return cachingService.getCacheGeneration() == generation;
+    }
+
+    @Override
+    public T getIfPresent(K key) {
+        T value = cache.getIfPresent(key);
+        return isCurrent() ? value : null;
+    }
+
+    @Override
+    public T get(K key, Callable<T> loader) throws ExecutionException {
+        if (!isCurrent()) {
+            return load(loader);
+        }
+        T value = cache.get(key, loader);
+        if (!isCurrent()) {
+            cache.invalidate(key);
+            return load(loader);
+        }
+        return value;
+    }
+
+    private T load(Callable<T> loader) throws ExecutionException {
+        try {
+            return loader.call();
+        } catch (Exception e) {
+            throw new ExecutionException(e);
+        }
+    }
+
+    @Override
+    public void put(K key, T data) {
+        if (isCurrent()) {
+            cache.put(key, data);
+            if (!isCurrent()) {
+                cache.invalidate(key);
+            }
+        }
+    }
+
+    @Override
+    public Set<K> getKeySet() {
+        return cache.getKeySet();
+    }
+
+    @Override
+    public void invalidate(K key) {
+        cache.invalidate(key);
+    }
+
+    @Override
+    public void invalidate(Iterable<K> keys) {
+        cache.invalidate(keys);
+    }
+
+    @Override
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void invalidatePartial(String partial) {
+        cache.invalidatePartial(partial);
+    }
+
+    @Override
+    public Object getPrivateUnderlyingCache() {
+        return cache.getPrivateUnderlyingCache();
+    }
+
+    @Override
+    public void logCacheStatus(String extraMessage) {
+        cache.logCacheStatus(extraMessage);
+    }
+}
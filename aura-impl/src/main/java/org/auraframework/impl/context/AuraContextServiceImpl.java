@@ -69,7 +69,7 @@ public class AuraContextServiceImpl implements ContextService {
         Aura.getLoggingService().establish();
         AuraContext context = AuraImpl.getContextAdapter().establish(mode, getDefRegistry(mode, access, loaders),
                 getDefaultsProvider().getPrefixDefaults(mode), format, access,
-                AuraJsonContext.createContext(mode, true), getGlobalProviders(), null);
+                AuraJsonContext.createContext(mode, true), createGlobalProviders(), null);
         return context;
     }
 
@@ -99,7 +99,7 @@ public class AuraContextServiceImpl implements ContextService {
         Aura.getLoggingService().establish();
         AuraContext context = AuraImpl.getContextAdapter().establish(mode, getDefRegistry(mode, access, loaders),
                 getDefaultsProvider().getPrefixDefaults(mode), format, access,
-                AuraJsonContext.createContext(mode, true), getGlobalProviders(), appDesc, isDebugToolEnabled);
+                AuraJsonContext.createContext(mode, true), createGlobalProviders(), appDesc, isDebugToolEnabled);
         return context;
     }
 
@@ -145,7 +145,11 @@ public class AuraContextServiceImpl implements ContextService {
         return ret.toArray(new DefRegistry[ret.size()]);
     }
     
-    private Map<String, GlobalValueProvider> getGlobalProviders() {
+    /**
+     * Create the global value providers for a new context. They hold state for the context they are used in, and are
+     * not thread safe, so no two contexts can share them.
+     */
+    public static Map<String, GlobalValueProvider> createGlobalProviders() {
         // load any @Primary GlobalValueProviderAdatper first, to give it's
         // implementations precedence
         GlobalValueProviderAdapter primaryFactory = ServiceLocator.get().get(GlobalValueProviderAdapter.class);
@@ -15,11 +15,13 @@
  */
 package org.auraframework.impl.context;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInputStream;
+import java.net.URL;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.EnumSet;
@@ -49,6 +51,7 @@ import org.auraframework.impl.java.type.JavaTypeDefFactory;
 import org.auraframework.impl.source.SourceFactory;
 import org.auraframework.impl.source.file.FileSourceLoader;
 import org.auraframework.impl.source.resource.ResourceSourceLoader;
+import org.auraframework.impl.system.BinaryRegistryFormat;
 import org.auraframework.impl.system.CacheableDefFactoryImpl;
 import org.auraframework.impl.system.CachingDefRegistryImpl;
 import org.auraframework.impl.system.NonCachingDefRegistryImpl;
@@ -79,6 +82,16 @@ public class AuraRegistryProviderImpl implements RegistryAdapter, SourceListener
      */
     private volatile DefRegistry<?>[] registries;
 
+    /**
+     * Memory map registries files that are on disk, so that the definitions stay off heap, shared between all the
+     * processes on a host using the same files.
+     *
+     * This is off by default. A mapped file must not be rewritten in place while it is mapped, as the compiler plugin
+     * and dev mode do, or reads from it fail with a SIGBUS. Only turn it on where the registries files are deployed
+     * and never change under a running server.
+     */
+    private static final boolean mapRegistries = Boolean.getBoolean("aura.registries.mmap");
+
     private static final Set<String> markupPrefixes = ImmutableSet.of(
             DefDescriptor.MARKUP_PREFIX,
             DefDescriptor.CSS_PREFIX,
@@ -166,9 +179,47 @@ public class AuraRegistryProviderImpl implements RegistryAdapter, SourceListener
         return fis;
     }
 
+    /**
+     * Get the registries file for a location, if it is a file on disk.
+     */
+    private File getRegistriesFile(ComponentLocationAdapter location) {
+        String pkg = location.getComponentSourcePackage();
+        if (pkg != null) {
+            URL url = location.getClass().getResource(pkg + "/.registries");
+            if (url == null || !"file".equals(url.getProtocol())) {
+                return null;
+            }
+            try {
+                return new File(url.toURI());
+            } catch (Exception e) {
+                return null;
+            }
+        }
+        File compSource = location.getComponentSourceDir();
+        if (compSource != null && compSource.canRead()) {
+            return new File(compSource, ".registries");
+        }
+        return null;
+    }
+
     private DefRegistry<?>[] getStaticRegistries(ComponentLocationAdapter location) {
         InputStream ris = null;
 
+        if (mapRegistries) {
+            File file = getRegistriesFile(location);
+            if (file != null && file.isFile()) {
+                try {
+                    DefRegistry<?>[] mapped = BinaryRegistryFormat.map(file);
+                    if (mapped != null) {
+                        return mapped;
+                    }
+                } catch (Exception e) {
+                    // fall back to reading it onto the heap.
+                    _log.error("Unable to map registries file " + file, e);
+                }
+            }
+        }
+
         String pkg = location.getComponentSourcePackage();
         if (pkg != null) {
             ris = location.getClass().getResourceAsStream(pkg + "/.registries");
@@ -182,6 +233,11 @@ public class AuraRegistryProviderImpl implements RegistryAdapter, SourceListener
             ObjectInputStream ois = null;
 
             try {
+                ris = new BufferedInputStream(ris);
+                if (BinaryRegistryFormat.isBinaryRegistry(ris)) {
+                    // Only the index is read here, definitions are read as they are needed.
+                    return BinaryRegistryFormat.read(ris);
+                }
                 ois = new ObjectInputStream(ris);
                 Object o = ois.readObject();
                 if (o instanceof List) {
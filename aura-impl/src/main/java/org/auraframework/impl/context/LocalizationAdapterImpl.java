@@ -32,6 +32,8 @@ import aQute.bnd.annotation.component.Component;
 
 @Component (provide=AuraServiceProvider.class)
 public class LocalizationAdapterImpl implements LocalizationAdapter {
+    private static final boolean SHARE_LABELS = Boolean.getBoolean("aura.labels.shared");
+
 	private List<Locale> requestedLocales;
 
 	/**
@@ -89,6 +91,28 @@ public class LocalizationAdapterImpl implements LocalizationAdapter {
         return true;
     }
 
+    /**
+     * Labels from this adapter only depend on the language locale, so that is the key, if sharing labels is enabled.
+     */
+    @Override
+    public String getLabelCacheKey() {
+        if (!isLabelSharingEnabled()) {
+            return null;
+        }
+        return this.getAuraLocale().getLanguageLocale().toString();
+    }
+
+    /**
+     * Can labels be shared between requests with the same language locale?
+     *
+     * This is off unless turned on with -Daura.labels.shared=true, as it is only right if the labels depend on nothing
+     * else, which a subclass with labels of its own may not know to say. Subclasses can override this to turn it on or
+     * off themselves, or override {@link #getLabelCacheKey()} if their labels depend on more.
+     */
+    protected boolean isLabelSharingEnabled() {
+        return SHARE_LABELS;
+    }
+
     /**
      * Creates a AuraLocale using the first Locale specified in the Http Request
      * based on the Accept-Language header values when available, otherwise the
@@ -25,7 +25,6 @@ import org.auraframework.def.ApplicationDef;
 import org.auraframework.def.BaseComponentDef;
 import org.auraframework.def.ComponentDef;
 import org.auraframework.def.DefDescriptor;
-import org.auraframework.def.Definition;
 import org.auraframework.def.EventDef;
 import org.auraframework.def.RootDefinition;
 import org.auraframework.impl.java.controller.JavaAction;
@@ -38,7 +37,6 @@ import org.auraframework.service.DefinitionService;
 import org.auraframework.system.Annotations.AuraEnabled;
 import org.auraframework.system.Annotations.Controller;
 import org.auraframework.system.Annotations.Key;
-import org.auraframework.system.AuraContext;
 import org.auraframework.throwable.quickfix.QuickFixException;
 
 import com.google.common.collect.Lists;
@@ -108,17 +106,7 @@ public class ComponentController {
 
     @AuraEnabled
     public static Boolean loadLabels() throws QuickFixException {
-        AuraContext ctx = Aura.getContextService().getCurrentContext();
-        Map<DefDescriptor<? extends Definition>, Definition> defMap;
-
-        ctx.getDefRegistry().getDef(ctx.getApplicationDescriptor());
-        defMap = ctx.getDefRegistry().filterRegistry(null);
-        for (Map.Entry<DefDescriptor<? extends Definition>, Definition> entry : defMap.entrySet()) {
-            Definition def = entry.getValue();
-            if (def != null) {
-                def.retrieveLabels();
-            }
-        }
+        Aura.getLocalizationService().loadLabels();
         return Boolean.TRUE;
     }
 
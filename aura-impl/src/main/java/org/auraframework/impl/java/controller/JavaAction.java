@@ -24,6 +24,7 @@ import org.auraframework.Aura;
 import org.auraframework.def.ControllerDef;
 import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.ValueDef;
+import org.auraframework.impl.java.type.ValueConverter;
 import org.auraframework.instance.AbstractActionImpl;
 import org.auraframework.service.LoggingService;
 import org.auraframework.system.Location;
@@ -61,11 +62,22 @@ public class JavaAction extends AbstractActionImpl<JavaActionDef> {
         Class<?>[] javaParams = actionDef.getJavaParams();
         Object[] args = new Object[javaParams.length];
         int i = 0;
+        ValueConverter[] converters;
+        try {
+            converters = actionDef.getParamConverters();
+        } catch (QuickFixException qfe) {
+            // resolve each one below, so the error names the broken parameter.
+            converters = null;
+        }
 
         for (ValueDef valueDef : actionDef.getParameters()) {
             Object param = paramValues.get(valueDef.getName());
             try {
-                param = valueDef.getType().valueOf(param);
+                if (converters != null) {
+                    param = converters[i].convert(param);
+                } else {
+                    param = valueDef.getType().valueOf(param);
+                }
             } catch (QuickFixException qfe) {
                 //
                 // This means that we have a broken definition.
@@ -114,6 +126,13 @@ public class JavaAction extends AbstractActionImpl<JavaActionDef> {
         }
     }
 
+    /**
+     * Can this action run concurrently with the other actions in a request?
+     */
+    public boolean isIndependent() {
+        return actionDef.isIndependent();
+    }
+
     @Override
     public void run() {
         if (this.actionDef == null) {
@@ -23,8 +23,10 @@ import org.auraframework.def.ActionDef;
 import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.TypeDef;
 import org.auraframework.def.ValueDef;
+import org.auraframework.impl.java.type.ValueConverter;
 import org.auraframework.impl.system.DefinitionImpl;
 import org.auraframework.impl.util.AuraUtil;
+import org.auraframework.throwable.quickfix.QuickFixException;
 import org.auraframework.util.json.Json;
 
 /**
@@ -39,6 +41,17 @@ public class JavaActionDef extends DefinitionImpl<ActionDef> implements ActionDe
     private final Method method;
     private final boolean background;
     private final boolean caboose;
+    private final boolean independent;
+
+    /**
+     * The resolved type of each parameter, in order.
+     */
+    private transient volatile TypeDef[] paramTypes;
+
+    /**
+     * The converter of each parameter, in order.
+     */
+    private transient volatile ValueConverter[] paramConverters;
 
     protected JavaActionDef(Builder builder) {
         super(builder);
@@ -49,6 +62,7 @@ public class JavaActionDef extends DefinitionImpl<ActionDef> implements ActionDe
         this.method = builder.method;
         this.background = builder.background;
         this.caboose = builder.caboose;
+        this.independent = builder.independent;
     }
 
     @Override
@@ -79,6 +93,44 @@ public class JavaActionDef extends DefinitionImpl<ActionDef> implements ActionDe
         return this.method;
     }
 
+    /**
+     * Get the type definitions for the parameters, resolved on first use.
+     *
+     * @return the types, in the same order as {@link #getParameters()}.
+     * @throws QuickFixException if a type cannot be resolved, in which case nothing is cached.
+     */
+    TypeDef[] getParamTypes() throws QuickFixException {
+        TypeDef[] types = this.paramTypes;
+        if (types == null) {
+            types = new TypeDef[params.size()];
+            for (int i = 0; i < types.length; i++) {
+                types[i] = params.get(i).getType();
+            }
+            this.paramTypes = types;
+        }
+        return types;
+    }
+
+    /**
+     * Get the converters for the parameters, made on first use. Each one keeps the converter it looked up for the
+     * last value it converted, so the lookup is not repeated on every call.
+     *
+     * @return the converters, in the same order as {@link #getParameters()}.
+     * @throws QuickFixException if a type cannot be resolved, in which case nothing is cached.
+     */
+    ValueConverter[] getParamConverters() throws QuickFixException {
+        ValueConverter[] converters = this.paramConverters;
+        if (converters == null) {
+            TypeDef[] types = getParamTypes();
+            converters = new ValueConverter[types.length];
+            for (int i = 0; i < converters.length; i++) {
+                converters[i] = new ValueConverter(types[i]);
+            }
+            this.paramConverters = converters;
+        }
+        return converters;
+    }
+
     @Override
     public DefDescriptor<TypeDef> getReturnType() {
         return returnTypeDescriptor;
@@ -92,6 +144,13 @@ public class JavaActionDef extends DefinitionImpl<ActionDef> implements ActionDe
     	return caboose;
     }
 
+    /**
+     * Can this action run concurrently with the other actions in a request?
+     */
+    public boolean isIndependent() {
+        return independent;
+    }
+
     @Override
     public void serialize(Json json) throws IOException {
         json.writeMapBegin();
@@ -118,6 +177,7 @@ public class JavaActionDef extends DefinitionImpl<ActionDef> implements ActionDe
         private Method method;
         private boolean background = false;
         private boolean caboose = false;
+        private boolean independent = false;
 
         @Override
         public JavaActionDef build() {
@@ -171,5 +231,9 @@ public class JavaActionDef extends DefinitionImpl<ActionDef> implements ActionDe
 	public void setCaboose(boolean caboose) {
 	    this.caboose = caboose;
 	}
+
+        public void setIndependent(boolean independent) {
+            this.independent = independent;
+        }
     }
 }
@@ -16,8 +16,6 @@
 package org.auraframework.impl.java.model;
 
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.List;
 import java.util.Map;
 
@@ -31,7 +29,6 @@ import org.auraframework.service.LoggingService;
 import org.auraframework.throwable.AuraExecutionException;
 import org.auraframework.throwable.AuraRuntimeException;
 import org.auraframework.throwable.quickfix.QuickFixException;
-import org.auraframework.util.AuraTextUtil;
 import org.auraframework.util.json.Json;
 
 /**
@@ -159,22 +156,14 @@ public class JavaModel implements Model {
                 }
             }
             else {
-                Method meth = null;
-                try {
-                    meth = root.getClass().getMethod("get" + AuraTextUtil.initCap(part));
-                } catch (NoSuchMethodException e) {
-                    try {
-                        meth = root.getClass().getMethod("is" + AuraTextUtil.initCap(part));
-                    } catch (NoSuchMethodException nme) {
-                        throw makeException("no such property: " + part, e, def);
-                    }
+                PropertyAccessor accessor = PropertyAccessor.get(root.getClass(), part);
+                if (!accessor.exists()) {
+                    throw makeException("no such property: " + part, accessor.getMissingCause(), def);
                 }
                 try {
-                    ret = meth.invoke(root);
-                } catch (IllegalAccessException iae) {
-                    throw makeException("no such property: " + part, iae, def);
-                } catch (InvocationTargetException ite) {
-                    throw makeException(ite.getCause().getMessage(), ite.getCause(), def);
+                    ret = accessor.invoke(root);
+                } catch (Throwable t) {
+                    throw makeException(t.getMessage(), t, def);
                 }
                 loggingService.incrementNum("JavaCallCount");
             }
@@ -16,7 +16,6 @@
 package org.auraframework.impl.java.model;
 
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
 import org.auraframework.Aura;
@@ -41,6 +40,7 @@ public class JavaValueDef extends DefinitionImpl<ValueDef> implements ValueDef {
     private final String name;
     private final DefDescriptor<TypeDef> typeDescriptor;
     private final Method getter;
+    private transient volatile PropertyAccessor accessor;
 
     public JavaValueDef(String name, DefDescriptor<TypeDef> typeDescriptor, Location location) {
         super(null, location);
@@ -78,19 +78,29 @@ public class JavaValueDef extends DefinitionImpl<ValueDef> implements ValueDef {
      * thing exists in its apex counterpart.
      */
     public Object getValueFrom(Object obj) {
+        LoggingService loggingService = Aura.getLoggingService();
+        loggingService.incrementNum("JavaCallCount");
+        PropertyAccessor getterAccessor = getAccessor();
         try {
-            LoggingService loggingService = Aura.getLoggingService();
-            loggingService.incrementNum("JavaCallCount");
-            return getter.invoke(obj);
-        } catch (IllegalArgumentException e) {
-            throw new AuraRuntimeException(e);
-        } catch (IllegalAccessException e) {
-            throw new AuraRuntimeException(e);
-        } catch (InvocationTargetException e) {
-            throw new AuraExecutionException(e.getCause().getMessage(), this.location, e.getCause());
+            return getterAccessor.invoke(obj);
+        } catch (Throwable t) {
+            throw new AuraExecutionException(t.getMessage(), this.location, t);
         }
     }
 
+    private PropertyAccessor getAccessor() {
+        PropertyAccessor getterAccessor = accessor;
+        if (getterAccessor == null) {
+            try {
+                getterAccessor = PropertyAccessor.forMethod(getter);
+            } catch (IllegalAccessException e) {
+                throw new AuraRuntimeException(e);
+            }
+            accessor = getterAccessor;
+        }
+        return getterAccessor;
+    }
+
     @Override
     public void serialize(Json json) throws IOException {
         json.writeMapBegin();
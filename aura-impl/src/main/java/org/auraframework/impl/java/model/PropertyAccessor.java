@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.java.model;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.auraframework.util.AuraTextUtil;
+
+/**
+ * A compiled getter for a property of a java bean.
+ *
+ * Getters are looked up once per class and property, the same way as {@link Class#getMethod(String, Class...)} finds
+ * "get" and then "is" methods, and are invoked through a method handle. Properties that a class does not have are
+ * cached as well, so looking them up again only costs a map lookup.
+ *
+ * Handles are made with the lookup of this package, so a getter is accessible here exactly when Method.invoke would
+ * be allowed to call it from JavaModel.
+ */
+public final class PropertyAccessor {
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final ClassValue<ConcurrentMap<String, PropertyAccessor>> ACCESSORS =
+            new ClassValue<ConcurrentMap<String, PropertyAccessor>>() {
+                @Override
+                protected ConcurrentMap<String, PropertyAccessor> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
+    private final Class<?> type;
+    private final String property;
+    private final MethodHandle getter;
+    private final boolean accessible;
+
+    private PropertyAccessor(Class<?> type, String property, MethodHandle getter, boolean accessible) {
+        this.type = type;
+        this.property = property;
+        this.getter = getter;
+        this.accessible = accessible;
+    }
+
+    /**
+     * Get the accessor for a property of a class.
+     *
+     * @return the accessor, which may not exist, see {@link #exists()}.
+     */
+    public static PropertyAccessor get(Class<?> type, String property) {
+        ConcurrentMap<String, PropertyAccessor> accessors = ACCESSORS.get(type);
+        PropertyAccessor accessor = accessors.get(property);
+        if (accessor == null) {
+            accessor = find(type, property);
+            PropertyAccessor existing = accessors.putIfAbsent(property, accessor);
+            if (existing != null) {
+                accessor = existing;
+            }
+        }
+        return accessor;
+    }
+
+    /**
+     * Get the accessor for a getter method.
+     *
+     * @throws IllegalAccessException if the method is not accessible.
+     */
+    public static PropertyAccessor forMethod(Method method) throws IllegalAccessException {
+        return new PropertyAccessor(method.getDeclaringClass(), method.getName(), unreflect(method), true);
+    }
+
+    private static PropertyAccessor find(Class<?> type, String property) {
+        String cap = AuraTextUtil.initCap(property);
+        Method method = null;
+        try {
+            method = type.getMethod("get" + cap);
+        } catch (NoSuchMethodException e) {
+            try {
+                method = type.getMethod("is" + cap);
+            } catch (NoSuchMethodException nme) {
+                return new PropertyAccessor(type, property, null, true);
+            }
+        }
+        try {
+            return new PropertyAccessor(type, property, unreflect(method), true);
+        } catch (IllegalAccessException iae) {
+            return new PropertyAccessor(type, property, null, false);
+        }
+    }
+
+    private static MethodHandle unreflect(Method method) throws IllegalAccessException {
+        MethodHandle handle = MethodHandles.lookup().unreflect(method);
+        if (Modifier.isStatic(method.getModifiers())) {
+            // called on an instance like any other getter, the instance is ignored.
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        return handle.asType(GETTER_TYPE);
+    }
+
+    /**
+     * Does the class have an accessible getter for the property?
+     */
+    public boolean exists() {
+        return getter != null;
+    }
+
+    /**
+     * Get the reason the property does not exist, for error messages.
+     *
+     * @return a NoSuchMethodException, or an IllegalAccessException if there is a getter that is not accessible.
+     */
+    public Exception getMissingCause() {
+        String name = type.getName() + ".get" + AuraTextUtil.initCap(property) + "()";
+        return accessible ? new NoSuchMethodException(name) : new IllegalAccessException(name);
+    }
+
+    /**
+     * Get the value of the property from an object.
+     *
+     * @param target an instance of the class the accessor was made for.
+     * @throws Throwable whatever the getter throws.
+     */
+    public Object invoke(Object target) throws Throwable {
+        return getter.invokeExact(target);
+    }
+}
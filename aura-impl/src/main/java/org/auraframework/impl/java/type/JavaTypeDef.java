@@ -23,6 +23,7 @@ import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Set;
 
+import org.auraframework.Aura;
 import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.TypeDef;
 import org.auraframework.impl.system.DefDescriptorImpl;
@@ -30,6 +31,8 @@ import org.auraframework.impl.system.DefinitionImpl;
 import org.auraframework.instance.BaseComponent;
 import org.auraframework.throwable.quickfix.QuickFixException;
 import org.auraframework.util.json.Json;
+import org.auraframework.util.type.Converter;
+import org.auraframework.util.type.MultiConverter;
 import org.auraframework.util.type.TypeUtil;
 
 /**
@@ -104,6 +107,70 @@ public class JavaTypeDef extends DefinitionImpl<TypeDef> implements TypeDef {
         return JavaLocalizedTypeUtil.convertNoTrim(value, clazz);
     }
 
+    /**
+     * Get the conversion that {@link #valueOf(Object)} does for values of a class.
+     *
+     * @return the conversion, or null if there is none, in which case valueOf throws.
+     */
+    @SuppressWarnings("unchecked")
+    Conversion getConversion(Class<?> from) {
+        if (hasCollectionConverters()) {
+            Converter<?, ?> converter = TypeUtil.getConverter(from, clazz, simpleParamName);
+            return converter != null ? new Conversion(from, (Converter<Object, ?>) converter, null, null) : null;
+        }
+        if (JavaLocalizedTypeUtil.hasConverter(from, clazz)) {
+            if (clazz.isAssignableFrom(from)) {
+                return new Conversion(from, null, null, null);
+            }
+            return new Conversion(from, null,
+                    (LocalizedConverter<Object, ?>) JavaLocalizedTypeUtil.getConverter(from, clazz, null), null);
+        }
+        if (clazz.isAssignableFrom(from)) {
+            return new Conversion(from, null, null, null);
+        }
+        Converter<?, ?> converter = TypeUtil.getConverter(from, clazz, null);
+        if (converter != null) {
+            return new Conversion(from, (Converter<Object, ?>) converter, null, null);
+        }
+        MultiConverter<?> multiConverter = TypeUtil.getMultiConverter(from, clazz);
+        if (multiConverter != null) {
+            return new Conversion(from, null, null, (MultiConverter<Object>) multiConverter);
+        }
+        return null;
+    }
+
+    /**
+     * The conversion of values of one class to this type, with the converter already looked up.
+     */
+    final class Conversion {
+        final Class<?> from;
+        private final Converter<Object, ?> converter;
+        private final LocalizedConverter<Object, ?> localizedConverter;
+        private final MultiConverter<Object> multiConverter;
+
+        private Conversion(Class<?> from, Converter<Object, ?> converter,
+                LocalizedConverter<Object, ?> localizedConverter, MultiConverter<Object> multiConverter) {
+            this.from = from;
+            this.converter = converter;
+            this.localizedConverter = localizedConverter;
+            this.multiConverter = multiConverter;
+        }
+
+        @SuppressWarnings("unchecked")
+        Object convert(Object value) {
+            if (converter != null) {
+                return converter.convert(value);
+            }
+            if (localizedConverter != null) {
+                return localizedConverter.convert(value, Aura.getLocalizationAdapter().getAuraLocale());
+            }
+            if (multiConverter != null) {
+                return multiConverter.convert((Class<Object>) clazz, value);
+            }
+            return value;
+        }
+    }
+
     @Override
     public Object wrap(Object o) {
         return new JavaValueProvider(o);
@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.java.type;
+
+import org.auraframework.def.TypeDef;
+
+/**
+ * Converts values with {@link TypeDef#valueOf(Object)}, but for java types, looks the converter up once for each class
+ * of value rather than once for each value.
+ *
+ * The conversion for the class of the last value is kept, so e.g. a java action parameter, which nearly always gets
+ * values of the same class, only looks its converter up for its first value.
+ */
+public class ValueConverter {
+    private final TypeDef type;
+    private final JavaTypeDef javaType;
+    private volatile JavaTypeDef.Conversion last;
+
+    public ValueConverter(TypeDef type) {
+        this.type = type;
+        this.javaType = type instanceof JavaTypeDef ? (JavaTypeDef) type : null;
+    }
+
+    public TypeDef getType() {
+        return type;
+    }
+
+    public Object convert(Object value) {
+        if (javaType == null || value == null) {
+            return type.valueOf(value);
+        }
+        JavaTypeDef.Conversion conversion = last;
+        if (conversion == null || conversion.from != value.getClass()) {
+            conversion = javaType.getConversion(value.getClass());
+            if (conversion == null) {
+                // let valueOf report it.
+                return type.valueOf(value);
+            }
+            last = conversion;
+        }
+        return conversion.convert(value);
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.root;
+
+import java.util.Map;
+
+import org.auraframework.def.AttributeDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.RootDefinition;
+import org.auraframework.throwable.quickfix.QuickFixException;
+
+import com.google.common.collect.Maps;
+
+/**
+ * The full set of attributes of a root definition, including inherited ones, with each attribute given a slot.
+ *
+ * Attribute sets keep their values in an array indexed by slot, and use the slots of the attributes with a default
+ * value or that are required instead of walking all the attribute definitions.
+ */
+public final class AttributeLayout {
+    private static final int[] NO_SLOTS = new int[0];
+
+    private final Map<DefDescriptor<AttributeDef>, AttributeDef> attributeDefs;
+    private final Map<DefDescriptor<AttributeDef>, Integer> slots;
+    private final AttributeDef[] defs;
+    private final int[] defaultSlots;
+    private final int[] requiredSlots;
+
+    /**
+     * Create a layout.
+     *
+     * @param attributeDefs the attributes, in slot order. This should not be modifiable, as it is handed out by
+     *            {@link #getAttributeDefs()}.
+     */
+    public AttributeLayout(Map<DefDescriptor<AttributeDef>, AttributeDef> attributeDefs) {
+        int size = attributeDefs.size();
+        int defaults = 0;
+        int required = 0;
+
+        this.attributeDefs = attributeDefs;
+        this.slots = Maps.newHashMapWithExpectedSize(size);
+        this.defs = new AttributeDef[size];
+        for (AttributeDef def : attributeDefs.values()) {
+            if (def.getDefaultValue() != null) {
+                defaults++;
+            }
+            if (def.isRequired()) {
+                required++;
+            }
+        }
+        this.defaultSlots = defaults == 0 ? NO_SLOTS : new int[defaults];
+        this.requiredSlots = required == 0 ? NO_SLOTS : new int[required];
+
+        int slot = 0;
+        defaults = 0;
+        required = 0;
+        for (Map.Entry<DefDescriptor<AttributeDef>, AttributeDef> entry : attributeDefs.entrySet()) {
+            AttributeDef def = entry.getValue();
+            slots.put(entry.getKey(), slot);
+            defs[slot] = def;
+            if (def.getDefaultValue() != null) {
+                defaultSlots[defaults++] = slot;
+            }
+            if (def.isRequired()) {
+                requiredSlots[required++] = slot;
+            }
+            slot++;
+        }
+    }
+
+    /**
+     * Get the layout for a root definition.
+     */
+    public static AttributeLayout of(RootDefinition def) throws QuickFixException {
+        if (def instanceof RootDefinitionImpl) {
+            return ((RootDefinitionImpl<?>) def).getAttributeLayout();
+        }
+        return new AttributeLayout(def.getAttributeDefs());
+    }
+
+    /**
+     * @return all the attributes, in slot order.
+     */
+    public Map<DefDescriptor<AttributeDef>, AttributeDef> getAttributeDefs() {
+        return attributeDefs;
+    }
+
+    /**
+     * @return the number of slots.
+     */
+    public int size() {
+        return defs.length;
+    }
+
+    /**
+     * Get the slot for an attribute.
+     *
+     * @return the slot, or -1 if there is no such attribute.
+     */
+    public int indexOf(DefDescriptor<AttributeDef> descriptor) {
+        Integer slot = slots.get(descriptor);
+        return slot == null ? -1 : slot;
+    }
+
+    public AttributeDef getAttributeDef(int slot) {
+        return defs[slot];
+    }
+
+    /**
+     * @return the slots of the attributes that have a default value, in order. Must not be modified.
+     */
+    int[] getDefaultSlots() {
+        return defaultSlots;
+    }
+
+    /**
+     * @return the slots of the required attributes, in order. Must not be modified.
+     */
+    int[] getRequiredSlots() {
+        return requiredSlots;
+    }
+}
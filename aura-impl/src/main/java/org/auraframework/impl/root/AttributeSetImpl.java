@@ -59,6 +59,8 @@ import org.auraframework.util.json.Json;
 import org.auraframework.util.json.Serialization;
 import org.auraframework.util.json.Serialization.ReferenceType;
 
+import com.google.common.base.Predicates;
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Maps;
 
 /**
@@ -68,7 +70,12 @@ public class AttributeSetImpl implements AttributeSet {
     private static final Location SUPER_PASSTHROUGH = AuraUtil.getExternalLocation("super component attribute passthrough");
 
     private DefDescriptor<? extends RootDefinition> rootDefDescriptor;
-    private final Map<DefDescriptor<AttributeDef>, Attribute> attributes = Maps.newHashMap();
+    private AttributeLayout layout;
+    /** The attribute values, indexed by their slot in the layout */
+    private Attribute[] attributes;
+    private int attributeCount;
+    /** Attributes set before the root def changed, that the new root def does not have */
+    private Map<DefDescriptor<AttributeDef>, Attribute> unmapped;
     private final Map<DefDescriptor<EventHandlerDef>, EventHandler> events = Maps.newHashMap();
     private final BaseComponent<?, ?> valueProvider;
     private final Instance<?> parent;
@@ -79,12 +86,31 @@ public class AttributeSetImpl implements AttributeSet {
         this.rootDefDescriptor = componentDefDescriptor;
         this.valueProvider = valueProvider;
         this.parent = parent;
+        this.layout = AttributeLayout.of(componentDefDescriptor.getDef());
+        this.attributes = new Attribute[layout.size()];
         setDefaults();
     }
 
     @Override
     public void setRootDefDescriptor(DefDescriptor<? extends RootDefinition> descriptor) throws QuickFixException {
+        Attribute[] oldAttributes = attributes;
+        Map<DefDescriptor<AttributeDef>, Attribute> oldUnmapped = unmapped;
+
         rootDefDescriptor = descriptor;
+        layout = AttributeLayout.of(descriptor.getDef());
+        attributes = new Attribute[layout.size()];
+        attributeCount = 0;
+        unmapped = null;
+        for (int i = 0; i < oldAttributes.length; i++) {
+            if (oldAttributes[i] != null) {
+                put(oldAttributes[i].getDescriptor(), oldAttributes[i]);
+            }
+        }
+        if (oldUnmapped != null) {
+            for (Map.Entry<DefDescriptor<AttributeDef>, Attribute> entry : oldUnmapped.entrySet()) {
+                put(entry.getKey(), entry.getValue());
+            }
+        }
         setDefaults();
     }
 
@@ -94,13 +120,33 @@ public class AttributeSetImpl implements AttributeSet {
     }
 
     private void setDefaults() throws QuickFixException {
-        Map<DefDescriptor<AttributeDef>, AttributeDef> attrs = rootDefDescriptor.getDef().getAttributeDefs();
+        for (int slot : layout.getDefaultSlots()) {
+            if (attributes[slot] == null) {
+                set(layout.getAttributeDef(slot).getDefaultValue());
+            }
+        }
+    }
 
-        for (Map.Entry<DefDescriptor<AttributeDef>, AttributeDef> attr : attrs.entrySet()) {
-            AttributeDefRef ref = attr.getValue().getDefaultValue();
-            if (ref != null && !attributes.containsKey(attr.getKey())) {
-                set(ref);
+    private Attribute get(DefDescriptor<AttributeDef> desc) {
+        int slot = layout.indexOf(desc);
+        if (slot >= 0) {
+            return attributes[slot];
+        }
+        return unmapped != null ? unmapped.get(desc) : null;
+    }
+
+    private void put(DefDescriptor<AttributeDef> desc, Attribute attribute) {
+        int slot = layout.indexOf(desc);
+        if (slot >= 0) {
+            if (attributes[slot] == null) {
+                attributeCount++;
             }
+            attributes[slot] = attribute;
+        } else {
+            if (unmapped == null) {
+                unmapped = Maps.newHashMap();
+            }
+            unmapped.put(desc, attribute);
         }
     }
 
@@ -112,20 +158,18 @@ public class AttributeSetImpl implements AttributeSet {
         if (trackDirty) {
             attribute.markDirty();
         }
-        attributes.put(attribute.getDescriptor(), attribute);
+        put(attribute.getDescriptor(), attribute);
     }
 
     private void set(AttributeDefRef attributeDefRef) throws QuickFixException {
-        RootDefinition def = rootDefDescriptor.getDef();
-        Map<DefDescriptor<AttributeDef>, AttributeDef> attributeDefs = def.getAttributeDefs();
-
-        AttributeDef attributeDef = attributeDefs.get(attributeDefRef.getDescriptor());
+        int slot = layout.indexOf(attributeDefRef.getDescriptor());
+        AttributeDef attributeDef = slot >= 0 ? layout.getAttributeDef(slot) : null;
         // setAndValidateAttribute should be merged with creating the
         // AttributeImpl here
         AttributeImpl attribute;
 
         if (attributeDef == null) {
-            Map<String, RegisterEventDef> events = def.getRegisterEventDefs();
+            Map<String, RegisterEventDef> events = rootDefDescriptor.getDef().getRegisterEventDefs();
             if (events.containsKey(attributeDefRef.getDescriptor().getName())) {
                 EventHandlerImpl eh = new EventHandlerImpl(attributeDefRef.getDescriptor().getName());
                 Object o = attributeDefRef.getValue();
@@ -185,8 +229,6 @@ public class AttributeSetImpl implements AttributeSet {
 
     @Override
     public void set(Collection<AttributeDefRef> facetDefRefs, AttributeSet attributeSet) throws QuickFixException {
-        RootDefinition rootDef = rootDefDescriptor.getDef();
-        Map<DefDescriptor<AttributeDef>, AttributeDef> attrs = rootDef.getAttributeDefs();
         Map<DefDescriptor<?>, Object> lookup = Maps.newHashMap();
 
         for (Attribute attribute : attributeSet) {
@@ -197,7 +239,7 @@ public class AttributeSetImpl implements AttributeSet {
             lookup.put(attributeDefRef.getDescriptor(), attributeDefRef);
         }
 
-        for (DefDescriptor<AttributeDef> desc : attrs.keySet()) {
+        for (DefDescriptor<AttributeDef> desc : layout.getAttributeDefs().keySet()) {
             Object val = lookup.get(desc);
             if (val != null) {
                 if (val instanceof Attribute) {
@@ -214,11 +256,9 @@ public class AttributeSetImpl implements AttributeSet {
     @Override
     public void set(Map<String, Object> attributeMap) throws QuickFixException {
         if (attributeMap != null) {
-            RootDefinition rootDef = rootDefDescriptor.getDef();
-            Map<DefDescriptor<AttributeDef>, AttributeDef> attrs = rootDef.getAttributeDefs();
             for (Map.Entry<String, Object> entry : attributeMap.entrySet()) {
                 DefDescriptor<AttributeDef> desc = DefDescriptorImpl.getInstance(entry.getKey(), AttributeDef.class);
-                if (attrs.containsKey(desc)) {
+                if (layout.indexOf(desc) >= 0) {
                     setExpression(desc, entry.getValue());
                 }
             }
@@ -262,7 +302,7 @@ public class AttributeSetImpl implements AttributeSet {
     public Object getExpression(String name) {
         DefDescriptor<AttributeDef> desc = DefDescriptorImpl.getInstance(name, AttributeDef.class);
 
-        Attribute at = attributes.get(desc);
+        Attribute at = get(desc);
         if (at != null) {
             return at.getValue();
         }
@@ -270,13 +310,13 @@ public class AttributeSetImpl implements AttributeSet {
     }
 
     private void setExpression(DefDescriptor<AttributeDef> desc, Object value) throws QuickFixException {
-        RootDefinition rd = rootDefDescriptor.getDef();
-        AttributeDef ad = rd.getAttributeDefs().get(desc);
-        if (ad == null) {
+        int slot = layout.indexOf(desc);
+        if (slot < 0) {
             // this location isn't even close to right...
             throw new InvalidDefinitionException(String.format("Attribute %s not defined on %s", desc.getName(),
-                    rootDefDescriptor.getName()), rd.getLocation());
+                    rootDefDescriptor.getName()), rootDefDescriptor.getDef().getLocation());
         }
+        AttributeDef ad = layout.getAttributeDef(slot);
 
         AttributeImpl att = new AttributeImpl(desc);
         if (value instanceof Expression) {
@@ -289,7 +329,7 @@ public class AttributeSetImpl implements AttributeSet {
             if (valueProvider != null) {
                 iStack.pushAccess(valueProvider);
             }
-            att.setValue(rootDefDescriptor.getDef().getAttributeDef(att.getName()).getTypeDef().initialize(value, null));
+            att.setValue(ad.getTypeDef().initialize(value, null));
             if (valueProvider != null) {
                 iStack.popAccess(valueProvider);
             }
@@ -310,7 +350,8 @@ public class AttributeSetImpl implements AttributeSet {
         if (value instanceof ValueProvider && stem != null) {
             value = ((ValueProvider) value).getValue(stem);
         } else if (stem != null) {
-            AttributeDef attributeDef = rootDefDescriptor.getDef().getAttributeDef(expr.getRoot());
+            AttributeDef attributeDef = layout.getAttributeDefs().get(
+                    DefDescriptorImpl.getInstance(expr.getRoot(), AttributeDef.class));
             if (attributeDef == null) {
                 // no such attribute.
                 throw new NoAccessException("No attribute "+expr.getRoot()+" in "+rootDefDescriptor);
@@ -331,17 +372,18 @@ public class AttributeSetImpl implements AttributeSet {
         try {
             json.writeMapBegin();
             json.writeMapEntry("valueProvider", valueProvider);
-            if (!attributes.isEmpty()) {
-                RootDefinition def = rootDefDescriptor.getDef();
+            if (size() > 0) {
                 json.writeMapKey("values");
                 json.writeMapBegin();
 
-                for (Attribute attribute : attributes.values()) {
+                for (Attribute attribute : this) {
                     String name = attribute.getName();
-                    AttributeDef attributeDef = def.getAttributeDef(name);
-                    if (attributeDef == null) {
-                        throw new AttributeNotFoundException(rootDefDescriptor, name, def.getLocation());
+                    int slot = layout.indexOf(attribute.getDescriptor());
+                    if (slot < 0) {
+                        throw new AttributeNotFoundException(rootDefDescriptor, name,
+                                rootDefDescriptor.getDef().getLocation());
                     }
+                    AttributeDef attributeDef = layout.getAttributeDef(slot);
 
                     if (attributeDef.getSerializeTo() == AttributeDef.SerializeToType.BOTH) {
                         TypeDef typeDef = attributeDef.getTypeDef();
@@ -367,7 +409,7 @@ public class AttributeSetImpl implements AttributeSet {
 
     @Override
     public int size() {
-        return attributes.size();
+        return attributeCount + (unmapped != null ? unmapped.size() : 0);
     }
 
     /**
@@ -380,12 +422,16 @@ public class AttributeSetImpl implements AttributeSet {
 
     @Override
     public Iterator<Attribute> iterator() {
-        return attributes.values().iterator();
+        Iterator<Attribute> slotted = Iterators.filter(Iterators.forArray(attributes), Predicates.notNull());
+        if (unmapped == null) {
+            return slotted;
+        }
+        return Iterators.concat(slotted, unmapped.values().iterator());
     }
 
     @Override
     public boolean isEmpty() {
-        return attributes.isEmpty() && events.isEmpty();
+        return size() == 0 && events.isEmpty();
     }
 
     @Override
@@ -404,15 +450,14 @@ public class AttributeSetImpl implements AttributeSet {
 
     @Override
     public Set<AttributeDef> getMissingAttributes() throws QuickFixException {
-        Map<DefDescriptor<AttributeDef>, AttributeDef> attrs = rootDefDescriptor.getDef().getAttributeDefs();
         Set<AttributeDef> missingAttributes = null;
-        for (Map.Entry<DefDescriptor<AttributeDef>, AttributeDef> attr : attrs.entrySet()) {
-            if (attr.getValue().isRequired() && !attributes.containsKey(attr.getKey())) {
+        for (int slot : layout.getRequiredSlots()) {
+            if (attributes[slot] == null) {
                 if (missingAttributes == null) {
-                    missingAttributes = new HashSet<>(attrs.entrySet().size());
+                    missingAttributes = new HashSet<>(layout.size());
                 }
 
-                missingAttributes.add(attr.getValue());
+                missingAttributes.add(layout.getAttributeDef(slot));
             }
         }
 
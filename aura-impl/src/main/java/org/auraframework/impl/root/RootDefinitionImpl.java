@@ -101,6 +101,16 @@ public abstract class RootDefinitionImpl<T extends RootDefinition> extends Defin
     @Override
     public abstract Map<DefDescriptor<AttributeDef>, AttributeDef> getAttributeDefs() throws QuickFixException;
 
+    /**
+     * Get the attributes, including inherited ones, laid out in slots for attribute sets.
+     *
+     * @return a new layout on each call, subclasses may cache it.
+     * @throws QuickFixException if the attributes cannot be resolved.
+     */
+    public AttributeLayout getAttributeLayout() throws QuickFixException {
+        return new AttributeLayout(getAttributeDefs());
+    }
+
     @Override
     public abstract Map<DefDescriptor<RequiredVersionDef>, RequiredVersionDef> getRequiredVersionDefs();
 
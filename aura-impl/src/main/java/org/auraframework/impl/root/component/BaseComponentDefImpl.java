@@ -69,6 +69,7 @@ import org.auraframework.def.design.DesignDef;
 import org.auraframework.expression.PropertyReference;
 import org.auraframework.impl.javascript.BaseJavascriptClass;
 import org.auraframework.impl.root.AttributeDefRefImpl;
+import org.auraframework.impl.root.AttributeLayout;
 import org.auraframework.impl.root.RootDefinitionImpl;
 import org.auraframework.impl.root.intf.InterfaceDefImpl;
 import org.auraframework.impl.system.DefDescriptorImpl;
@@ -146,6 +147,21 @@ public abstract class BaseComponentDefImpl<T extends BaseComponentDef> extends
 
     private transient Boolean localDeps = null;
 
+    /**
+     * The flattened attributes, once this def is valid, with the cache generation they were computed in. Source
+     * changes do not invalidate the defs that extend the changed one, so the generation tells us when to redo it.
+     */
+    private transient volatile CachedLayout cachedLayout;
+
+    private static final class CachedLayout {
+        private final AttributeLayout layout;
+        private final long generation;
+
+        private CachedLayout(AttributeLayout layout, long generation) {
+            this.layout = layout;
+            this.generation = generation;
+        }
+    }
 
     protected BaseComponentDefImpl(Builder<T> builder) {
         super(builder);
@@ -752,6 +768,32 @@ public abstract class BaseComponentDefImpl<T extends BaseComponentDef> extends
      */
     @Override
     public Map<DefDescriptor<AttributeDef>, AttributeDef> getAttributeDefs() throws QuickFixException {
+        if (!isValid()) {
+            return collectAttributeDefs();
+        }
+        return getAttributeLayout().getAttributeDefs();
+    }
+
+    /**
+     * @return the layout of all the attributes for this component, computed once this component is valid.
+     * @throws QuickFixException
+     */
+    @Override
+    public AttributeLayout getAttributeLayout() throws QuickFixException {
+        if (!isValid()) {
+            return new AttributeLayout(collectAttributeDefs());
+        }
+        // read the generation first, so that a source change while we compute is seen on the next call.
+        long generation = Aura.getCachingService().getCacheGeneration();
+        CachedLayout cached = this.cachedLayout;
+        if (cached == null || cached.generation != generation) {
+            cached = new CachedLayout(new AttributeLayout(collectAttributeDefs()), generation);
+            this.cachedLayout = cached;
+        }
+        return cached.layout;
+    }
+
+    private Map<DefDescriptor<AttributeDef>, AttributeDef> collectAttributeDefs() throws QuickFixException {
         Map<DefDescriptor<AttributeDef>, AttributeDef> map = new LinkedHashMap<>();
         if (extendsDescriptor != null) {
             map.putAll(getSuperDef().getAttributeDefs());
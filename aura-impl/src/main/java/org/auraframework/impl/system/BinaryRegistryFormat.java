@@ -0,0 +1,410 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.system;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.DefDescriptor.DefType;
+import org.auraframework.def.Definition;
+import org.auraframework.system.DefRegistry;
+import org.auraframework.throwable.AuraRuntimeException;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+/**
+ * The binary format for compiled static registries (the '.registries' file).
+ *
+ * The file is laid out as:
+ * <ul>
+ * <li>A header: a magic number, the format version, and the length of the data section.</li>
+ * <li>A string table holding every qualified name, def type, prefix and namespace once.</li>
+ * <li>For each registry: its def types, prefixes and namespaces, and an index of its definitions, each entry being a
+ * descriptor (as string table references) and the offset and length of the definition in the data section.</li>
+ * <li>The data section: each definition, java serialized on its own.</li>
+ * </ul>
+ *
+ * Only the index is read when the file is opened. A definition is deserialized the first time it is asked for, see
+ * {@link LazyStaticDefRegistryImpl}. A file on disk can also be memory mapped, see {@link #map(File)}, in which case
+ * the data section stays off heap.
+ */
+public final class BinaryRegistryFormat {
+    /** 'AREG' */
+    public static final int MAGIC = 0x41524547;
+
+    public static final int VERSION = 1;
+
+    /** The length of the header, magic, version, and data length. */
+    public static final int HEADER_LENGTH = 4 + 4 + 8;
+
+    private BinaryRegistryFormat() {
+    }
+
+    /**
+     * The data section of a registry file, from which definitions are read on demand.
+     */
+    public interface DataSection {
+        /**
+         * Read a definition.
+         *
+         * @param offset the offset of the definition in the data section.
+         * @param length the length in bytes of the definition.
+         */
+        Definition read(long offset, int length) throws IOException;
+    }
+
+    /**
+     * A data section held on heap, as raw bytes.
+     */
+    public static class ByteArrayDataSection implements DataSection {
+        private final byte[] data;
+
+        public ByteArrayDataSection(byte[] data) {
+            this.data = data;
+        }
+
+        @Override
+        public Definition read(long offset, int length) throws IOException {
+            return deserialize(new ByteArrayInputStream(data, (int) offset, length));
+        }
+    }
+
+    /**
+     * A data section in a memory mapped file.
+     *
+     * The pages are shared, through the OS page cache, with every other process mapping the same file.
+     */
+    public static class MappedDataSection implements DataSection {
+        private final ByteBuffer data;
+
+        public MappedDataSection(ByteBuffer data) {
+            this.data = data;
+        }
+
+        @Override
+        public Definition read(long offset, int length) throws IOException {
+            // duplicate so that concurrent reads do not share a position.
+            ByteBuffer slice = data.duplicate();
+            slice.position((int) offset);
+            slice.limit((int) offset + length);
+            return deserialize(new ByteBufferInputStream(slice));
+        }
+    }
+
+    /**
+     * An input stream reading the remaining bytes of a buffer.
+     */
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        public ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            return buffer.get() & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            len = Math.min(len, buffer.remaining());
+            buffer.get(b, off, len);
+            return len;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+
+    /**
+     * Deserialize a single definition.
+     */
+    static Definition deserialize(InputStream in) throws IOException {
+        try (ObjectInputStream ois = new ObjectInputStream(in)) {
+            return (Definition) ois.readObject();
+        } catch (ClassNotFoundException cnfe) {
+            throw new IOException("Unable to read definition", cnfe);
+        }
+    }
+
+    /**
+     * Check the start of a stream for the magic number, the stream must support mark.
+     */
+    public static boolean isBinaryRegistry(InputStream in) throws IOException {
+        in.mark(4);
+        try {
+            DataInputStream dis = new DataInputStream(in);
+            return dis.readInt() == MAGIC;
+        } catch (IOException ioe) {
+            return false;
+        } finally {
+            in.reset();
+        }
+    }
+
+    /**
+     * Write a set of static registries.
+     *
+     * @param registries the registries to write.
+     * @param out the output stream, which is not closed.
+     */
+    public static void write(List<StaticDefRegistryImpl<?>> registries, OutputStream out) throws IOException {
+        Map<String, Integer> strings = Maps.newLinkedHashMap();
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        ByteArrayOutputStream index = new ByteArrayOutputStream();
+        DataOutputStream indexOut = new DataOutputStream(index);
+
+        indexOut.writeInt(registries.size());
+        for (StaticDefRegistryImpl<?> registry : registries) {
+            Set<String> defTypes = Sets.newTreeSet();
+            for (DefType defType : registry.getDefTypes()) {
+                defTypes.add(defType.name());
+            }
+            writeStrings(indexOut, strings, defTypes);
+            writeStrings(indexOut, strings, registry.getPrefixes());
+            writeStrings(indexOut, strings, registry.getNamespaces());
+
+            indexOut.writeInt(registry.defs.size());
+            for (Map.Entry<? extends DefDescriptor<?>, ? extends Definition> entry : registry.defs.entrySet()) {
+                int offset = data.size();
+                try (ObjectOutputStream oos = new ObjectOutputStream(data)) {
+                    oos.writeObject(entry.getValue());
+                }
+                writeDescriptor(indexOut, strings, entry.getKey());
+                indexOut.writeLong(offset);
+                indexOut.writeInt(data.size() - offset);
+            }
+        }
+        indexOut.flush();
+
+        DataOutputStream dos = new DataOutputStream(out);
+        dos.writeInt(MAGIC);
+        dos.writeInt(VERSION);
+        dos.writeLong(data.size());
+        dos.writeInt(strings.size());
+        for (String string : strings.keySet()) {
+            dos.writeUTF(string);
+        }
+        index.writeTo(dos);
+        data.writeTo(dos);
+        dos.flush();
+    }
+
+    /**
+     * Read the index of a registry file, with the data section held on heap.
+     *
+     * @param in the input stream, positioned at the start of the file.
+     */
+    public static DefRegistry<?>[] read(InputStream in) throws IOException {
+        DataInputStream dis = new DataInputStream(in);
+        long dataLength = readHeader(dis);
+        List<RegistryIndex> indexes = readIndex(dis);
+        byte[] data = new byte[(int) dataLength];
+        dis.readFully(data);
+        return build(indexes, new ByteArrayDataSection(data), false);
+    }
+
+    /**
+     * Memory map a registry file.
+     *
+     * Only the index is read onto the heap. Definitions are decoded from the mapped file as they are needed, and are
+     * only softly held once decoded, as they can always be decoded again.
+     *
+     * @param file the registries file.
+     * @return the registries, or null if the file is not in this format.
+     */
+    public static DefRegistry<?>[] map(File file) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Registries file too large to map: " + file);
+            }
+            buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.remaining() < HEADER_LENGTH || buffer.getInt(0) != MAGIC) {
+            return null;
+        }
+        DataInputStream dis = new DataInputStream(new ByteBufferInputStream(buffer));
+        long dataLength = readHeader(dis);
+        List<RegistryIndex> indexes = readIndex(dis);
+        if (buffer.remaining() != dataLength) {
+            throw new IOException("Truncated registries file: " + file);
+        }
+        return build(indexes, new MappedDataSection(buffer.slice()), true);
+    }
+
+    /**
+     * Read and check the header.
+     *
+     * @return the length of the data section.
+     */
+    static long readHeader(DataInputStream dis) throws IOException {
+        if (dis.readInt() != MAGIC) {
+            throw new IOException("Not a registries file");
+        }
+        int version = dis.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported registries file version " + version);
+        }
+        // The data section is read or mapped as a single array or buffer, so it can't be larger than 2GB.
+        long dataLength = dis.readLong();
+        if (dataLength < 0 || dataLength > Integer.MAX_VALUE) {
+            throw new IOException("Registries data section length " + dataLength + " is out of range, must be at most "
+                    + Integer.MAX_VALUE + " bytes");
+        }
+        return dataLength;
+    }
+
+    /**
+     * The index for a single registry, as read from the file.
+     */
+    static class RegistryIndex {
+        final Set<DefType> defTypes = EnumSet.noneOf(DefType.class);
+        Set<String> prefixes;
+        Set<String> namespaces;
+        final Map<DefDescriptor<Definition>, LazyStaticDefRegistryImpl.Entry> entries = Maps.newHashMap();
+    }
+
+    /**
+     * Read the string table and registry indexes, leaving the stream at the start of the data section.
+     */
+    static List<RegistryIndex> readIndex(DataInputStream dis) throws IOException {
+        String[] strings = new String[dis.readInt()];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = dis.readUTF();
+        }
+        int count = dis.readInt();
+        List<RegistryIndex> indexes = Lists.newArrayListWithCapacity(count);
+        for (int i = 0; i < count; i++) {
+            RegistryIndex index = new RegistryIndex();
+            for (String defType : readStrings(dis, strings)) {
+                index.defTypes.add(DefType.valueOf(defType));
+            }
+            index.prefixes = readStrings(dis, strings);
+            index.namespaces = readStrings(dis, strings);
+            int defCount = dis.readInt();
+            for (int j = 0; j < defCount; j++) {
+                @SuppressWarnings("unchecked")
+                DefDescriptor<Definition> descriptor = (DefDescriptor<Definition>) readDescriptor(dis, strings);
+                long offset = dis.readLong();
+                int length = dis.readInt();
+                index.entries.put(descriptor, new LazyStaticDefRegistryImpl.Entry(offset, length));
+            }
+            indexes.add(index);
+        }
+        return indexes;
+    }
+
+    /**
+     * Build the registries for a set of indexes.
+     *
+     * @param softValues whether decoded definitions should only be softly held.
+     */
+    static DefRegistry<?>[] build(List<RegistryIndex> indexes, DataSection data, boolean softValues) {
+        DefRegistry<?>[] registries = new DefRegistry<?>[indexes.size()];
+        for (int i = 0; i < registries.length; i++) {
+            RegistryIndex index = indexes.get(i);
+            registries[i] = new LazyStaticDefRegistryImpl<>(index.defTypes, index.prefixes, index.namespaces,
+                    index.entries, data, softValues);
+        }
+        return registries;
+    }
+
+    private static int intern(Map<String, Integer> strings, String string) {
+        Integer idx = strings.get(string);
+        if (idx == null) {
+            idx = strings.size();
+            strings.put(string, idx);
+        }
+        return idx;
+    }
+
+    private static void writeStrings(DataOutputStream out, Map<String, Integer> strings, Set<String> values)
+            throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            out.writeInt(intern(strings, value));
+        }
+    }
+
+    private static Set<String> readStrings(DataInputStream in, String[] strings) throws IOException {
+        int count = in.readInt();
+        Set<String> values = Sets.newHashSetWithExpectedSize(count);
+        for (int i = 0; i < count; i++) {
+            values.add(strings[in.readInt()]);
+        }
+        return values;
+    }
+
+    /**
+     * Write a descriptor as its qualified name and def type, followed by its bundle, if any.
+     */
+    private static void writeDescriptor(DataOutputStream out, Map<String, Integer> strings,
+            DefDescriptor<?> descriptor) throws IOException {
+        out.writeInt(intern(strings, descriptor.getQualifiedName()));
+        out.writeInt(intern(strings, descriptor.getDefType().name()));
+        DefDescriptor<?> bundle = descriptor.getBundle();
+        out.writeBoolean(bundle != null);
+        if (bundle != null) {
+            writeDescriptor(out, strings, bundle);
+        }
+    }
+
+    private static DefDescriptor<?> readDescriptor(DataInputStream in, String[] strings) throws IOException {
+        String qualifiedName = strings[in.readInt()];
+        DefType defType = DefType.valueOf(strings[in.readInt()]);
+        DefDescriptor<?> bundle = null;
+        if (in.readBoolean()) {
+            bundle = readDescriptor(in, strings);
+        }
+        try {
+            return DefDescriptorImpl.getInstance(qualifiedName, defType.getPrimaryInterface(), bundle);
+        } catch (AuraRuntimeException are) {
+            throw new IOException("Invalid descriptor " + qualifiedName, are);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.system;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.DefDescriptor.DefType;
+import org.auraframework.def.Definition;
+import org.auraframework.def.DescriptorFilter;
+import org.auraframework.impl.system.BinaryRegistryFormat.DataSection;
+import org.auraframework.throwable.AuraRuntimeException;
+
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Immutable DefRegistry implementation, backed by the index of a binary registries file.
+ *
+ * Definitions are only deserialized from the data section the first time they are asked for, after which they are
+ * kept in the definition map, either strongly or, if the data section is cheap to read again (e.g. memory mapped),
+ * softly. This registry cannot itself be serialized in a useful way.
+ */
+public class LazyStaticDefRegistryImpl<T extends Definition> extends StaticDefRegistryImpl<T> {
+    private static final long serialVersionUID = 3318475730406530184L;
+
+    /**
+     * The location of a definition in the data section.
+     */
+    static class Entry {
+        final long offset;
+        final int length;
+
+        Entry(long offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    private final transient Map<DefDescriptor<T>, Entry> index;
+    private final transient ConcurrentMap<DefDescriptor<T>, T> loaded;
+    private final transient DataSection data;
+
+    public LazyStaticDefRegistryImpl(Set<DefType> defTypes, Set<String> prefixes, Set<String> namespaces,
+            Map<DefDescriptor<T>, Entry> index, DataSection data) {
+        this(defTypes, prefixes, namespaces, index, data, false);
+    }
+
+    public LazyStaticDefRegistryImpl(Set<DefType> defTypes, Set<String> prefixes, Set<String> namespaces,
+            Map<DefDescriptor<T>, Entry> index, DataSection data, boolean softValues) {
+        this(defTypes, prefixes, namespaces, index, data, softValues
+                ? CacheBuilder.newBuilder().softValues().<DefDescriptor<T>, T> build().asMap()
+                : new ConcurrentHashMap<DefDescriptor<T>, T>());
+    }
+
+    private LazyStaticDefRegistryImpl(Set<DefType> defTypes, Set<String> prefixes, Set<String> namespaces,
+            Map<DefDescriptor<T>, Entry> index, DataSection data, ConcurrentMap<DefDescriptor<T>, T> loaded) {
+        super(defTypes, prefixes, namespaces, loaded);
+        this.index = index;
+        this.data = data;
+        this.loaded = loaded;
+    }
+
+    @Override
+    public T getDef(DefDescriptor<T> descriptor) {
+        T def = loaded.get(descriptor);
+        if (def != null) {
+            return def;
+        }
+        Entry entry = index.get(descriptor);
+        if (entry == null) {
+            return null;
+        }
+        def = read(descriptor, entry);
+        T existing = loaded.putIfAbsent(descriptor, def);
+        return existing != null ? existing : def;
+    }
+
+    /**
+     * Deserialize a definition from the data section.
+     */
+    protected T read(DefDescriptor<T> descriptor, Entry entry) {
+        try {
+            @SuppressWarnings("unchecked")
+            T def = (T) data.read(entry.offset, entry.length);
+            return def;
+        } catch (IOException ioe) {
+            throw new AuraRuntimeException("Unable to read " + descriptor + " from registries file", ioe);
+        }
+    }
+
+    @Override
+    public Set<DefDescriptor<?>> find(DescriptorFilter matcher) {
+        Set<DefDescriptor<?>> ret = new HashSet<>();
+
+        for (DefDescriptor<T> key : index.keySet()) {
+            if (matcher.matchDescriptor(key)) {
+                ret.add(key);
+            }
+        }
+        return ret;
+    }
+
+    @Override
+    public boolean exists(DefDescriptor<T> descriptor) {
+        return index.containsKey(descriptor);
+    }
+
+    /**
+     * Get the number of definitions that are currently deserialized.
+     */
+    public int getLoadedCount() {
+        return loaded.size();
+    }
+}
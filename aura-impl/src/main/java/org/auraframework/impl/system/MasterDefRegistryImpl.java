@@ -19,10 +19,16 @@ import java.io.IOException;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.concurrent.locks.Lock;
 
 import javax.annotation.CheckForNull;
@@ -42,10 +48,13 @@ import org.auraframework.def.DescriptorFilter;
 import org.auraframework.def.HasJavascriptReferences;
 import org.auraframework.def.ParentedDef;
 import org.auraframework.def.RootDefinition;
+import org.auraframework.impl.AuraImpl;
+import org.auraframework.impl.cache.GenerationCache;
 import org.auraframework.impl.controller.AuraStaticControllerDefRegistry;
 import org.auraframework.service.CachingService;
 import org.auraframework.service.LoggingService;
 import org.auraframework.system.AuraContext;
+import org.auraframework.system.Client;
 import org.auraframework.system.DefRegistry;
 import org.auraframework.system.DependencyEntry;
 import org.auraframework.system.Location;
@@ -121,13 +130,38 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
 
     private final static int ACCESS_CHECK_CACHE_SIZE = 4096;
 
+    /**
+     * The number of threads used to build definitions in compileDE, 1 to compile serially.
+     */
+    private static final int DEFAULT_COMPILE_PARALLELISM = Integer.getInteger("aura.compile.parallelism", 1);
+
+    /**
+     * The pool used for parallel compiles, shared by all registries and rebuilt if the parallelism changes.
+     */
+    private static ForkJoinPool compilePool;
+
+    /**
+     * The shared read lock, or null if this registry does not need it, either because reads are lock free and rely on
+     * the cache generation, or because another thread holds the lock for as long as this registry is in use.
+     */
     private final Lock rLock;
 
+    private final CachingService cachingService;
+
+    /**
+     * The cache generation this registry started in.
+     *
+     * With lock free reads, everything this registry puts in the shared caches is dropped once a source change has
+     * moved the generation on, since it may have been compiled from definitions that are now stale.
+     */
+    private final long cacheGeneration;
+
     private final Cache<DefDescriptor<?>, Boolean> existsCache;
     private final Cache<DefDescriptor<?>, Optional<? extends Definition>> defsCache;
     private final Cache<String, DependencyEntry> depsCache;
     private final Cache<String, String> stringsCache;
     private final Cache<String, String> altStringsCache;
+    private final Cache<String, byte[]> bytesCache;
     private final Cache<String, Set<DefDescriptor<?>>> descriptorFilterCache;
     private final Cache<String, String> accessCheckCache;
 
@@ -160,18 +194,42 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
 
     private final MasterDefRegistryImpl original;
 
-    private MasterDefRegistryImpl(RegistryTrie delegate, MasterDefRegistryImpl original) {
+    private int compileParallelism = DEFAULT_COMPILE_PARALLELISM;
+
+    /**
+     * Build a registry.
+     *
+     * @param delegate the registries to delegate to.
+     * @param original the 'public' registry, if this is a shadowing registry.
+     * @param readLockHeld true if another thread holds the read lock for as long as this registry is in use, as for
+     *            the registries used to build definitions in a parallel compile.
+     */
+    private MasterDefRegistryImpl(RegistryTrie delegate, MasterDefRegistryImpl original, boolean readLockHeld) {
         CachingService acs = Aura.getCachingService();
 
         this.delegateRegistries = delegate;
         this.original = original;
-        this.rLock = acs.getReadLock();
-        this.existsCache = acs.getExistsCache();
-        this.defsCache = acs.getDefsCache();
-        this.depsCache = acs.getDepsCache();
-        this.stringsCache = acs.getStringsCache();
-        this.altStringsCache = acs.getAltStringsCache();
-        this.descriptorFilterCache = acs.getDescriptorFilterCache();
+        this.cachingService = acs;
+        this.cacheGeneration = acs.getCacheGeneration();
+        if (acs.isLockFreeReads()) {
+            this.rLock = null;
+            this.existsCache = new GenerationCache<>(acs.getExistsCache(), acs, cacheGeneration);
+            this.defsCache = new GenerationCache<>(acs.getDefsCache(), acs, cacheGeneration);
+            this.depsCache = new GenerationCache<>(acs.getDepsCache(), acs, cacheGeneration);
+            this.stringsCache = new GenerationCache<>(acs.getStringsCache(), acs, cacheGeneration);
+            this.altStringsCache = new GenerationCache<>(acs.getAltStringsCache(), acs, cacheGeneration);
+            this.bytesCache = new GenerationCache<>(acs.getBytesCache(), acs, cacheGeneration);
+            this.descriptorFilterCache = new GenerationCache<>(acs.getDescriptorFilterCache(), acs, cacheGeneration);
+        } else {
+            this.rLock = readLockHeld ? null : acs.getReadLock();
+            this.existsCache = acs.getExistsCache();
+            this.defsCache = acs.getDefsCache();
+            this.depsCache = acs.getDepsCache();
+            this.stringsCache = acs.getStringsCache();
+            this.altStringsCache = acs.getAltStringsCache();
+            this.bytesCache = acs.getBytesCache();
+            this.descriptorFilterCache = acs.getDescriptorFilterCache();
+        }
         this.accessCheckCache = acs.<String, String> getCacheBuilder()
                 .setInitialSize(ACCESS_CHECK_CACHE_SIZE)
                 .setMaximumSize(ACCESS_CHECK_CACHE_SIZE)
@@ -195,7 +253,7 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
      * @param original the registry that is the 'public' registry.
      */
     public MasterDefRegistryImpl(@Nonnull MasterDefRegistryImpl original) {
-        this(original.delegateRegistries, original);
+        this(original.delegateRegistries, original, false);
     }
 
     /**
@@ -206,7 +264,7 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
      * @param registries the registries to use in the mdr.
      */
     public MasterDefRegistryImpl(@Nonnull DefRegistry<?>... registries) {
-        this(new RegistryTrie(registries), null);
+        this(new RegistryTrie(registries), null, false);
     }
 
     private boolean isOkForDependencyCaching(DefDescriptor<?> descriptor) {
@@ -262,7 +320,7 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
             // If we have somthing that is non-constant, we'll have to muck with caches and do some funky
             // running around.
             //
-            rLock.lock();
+            lockRead();
             try {
                 //
                 // We _never_ cache non-constant namespaces. We'd like to make them illegal, but for the moment
@@ -321,7 +379,7 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
                     }
                 }
             } finally {
-                rLock.unlock();
+                unlockRead();
             }
         }
 
@@ -415,6 +473,8 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
         public final AuraContext context = Aura.getContextService().getCurrentContext();
         public final LoggingService loggingService = Aura.getLoggingService();
         public final Map<DefDescriptor<? extends Definition>, CompilingDef<?>> compiled = Maps.newHashMap();
+        /** Definitions built ahead of the compile by a parallel compile, not yet validated. */
+        public final Map<DefDescriptor<? extends Definition>, Definition> prefetched = new ConcurrentHashMap<>();
         public final List<ClientLibraryDef> clientLibs;
         public final DefDescriptor<? extends Definition> topLevel;
         public final boolean compiling;
@@ -448,6 +508,12 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
             return cd;
         }
 
+        public <D extends Definition> D takePrefetched(DefDescriptor<D> descriptor) {
+            @SuppressWarnings("unchecked")
+            D def = (D) prefetched.remove(descriptor);
+            return def;
+        }
+
         private <D extends Definition> void addEntry(DefDescriptor<D> dd, Definition def) {
             @SuppressWarnings("unchecked")
             D realDef = (D)def;
@@ -576,7 +642,10 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
         // In this case, we make sure that the initial validation is called, and put
         // the def in the 'built' set.
         //
-        compiling.def = registry.getDef(compiling.descriptor);
+        compiling.def = currentCC.takePrefetched(compiling.descriptor);
+        if (compiling.def == null) {
+            compiling.def = registry.getDef(compiling.descriptor);
+        }
         if (compiling.def == null) {
             return false;
         }
@@ -832,6 +901,9 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
             List<ClientLibraryDef> clientLibs = Lists.newArrayList();
             CompileContext cc = new CompileContext(descriptor, clientLibs);
             cc.addMap(AuraStaticControllerDefRegistry.INSTANCE.getAll());
+            if (compileParallelism > 1) {
+                prefetchDefs(descriptor, cc);
+            }
             Definition def = compileDef(descriptor, cc);
             DependencyEntry de;
             String uid;
@@ -899,12 +971,13 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
 
             de = new DependencyEntry(uid, Collections.unmodifiableSet(deps), clientLibs);
             if (shouldCache(descriptor)) {
-                // put UID-qualified descriptor key for dependency
-                depsCache.put(makeGlobalKey(de.uid, descriptor), de);
+                // put UID-qualified descriptor key for dependency, indexed by its dependencies so that
+                // source changes only invalidate the entries that include them.
+                putDependencyEntry(makeGlobalKey(de.uid, descriptor), de);
 
                 // put unqualified descriptor key for dependency
                 if (cc.shouldCacheDependencies) {
-                    depsCache.put(makeNonUidGlobalKey(descriptor), de);
+                    putDependencyEntry(makeNonUidGlobalKey(descriptor), de);
                 }
             }
             // See localDependencies comment
@@ -918,6 +991,221 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
         }
     }
 
+    /**
+     * Set the number of threads used to build definitions in compileDE, 1 to compile serially.
+     */
+    protected void setCompileParallelism(int compileParallelism) {
+        this.compileParallelism = compileParallelism;
+    }
+
+    private static synchronized ForkJoinPool getCompilePool(int parallelism) {
+        if (compilePool == null || compilePool.getParallelism() != parallelism) {
+            if (compilePool != null) {
+                // tasks already submitted still run to completion.
+                compilePool.shutdown();
+            }
+            compilePool = new ForkJoinPool(parallelism);
+        }
+        return compilePool;
+    }
+
+    /**
+     * Build, in parallel, the definitions that compiling a descriptor will need.
+     *
+     * This walks the dependency graph breadth first, building each wave of definitions that we do not already have
+     * locally or in the cache on the compile pool, and leaves them in the compile context. Nothing is validated and no
+     * levels are computed here: the serial walk in {@link #compileDef} still does all of that afterwards, picking up
+     * the prebuilt definitions instead of going to the registries, so the dependency order and the uid are the same as
+     * for a serial compile. Failures are only logged, the serial walk will hit them again and report them as usual.
+     *
+     * Only registries that are thread safe are used here, definitions from any other registry (and what they depend
+     * on) are left to the serial walk.
+     *
+     * @param descriptor the descriptor we are about to compile.
+     * @param cc the compile context for the compile.
+     */
+    private void prefetchDefs(@Nonnull DefDescriptor<?> descriptor, @Nonnull CompileContext cc) {
+        ForkJoinPool pool = getCompilePool(compileParallelism);
+        Set<DefDescriptor<?>> seen = Sets.newHashSet();
+        List<DefDescriptor<?>> wave = Lists.newArrayList();
+
+        seen.add(descriptor);
+        wave.add(descriptor);
+        while (!wave.isEmpty()) {
+            Set<DefDescriptor<?>> dependencies = Sets.newHashSet();
+            Queue<DefDescriptor<?>> toBuild = new ConcurrentLinkedQueue<>();
+
+            for (DefDescriptor<?> dd : wave) {
+                if (needsPrefetch(dd, cc, dependencies)) {
+                    toBuild.add(dd);
+                }
+            }
+            if (!toBuild.isEmpty()) {
+                List<Callable<Set<DefDescriptor<?>>>> tasks = Lists.newArrayList();
+                int workers = Math.min(compileParallelism, toBuild.size());
+                for (int i = 0; i < workers; i++) {
+                    tasks.add(getPrefetchTask(toBuild, cc));
+                }
+                try {
+                    for (Future<Set<DefDescriptor<?>>> future : pool.invokeAll(tasks)) {
+                        dependencies.addAll(future.get());
+                    }
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ExecutionException ee) {
+                    // the tasks do not throw, but either way, leave it to the serial walk.
+                    return;
+                }
+            }
+            wave.clear();
+            for (DefDescriptor<?> dep : dependencies) {
+                if (seen.add(dep)) {
+                    wave.add(dep);
+                }
+            }
+        }
+    }
+
+    /**
+     * Should a definition be built by {@link #prefetchDefs}?
+     *
+     * If we already have the definition, its dependencies are added directly instead.
+     *
+     * @return true if the definition is to be built on the compile pool.
+     */
+    private <D extends Definition> boolean needsPrefetch(@Nonnull DefDescriptor<D> descriptor,
+            @Nonnull CompileContext cc, @Nonnull Set<DefDescriptor<?>> dependencies) {
+        CompilingDef<?> cd = cc.compiled.get(descriptor);
+        if (cd != null && cd.def != null) {
+            cd.def.appendDependencies(dependencies);
+            return false;
+        }
+        if (hasLocalDef(descriptor)) {
+            D localDef = getLocalDef(descriptor);
+            if (localDef != null) {
+                localDef.appendDependencies(dependencies);
+            }
+            return false;
+        }
+        DefRegistry<D> registry = getRegistryFor(descriptor);
+        if (registry == null || !registry.isThreadSafe()) {
+            return false;
+        }
+        if (!registry.isStatic() && registry.isCacheable() && shouldCache(descriptor)) {
+            Optional<? extends Definition> opt = defsCache.getIfPresent(descriptor);
+            if (opt != null) {
+                if (opt.isPresent()) {
+                    opt.get().appendDependencies(dependencies);
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get a task for {@link #prefetchDefs} that builds definitions from a shared queue until it is empty.
+     *
+     * Each task sets up one context, mirroring the one of the compile, for all the definitions it builds.
+     *
+     * @return the task, which returns the dependencies of the definitions it built.
+     */
+    private Callable<Set<DefDescriptor<?>>> getPrefetchTask(@Nonnull final Queue<DefDescriptor<?>> toBuild,
+            @Nonnull CompileContext cc) {
+        final AuraContext context = cc.context;
+        final String num = context.getNum();
+        final String contextPath = context.getContextPath();
+        final Client client = context.getClient();
+        final String frameworkUID = context.getFrameworkUID();
+        final List<Locale> requestedLocales = context.getRequestedLocales();
+        final Map<DefDescriptor<?>, String> loaded = Maps.newLinkedHashMap(context.getLoaded());
+        final Map<DefDescriptor<?>, String> clientLoaded = Maps.newLinkedHashMap(context.getClientLoaded());
+        final Map<DefDescriptor<? extends Definition>, Definition> prefetched = cc.prefetched;
+        return new Callable<Set<DefDescriptor<?>>>() {
+            @Override
+            public Set<DefDescriptor<?>> call() {
+                Set<DefDescriptor<?>> deps = Sets.newHashSet();
+
+                // Definitions may not look up other definitions while being built, but they do look at the context.
+                // The compiling thread holds the read lock until we are done, so the registry here need not lock.
+                // The style context is not copied, as getting it may compile the application. It is built from the
+                // client and the application on first use, so it comes out the same here.
+                Aura.getLoggingService().establish();
+                AuraContext taskContext = AuraImpl.getContextAdapter().establish(context.getMode(),
+                        new MasterDefRegistryImpl(delegateRegistries, null, true), context.getDefaultPrefixes(),
+                        context.getFormat(), context.getAccess(), context.getJsonSerializationContext(),
+                        context.getGlobalProviders(), context.getApplicationDescriptor(),
+                        context.getIsDebugToolEnabled());
+                taskContext.setNum(num);
+                taskContext.setContextPath(contextPath);
+                taskContext.setClient(client);
+                taskContext.setFrameworkUID(frameworkUID);
+                taskContext.setRequestedLocales(requestedLocales);
+                taskContext.setClientLoaded(clientLoaded);
+                for (Map.Entry<DefDescriptor<?>, String> entry : loaded.entrySet()) {
+                    taskContext.addLoaded(entry.getKey(), entry.getValue());
+                }
+                try {
+                    DefDescriptor<?> descriptor;
+                    while ((descriptor = toBuild.poll()) != null) {
+                        Definition def = prefetchDef(descriptor);
+                        if (def != null) {
+                            prefetched.put(descriptor, def);
+                            def.appendDependencies(deps);
+                        }
+                    }
+                } finally {
+                    Aura.getContextService().endContext();
+                }
+                return deps;
+            }
+        };
+    }
+
+    /**
+     * Build a definition on the compile pool, logging any failure.
+     */
+    private <D extends Definition> D prefetchDef(@Nonnull DefDescriptor<D> descriptor) {
+        try {
+            return getRegistryFor(descriptor).getDef(descriptor);
+        } catch (QuickFixException qfe) {
+            // the serial walk will report it.
+            logger.debug("Prefetch of " + descriptor + " failed", qfe);
+        } catch (Exception e) {
+            // the serial walk will report it, but this is unexpected.
+            logger.warn("Prefetch of " + descriptor + " failed", e);
+        }
+        return null;
+    }
+
+    private void lockRead() {
+        if (rLock != null) {
+            rLock.lock();
+        }
+    }
+
+    private void unlockRead() {
+        if (rLock != null) {
+            rLock.unlock();
+        }
+    }
+
+    /**
+     * Put a dependency entry in the global cache, unless the cache generation has moved on.
+     *
+     * Without lock free reads we hold the read lock here, so the generation cannot change.
+     */
+    private void putDependencyEntry(String key, DependencyEntry de) {
+        if (cachingService.getCacheGeneration() != cacheGeneration) {
+            return;
+        }
+        cachingService.putDependencyEntry(key, de);
+        if (cachingService.getCacheGeneration() != cacheGeneration) {
+            depsCache.invalidate(key);
+        }
+    }
+
     /**
      * Get a dependency entry for a given uid.
      *
@@ -1079,7 +1367,7 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
             //
             return compileDef(descriptor, currentCC);
         }
-        rLock.lock();
+        lockRead();
         try {
             DependencyEntry de = getDE(null, descriptor);
             if (de == null) {
@@ -1116,7 +1404,7 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
             D def = (D) defs.get(descriptor);
             return def;
         } finally {
-            rLock.unlock();
+            unlockRead();
         }
     }
 
@@ -1193,7 +1481,7 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
                 return true;
             }
         }
-        rLock.lock();
+        lockRead();
         try {
             if (cacheable) {
                 Optional<?> opt = defsCache.getIfPresent(descriptor);
@@ -1216,7 +1504,7 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
                 existsCache.put(descriptor, cacheVal);
             }
         } finally {
-            rLock.unlock();
+            unlockRead();
         }
         if (regExists == false) {
             // Cache negatives to avoid excessive lookups.
@@ -1252,6 +1540,29 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
         localDescs.add(desc);
     }
 
+    /**
+     * Add the definitions another registry loaded, so that they are sent to the client with the ones loaded here.
+     *
+     * This is for registries used on other threads for the same request, e.g. to run independent actions. It must be
+     * called on the thread that uses this registry, once the other registry is no longer in use.
+     *
+     * @param other the registry to take the definitions from.
+     */
+    public void addDefs(MasterDefRegistryImpl other) {
+        for (Map.Entry<DefDescriptor<? extends Definition>, Definition> entry : other.defs.entrySet()) {
+            if (entry.getValue() != null && defs.get(entry.getKey()) == null) {
+                defs.put(entry.getKey(), entry.getValue());
+            }
+        }
+        defNotCacheable.addAll(other.defNotCacheable);
+        if (other.localDescs != null) {
+            if (localDescs == null) {
+                localDescs = Sets.newHashSet();
+            }
+            localDescs.addAll(other.localDescs);
+        }
+    }
+
     @Override
     public <T extends Definition> Source<T> getSource(DefDescriptor<T> descriptor) {
         DefRegistry<T> reg = getRegistryFor(descriptor);
@@ -1435,15 +1746,15 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
 
     @Override
     public String getCachedString(String uid, DefDescriptor<?> descriptor, String key, Callable<String> loader) throws QuickFixException, IOException {
-    	return getCachedString(stringsCache, uid, descriptor, key, loader);
+    	return getCachedValue(stringsCache, uid, descriptor, key, loader);
     }
 
     @Override
     public String getAltCachedString(String uid, DefDescriptor<?> descriptor, String key, Callable<String> loader) throws QuickFixException, IOException {
-    	return getCachedString(altStringsCache, uid, descriptor, key, loader);
+    	return getCachedValue(altStringsCache, uid, descriptor, key, loader);
     }
 
-    private String getCachedString(Cache<String, String> cache, String uid, DefDescriptor<?> descriptor, String key, Callable<String> loader) throws QuickFixException, IOException {
+    private <T> T getCachedValue(Cache<String, T> cache, String uid, DefDescriptor<?> descriptor, String key, Callable<T> loader) throws QuickFixException, IOException {
     	if (shouldCache(descriptor)) {
 	        DependencyEntry de = localDependencies.get(uid);
 
@@ -1485,6 +1796,35 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
         }
     }
 
+    @Override
+    public byte[] getCachedBytes(String uid, DefDescriptor<?> descriptor, String key) {
+        if (shouldCache(descriptor)) {
+            DependencyEntry de = localDependencies.get(uid);
+
+            if (de != null) {
+                return bytesCache.getIfPresent(getKey(de, descriptor, key));
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void putCachedBytes(String uid, DefDescriptor<?> descriptor, String key, byte[] value) {
+        if (shouldCache(descriptor)) {
+            DependencyEntry de = localDependencies.get(uid);
+
+            if (de != null) {
+                bytesCache.put(getKey(de, descriptor, key), value);
+            }
+        }
+    }
+
+    @Override
+    public byte[] getCachedBytes(String uid, DefDescriptor<?> descriptor, String key, Callable<byte[]> loader)
+            throws QuickFixException, IOException {
+        return getCachedValue(bytesCache, uid, descriptor, key, loader);
+    }
+
     /**
      * Get the UID.
      *
@@ -1510,7 +1850,7 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
 
         DependencyEntry de = null;
 
-        rLock.lock();
+        lockRead();
         try {
             de = getDE(uid, descriptor);
             if (de == null) {
@@ -1531,7 +1871,7 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
                 }
             }
         } finally {
-            rLock.unlock();
+            unlockRead();
         }
         if (de.qfe != null) {
             throw de.qfe;
@@ -1539,6 +1879,20 @@ public class MasterDefRegistryImpl implements MasterDefRegistry {
         return de.uid;
     }
 
+    @Override
+    public String getCachedUid(DefDescriptor<?> descriptor) {
+        if (descriptor == null) {
+            return null;
+        }
+        lockRead();
+        try {
+            DependencyEntry de = getDE(null, descriptor);
+            return de != null && de.qfe == null ? de.uid : null;
+        } finally {
+            unlockRead();
+        }
+    }
+
     /** Creates a key for the localDependencies, using DefType and FQN. */
     private String makeLocalKey(@Nonnull DefDescriptor<?> descriptor) {
         return descriptor.getDefType().toString() + ":" + descriptor.getQualifiedName().toLowerCase();
@@ -74,4 +74,14 @@ public class NonCachingDefRegistryImpl<T extends Definition> extends DefRegistry
     public boolean isCacheable() {
         return false;
     }
+
+    /**
+     * The factories behind these registries keep no state between calls (parsers are stateless singletons, see
+     * ParserFactory), and the registries are already shared by all requests once AuraRegistryProviderImpl has built
+     * them, so they can build definitions from several threads at once.
+     */
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
 }
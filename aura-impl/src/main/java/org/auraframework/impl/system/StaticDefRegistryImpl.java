@@ -101,4 +101,9 @@ public class StaticDefRegistryImpl<T extends Definition> extends DefRegistryImpl
     public boolean isStatic() {
         return true;
     }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
 }
@@ -16,9 +16,6 @@
 package org.auraframework.impl.util.json;
 
 import java.util.Collection;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 
 import org.auraframework.adapter.JsonSerializerAdapter;
 import org.auraframework.impl.AuraImpl;
@@ -26,6 +23,7 @@ import org.auraframework.system.AuraContext.Mode;
 import org.auraframework.util.json.ClassMapJsonSerializationContext;
 import org.auraframework.util.json.JsonSerializable;
 import org.auraframework.util.json.JsonSerializer;
+import org.auraframework.util.json.JsonSerializerDispatchTable;
 import org.auraframework.util.json.JsonSerializers;
 
 import com.google.common.collect.ImmutableMap;
@@ -35,16 +33,14 @@ import com.google.common.collect.ImmutableMap.Builder;
  * json serialization context for aura
  */
 public class AuraJsonContext extends ClassMapJsonSerializationContext {
-    private static Map<String, JsonSerializer<?>> SERIALIZERS_LOOKUP_MAP;
-    private static final ConcurrentMap<String, JsonSerializer<?>> cache = new ConcurrentHashMap<>();
-    private static Map<Class<?>, JsonSerializer<?>> SERIALIZERS_INSTANCE_MAP;   
+    private static JsonSerializerDispatchTable DISPATCH_TABLE;
 
     public static AuraJsonContext createContext(Mode mode, boolean refSupport) {
         return new AuraJsonContext(mode.prettyPrint(), refSupport);
     }
 
     private AuraJsonContext(boolean format, boolean refSupport) {
-        super(getLookupMap(), getInstanceMap(), cache, format, refSupport, -1, -1);
+        super(getDispatchTable(), format, refSupport, -1, -1);
     }
 
     @Override
@@ -59,19 +55,9 @@ public class AuraJsonContext extends ClassMapJsonSerializationContext {
         return s;
     }
 
-    private static Map<String, JsonSerializer<?>> getLookupMap()  {
-        buildSerializerMaps();
-        return SERIALIZERS_LOOKUP_MAP;
-    }
-
-    private static Map<Class<?>, JsonSerializer<?>> getInstanceMap()  {
-        buildSerializerMaps();
-        return SERIALIZERS_INSTANCE_MAP;
-    }
-
-    private static synchronized void buildSerializerMaps() {
-        if (SERIALIZERS_LOOKUP_MAP != null) {
-            return;
+    private static synchronized JsonSerializerDispatchTable getDispatchTable() {
+        if (DISPATCH_TABLE != null) {
+            return DISPATCH_TABLE;
         }
         Collection<JsonSerializerAdapter> adapters = AuraImpl.getJsonSerializerAdapters();
         Builder<String, JsonSerializer<?>> b = ImmutableMap.builder();
@@ -80,7 +66,7 @@ public class AuraJsonContext extends ClassMapJsonSerializationContext {
             b.putAll(a.lookupSerializers());
             b2.putAll(a.instanceofSerializers());
         }
-        SERIALIZERS_LOOKUP_MAP = b.build();
-        SERIALIZERS_INSTANCE_MAP = b2.build();
+        DISPATCH_TABLE = new JsonSerializerDispatchTable(b.build(), b2.build());
+        return DISPATCH_TABLE;
     }
 }
@@ -27,6 +27,7 @@ Aura.Services.AuraClientService$AuraXHR = function AuraXHR() {
     this.marker = 0;
     this.request = undefined;
     this.actions = {};
+    this.streamed = undefined;
 };
 
 /**
@@ -35,6 +36,7 @@ Aura.Services.AuraClientService$AuraXHR = function AuraXHR() {
 Aura.Services.AuraClientService$AuraXHR.prototype.reset = function() {
     this.request = undefined;
     this.actions = {};
+    this.streamed = undefined;
 };
 
 /**
@@ -210,6 +212,10 @@ function AuraClientService () {
     // whether to use bulk storage apis for storable actions
     this.optionBulkStorage = true;
 
+    // whether to ask the server to stream action responses, so they can be decoded as they arrive.
+    // Off by default, the same as the server side default for aura.stream.
+    this.optionStreamActions = false;
+
     this.reloadFunction = undefined;
     this.reloadPointPassed = false;
 
@@ -230,6 +236,12 @@ function AuraClientService () {
 
 AuraClientService.BOOTSTRAP_KEY = "appBootstrap";
 
+/**
+ * The marker the server writes around each action in a streamed response. This must match
+ * ServerService.ACTION_BOUNDARY.
+ */
+AuraClientService.ACTION_BOUNDARY = "\n//ACTION\n";
+
 /**
  * set the queue size.
  *
@@ -287,10 +299,11 @@ AuraClientService.prototype.deferPendingActions = function() {
  * @param {XmlHttpRequest} response the XHR object.
  * @param {Boolean} [noStrip] true to not strip off the JSON hijacking prevention (while(1) prefix).
  * @param {Boolean} [timedOut] true if the XHR timed out; false otherwise.
+ * @param {Object} [streamed] the actions already decoded from a streamed response, see decodeStreamedActions.
  * @returns {Object} An object with properties 'status', which represents the status of the response, and potentially
  *          'message', which contains the decoded server response or an error message.
  */
-AuraClientService.prototype.decode = function(response, noStrip, timedOut) {
+AuraClientService.prototype.decode = function(response, noStrip, timedOut, streamed) {
     var ret = {};
 
     var e;
@@ -407,6 +420,15 @@ AuraClientService.prototype.decode = function(response, noStrip, timedOut) {
             return ret;
         }
     }
+    //
+    // cut out the actions we have already decoded, leaving an empty list of actions.
+    //
+    var streamedActions;
+    if (streamed && streamed.actions.length > 0) {
+        text = text.substring(0, streamed.start) + text.substring(streamed.offset);
+        streamedActions = streamed.actions;
+    }
+
     //
     // strip off the while(1) at the beginning
     //
@@ -426,6 +448,10 @@ AuraClientService.prototype.decode = function(response, noStrip, timedOut) {
         return ret;
     }
 
+    if (streamedActions) {
+        responseMessage["actions"] = streamedActions.concat(responseMessage["actions"] || []);
+    }
+
     if ("actions" in responseMessage) {
         $A.util.json.resolveRefsObject(responseMessage["actions"]);
     }
@@ -435,6 +461,64 @@ AuraClientService.prototype.decode = function(response, noStrip, timedOut) {
     return ret;
 };
 
+/**
+ * Decode the complete actions in a streamed response that has not finished yet.
+ *
+ * The server writes a boundary before the first action and after each action, so everything between two
+ * boundaries is a single action response. These are decoded as they arrive, so that the work is spread
+ * over the time it takes to receive the response. The actions are still processed in order once the
+ * response is complete, as the context at the end of the response may hold definitions they need.
+ *
+ * If anything does not decode, we give up, and the whole response is decoded when it is complete.
+ *
+ * @param {AuraXHR} auraXHR the xhr container.
+ * @private
+ */
+AuraClientService.prototype.decodeStreamedActions = function(auraXHR) {
+    var streamed = auraXHR.streamed;
+    var boundary = AuraClientService.ACTION_BOUNDARY;
+    var text;
+
+    try {
+        if (auraXHR.request["status"] !== 200) {
+            return;
+        }
+        text = auraXHR.request["responseText"];
+    } catch (e) {
+        // some browsers do not let us see partial responses.
+        return;
+    }
+    if (!text) {
+        return;
+    }
+    if (streamed.start < 0) {
+        streamed.start = text.indexOf(boundary);
+        if (streamed.start < 0) {
+            return;
+        }
+        streamed.offset = streamed.start + boundary.length;
+    }
+
+    var end = text.indexOf(boundary, streamed.offset);
+    while (end >= 0) {
+        // drop the separator between actions.
+        var segment = text.substring(streamed.offset, end).replace(/^\s*,/, "");
+        var action;
+        try {
+            action = $A.util.globalEval(segment);
+        } catch (e) {
+            action = undefined;
+        }
+        if ($A.util.isUndefinedOrNull(action)) {
+            auraXHR.streamed = undefined;
+            return;
+        }
+        streamed.actions.push(action);
+        streamed.offset = end + boundary.length;
+        end = text.indexOf(boundary, streamed.offset);
+    }
+};
+
 /**
  * Fire an event exception from the wire.
  *
@@ -2124,6 +2208,9 @@ AuraClientService.prototype.send = function(auraXHR, actions, method, options) {
             params["aura.access"] = "UNAUTHENTICATED";
         } else {
             params["aura.token"] = this._token;
+            if (this.optionStreamActions) {
+                params["aura.stream"] = "true";
+            }
         }
         qs = this.buildParams(params);
     } catch (e) {
@@ -2143,6 +2230,9 @@ AuraClientService.prototype.send = function(auraXHR, actions, method, options) {
     auraXHR.length = qs.length;
     auraXHR.request = this.createXHR();
     auraXHR.marker = Aura.Services.AuraClientServiceMarker++;
+    if (method === "POST" && this.optionStreamActions) {
+        auraXHR.streamed = { start: -1, offset: -1, actions: [] };
+    }
     auraXHR.request["open"](method, url, this._appNotTearingDown);
 
     if (this._appNotTearingDown && "withCredentials" in auraXHR.request) {
@@ -2154,6 +2244,10 @@ AuraClientService.prototype.send = function(auraXHR, actions, method, options) {
     // sure that we only write it. And for safety's sake, just write it once.
     //
     var onReady = function() {
+        // Decode the actions that have arrived so far, the response is processed once it is complete.
+        if (processed === false && auraXHR.streamed && auraXHR.request["readyState"] === 3 && !timedOut) {
+            that.decodeStreamedActions(auraXHR);
+        }
         // Ordering is important. auraXHR will no longer be valid after processed.
         if (processed === false && (auraXHR.request["readyState"] === 4 || timedOut)) {
             processed = true;
@@ -2332,7 +2426,10 @@ AuraClientService.prototype.receive = function(auraXHR, timedOut) {
     var responseMessage;
     this.auraStack.push("AuraClientService$receive");
     try {
-        responseMessage = this.decode(auraXHR.request, false, timedOut);
+        if (auraXHR.streamed && !timedOut) {
+            this.decodeStreamedActions(auraXHR);
+        }
+        responseMessage = this.decode(auraXHR.request, false, timedOut, auraXHR.streamed);
 
         if (responseMessage["status"] === "SUCCESS") {
             this.processResponses(auraXHR, responseMessage["message"]);
@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl;
+
+import org.auraframework.Aura;
+import org.auraframework.def.ComponentDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.service.ContextService;
+import org.auraframework.system.AuraContext.Authentication;
+import org.auraframework.system.AuraContext.Format;
+import org.auraframework.system.AuraContext.Mode;
+import org.auraframework.util.test.perf.ThroughputBenchmark;
+
+/**
+ * Contention benchmark for the registry read path.
+ *
+ * Each operation does what the start of a request does for a warm cache: start a context, which creates a new
+ * MasterDefRegistryImpl, and get the uid of a component through it, so the lookup goes through the read lock (or the
+ * cache generation) and the shared dependency cache. The mode is picked up from the system property when the caching
+ * service is created, so run the benchmark once with and once without -Daura.cache.lockFreeReads=true and compare.
+ *
+ * Arguments are the number of threads to scale to (e.g. 64 on a 64 core box) and the component to look up.
+ */
+public class CachingServiceContentionBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        String name = args.length > 1 ? args[1] : "aura:text";
+        final ContextService contextService = Aura.getContextService();
+        final DefDescriptor<ComponentDef> descriptor = Aura.getDefinitionService().getDefDescriptor(name,
+                ComponentDef.class);
+        final String mode = Aura.getCachingService().isLockFreeReads() ? "cache generation" : "read lock";
+
+        ThroughputBenchmark benchmark = new ThroughputBenchmark("Registry read path contention");
+        benchmark.measureScaling("getUid, " + mode, maxThreads, new ThroughputBenchmark.Operation() {
+            @Override
+            public Object run() throws Exception {
+                contextService.startContext(Mode.PROD, Format.JSON, Authentication.AUTHENTICATED);
+                try {
+                    return contextService.getCurrentContext().getDefRegistry().getUid(null, descriptor);
+                } finally {
+                    contextService.endContext();
+                }
+            }
+        });
+        benchmark.print(System.out);
+    }
+}
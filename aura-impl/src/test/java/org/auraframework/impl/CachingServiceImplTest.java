@@ -31,6 +31,7 @@ import org.apache.log4j.WriterAppender;
 import org.apache.log4j.spi.LoggingEvent;
 import org.auraframework.cache.Cache;
 import org.auraframework.def.ApplicationDef;
+import org.auraframework.def.ClientLibraryDef;
 import org.auraframework.def.ComponentDef;
 import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.DefDescriptor.DefType;
@@ -369,4 +370,90 @@ public class CachingServiceImplTest extends AuraImplTestCase {
 					}
 				}, keys);
 	}
+
+    @Test
+    public void testNotifyDependentSourceChange_InvalidatesOnlyDependentEntries() {
+        DefDescriptor<?> changed = DefDescriptorImpl.getInstance(
+                getAuraTestingUtil().getNonce("js://some.changed"),
+                HelperDef.class);
+        DefDescriptor<?> other = DefDescriptorImpl.getInstance(
+                getAuraTestingUtil().getNonce("markup://some:other"),
+                ComponentDef.class);
+        Set<DefDescriptor<?>> dependentDeps = Sets.newHashSet();
+        dependentDeps.add(changed);
+        dependentDeps.add(other);
+        Set<DefDescriptor<?>> unrelatedDeps = Sets.newHashSet();
+        unrelatedDeps.add(other);
+
+        DependencyEntry dependent = new DependencyEntry("dependentUid",
+                dependentDeps, Collections.<ClientLibraryDef> emptyList());
+        DependencyEntry unrelated = new DependencyEntry("unrelatedUid",
+                unrelatedDeps, Collections.<ClientLibraryDef> emptyList());
+
+        CachingServiceImpl service = new CachingServiceImpl();
+        service.putDependencyEntry("dependentUid/APPLICATION:some:dependent", dependent);
+        service.putDependencyEntry("APPLICATION:some:dependent", dependent);
+        service.putDependencyEntry("unrelatedUid/APPLICATION:some:unrelated", unrelated);
+        service.getAltStringsCache().put("dependentUid@some:dependent@JS:DEV:dependentUid", "dependent");
+        service.getAltStringsCache().put("unrelatedUid@some:unrelated@JS:DEV:unrelatedUid", "unrelated");
+        service.getBytesCache().put("dependentUid@some:dependent@JS:DEV:dependentUid", new byte[] { 1 });
+        service.getDescriptorFilterCache().put("markup://some:*", dependentDeps);
+        service.getBytesCache().put("unrelatedUid@some:unrelated@JS:DEV:unrelatedUid", new byte[] { 2 });
+
+        service.notifyDependentSourceChange(
+                Collections.<WeakReference<SourceListener>> emptySet(), changed,
+                SourceMonitorEvent.CHANGED, null);
+
+        assertNull("Dependent entry not invalidated",
+                service.getDepsCache().getIfPresent("dependentUid/APPLICATION:some:dependent"));
+        assertNull("Dependent descriptor entry not invalidated",
+                service.getDepsCache().getIfPresent("APPLICATION:some:dependent"));
+        assertNull("Dependent string not invalidated",
+                service.getAltStringsCache().getIfPresent("dependentUid@some:dependent@JS:DEV:dependentUid"));
+        assertNull("Dependent bytes not invalidated",
+                service.getBytesCache().getIfPresent("dependentUid@some:dependent@JS:DEV:dependentUid"));
+        assertNull("Descriptor filter results not invalidated",
+                service.getDescriptorFilterCache().getIfPresent("markup://some:*"));
+        assertNotNull("Unrelated entry invalidated",
+                service.getDepsCache().getIfPresent("unrelatedUid/APPLICATION:some:unrelated"));
+        assertNotNull("Unrelated string invalidated",
+                service.getAltStringsCache().getIfPresent("unrelatedUid@some:unrelated@JS:DEV:unrelatedUid"));
+        assertNotNull("Unrelated bytes invalidated",
+                service.getBytesCache().getIfPresent("unrelatedUid@some:unrelated@JS:DEV:unrelatedUid"));
+    }
+
+    @Test
+    public void testNotifyDependentSourceChange_InvalidatesAllEntriesIfSourceCreated() {
+        DefDescriptor<?> created = DefDescriptorImpl.getInstance(
+                getAuraTestingUtil().getNonce("js://some.created"),
+                HelperDef.class);
+        DefDescriptor<?> other = DefDescriptorImpl.getInstance(
+                getAuraTestingUtil().getNonce("markup://some:other"),
+                ComponentDef.class);
+        Set<DefDescriptor<?>> deps = Sets.newHashSet();
+        deps.add(other);
+
+        CachingServiceImpl service = new CachingServiceImpl();
+        service.putDependencyEntry("someUid/APPLICATION:some:app", new DependencyEntry("someUid",
+                deps, Collections.<ClientLibraryDef> emptyList()));
+
+        service.notifyDependentSourceChange(
+                Collections.<WeakReference<SourceListener>> emptySet(), created,
+                SourceMonitorEvent.CREATED, null);
+
+        assertNull("Entry not invalidated on creation",
+                service.getDepsCache().getIfPresent("someUid/APPLICATION:some:app"));
+    }
+
+    @Test
+    public void testNotifyDependentSourceChange_IncrementsCacheGeneration() {
+        CachingServiceImpl service = new CachingServiceImpl();
+        long generation = service.getCacheGeneration();
+
+        service.notifyDependentSourceChange(
+                Collections.<WeakReference<SourceListener>> emptySet(), null,
+                null, null);
+
+        assertEquals(generation + 1, service.getCacheGeneration());
+    }
 }
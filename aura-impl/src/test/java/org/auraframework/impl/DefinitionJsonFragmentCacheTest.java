@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl;
+
+import org.auraframework.def.ComponentDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.EventDef;
+import org.auraframework.system.AuraContext;
+import org.auraframework.system.AuraContext.Mode;
+import org.auraframework.system.MasterDefRegistry;
+import org.auraframework.util.json.JsonSerializationContext;
+import org.auraframework.util.test.util.UnitTestCase;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class DefinitionJsonFragmentCacheTest extends UnitTestCase {
+    private AuraContext context;
+    private JsonSerializationContext serializationContext;
+    private MasterDefRegistry mdr;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        context = Mockito.mock(AuraContext.class);
+        serializationContext = Mockito.mock(JsonSerializationContext.class);
+        mdr = Mockito.mock(MasterDefRegistry.class);
+        Mockito.doReturn(serializationContext).when(context).getJsonSerializationContext();
+        Mockito.doReturn(mdr).when(context).getDefRegistry();
+        Mockito.doReturn(Mode.PROD).when(context).getMode();
+        Mockito.doReturn(false).when(mdr).getClientClassLoaded(Mockito.any(DefDescriptor.class));
+    }
+
+    private ComponentDef mockComponentDef() {
+        @SuppressWarnings("unchecked")
+        DefDescriptor<ComponentDef> descriptor = Mockito.mock(DefDescriptor.class);
+        ComponentDef def = Mockito.mock(ComponentDef.class);
+        Mockito.doReturn(descriptor).when(def).getDescriptor();
+        return def;
+    }
+
+    @Test
+    public void testKeyForComponentDef() {
+        DefinitionJsonFragmentCache cache = new DefinitionJsonFragmentCache(context);
+
+        assertEquals("JSON:PROD", cache.getKey(mockComponentDef()));
+    }
+
+    @Test
+    public void testKeyForEventDef() {
+        DefinitionJsonFragmentCache cache = new DefinitionJsonFragmentCache(context);
+
+        assertEquals("JSON:PROD", cache.getKey(Mockito.mock(EventDef.class)));
+    }
+
+    @Test
+    public void testNoKeyForOtherValues() {
+        DefinitionJsonFragmentCache cache = new DefinitionJsonFragmentCache(context);
+
+        assertNull(cache.getKey("markup://aura:text"));
+    }
+
+    @Test
+    public void testNoKeyWhenNested() {
+        Mockito.doReturn(true).when(serializationContext).isSerializing();
+        DefinitionJsonFragmentCache cache = new DefinitionJsonFragmentCache(context);
+
+        assertNull(cache.getKey(mockComponentDef()));
+    }
+
+    @Test
+    public void testNoKeyWhenPreloading() {
+        Mockito.doReturn(true).when(context).isPreloading();
+        DefinitionJsonFragmentCache cache = new DefinitionJsonFragmentCache(context);
+
+        assertNull(cache.getKey(mockComponentDef()));
+    }
+
+    @Test
+    public void testNoKeyWhenPreloaded() {
+        ComponentDef def = mockComponentDef();
+        Mockito.doReturn(true).when(context).isPreloaded(def.getDescriptor());
+        DefinitionJsonFragmentCache cache = new DefinitionJsonFragmentCache(context);
+
+        assertNull(cache.getKey(def));
+    }
+
+    @Test
+    public void testGetAndPutUseRegistryCacheForUid() throws Exception {
+        ComponentDef def = mockComponentDef();
+        DefDescriptor<ComponentDef> descriptor = def.getDescriptor();
+        Mockito.doReturn("uid").when(mdr).getCachedUid(descriptor);
+        Mockito.doReturn("{}").when(mdr).getCachedString("uid", descriptor, "JSON:PROD");
+        DefinitionJsonFragmentCache cache = new DefinitionJsonFragmentCache(context);
+
+        assertEquals("{}", cache.get(def, "JSON:PROD"));
+        cache.put(def, "JSON:PROD", "{\"a\":1}");
+        Mockito.verify(mdr).putCachedString("uid", descriptor, "JSON:PROD", "{\"a\":1}");
+    }
+
+    @Test
+    public void testGetAndPutSkippedIfNotCompiled() throws Exception {
+        ComponentDef def = mockComponentDef();
+        DefDescriptor<ComponentDef> descriptor = def.getDescriptor();
+        DefinitionJsonFragmentCache cache = new DefinitionJsonFragmentCache(context);
+
+        assertNull(cache.get(def, "JSON:PROD"));
+        cache.put(def, "JSON:PROD", "{}");
+        Mockito.verify(mdr, Mockito.never()).getUid(Mockito.anyString(), Mockito.eq(descriptor));
+        Mockito.verify(mdr, Mockito.never()).putCachedString(Mockito.anyString(), Mockito.eq(descriptor),
+                Mockito.anyString(), Mockito.anyString());
+    }
+}
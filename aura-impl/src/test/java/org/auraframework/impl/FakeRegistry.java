@@ -98,6 +98,11 @@ public class FakeRegistry implements MasterDefRegistry {
         return null;
     }
 
+    @Override
+    public String getCachedUid(DefDescriptor<?> descriptor) {
+        return null;
+    }
+
     @Override
     public Set<DefDescriptor<?>> getDependencies(String uid) {
         return null;
@@ -129,6 +134,21 @@ public class FakeRegistry implements MasterDefRegistry {
     public void putCachedString(String uid, DefDescriptor<?> descriptor, String key, String value) {
     }
 
+    @Override
+    public byte[] getCachedBytes(String uid, DefDescriptor<?> descriptor, String key) {
+        return null;
+    }
+
+    @Override
+    public void putCachedBytes(String uid, DefDescriptor<?> descriptor, String key, byte[] value) {
+    }
+
+    @Override
+    public byte[] getCachedBytes(String uid, DefDescriptor<?> descriptor, String key, Callable<byte[]> loader)
+            throws QuickFixException, IOException {
+        return null;
+    }
+
     @Override
     public List<ClientLibraryDef> getClientLibraries(String uid) {
         return null;
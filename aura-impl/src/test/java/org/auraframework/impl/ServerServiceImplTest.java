@@ -0,0 +1,227 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import org.auraframework.Aura;
+import org.auraframework.def.ActionDef;
+import org.auraframework.def.ComponentDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.impl.java.controller.IndependentActionTestController;
+import org.auraframework.impl.java.controller.JavaAction;
+import org.auraframework.instance.Action;
+import org.auraframework.instance.AuraValueProviderType;
+import org.auraframework.service.ServerService;
+import org.auraframework.system.AuraContext;
+import org.auraframework.system.Message;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+
+public class ServerServiceImplTest extends AuraImplTestCase {
+    private static final String CONTROLLER = "java://org.auraframework.impl.java.controller.IndependentActionTestController";
+
+    private Action getAction(String name, String id) throws Exception {
+        Map<String, Object> params = ImmutableMap.<String, Object> of("id", id);
+        return (Action) Aura.getInstanceService().getInstance(CONTROLLER + "/ACTION$" + name, ActionDef.class,
+                params);
+    }
+
+    @Test
+    public void testIndependentAnnotationMarksAction() throws Exception {
+        assertTrue(((JavaAction) getAction("getThreadName", "a")).isIndependent());
+        assertFalse(((JavaAction) getAction("getDependentThreadName", "b")).isIndependent());
+    }
+
+    @Test
+    public void testStreamWritesBoundaryAroundActions() throws Exception {
+        ServerServiceImpl serverService = new ServerServiceImpl();
+        List<Action> actions = Lists.newArrayList(getAction("getDependentThreadName", "a"),
+                getAction("getDependentThreadName", "b"));
+        final int[] flushes = new int[1];
+        StringWriter out = new StringWriter() {
+            @Override
+            public void flush() {
+                flushes[0]++;
+            }
+        };
+
+        serverService.run(new Message(actions), Aura.getContextService().getCurrentContext(), out, null, true);
+
+        String[] parts = out.toString().split(ServerService.ACTION_BOUNDARY, -1);
+        assertEquals("expected a boundary before and after each action", 4, parts.length);
+        assertTrue(parts[0].trim().endsWith("\"actions\":["));
+        assertTrue(parts[1].contains("\"a:"));
+        assertTrue(parts[2].trim().startsWith(",") && parts[2].contains("\"b:"));
+        assertTrue(parts[3].trim().startsWith("]"));
+        assertEquals(2, flushes[0]);
+    }
+
+    @Test
+    public void testStreamWritesActionsToOutputStreamWithoutClosingIt() throws Exception {
+        ServerServiceImpl serverService = new ServerServiceImpl();
+        List<Action> actions = Lists.newArrayList(getAction("getDependentThreadName", "a"),
+                getAction("getDependentThreadName", "b"));
+        final int[] flushes = new int[1];
+        final boolean[] closed = new boolean[1];
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                flushes[0]++;
+            }
+
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+
+        serverService.run(new Message(actions), Aura.getContextService().getCurrentContext(), out, null, true);
+
+        String[] parts = new String(out.toByteArray(), StandardCharsets.UTF_8).split(ServerService.ACTION_BOUNDARY, -1);
+        assertEquals("expected a boundary before and after each action", 4, parts.length);
+        assertTrue(parts[1].contains("\"a:"));
+        assertTrue(parts[2].contains("\"b:"));
+        assertTrue(parts[3].trim().endsWith("}"));
+        assertEquals("expected a flush per action and one at the end", 3, flushes[0]);
+        assertFalse("the response stream must stay open for errors", closed[0]);
+    }
+
+    @Test
+    public void testNoBoundaryWithoutStream() throws Exception {
+        ServerServiceImpl serverService = new ServerServiceImpl();
+        List<Action> actions = Lists.newArrayList(getAction("getDependentThreadName", "a"));
+        StringWriter out = new StringWriter();
+
+        serverService.run(new Message(actions), Aura.getContextService().getCurrentContext(), out, null);
+
+        assertFalse(out.toString().contains(ServerService.ACTION_BOUNDARY));
+    }
+
+    @Test
+    public void testIndependentActionsRunSequentiallyByDefault() throws Exception {
+        ServerServiceImpl serverService = new ServerServiceImpl();
+        serverService.setActionParallelism(1);
+        List<Action> actions = Lists.newArrayList(getAction("getThreadName", "a"), getAction("getThreadName", "b"));
+
+        serverService.run(new Message(actions), Aura.getContextService().getCurrentContext(), new StringWriter(),
+                null);
+
+        String thread = Thread.currentThread().getName();
+        assertEquals("a:" + thread, actions.get(0).getReturnValue());
+        assertEquals("b:" + thread, actions.get(1).getReturnValue());
+    }
+
+    @Test
+    public void testIndependentActionsRunConcurrentlyAndSerializeInOrder() throws Exception {
+        ServerServiceImpl serverService = new ServerServiceImpl();
+        serverService.setActionParallelism(4);
+        IndependentActionTestController.started = new CountDownLatch(3);
+        try {
+            List<Action> actions = Lists.newArrayList(getAction("getThreadName", "a"),
+                    getAction("getDependentThreadName", "b"), getAction("getThreadName", "c"),
+                    getAction("getThreadName", "d"));
+            StringWriter out = new StringWriter();
+
+            serverService.run(new Message(actions), Aura.getContextService().getCurrentContext(), out, null);
+
+            String thread = Thread.currentThread().getName();
+            assertEquals("b:" + thread, actions.get(1).getReturnValue());
+            for (int i : new int[] { 0, 2, 3 }) {
+                Action action = actions.get(i);
+                assertEquals(Action.State.SUCCESS, action.getState());
+                assertTrue("expected an action thread: " + action.getReturnValue(),
+                        ((String) action.getReturnValue()).contains(":aura-action-"));
+            }
+            String response = out.toString();
+            int a = response.indexOf("\"a:");
+            int b = response.indexOf("\"b:");
+            int c = response.indexOf("\"c:");
+            int d = response.indexOf("\"d:");
+            assertTrue("actions out of order in " + response, a >= 0 && a < b && b < c && c < d);
+        } finally {
+            IndependentActionTestController.started = new CountDownLatch(0);
+            serverService.setActionParallelism(1);
+        }
+    }
+
+    @Test
+    public void testIndependentActionsSeeRequestStyleContext() throws Exception {
+        ServerServiceImpl serverService = new ServerServiceImpl();
+        serverService.setActionParallelism(4);
+        try {
+            AuraContext context = Aura.getContextService().getCurrentContext();
+            Map<String, Object> params = ImmutableMap.of();
+            List<Action> actions = Lists.newArrayList();
+            for (int i = 0; i < 2; i++) {
+                actions.add((Action) Aura.getInstanceService().getInstance(CONTROLLER + "/ACTION$getStyleContext",
+                        ActionDef.class, params));
+            }
+
+            serverService.run(new Message(actions), context, new StringWriter(), null);
+
+            for (Action action : actions) {
+                assertEquals(Action.State.SUCCESS, action.getState());
+                assertSame(context.getStyleContext(), action.getReturnValue());
+            }
+        } finally {
+            serverService.setActionParallelism(1);
+        }
+    }
+
+    /**
+     * Independent actions run with registries and label providers of their own, so what they load has to be brought
+     * back for the response.
+     */
+    @Test
+    public void testIndependentActionDefsAndLabelsAreAddedToRequestContext() throws Exception {
+        ServerServiceImpl serverService = new ServerServiceImpl();
+        serverService.setActionParallelism(4);
+        try {
+            AuraContext context = Aura.getContextService().getCurrentContext();
+            DefDescriptor<ComponentDef> text = Aura.getDefinitionService().getDefDescriptor("aura:text",
+                    ComponentDef.class);
+            List<Action> actions = Lists.newArrayList();
+            for (String name : new String[] { "first", "second" }) {
+                Map<String, Object> params = ImmutableMap.<String, Object> of("name", name, "component",
+                        text.getQualifiedName());
+                actions.add((Action) Aura.getInstanceService().getInstance(
+                        CONTROLLER + "/ACTION$getLabelAndComponentDef", ActionDef.class, params));
+            }
+            assertFalse(context.getDefRegistry().filterRegistry(null).containsKey(text));
+
+            serverService.run(new Message(actions), context, new StringWriter(), null);
+
+            for (Action action : actions) {
+                assertEquals(Action.State.SUCCESS, action.getState());
+            }
+            assertNotNull(context.getDefRegistry().filterRegistry(null).get(text));
+            Map<?, ?> labels = (Map<?, ?>) context.getGlobalProviders().get(AuraValueProviderType.LABEL.getPrefix())
+                    .getData().get("Section");
+            assertTrue(labels.containsKey("first"));
+            assertTrue(labels.containsKey("second"));
+        } finally {
+            serverService.setActionParallelism(1);
+        }
+    }
+}
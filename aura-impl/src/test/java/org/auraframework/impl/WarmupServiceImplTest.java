@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.auraframework.system.AuraContext.Authentication;
+import org.auraframework.system.AuraContext.Mode;
+import org.junit.Test;
+
+public class WarmupServiceImplTest extends AuraImplTestCase {
+
+    @Test
+    public void testParseManifest() throws Exception {
+        List<WarmupServiceImpl.Entry> entries = WarmupServiceImpl.parse(new StringReader(
+                "# recorded 2016-01-01\n"
+                + "markup://one:app\n"
+                + "\n"
+                + "markup://two:app\tDEV\n"
+                + "markup://three:app\tprod\tMozilla/5.0 (Windows NT 6.1) AppleWebKit/537.36 Chrome/48.0\n"));
+
+        assertEquals(3, entries.size());
+        assertEquals("markup://one:app", entries.get(0).descriptor);
+        assertEquals(Mode.PROD, entries.get(0).mode);
+        assertNull(entries.get(0).userAgent);
+        assertEquals(Mode.DEV, entries.get(1).mode);
+        assertEquals(Mode.PROD, entries.get(2).mode);
+        assertEquals("Mozilla/5.0 (Windows NT 6.1) AppleWebKit/537.36 Chrome/48.0", entries.get(2).userAgent);
+        assertEquals(Authentication.AUTHENTICATED, entries.get(2).access);
+    }
+
+    @Test
+    public void testParseManifestWithAuthentication() throws Exception {
+        List<WarmupServiceImpl.Entry> entries = WarmupServiceImpl.parse(new StringReader(
+                "markup://one:app\tPROD\t\tunauthenticated\n"));
+
+        assertEquals(1, entries.size());
+        assertNull(entries.get(0).userAgent);
+        assertEquals(Authentication.UNAUTHENTICATED, entries.get(0).access);
+    }
+
+    @Test
+    public void testParseManifestWithInvalidAuthentication() throws Exception {
+        try {
+            WarmupServiceImpl.parse(new StringReader("markup://one:app\tPROD\t\tNOTANACCESS\n"));
+            fail("Expected an invalid authentication to be rejected");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage().contains("NOTANACCESS"));
+        }
+    }
+
+    @Test
+    public void testParseManifestWithInvalidMode() throws Exception {
+        try {
+            WarmupServiceImpl.parse(new StringReader("markup://one:app\tNOTAMODE\n"));
+            fail("Expected an invalid mode to be rejected");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage().contains("NOTAMODE"));
+        }
+    }
+
+    @Test
+    public void testIsCompleteWithNothingQueued() {
+        WarmupServiceImpl warmupService = new WarmupServiceImpl();
+        assertTrue(warmupService.isComplete());
+        assertTrue(warmupService.isWarmed());
+        assertEquals(0, warmupService.getTotal());
+    }
+
+    @Test
+    public void testWarmCountsCompletedAndFailed() throws Exception {
+        WarmupServiceImpl warmupService = new WarmupServiceImpl();
+
+        warmupService.warm(new StringReader(laxSecurityApp.getQualifiedName() + "\tUTEST\n"
+                + "markup://test:doesNotExistForWarmup\tUTEST\n"));
+
+        assertTrue("Warmup did not complete", warmupService.awaitCompletion(2, TimeUnit.MINUTES));
+        assertEquals(2, warmupService.getTotal());
+        assertEquals(1, warmupService.getCompleted());
+        assertEquals(1, warmupService.getFailed());
+    }
+
+    @Test
+    public void testRewarmQueuesLastManifestAgain() throws Exception {
+        WarmupServiceImpl warmupService = new WarmupServiceImpl();
+
+        warmupService.warm(new StringReader(laxSecurityApp.getQualifiedName() + "\tUTEST\n"));
+        assertTrue("Warmup did not complete", warmupService.awaitCompletion(2, TimeUnit.MINUTES));
+        warmupService.rewarm();
+
+        assertTrue("Rewarm did not complete", warmupService.awaitCompletion(2, TimeUnit.MINUTES));
+        assertEquals(2, warmupService.getTotal());
+        assertEquals(2, warmupService.getCompleted());
+    }
+
+    @Test
+    public void testIsWarmedOnlyFalseBeforeFirstWarmup() throws Exception {
+        WarmupServiceImpl warmupService = new WarmupServiceImpl();
+
+        warmupService.warm(new StringReader(laxSecurityApp.getQualifiedName() + "\tUTEST\n"));
+        assertTrue("Warmup did not complete", warmupService.awaitCompletion(2, TimeUnit.MINUTES));
+        assertTrue(warmupService.isWarmed());
+
+        warmupService.rewarm();
+        assertTrue("A rewarm should not make a warmed node unready", warmupService.isWarmed());
+        assertTrue("Rewarm did not complete", warmupService.awaitCompletion(2, TimeUnit.MINUTES));
+        assertTrue(warmupService.isWarmed());
+    }
+}
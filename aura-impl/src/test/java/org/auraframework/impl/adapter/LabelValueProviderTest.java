@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.adapter;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+import org.auraframework.impl.AuraImplTestCase;
+import org.auraframework.impl.expression.PropertyReferenceImpl;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+public class LabelValueProviderTest extends AuraImplTestCase {
+
+    @Test
+    public void testGetValueResolvesLabel() throws Exception {
+        LabelValueProvider provider = new LabelValueProvider();
+
+        assertEquals("Controller", provider.getValue(new PropertyReferenceImpl("Section1.controller", null)));
+        assertEquals("Controller", provider.getLabel("Section1", "controller"));
+        assertEquals("Controller", ((Map<?, ?>) provider.getData().get("Section1")).get("controller"));
+    }
+
+    @Test
+    public void testRecordingIncludesLabelsAlreadyResolved() throws Exception {
+        LabelValueProvider provider = new LabelValueProvider();
+        provider.getLabel("Section1", "controller");
+
+        provider.startRecording();
+        provider.getLabel("Section1", "controller");
+        provider.getLabel("Section2", "helper");
+        Set<String> recorded = provider.stopRecording();
+
+        assertEquals(ImmutableSet.of("Section1.controller", "Section2.helper"), recorded);
+    }
+
+    @Test
+    public void testNothingRecordedAfterStop() throws Exception {
+        LabelValueProvider provider = new LabelValueProvider();
+
+        provider.startRecording();
+        provider.stopRecording();
+        provider.getLabel("Section1", "helper");
+
+        assertTrue(provider.stopRecording().isEmpty());
+    }
+
+    @Test
+    public void testPutAllMergesSections() throws Exception {
+        LabelValueProvider provider = new LabelValueProvider();
+        provider.getLabel("Section1", "controller");
+
+        provider.putAll(ImmutableMap.<String, Map<String, String>> of(
+                "Section1", ImmutableMap.of("cached", "Cached"),
+                "Section9", Collections.singletonMap("other", "Other")));
+
+        assertEquals("Controller", provider.getLabel("Section1", "controller"));
+        assertEquals("Cached", provider.getLabel("Section1", "cached"));
+        assertEquals("Other", provider.getLabel("Section9", "other"));
+    }
+}
@@ -74,4 +74,12 @@ public class TestLocalizationAdapterImpl extends LocalizationAdapterImpl {
         }
         return super.getLabel(section, name, params);
     }
+
+    /**
+     * The test labels are not the ones the language key stands for, so they are never shared.
+     */
+    @Override
+    protected boolean isLabelSharingEnabled() {
+        return false;
+    }
 }
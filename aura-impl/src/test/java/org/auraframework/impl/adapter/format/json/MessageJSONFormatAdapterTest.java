@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.adapter.format.json;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+
+import org.auraframework.impl.AuraImplTestCase;
+import org.auraframework.instance.Action;
+import org.auraframework.instance.Action.State;
+import org.auraframework.system.Message;
+import org.auraframework.throwable.AuraUnhandledException;
+import org.auraframework.util.json.JsonStreamReader.JsonParseException;
+import org.junit.Test;
+
+public class MessageJSONFormatAdapterTest extends AuraImplTestCase {
+    private static final String CONTROLLER = "java://org.auraframework.impl.java.controller.TestControllerWithParameters";
+    private static final String ACTION = CONTROLLER + "/ACTION$";
+
+    private Action readAction(String json) throws Exception {
+        Message message = new MessageJSONFormatAdapter().read(new StringReader(json));
+        assertEquals(1, message.getActions().size());
+        return message.getActions().get(0);
+    }
+
+    @Test
+    public void testParamsAreConvertedWhenRun() throws Exception {
+        Action action = readAction("{'actions':[{'id':'1','descriptor':'" + ACTION + "sumValues',"
+                + "'params':{'a':1,'b':2}}]}");
+
+        assertEquals(new BigDecimal(1), action.getParams().get("a"));
+
+        action.run();
+        assertEquals(State.SUCCESS, action.getState());
+        assertEquals(3, action.getReturnValue());
+    }
+
+    @Test
+    public void testInvalidParamIsReportedWhenRun() throws Exception {
+        Action action = readAction("{'actions':[{'id':'1','descriptor':'" + ACTION + "sumValues',"
+                + "'params':{'a':'x','b':2}}]}");
+
+        assertEquals("x", action.getParams().get("a"));
+
+        action.run();
+        assertEquals(State.ERROR, action.getState());
+        assertEquals(1, action.getErrors().size());
+        checkExceptionContains((Exception) action.getErrors().get(0), AuraUnhandledException.class,
+                "Invalid value for a: java://java.lang.Integer");
+    }
+
+    @Test
+    public void testEmptyMessageIsInvalid() throws Exception {
+        try {
+            new MessageJSONFormatAdapter().read(new StringReader(""));
+            fail("Expected an empty message to be rejected");
+        } catch (JsonParseException expected) {
+            assertEquals("Invalid message, expected an object", expected.getMessage());
+        }
+    }
+}
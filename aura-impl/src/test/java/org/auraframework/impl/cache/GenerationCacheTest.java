@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.cache;
+
+import java.util.concurrent.Callable;
+
+import org.auraframework.cache.Cache;
+import org.auraframework.service.CachingService;
+import org.auraframework.util.test.util.UnitTestCase;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class GenerationCacheTest extends UnitTestCase {
+
+    private Cache<String, String> getBackingCache() {
+        return new CacheImpl.Builder<String, String>().build();
+    }
+
+    @Test
+    public void testPutInCurrentGeneration() {
+        CachingService cachingService = Mockito.mock(CachingService.class);
+        Mockito.doReturn(3L).when(cachingService).getCacheGeneration();
+        Cache<String, String> backingCache = getBackingCache();
+        Cache<String, String> cache = new GenerationCache<>(backingCache, cachingService, 3L);
+
+        cache.put("key", "value");
+        assertEquals("value", backingCache.getIfPresent("key"));
+    }
+
+    @Test
+    public void testPutDroppedInStaleGeneration() {
+        CachingService cachingService = Mockito.mock(CachingService.class);
+        Mockito.doReturn(4L).when(cachingService).getCacheGeneration();
+        Cache<String, String> backingCache = getBackingCache();
+        Cache<String, String> cache = new GenerationCache<>(backingCache, cachingService, 3L);
+
+        cache.put("key", "value");
+        assertNull(backingCache.getIfPresent("key"));
+    }
+
+    @Test
+    public void testPutInvalidatedIfGenerationMovesDuringPut() {
+        CachingService cachingService = Mockito.mock(CachingService.class);
+        Mockito.when(cachingService.getCacheGeneration()).thenReturn(3L, 4L);
+        Cache<String, String> backingCache = getBackingCache();
+        Cache<String, String> cache = new GenerationCache<>(backingCache, cachingService, 3L);
+
+        cache.put("key", "value");
+        assertNull(backingCache.getIfPresent("key"));
+    }
+
+    @Test
+    public void testGetWithLoaderBypassesCacheInStaleGeneration() throws Exception {
+        CachingService cachingService = Mockito.mock(CachingService.class);
+        Mockito.doReturn(4L).when(cachingService).getCacheGeneration();
+        Cache<String, String> backingCache = getBackingCache();
+        Cache<String, String> cache = new GenerationCache<>(backingCache, cachingService, 3L);
+
+        String actual = cache.get("key", new Callable<String>() {
+            @Override
+            public String call() {
+                return "loaded";
+            }
+        });
+        assertEquals("loaded", actual);
+        assertNull(backingCache.getIfPresent("key"));
+    }
+
+    @Test
+    public void testGetIfPresentInCurrentGeneration() {
+        CachingService cachingService = Mockito.mock(CachingService.class);
+        Mockito.doReturn(3L).when(cachingService).getCacheGeneration();
+        Cache<String, String> backingCache = getBackingCache();
+        backingCache.put("key", "value");
+        Cache<String, String> cache = new GenerationCache<>(backingCache, cachingService, 3L);
+
+        assertEquals("value", cache.getIfPresent("key"));
+    }
+
+    @Test
+    public void testGetIfPresentMissesInStaleGeneration() {
+        CachingService cachingService = Mockito.mock(CachingService.class);
+        Mockito.when(cachingService.getCacheGeneration()).thenReturn(4L);
+        Cache<String, String> backingCache = getBackingCache();
+        backingCache.put("key", "value");
+        Cache<String, String> cache = new GenerationCache<>(backingCache, cachingService, 3L);
+
+        assertNull(cache.getIfPresent("key"));
+    }
+
+    @Test
+    public void testGetWithLoaderReloadsIfGenerationMovesDuringRead() throws Exception {
+        CachingService cachingService = Mockito.mock(CachingService.class);
+        Mockito.when(cachingService.getCacheGeneration()).thenReturn(3L, 4L);
+        Cache<String, String> backingCache = getBackingCache();
+        backingCache.put("key", "stale");
+        Cache<String, String> cache = new GenerationCache<>(backingCache, cachingService, 3L);
+
+        String actual = cache.get("key", new Callable<String>() {
+            @Override
+            public String call() {
+                return "loaded";
+            }
+        });
+        assertEquals("loaded", actual);
+        assertNull(backingCache.getIfPresent("key"));
+    }
+}
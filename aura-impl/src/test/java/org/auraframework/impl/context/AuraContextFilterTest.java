@@ -20,14 +20,19 @@ import java.util.Vector;
 
 import javax.servlet.http.HttpServletRequest;
 
+import org.auraframework.Aura;
+import org.auraframework.def.ApplicationDef;
+import org.auraframework.def.DefDescriptor;
 import org.auraframework.http.AuraContextFilter;
 import org.auraframework.system.AuraContext;
+import org.auraframework.system.AuraContext.Mode;
 import org.auraframework.test.util.AuraTestCase;
 import org.auraframework.util.test.util.AuraPrivateAccessor;
 import org.junit.Test;
 import org.mockito.Mockito;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 
 public class AuraContextFilterTest extends AuraTestCase {
     private void assertContextPath(AuraContextFilter filter, HttpServletRequest mock, String input, String expected)
@@ -48,4 +53,29 @@ public class AuraContextFilterTest extends AuraTestCase {
         assertContextPath(filter, mock, "/", "");
         assertContextPath(filter, mock, "", "");
     }
+
+    @Test
+    public void testStartContextFromCachedContextConfig() throws Exception {
+        AuraContextFilter filter = new AuraContextFilter();
+        HttpServletRequest mock = Mockito.mock(HttpServletRequest.class);
+        Mockito.when(mock.getParameter("aura.context")).thenReturn(
+                "{\"mode\":\"DEV\",\"fwuid\":\"fwuid1\",\"app\":\"test:fakeApp\","
+                        + "\"loaded\":{\"APPLICATION@markup://test:fakeApp\":\"uid1\"}}");
+        DefDescriptor<ApplicationDef> app = Aura.getDefinitionService().getDefDescriptor("test:fakeApp",
+                ApplicationDef.class);
+
+        for (int i = 0; i < 2; i++) {
+            Mockito.when(mock.getLocales()).thenReturn(new Vector<>(ImmutableList.of(Locale.ENGLISH)).elements());
+            AuraContext context = AuraPrivateAccessor.invoke(filter, "startContext", mock, null, null);
+            assertEquals(Mode.DEV, context.getMode());
+            assertEquals("fwuid1", context.getFrameworkUID());
+            assertEquals(app, context.getApplicationDescriptor());
+            assertEquals(ImmutableMap.of(app, "uid1"), context.getClientLoaded());
+            AuraPrivateAccessor.invoke(filter, "endContext");
+        }
+
+        Object first = AuraPrivateAccessor.invoke(filter, "getContextConfig", mock);
+        Object second = AuraPrivateAccessor.invoke(filter, "getContextConfig", mock);
+        assertSame(first, second);
+    }
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.java.controller;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.auraframework.Aura;
+import org.auraframework.css.StyleContext;
+import org.auraframework.def.ComponentDef;
+import org.auraframework.impl.adapter.LabelValueProvider;
+import org.auraframework.instance.AuraValueProviderType;
+import org.auraframework.system.Annotations.AuraEnabled;
+import org.auraframework.system.Annotations.Controller;
+import org.auraframework.system.Annotations.IndependentAction;
+import org.auraframework.system.Annotations.Key;
+import org.auraframework.system.AuraContext;
+import org.auraframework.throwable.quickfix.QuickFixException;
+
+@Controller
+public class IndependentActionTestController {
+    /**
+     * Actions wait on this until all of them have started, so they can only finish if they run concurrently.
+     */
+    public static volatile CountDownLatch started = new CountDownLatch(0);
+
+    @AuraEnabled
+    @IndependentAction
+    public static String getThreadName(@Key("id") String id) throws InterruptedException {
+        started.countDown();
+        started.await(10, TimeUnit.SECONDS);
+        return id + ":" + Thread.currentThread().getName();
+    }
+
+    @AuraEnabled
+    public static String getDependentThreadName(@Key("id") String id) {
+        return id + ":" + Thread.currentThread().getName();
+    }
+
+    @AuraEnabled
+    @IndependentAction
+    public static StyleContext getStyleContext() {
+        return Aura.getContextService().getCurrentContext().getStyleContext();
+    }
+
+    @AuraEnabled
+    @IndependentAction
+    public static String getLabelAndComponentDef(@Key("name") String name, @Key("component") String component)
+            throws QuickFixException {
+        AuraContext context = Aura.getContextService().getCurrentContext();
+        Aura.getDefinitionService().getDefinition(component, ComponentDef.class);
+        return ((LabelValueProvider) context.getGlobalProviders().get(AuraValueProviderType.LABEL.getPrefix()))
+                .getLabel("Section", name);
+    }
+}
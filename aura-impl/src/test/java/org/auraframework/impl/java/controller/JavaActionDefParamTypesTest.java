@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.java.controller;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import org.auraframework.def.ControllerDef;
+import org.auraframework.def.TypeDef;
+import org.auraframework.impl.AuraImplTestCase;
+import org.auraframework.impl.java.type.ValueConverter;
+import org.auraframework.instance.Action.State;
+import org.junit.Test;
+
+import com.google.common.collect.Maps;
+
+public class JavaActionDefParamTypesTest extends AuraImplTestCase {
+    private static final String CONTROLLER = "java://org.auraframework.impl.java.controller.TestControllerWithParameters";
+
+    private ControllerDef getControllerDef() throws Exception {
+        return definitionService.getDefinition(CONTROLLER, ControllerDef.class);
+    }
+
+    private JavaActionDef getActionDef(String name) throws Exception {
+        return (JavaActionDef) getControllerDef().getSubDefinition(name);
+    }
+
+    @Test
+    public void testParamTypesMatchParameters() throws Exception {
+        JavaActionDef actionDef = getActionDef("sumValues");
+
+        TypeDef[] types = actionDef.getParamTypes();
+        assertEquals(actionDef.getParameters().size(), types.length);
+        for (int i = 0; i < types.length; i++) {
+            assertEquals(actionDef.getParameters().get(i).getType(), types[i]);
+        }
+    }
+
+    @Test
+    public void testParamTypesAreResolvedOnce() throws Exception {
+        JavaActionDef actionDef = getActionDef("appendStrings");
+
+        assertSame(actionDef.getParamTypes(), actionDef.getParamTypes());
+    }
+
+    @Test
+    public void testParamConvertersAreMadeOnce() throws Exception {
+        JavaActionDef actionDef = getActionDef("appendStrings");
+
+        ValueConverter[] converters = actionDef.getParamConverters();
+        assertSame(converters, actionDef.getParamConverters());
+        for (int i = 0; i < converters.length; i++) {
+            assertSame(actionDef.getParamTypes()[i], converters[i].getType());
+        }
+    }
+
+    @Test
+    public void testParamConverterMatchesValueOf() throws Exception {
+        ValueConverter converter = getActionDef("sumValues").getParamConverters()[0];
+        TypeDef type = converter.getType();
+        Integer three = Integer.valueOf(3);
+
+        for (Object value : new Object[] { "1", "2", new BigDecimal(2), "4", null, Boolean.TRUE.toString() }) {
+            Object expected;
+            try {
+                expected = type.valueOf(value);
+            } catch (RuntimeException e) {
+                try {
+                    converter.convert(value);
+                    fail("Expected " + value + " to fail as valueOf does");
+                } catch (RuntimeException actual) {
+                    assertEquals(e.getClass(), actual.getClass());
+                }
+                continue;
+            }
+            assertEquals(expected, converter.convert(value));
+        }
+        assertSame(three, converter.convert(three));
+    }
+
+    @Test
+    public void testActionConvertsWithResolvedTypes() throws Exception {
+        JavaActionDef actionDef = getActionDef("sumValues");
+        Map<String, Object> params = Maps.newHashMap();
+        params.put("a", "1");
+        params.put("b", "2");
+
+        JavaAction action = new JavaAction(getControllerDef().getDescriptor(), actionDef, null, params);
+        action.run();
+        assertEquals(State.SUCCESS, action.getState());
+        assertEquals(3, action.getReturnValue());
+
+        params.put("b", "two");
+        action = new JavaAction(getControllerDef().getDescriptor(), actionDef, null, params);
+        action.run();
+        assertEquals(State.ERROR, action.getState());
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.java.model;
+
+import java.lang.reflect.Method;
+
+import org.auraframework.util.AuraTextUtil;
+import org.auraframework.util.test.perf.ThroughputBenchmark;
+
+/**
+ * Benchmark of model value resolution, as done by JavaModel.getValue for each property of an expression.
+ *
+ * Each operation resolves the properties of one row of an iteration, some of which are "is" getters, comparing the
+ * reflective lookup that JavaModel used to do on every call with the cached property accessors. Run with the number
+ * of threads to scale to as argument.
+ */
+public class ModelValueBenchmark {
+    private static final String[] PROPERTIES = { "id", "label", "selected", "count", "visible" };
+
+    public static class Row {
+        public String getId() {
+            return "row1";
+        }
+
+        public String getLabel() {
+            return "Row 1";
+        }
+
+        public boolean isSelected() {
+            return false;
+        }
+
+        public int getCount() {
+            return 7;
+        }
+
+        public boolean isVisible() {
+            return true;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        ThroughputBenchmark benchmark = new ThroughputBenchmark("Model value resolution");
+        final Row row = new Row();
+
+        benchmark.measureScaling("getMethod + Method.invoke", maxThreads, new ThroughputBenchmark.Operation() {
+            @Override
+            public Object run() throws Exception {
+                Object last = null;
+                for (String property : PROPERTIES) {
+                    last = reflect(row, property);
+                }
+                return last;
+            }
+        });
+
+        benchmark.measureScaling("PropertyAccessor", maxThreads, new ThroughputBenchmark.Operation() {
+            @Override
+            public Object run() throws Exception {
+                Object last = null;
+                try {
+                    for (String property : PROPERTIES) {
+                        last = PropertyAccessor.get(row.getClass(), property).invoke(row);
+                    }
+                } catch (Throwable t) {
+                    throw new Exception(t);
+                }
+                return last;
+            }
+        });
+
+        benchmark.print(System.out);
+    }
+
+    /**
+     * The lookup JavaModel.getValue used to do for every property.
+     */
+    private static Object reflect(Object root, String part) throws Exception {
+        Method meth;
+        try {
+            meth = root.getClass().getMethod("get" + AuraTextUtil.initCap(part));
+        } catch (NoSuchMethodException e) {
+            meth = root.getClass().getMethod("is" + AuraTextUtil.initCap(part));
+        }
+        return meth.invoke(root);
+    }
+}
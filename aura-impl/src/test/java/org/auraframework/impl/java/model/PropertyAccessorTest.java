@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.java.model;
+
+import java.util.Collections;
+
+import org.auraframework.util.test.util.UnitTestCase;
+import org.junit.Test;
+
+public class PropertyAccessorTest extends UnitTestCase {
+
+    public static class Bean {
+        public String getName() {
+            return "name";
+        }
+
+        public boolean isActive() {
+            return true;
+        }
+
+        public String getFlag() {
+            return "get";
+        }
+
+        public boolean isFlag() {
+            return false;
+        }
+
+        public int getCount() {
+            return 42;
+        }
+
+        public static String getShared() {
+            return "shared";
+        }
+
+        public String getBroken() {
+            throw new IllegalStateException("broken");
+        }
+
+        public void getNothing() {
+        }
+    }
+
+    public static class SubBean extends Bean {
+        @Override
+        public String getName() {
+            return "sub";
+        }
+    }
+
+    @Test
+    public void testGetter() throws Throwable {
+        PropertyAccessor accessor = PropertyAccessor.get(Bean.class, "name");
+        assertTrue(accessor.exists());
+        assertEquals("name", accessor.invoke(new Bean()));
+    }
+
+    @Test
+    public void testIsGetter() throws Throwable {
+        assertEquals(Boolean.TRUE, PropertyAccessor.get(Bean.class, "active").invoke(new Bean()));
+    }
+
+    @Test
+    public void testGetPreferredOverIs() throws Throwable {
+        assertEquals("get", PropertyAccessor.get(Bean.class, "flag").invoke(new Bean()));
+    }
+
+    @Test
+    public void testPrimitiveIsBoxed() throws Throwable {
+        assertEquals(Integer.valueOf(42), PropertyAccessor.get(Bean.class, "count").invoke(new Bean()));
+    }
+
+    @Test
+    public void testStaticGetterIgnoresTarget() throws Throwable {
+        assertEquals("shared", PropertyAccessor.get(Bean.class, "shared").invoke(new Bean()));
+    }
+
+    @Test
+    public void testVoidGetterReturnsNull() throws Throwable {
+        assertNull(PropertyAccessor.get(Bean.class, "nothing").invoke(new Bean()));
+    }
+
+    @Test
+    public void testOverrideIsCalledForSubclass() throws Throwable {
+        assertEquals("sub", PropertyAccessor.get(SubBean.class, "name").invoke(new SubBean()));
+        assertEquals("get", PropertyAccessor.get(SubBean.class, "flag").invoke(new SubBean()));
+    }
+
+    @Test
+    public void testGetterExceptionIsThrownAsIs() throws Throwable {
+        try {
+            PropertyAccessor.get(Bean.class, "broken").invoke(new Bean());
+            fail("Expected the getter to throw");
+        } catch (IllegalStateException expected) {
+            assertEquals("broken", expected.getMessage());
+        }
+    }
+
+    @Test
+    public void testMissingPropertyIsCached() {
+        PropertyAccessor accessor = PropertyAccessor.get(Bean.class, "missing");
+        assertFalse(accessor.exists());
+        assertTrue(accessor.getMissingCause() instanceof NoSuchMethodException);
+        assertSame(accessor, PropertyAccessor.get(Bean.class, "missing"));
+    }
+
+    @Test
+    public void testInaccessibleGetterDoesNotExist() {
+        Class<?> hidden = Collections.unmodifiableList(Collections.emptyList()).getClass();
+        PropertyAccessor accessor = PropertyAccessor.get(hidden, "empty");
+        assertFalse(accessor.exists());
+        assertTrue(accessor.getMissingCause() instanceof IllegalAccessException);
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.root;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.auraframework.def.AttributeDef;
+import org.auraframework.def.AttributeDefRef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.impl.AuraImplTestCase;
+import org.auraframework.impl.system.DefDescriptorImpl;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.google.common.collect.Maps;
+
+public class AttributeLayoutTest extends AuraImplTestCase {
+
+    private static DefDescriptor<AttributeDef> desc(String name) {
+        return DefDescriptorImpl.getInstance(name, AttributeDef.class);
+    }
+
+    private static AttributeDef attributeDef(String name, boolean withDefault, boolean required) {
+        AttributeDef def = Mockito.mock(AttributeDef.class);
+        Mockito.when(def.getDescriptor()).thenReturn(desc(name));
+        Mockito.when(def.getName()).thenReturn(name);
+        Mockito.when(def.getDefaultValue()).thenReturn(withDefault ? Mockito.mock(AttributeDefRef.class) : null);
+        Mockito.when(def.isRequired()).thenReturn(required);
+        return def;
+    }
+
+    private static AttributeLayout layout(AttributeDef... defs) {
+        Map<DefDescriptor<AttributeDef>, AttributeDef> map = Maps.newLinkedHashMap();
+        for (AttributeDef def : defs) {
+            map.put(def.getDescriptor(), def);
+        }
+        return new AttributeLayout(Collections.unmodifiableMap(map));
+    }
+
+    @Test
+    public void testSlotsFollowAttributeOrder() {
+        AttributeDef first = attributeDef("first", false, false);
+        AttributeDef second = attributeDef("second", false, false);
+        AttributeDef third = attributeDef("third", false, false);
+        AttributeLayout layout = layout(first, second, third);
+
+        assertEquals(3, layout.size());
+        assertEquals(0, layout.indexOf(desc("first")));
+        assertEquals(1, layout.indexOf(desc("second")));
+        assertEquals(2, layout.indexOf(desc("third")));
+        assertSame(second, layout.getAttributeDef(1));
+    }
+
+    @Test
+    public void testIndexOfIsCaseInsensitive() {
+        AttributeLayout layout = layout(attributeDef("someAttr", false, false));
+
+        assertEquals(0, layout.indexOf(desc("SOMEATTR")));
+    }
+
+    @Test
+    public void testIndexOfUnknownAttribute() {
+        AttributeLayout layout = layout(attributeDef("known", false, false));
+
+        assertEquals(-1, layout.indexOf(desc("unknown")));
+    }
+
+    @Test
+    public void testDefaultAndRequiredSlots() {
+        AttributeLayout layout = layout(attributeDef("plain", false, false), attributeDef("withDefault", true, false),
+                attributeDef("required", false, true), attributeDef("both", true, true));
+
+        assertEquals(2, layout.getDefaultSlots().length);
+        assertEquals(1, layout.getDefaultSlots()[0]);
+        assertEquals(3, layout.getDefaultSlots()[1]);
+        assertEquals(2, layout.getRequiredSlots().length);
+        assertEquals(2, layout.getRequiredSlots()[0]);
+        assertEquals(3, layout.getRequiredSlots()[1]);
+    }
+
+    @Test
+    public void testEmptyLayout() {
+        AttributeLayout layout = layout();
+
+        assertEquals(0, layout.size());
+        assertEquals(0, layout.getDefaultSlots().length);
+        assertEquals(0, layout.getRequiredSlots().length);
+        assertTrue(layout.getAttributeDefs().isEmpty());
+    }
+
+    @Test
+    public void testGetAttributeDefsIsTheGivenMap() {
+        Map<DefDescriptor<AttributeDef>, AttributeDef> map = Collections.singletonMap(desc("only"),
+                attributeDef("only", false, false));
+
+        assertSame(map, new AttributeLayout(map).getAttributeDefs());
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.system;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.auraframework.def.ComponentDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.DefDescriptor.DefType;
+import org.auraframework.def.Definition;
+import org.auraframework.def.DescriptorFilter;
+import org.auraframework.impl.AuraImplTestCase;
+import org.auraframework.system.DefRegistry;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+
+public class BinaryRegistryFormatTest extends AuraImplTestCase {
+
+    private byte[] writeRegistry(Definition... defs) throws Exception {
+        List<StaticDefRegistryImpl<?>> registries = Lists.newArrayList();
+        registries.add(new StaticDefRegistryImpl<>(EnumSet.of(DefType.COMPONENT), ImmutableSet.of("markup"),
+                ImmutableSet.of("aura"), Lists.newArrayList(defs)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryRegistryFormat.write(registries, out);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testIsBinaryRegistry() throws Exception {
+        InputStream binary = new BufferedInputStream(new ByteArrayInputStream(writeRegistry()));
+        assertTrue(BinaryRegistryFormat.isBinaryRegistry(binary));
+        // the stream must be left at the start
+        assertEquals(BinaryRegistryFormat.MAGIC >>> 24, binary.read());
+
+        InputStream other = new BufferedInputStream(new ByteArrayInputStream(new byte[] { (byte) 0xac, (byte) 0xed }));
+        assertFalse(BinaryRegistryFormat.isBinaryRegistry(other));
+    }
+
+    @Test
+    public void testRoundTripLoadsDefinitionsLazily() throws Exception {
+        ComponentDef text = definitionService.getDefinition("aura:text", ComponentDef.class);
+        ComponentDef html = definitionService.getDefinition("aura:html", ComponentDef.class);
+
+        DefRegistry<?>[] registries = BinaryRegistryFormat.read(new ByteArrayInputStream(writeRegistry(text, html)));
+        assertEquals(1, registries.length);
+        @SuppressWarnings("unchecked")
+        LazyStaticDefRegistryImpl<ComponentDef> registry = (LazyStaticDefRegistryImpl<ComponentDef>) registries[0];
+
+        assertEquals(EnumSet.of(DefType.COMPONENT), registry.getDefTypes());
+        assertEquals(ImmutableSet.of("markup"), registry.getPrefixes());
+        assertEquals(ImmutableSet.of("aura"), registry.getNamespaces());
+
+        DefDescriptor<ComponentDef> textDescriptor = text.getDescriptor();
+        assertTrue(registry.exists(textDescriptor));
+        Set<DefDescriptor<?>> found = registry.find(new DescriptorFilter("markup://aura:*", "COMPONENT"));
+        assertEquals(ImmutableSet.of(textDescriptor, html.getDescriptor()), found);
+        assertEquals("Nothing should be deserialized by exists or find", 0, registry.getLoadedCount());
+
+        ComponentDef actual = registry.getDef(textDescriptor);
+        assertEquals(textDescriptor, actual.getDescriptor());
+        assertEquals(1, registry.getLoadedCount());
+        assertSame(actual, registry.getDef(textDescriptor));
+    }
+
+    @Test
+    public void testGetDefForMissingDescriptor() throws Exception {
+        ComponentDef text = definitionService.getDefinition("aura:text", ComponentDef.class);
+        DefRegistry<?>[] registries = BinaryRegistryFormat.read(new ByteArrayInputStream(writeRegistry(text)));
+        @SuppressWarnings("unchecked")
+        DefRegistry<ComponentDef> registry = (DefRegistry<ComponentDef>) registries[0];
+
+        DefDescriptor<ComponentDef> missing = definitionService.getDefDescriptor("aura:notThere", ComponentDef.class);
+        assertFalse(registry.exists(missing));
+        assertNull(registry.getDef(missing));
+    }
+
+    @Test
+    public void testMapFile() throws Exception {
+        ComponentDef text = definitionService.getDefinition("aura:text", ComponentDef.class);
+        File file = File.createTempFile("binaryRegistryFormatTest", ".registries");
+        file.deleteOnExit();
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(writeRegistry(text));
+        }
+
+        DefRegistry<?>[] registries = BinaryRegistryFormat.map(file);
+        assertEquals(1, registries.length);
+        @SuppressWarnings("unchecked")
+        LazyStaticDefRegistryImpl<ComponentDef> registry = (LazyStaticDefRegistryImpl<ComponentDef>) registries[0];
+
+        assertTrue(registry.exists(text.getDescriptor()));
+        assertEquals(0, registry.getLoadedCount());
+        assertEquals(text.getDescriptor(), registry.getDef(text.getDescriptor()).getDescriptor());
+    }
+
+    @Test
+    public void testMapFileInOtherFormat() throws Exception {
+        File file = File.createTempFile("binaryRegistryFormatTest", ".registries");
+        file.deleteOnExit();
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(new byte[] { (byte) 0xac, (byte) 0xed, 0, 5, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0 });
+        }
+        assertNull(BinaryRegistryFormat.map(file));
+    }
+
+    @Test
+    public void testReadRejectsDataSectionOver2GB() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataOutputStream dos = new DataOutputStream(out);
+        dos.writeInt(BinaryRegistryFormat.MAGIC);
+        dos.writeInt(BinaryRegistryFormat.VERSION);
+        dos.writeLong(Integer.MAX_VALUE + 1L);
+        dos.flush();
+
+        try {
+            BinaryRegistryFormat.read(new ByteArrayInputStream(out.toByteArray()));
+            fail("Expected a data section over 2GB to be rejected");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage(), expected.getMessage().contains("out of range"));
+        }
+    }
+}
@@ -1185,6 +1185,106 @@ Test.Aura.AuraClientServiceTest = function() {
         }
     }
 
+    [Fixture]
+    function decodeStreamedActions() {
+        var boundary = "\n//ACTION\n";
+        var decodedText;
+        var mockStreaming = Mocks.GetMocks(Object.Global(), {
+            "$A": {
+                log : function() {},
+                assert : function() {},
+                util : {
+                    on : function() {},
+                    isUndefinedOrNull : function(obj) {
+                        return obj === undefined || obj === null;
+                    },
+                    globalEval : function(src) {
+                        return JSON.parse(src);
+                    },
+                    json : {
+                        decode : function(text) {
+                            decodedText = text;
+                            return { "actions" : [] };
+                        },
+                        resolveRefsObject : function() {}
+                    },
+                    stringEndsWith : function() {
+                        return false;
+                    }
+                }
+            },
+            window : {},
+            document : document,
+            Aura : Aura
+        });
+
+        function createXHR(responseText) {
+            return {
+                streamed : { start: -1, offset: -1, actions: [] },
+                request : { status: 200, responseText: responseText }
+            };
+        }
+
+        [Fact]
+        function DecodesCompleteActions() {
+            var auraXHR = createXHR('while(1);\n{"actions":[' + boundary + '{"id":"1"}' + boundary + ',{"id":"2"}' + boundary + ',{"id"');
+            var target;
+
+            mockStreaming(function() {
+                target = new Aura.Services.AuraClientService();
+                target.decodeStreamedActions(auraXHR);
+            });
+
+            Assert.Equal([{"id":"1"}, {"id":"2"}], auraXHR.streamed.actions);
+        }
+
+        [Fact]
+        function ContinuesFromLastBoundary() {
+            var auraXHR = createXHR('while(1);\n{"actions":[' + boundary + '{"id":"1"}' + boundary + ',{"id"');
+            var target;
+
+            mockStreaming(function() {
+                target = new Aura.Services.AuraClientService();
+                target.decodeStreamedActions(auraXHR);
+                auraXHR.request.responseText += ':"2"}' + boundary;
+                target.decodeStreamedActions(auraXHR);
+            });
+
+            Assert.Equal([{"id":"1"}, {"id":"2"}], auraXHR.streamed.actions);
+        }
+
+        [Fact]
+        function GivesUpOnBadAction() {
+            var auraXHR = createXHR('while(1);\n{"actions":[' + boundary + '{"id":' + boundary);
+            var target;
+
+            mockStreaming(function() {
+                target = new Aura.Services.AuraClientService();
+                target.decodeStreamedActions(auraXHR);
+            });
+
+            Assert.Undefined(auraXHR.streamed);
+        }
+
+        [Fact]
+        function DecodeUsesStreamedActions() {
+            var head = 'while(1);\n{"actions":[';
+            var tail = '\n],"context":{}}';
+            var auraXHR = createXHR(head + boundary + '{"id":"1"}' + boundary + tail);
+            var target;
+            var actual;
+
+            mockStreaming(function() {
+                target = new Aura.Services.AuraClientService();
+                target.decodeStreamedActions(auraXHR);
+                actual = target.decode(auraXHR.request, false, false, auraXHR.streamed);
+            });
+
+            Assert.Equal("//" + head + tail, decodedText);
+            Assert.Equal([{"id":"1"}], actual["message"]["actions"]);
+        }
+    }
+
     [Fixture]
     function setXHRTimeout() {
         [Fact]
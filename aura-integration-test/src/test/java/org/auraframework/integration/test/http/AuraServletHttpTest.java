@@ -32,6 +32,8 @@ import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
 import org.apache.http.util.EntityUtils;
 import org.auraframework.Aura;
 import org.auraframework.adapter.ContentSecurityPolicy;
@@ -245,6 +247,43 @@ public class AuraServletHttpTest extends AuraHttpTestCase {
         new JsonReader().read(response.substring(AuraBaseServlet.CSRF_PROTECT.length()));
     }
 
+    /**
+     * Check a post with the message as a JSON body, and the other parameters in the query string.
+     */
+    @Test
+    public void testPostJsonBody() throws Exception {
+        Map<String, Object> message = new HashMap<>();
+        Map<String, Object> actionInstance = new HashMap<>();
+        actionInstance.put("descriptor",
+                "java://org.auraframework.components.test.java.controller.JavaTestController/ACTION$getString");
+        Map<String, Object> actionParams = new HashMap<>();
+        actionParams.put("param", "some string \u00e9");
+        actionInstance.put("params", actionParams);
+        @SuppressWarnings("rawtypes")
+        Map[] actions = { actionInstance };
+        message.put("actions", actions);
+
+        DefDescriptor<ApplicationDef> app = definitionService.getDefDescriptor(
+                "auratest:test_SimpleServerRenderedPage", ApplicationDef.class);
+        String query = String.format("/aura?aura.token=%s&aura.context=%s",
+                URLEncoder.encode(getCsrfToken(), "UTF-8"),
+                URLEncoder.encode(getAuraTestingUtil().buildContextForPost(Mode.DEV, app), "UTF-8"));
+
+        HttpPost post = obtainPostMethod(query, null);
+        post.setEntity(new StringEntity(JsonEncoder.serialize(message), ContentType.APPLICATION_JSON));
+        HttpResponse httpResponse = perform(post);
+        int statusCode = getStatusCode(httpResponse);
+        String response = getResponseBody(httpResponse);
+        post.releaseConnection();
+
+        if (HttpStatus.SC_OK != statusCode) {
+            fail(String.format("Unexpected status code <%s>, expected <%s>, response:%n%s", statusCode,
+                    HttpStatus.SC_OK, response));
+        }
+        assertTrue("Missing return value in " + response, response.contains("some string \u00e9"));
+        new JsonReader().read(response.substring(AuraBaseServlet.CSRF_PROTECT.length()));
+    }
+
     /**
      * This is actually an invalid test.
      *
@@ -19,10 +19,14 @@ import java.util.ArrayList;
 import java.util.Map;
 
 import org.auraframework.Aura;
+import org.auraframework.def.AttributeDef;
 import org.auraframework.def.ComponentDef;
 import org.auraframework.def.DefDescriptor;
 import org.auraframework.impl.AuraImplTestCase;
 import org.auraframework.impl.expression.PropertyReferenceImpl;
+import org.auraframework.impl.root.AttributeLayout;
+import org.auraframework.impl.root.component.BaseComponentDefImpl;
+import org.auraframework.impl.system.DefDescriptorImpl;
 import org.auraframework.impl.util.AuraUtil;
 import org.auraframework.instance.Component;
 import org.auraframework.throwable.quickfix.DefinitionNotFoundException;
@@ -194,4 +198,32 @@ public class AttributeSetImplTest extends AuraImplTestCase {
         attSetValues = (Map<?, ?>) ((Map<?, ?>) attSet.get(Json.ApplicationKey.VALUE.toString())).get("values");
         assertEquals(0, attSetValues.size());
     }
+
+    /**
+     * Verify that a valid component def computes its attribute layout once, and that inherited attributes come before
+     * its own.
+     */
+    @Test
+    public void testAttributeLayoutIsCachedForValidDef() throws Exception {
+        DefDescriptor<ComponentDef> parentDesc = addSourceAutoCleanup(ComponentDef.class,
+                String.format(baseComponentTag, "extensible='true'",
+                        "<aura:attribute name='parentAttr' type='String' default='mother'/>"));
+        DefDescriptor<ComponentDef> childDesc = addSourceAutoCleanup(ComponentDef.class, String.format(
+                baseComponentTag, String.format("extends='%s'", parentDesc.getDescriptorName()),
+                "<aura:attribute name='childAttr' type='String' default='daughter'/>"));
+
+        BaseComponentDefImpl<?> childDef = (BaseComponentDefImpl<?>) definitionService.getDefinition(childDesc);
+        AttributeLayout layout = childDef.getAttributeLayout();
+        assertSame(layout, childDef.getAttributeLayout());
+        assertSame(layout.getAttributeDefs(), childDef.getAttributeDefs());
+
+        int parentSlot = layout.indexOf(DefDescriptorImpl.getInstance("parentAttr", AttributeDef.class));
+        int childSlot = layout.indexOf(DefDescriptorImpl.getInstance("childAttr", AttributeDef.class));
+        assertTrue(parentSlot >= 0);
+        assertTrue(parentSlot < childSlot);
+
+        Component cmp = Aura.getInstanceService().getInstance(childDesc);
+        assertEquals("mother", cmp.getAttributes().getValue("parentAttr"));
+        assertEquals("daughter", cmp.getAttributes().getValue("childAttr"));
+    }
 }
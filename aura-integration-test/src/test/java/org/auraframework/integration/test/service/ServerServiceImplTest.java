@@ -19,10 +19,12 @@ import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.ConcurrentModificationException;
@@ -609,6 +611,35 @@ public class ServerServiceImplTest extends AuraImplTestCase {
         }
     }
 
+    /**
+     * The streamed output, the cached bytes and the writer output must all be the same.
+     */
+    @Test
+    public void testWriteDefinitionsToStreamMatchesWriter() throws Exception {
+        ServerService ss = Aura.getServerService();
+        DefDescriptor<ApplicationDef> appDesc = definitionService
+                .getDefDescriptor("appCache:withpreload", ApplicationDef.class);
+        AuraContext context = Aura.getContextService()
+                .startContext(Mode.DEV, AuraContext.Format.JS, AuraContext.Authentication.AUTHENTICATED, appDesc);
+        final String uid = context.getDefRegistry().getUid(null, appDesc);
+        context.addLoaded(appDesc, uid);
+
+        Set<DefDescriptor<?>> dependencies = context.getDefRegistry().getDependencies(uid);
+
+        // the first write streams (or hits a cache primed elsewhere), the second is always from the cache.
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        ss.writeDefinitions(dependencies, streamed);
+        ByteArrayOutputStream cached = new ByteArrayOutputStream();
+        ss.writeDefinitions(dependencies, cached);
+        StringWriter written = new StringWriter();
+        ss.writeDefinitions(dependencies, written);
+
+        String expected = written.toString();
+        assertTrue(expected.contains("$A.clientService.initDefs("));
+        assertEquals(expected, new String(streamed.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals(expected, new String(cached.toByteArray(), StandardCharsets.UTF_8));
+    }
+
     @Test
     public void testPreloadJSDependencies() throws Exception {
         ServerService ss = Aura.getServerService();
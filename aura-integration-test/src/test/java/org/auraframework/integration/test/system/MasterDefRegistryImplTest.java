@@ -26,6 +26,7 @@ import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -678,6 +679,66 @@ public class MasterDefRegistryImplTest extends AuraImplTestCase {
         Mockito.verify(registry, Mockito.times(0)).compileDE(Mockito.eq(cmpDesc));
     }
 
+    /**
+     * Verify a parallel compile gives the same uid and dependency order as a serial one.
+     */
+    @Test
+    public void testParallelCompileMatchesSerial() throws Exception {
+        DefDescriptor<ComponentDef> cmpDesc1 = addSourceAutoCleanup(ComponentDef.class, "<aura:component/>");
+        DefDescriptor<ComponentDef> cmpDesc2 = addSourceAutoCleanup(ComponentDef.class,
+                String.format(baseComponentTag, "", String.format("<%s/>", cmpDesc1.getDescriptorName())));
+        DefDescriptor<ComponentDef> cmpDesc = addSourceAutoCleanup(
+                ComponentDef.class,
+                String.format(baseComponentTag, "",
+                        String.format("<%s/><%s/><ui:outputNumber/>", cmpDesc1.getDescriptorName(),
+                                cmpDesc2.getDescriptorName())));
+
+        MasterDefRegistryImplOverride parallel = getDefRegistry(false);
+        parallel.setCompileParallelism(4);
+        DependencyEntry parallelEntry = parallel.compileDE(cmpDesc);
+
+        MasterDefRegistryImplOverride serial = getDefRegistry(false);
+        DependencyEntry serialEntry = serial.compileDE(cmpDesc);
+
+        assertEquals(serialEntry.uid, parallelEntry.uid);
+        assertEquals(Lists.newArrayList(serialEntry.dependencies), Lists.newArrayList(parallelEntry.dependencies));
+        assertEquals(parallel.getDef(cmpDesc).getOwnHash(), serial.getDef(cmpDesc).getOwnHash());
+    }
+
+    /**
+     * Verify a parallel compile really builds the definitions from source on the compile pool.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    @Test
+    public void testParallelCompileBuildsOnCompilePool() throws Exception {
+        DefDescriptor<ComponentDef> cmpDesc1 = addSourceAutoCleanup(ComponentDef.class, "<aura:component/>");
+        DefDescriptor<ComponentDef> cmpDesc2 = addSourceAutoCleanup(ComponentDef.class, "<aura:component/>");
+        DefDescriptor<ComponentDef> cmpDesc = addSourceAutoCleanup(
+                ComponentDef.class,
+                String.format(baseComponentTag, "",
+                        String.format("<%s/><%s/>", cmpDesc1.getDescriptorName(), cmpDesc2.getDescriptorName())));
+        final Thread compiling = Thread.currentThread();
+        final Set<DefDescriptor<?>> builtOnPool = Collections.synchronizedSet(new HashSet<DefDescriptor<?>>());
+
+        MasterDefRegistryImplOverride registry = getDefRegistry(true);
+        for (DefRegistry<?> subReg : registry.getAllRegistries()) {
+            Mockito.doAnswer(new Answer<Definition>() {
+                @Override
+                public Definition answer(InvocationOnMock invocation) throws Throwable {
+                    if (Thread.currentThread() != compiling) {
+                        builtOnPool.add((DefDescriptor<?>) invocation.getArguments()[0]);
+                    }
+                    return (Definition) invocation.callRealMethod();
+                }
+            }).when(subReg).getDef(Mockito.<DefDescriptor> any());
+        }
+        registry.setCompileParallelism(4);
+        registry.compileDE(cmpDesc);
+
+        assertTrue("Expected the components to be built on the compile pool, got " + builtOnPool,
+                builtOnPool.containsAll(Lists.newArrayList(cmpDesc, cmpDesc1, cmpDesc2)));
+    }
+
     @Test
     public void testGetDefDescriptorNull() throws Exception {
         MasterDefRegistryImplOverride registry = getDefRegistry(false);
@@ -1885,5 +1946,10 @@ public class MasterDefRegistryImplTest extends AuraImplTestCase {
                 throws QuickFixException {
             return super.compileDE(descriptor);
         }
+
+        @Override
+        public void setCompileParallelism(int compileParallelism) {
+            super.setCompileParallelism(compileParallelism);
+        }
     }
 }
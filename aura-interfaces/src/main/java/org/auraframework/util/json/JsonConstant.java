@@ -108,17 +108,14 @@ public enum JsonConstant {
     }
 
     public static JsonConstant valueOf(Character c) {
+        return valueOf(c.charValue());
+    }
 
-        JsonConstant ret = null;
-        int charVal = c;
+    public static JsonConstant valueOf(char c) {
 
         // direct lookup in token array
-        if (charVal <= MaxTokenValue) {
-            ret = tokens[charVal];
-        }
-
-        if (ret != null) {
-            return ret;
+        if (c <= MaxTokenValue) {
+            return tokens[c];
         }
 
         // this section should only be entered for c >= MaxTokenValue (rare)
@@ -128,7 +125,6 @@ public enum JsonConstant {
         }
 
         return LITERAL_START;
-
     }
 
 }
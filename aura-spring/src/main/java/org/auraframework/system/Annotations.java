@@ -50,6 +50,20 @@ public interface Annotations {
     @interface CabooseAction {
     }
 
+    /**
+     * Marks a server action as independent of the other actions it is boxcarred with.
+     *
+     * When parallel action execution is turned on, independent actions are run concurrently, each with a context
+     * of its own, so they must not depend on what other actions in the same request do, nor change anything on the
+     * context other than firing application events.
+     *
+     * The AuraEnabled annotation is still required to use this method as a server action.
+     */
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.METHOD)
+    @interface IndependentAction {
+    }
+
     @Retention(RetentionPolicy.RUNTIME)
     @Target(ElementType.METHOD)
     @interface AuraEnabled {
@@ -19,7 +19,6 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
@@ -33,11 +32,11 @@ import org.auraframework.def.DefDescriptor.DefType;
 import org.auraframework.def.Definition;
 import org.auraframework.def.DescriptorFilter;
 import org.auraframework.impl.source.file.FileSourceLoader;
+import org.auraframework.impl.system.BinaryRegistryFormat;
 import org.auraframework.impl.system.StaticDefRegistryImpl;
 import org.auraframework.system.AuraContext.Authentication;
 import org.auraframework.system.AuraContext.Format;
 import org.auraframework.system.AuraContext.Mode;
-import org.auraframework.system.DefRegistry;
 import org.auraframework.system.MasterDefRegistry;
 import org.auraframework.throwable.quickfix.QuickFixException;
 
@@ -53,8 +52,8 @@ import javax.annotation.Nonnull;
  * This requires a components directory, an output directory, and optionally can take
  * a set of namespaces to exclude.
  *
- * Note that the output file is a binary object file that is a set of registries,
- * one per namespace, that contain all of the defs that are in the namespaces.
+ * Note that the output file is a binary registry file (see {@link BinaryRegistryFormat}) holding
+ * a set of registries, one per namespace, that contain all of the defs that are in the namespaces.
  */
 public class RegistrySerializer {
     private static final Log log = LogFactory.getLog(RegistrySerializer.class);
@@ -203,21 +202,22 @@ public class RegistrySerializer {
     /**
      * write out the set of namespace registries to the given output stream.
      *
+     * The registries are written in the {@link BinaryRegistryFormat}, so that they can be opened without
+     * deserializing every definition.
+     *
      * @param namespaces the namespaces to serialize.
      * @param out the output stream to write into.
      * @throws RegistrySerializerException if there is an error.
      */
     public void write(@Nonnull Set<String> namespaces, @Nonnull OutputStream out) {
-        List<DefRegistry<Definition>> regs = Lists.newArrayList();
+        List<StaticDefRegistryImpl<?>> regs = Lists.newArrayList();
         for (String name : namespaces) {
             regs.add(getRegistry(name));
         }
 
-        ObjectOutputStream objectOut = null;
         try {
             try {
-                objectOut = new ObjectOutputStream(out);
-                objectOut.writeObject(regs);
+                BinaryRegistryFormat.write(regs, out);
             } finally {
                 out.close();
             }
@@ -235,7 +235,7 @@ public class RegistrySerializer {
      *
      * @param namespace the namespace for which we want to retrieve a static registry.
      */
-    private DefRegistry<Definition> getRegistry(@Nonnull String namespace) {
+    private StaticDefRegistryImpl<Definition> getRegistry(@Nonnull String namespace) {
         Set<String> prefixes = Sets.newHashSet();
         Set<DefType> types = Sets.newHashSet();
         Set<DefDescriptor<?>> descriptors;
@@ -15,7 +15,9 @@
  */
 package org.auraframework.util;
 
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.io.Writer;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
 import java.util.ArrayList;
@@ -218,6 +220,89 @@ public class AuraTextUtil {
         return TrieMatcher.replaceMultiple(in, JSON_SEARCH_REPLACE);
     }
 
+    /**
+     * Escapes a string for JSON straight into an appendable.
+     *
+     * This produces the same output as {@link #escapeForJSONString(String)}, in a single pass over the input, copying
+     * the runs that need no escaping directly from the input instead of building a new string.
+     *
+     * @param out the appendable to write to.
+     * @param in the (unsafe) string to escape, must not be null.
+     */
+    public static void appendEscapedJSONString(Appendable out, CharSequence in) throws IOException {
+        int length = in.length();
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            String replacement;
+            int matched = 1;
+            switch (in.charAt(i)) {
+            case '\\':
+                replacement = "\\\\";
+                break;
+            case '\n':
+            case '\u2028':
+                replacement = "\\n";
+                break;
+            case '\r':
+                replacement = "\\r";
+                break;
+            case '\t':
+                replacement = "\\t";
+                break;
+            case '"':
+                replacement = "\\\"";
+                break;
+            case '<':
+                replacement = "\\u003C";
+                break;
+            case '>':
+                replacement = "\\u003E";
+                break;
+            case '\u2029':
+                replacement = "\\u2029";
+                break;
+            case '\u0000':
+                replacement = "";
+                break;
+            case '!':
+                if (i + 2 >= length || in.charAt(i + 1) != '-' || in.charAt(i + 2) != '-') {
+                    continue;
+                }
+                replacement = "\\u0021--";
+                matched = 3;
+                break;
+            case '*':
+                if (i + 1 >= length || in.charAt(i + 1) != '/') {
+                    continue;
+                }
+                replacement = "\\u002A/";
+                matched = 2;
+                break;
+            default:
+                continue;
+            }
+            appendRun(out, in, start, i);
+            out.append(replacement);
+            i += matched - 1;
+            start = i + 1;
+        }
+        appendRun(out, in, start, length);
+    }
+
+    /**
+     * Append part of a sequence, avoiding the substring that Writer.append(CharSequence, int, int) would make.
+     */
+    private static void appendRun(Appendable out, CharSequence in, int start, int end) throws IOException {
+        if (start == end) {
+            return;
+        }
+        if (out instanceof Writer && in instanceof String) {
+            ((Writer) out).write((String) in, start, end - start);
+        } else {
+            out.append(in, start, end);
+        }
+    }
+
     /**
      * Properly escapes string for JSON Function.
      *
@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Writes the index of {@link ServiceLoaderImpl.Impl} methods on {@link ServiceLoaderImpl.AuraConfiguration} classes
+ * that ServiceLoaderImpl reads instead of scanning the classpath.
+ *
+ * The index is {@link ServiceLoaderImpl#INDEX_RESOURCE} in the class output, one class#method per line. Only classes
+ * in the configuration package are indexed, since that is all ServiceLoaderImpl looks at. On an incremental compile
+ * the entries of classes that were not compiled again are kept, as long as the class is still a configuration.
+ *
+ * This is registered as a service in aura-util, so it runs for every module that compiles against it.
+ */
+@SupportedAnnotationTypes("org.auraframework.util.ServiceLoaderImpl.AuraConfiguration")
+public class ServiceIndexProcessor extends AbstractProcessor {
+    private static final String CONFIGURATION = "org.auraframework.util.ServiceLoaderImpl.AuraConfiguration";
+    private static final String IMPL = "org.auraframework.util.ServiceLoaderImpl.Impl";
+    private static final String PACKAGE = "configuration";
+
+    private final Set<String> processed = new TreeSet<>();
+    private final Set<String> entries = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            if (!processed.isEmpty()) {
+                writeIndex();
+            }
+            return false;
+        }
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() == ElementKind.CLASS && isInPackage((TypeElement) element)) {
+                    addClass((TypeElement) element);
+                }
+            }
+        }
+        return false;
+    }
+
+    private void addClass(TypeElement type) {
+        String className = processingEnv.getElementUtils().getBinaryName(type).toString();
+        processed.add(className);
+        for (Element member : type.getEnclosedElements()) {
+            if (member.getKind() != ElementKind.METHOD || !hasAnnotation(member, IMPL)) {
+                continue;
+            }
+            ExecutableElement method = (ExecutableElement) member;
+            if (method.getModifiers().contains(Modifier.PUBLIC) && method.getModifiers().contains(Modifier.STATIC)
+                    && method.getParameters().isEmpty()) {
+                entries.add(className + "#" + method.getSimpleName());
+            }
+        }
+    }
+
+    private void writeIndex() {
+        Set<String> merged = new TreeSet<>(entries);
+        for (String entry : readExisting()) {
+            String className = entry.substring(0, entry.indexOf('#'));
+            if (!processed.contains(className) && isConfiguration(className)) {
+                merged.add(entry);
+            }
+        }
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                    ServiceLoaderImpl.INDEX_RESOURCE);
+            try (Writer writer = file.openWriter()) {
+                writer.write("# @Impl methods of @AuraConfiguration classes, see ServiceIndexProcessor\n");
+                for (String entry : merged) {
+                    writer.write(entry);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException ioe) {
+            processingEnv.getMessager().printMessage(Kind.ERROR,
+                    "Unable to write " + ServiceLoaderImpl.INDEX_RESOURCE + ": " + ioe.getMessage());
+        }
+    }
+
+    /**
+     * Read the entries of an index from an earlier compile, if there is one.
+     */
+    private Set<String> readExisting() {
+        Set<String> existing = new TreeSet<>();
+        try {
+            FileObject file = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "",
+                    ServiceLoaderImpl.INDEX_RESOURCE);
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.openInputStream(),
+                    StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (!line.isEmpty() && !line.startsWith("#") && line.indexOf('#') > 0) {
+                        existing.add(line);
+                    }
+                }
+            }
+        } catch (IOException ioe) {
+            // no earlier index.
+        }
+        return existing;
+    }
+
+    private boolean isConfiguration(String className) {
+        TypeElement type = processingEnv.getElementUtils().getTypeElement(className.replace('$', '.'));
+        return type != null && hasAnnotation(type, CONFIGURATION);
+    }
+
+    private boolean isInPackage(TypeElement type) {
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        return packageName.equals(PACKAGE) || packageName.startsWith(PACKAGE + ".");
+    }
+
+    private static boolean hasAnnotation(Element element, String annotationName) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName()
+                    .contentEquals(annotationName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
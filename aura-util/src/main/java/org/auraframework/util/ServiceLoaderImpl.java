@@ -15,12 +15,21 @@
  */
 package org.auraframework.util;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.auraframework.ds.serviceloader.AuraServiceProvider;
@@ -35,8 +44,11 @@ import org.reflections.util.ClasspathHelper;
 import org.reflections.util.ConfigurationBuilder;
 import org.reflections.util.FilterBuilder;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Predicate;
 import com.google.common.base.Predicates;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 
 /**
@@ -60,6 +72,13 @@ public class ServiceLoaderImpl implements ServiceLoader {
     public @interface PrimaryImpl {
     }
 
+    /**
+     * The index of {@link Impl} methods written at build time by {@link ServiceIndexProcessor}.
+     */
+    public static final String INDEX_RESOURCE = "META-INF/aura/configuration.index";
+
+    private static final String PACKAGE = "configuration";
+
     private static final ServiceLoader instance = new ServiceLoaderImpl();
 
     @SuppressWarnings("unchecked")
@@ -67,15 +86,12 @@ public class ServiceLoaderImpl implements ServiceLoader {
             ReflectionUtils.withModifier(Modifier.PUBLIC), ReflectionUtils.withAnnotation(Impl.class),
             ReflectionUtils.withModifier(Modifier.STATIC), ReflectionUtils.withParametersCount(0));
 
-    private final Reflections reflections;
+    /**
+     * All the {@link Impl} methods found, loaded on first use.
+     */
+    private volatile Set<Method> implMethods;
 
     private ServiceLoaderImpl() {
-        Predicate<String> filter = new FilterBuilder().include(FilterBuilder.prefix("configuration"));
-
-        reflections = new Reflections(new ConfigurationBuilder().filterInputsBy(filter)
-                .setUrls(ClasspathHelper.forPackage("configuration"))
-                .setScanners(new SubTypesScanner(), new TypeAnnotationsScanner(), new MethodAnnotationsScanner(), new TypeElementsScanner()));
-
     }
 
     public static final ServiceLoader get() {
@@ -85,16 +101,15 @@ public class ServiceLoaderImpl implements ServiceLoader {
     @Override
     public <T extends AuraServiceProvider> T get(Class<T> type) {
         try {
-
-            Set<Class<?>> classes = reflections.getTypesAnnotatedWith(AuraConfiguration.class);
+            Set<Method> methods = getImplMethods();
 
             // First try those marked with primary
-            T ret = get(type, classes, true, predicate);
+            T ret = get(type, methods, true, predicate);
             if (ret != null) {
                 return ret;
             }
 
-            return get(type, classes, false, predicate);
+            return get(type, methods, false, predicate);
 
         } catch (Throwable t) {
             throw new ServiceLocatorException(t);
@@ -102,7 +117,7 @@ public class ServiceLoaderImpl implements ServiceLoader {
     }
 
     @SuppressWarnings("unchecked")
-    private <T> T get(Class<T> type, Set<Class<?>> classes, boolean primary, Predicate<? super Method> predicate) {
+    private <T> T get(Class<T> type, Set<Method> methods, boolean primary, Predicate<? super Method> predicate) {
         Set<Method> beanMethods = Sets.newHashSet();
         Predicate<Method> pred;
 
@@ -111,16 +126,9 @@ public class ServiceLoaderImpl implements ServiceLoader {
             pred = Predicates.and(pred, ReflectionUtils.withAnnotation(PrimaryImpl.class));
         }
 
-        /*
-         * This is a better way to do it, but hits a runtime dep on Guava 12, so
-         * until we upgrade to Guava 12, working around this.
-         */
-
-        for (Class<?> clazz : classes) {
-            for (Method meth : clazz.getDeclaredMethods()) {
-                if (pred.apply(meth)) {
-                    beanMethods.add(meth);
-                }
+        for (Method meth : methods) {
+            if (pred.apply(meth)) {
+                beanMethods.add(meth);
             }
         }
 
@@ -151,18 +159,9 @@ public class ServiceLoaderImpl implements ServiceLoader {
 
         Predicate<Method> pred = Predicates.and(predicate, ReflectionUtils.withReturnTypeAssignableTo(type));
 
-        Set<Class<?>> classes = reflections.getTypesAnnotatedWith(AuraConfiguration.class);
-
-        /*
-         * This is a better way to do it, but hits a runtime dep on Guava 12, so
-         * until we upgrade to Guava 12, working around this.
-         */
-
-        for (Class<?> clazz : classes) {
-            for (Method meth : clazz.getDeclaredMethods()) {
-                if (pred.apply(meth)) {
-                    beanMethods.add(meth);
-                }
+        for (Method meth : getImplMethods()) {
+            if (pred.apply(meth)) {
+                beanMethods.add(meth);
             }
         }
 
@@ -192,18 +191,142 @@ public class ServiceLoaderImpl implements ServiceLoader {
                 }
 
             });
-            Set<Class<?>> classes = reflections.getTypesAnnotatedWith(AuraConfiguration.class);
+            Set<Method> methods = getImplMethods();
 
             // First try those marked with primary
-            T ret = get(type, classes, true, predicate);
+            T ret = get(type, methods, true, predicate);
             if (ret != null) {
                 return ret;
             }
 
-            return get(type, classes, false, predicate);
+            return get(type, methods, false, predicate);
 
         } catch (Throwable t) {
             throw new ServiceLocatorException(t);
         }
     }
+
+    private Set<Method> getImplMethods() {
+        Set<Method> methods = implMethods;
+        if (methods == null) {
+            synchronized (this) {
+                methods = implMethods;
+                if (methods == null) {
+                    methods = Collections.unmodifiableSet(loadImplMethods());
+                    implMethods = methods;
+                }
+            }
+        }
+        return methods;
+    }
+
+    /**
+     * Find the {@link Impl} methods of the {@link AuraConfiguration} classes in the configuration package.
+     *
+     * Classpath roots that have an index (see {@link ServiceIndexProcessor}) are read from it, and only the roots
+     * without one, e.g. classes compiled without the processor, are scanned. Roots whose index does not match their
+     * classes, e.g. after an incremental compile without the processor, are scanned as well.
+     */
+    private static Set<Method> loadImplMethods() {
+        Set<Method> methods = Sets.newLinkedHashSet();
+        Set<String> indexedRoots = Sets.newHashSet();
+        ClassLoader[] classLoaders = ClasspathHelper.classLoaders();
+
+        for (ClassLoader classLoader : classLoaders) {
+            Enumeration<URL> indexes;
+            try {
+                indexes = classLoader.getResources(INDEX_RESOURCE);
+            } catch (IOException ioe) {
+                throw new ServiceLocatorException(ioe);
+            }
+            while (indexes.hasMoreElements()) {
+                URL index = indexes.nextElement();
+                String url = index.toExternalForm();
+                String root = url.substring(0, url.length() - INDEX_RESOURCE.length());
+                if (!indexedRoots.contains(root)) {
+                    Set<Method> indexed = readIndex(index, classLoaders);
+                    if (indexed != null) {
+                        indexedRoots.add(root);
+                        methods.addAll(indexed);
+                    }
+                }
+            }
+        }
+
+        List<URL> unindexed = Lists.newArrayList();
+        for (URL root : ClasspathHelper.forPackage(PACKAGE)) {
+            if (!indexedRoots.contains(root.toExternalForm())) {
+                unindexed.add(root);
+            }
+        }
+        if (!unindexed.isEmpty()) {
+            Predicate<String> filter = new FilterBuilder().include(FilterBuilder.prefix(PACKAGE));
+            Reflections reflections = new Reflections(new ConfigurationBuilder().filterInputsBy(filter)
+                    .setUrls(unindexed)
+                    .setScanners(new SubTypesScanner(), new TypeAnnotationsScanner(), new MethodAnnotationsScanner(), new TypeElementsScanner()));
+
+            /*
+             * This is a better way to do it, but hits a runtime dep on Guava 12, so
+             * until we upgrade to Guava 12, working around this.
+             */
+            for (Class<?> clazz : reflections.getTypesAnnotatedWith(AuraConfiguration.class)) {
+                for (Method meth : clazz.getDeclaredMethods()) {
+                    if (predicate.apply(meth)) {
+                        methods.add(meth);
+                    }
+                }
+            }
+        }
+        return methods;
+    }
+
+    /**
+     * Read the {@link Impl} methods listed in an index.
+     *
+     * @return the methods, or null if the index is stale: it lists a class that is gone or is no longer a
+     *         configuration, or the methods it lists for a class are not the ones the class has.
+     */
+    @VisibleForTesting
+    static Set<Method> readIndex(URL index, ClassLoader[] classLoaders) {
+        Map<String, Set<String>> entries = Maps.newLinkedHashMap();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(index.openStream(),
+                StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                int hash = line.indexOf('#');
+                if (hash <= 0) {
+                    continue;
+                }
+                String className = line.substring(0, hash);
+                Set<String> names = entries.get(className);
+                if (names == null) {
+                    names = Sets.newHashSet();
+                    entries.put(className, names);
+                }
+                names.add(line.substring(hash + 1));
+            }
+        } catch (IOException ioe) {
+            throw new ServiceLocatorException(ioe);
+        }
+
+        Set<Method> methods = Sets.newLinkedHashSet();
+        for (Map.Entry<String, Set<String>> entry : entries.entrySet()) {
+            Class<?> clazz = ReflectionUtils.forName(entry.getKey(), classLoaders);
+            if (clazz == null || !clazz.isAnnotationPresent(AuraConfiguration.class)) {
+                return null;
+            }
+            Set<String> names = Sets.newHashSet();
+            for (Method meth : clazz.getDeclaredMethods()) {
+                if (predicate.apply(meth)) {
+                    names.add(meth.getName());
+                    methods.add(meth);
+                }
+            }
+            if (!names.equals(entry.getValue())) {
+                return null;
+            }
+        }
+        return methods;
+    }
 }
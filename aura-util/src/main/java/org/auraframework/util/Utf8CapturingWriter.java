@@ -0,0 +1,236 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+/**
+ * A writer that encodes everything written to it as UTF-8 into a list of byte chunks, so that the output can be kept
+ * and written again later with a single bulk copy.
+ *
+ * The output can also be streamed as it is produced, either as characters to a target writer, or as the encoded
+ * chunks to a target stream (so that nothing is encoded twice). Nothing is written to the target stream until a chunk
+ * fills up, or until {@link #flush()} is called.
+ *
+ * Unpaired surrogates are encoded as '?', as {@link String#getBytes(java.nio.charset.Charset)} does.
+ */
+public class Utf8CapturingWriter extends Writer {
+    private static final int DEFAULT_CHUNK_SIZE = 32 * 1024;
+
+    private final Writer targetWriter;
+    private final OutputStream targetStream;
+    private final int chunkSize;
+    private final List<byte[]> chunks = Lists.newArrayList();
+
+    private byte[] current;
+    private int position;
+    private int streamed;
+    private int size;
+    private char highSurrogate;
+
+    /**
+     * Capture without streaming anywhere.
+     */
+    public Utf8CapturingWriter() {
+        this(null, null, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Capture, while also writing the characters to a target writer.
+     *
+     * @param target the writer to write to, may be null.
+     */
+    public Utf8CapturingWriter(Writer target) {
+        this(target, null, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Capture, while also writing the encoded bytes to a target stream.
+     *
+     * @param target the stream to write to, may be null.
+     */
+    public Utf8CapturingWriter(OutputStream target) {
+        this(null, target, DEFAULT_CHUNK_SIZE);
+    }
+
+    Utf8CapturingWriter(Writer targetWriter, OutputStream targetStream, int chunkSize) {
+        this.targetWriter = targetWriter;
+        this.targetStream = targetStream;
+        this.chunkSize = chunkSize;
+        this.current = new byte[chunkSize];
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        encode((char) c);
+        if (targetWriter != null) {
+            targetWriter.write(c);
+        }
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        for (int i = off; i < off + len; i++) {
+            encode(cbuf[i]);
+        }
+        if (targetWriter != null) {
+            targetWriter.write(cbuf, off, len);
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        for (int i = off; i < off + len; i++) {
+            encode(str.charAt(i));
+        }
+        if (targetWriter != null) {
+            targetWriter.write(str, off, len);
+        }
+    }
+
+    /**
+     * Flush the target, writing any bytes that have not yet been streamed.
+     */
+    @Override
+    public void flush() throws IOException {
+        if (targetStream != null) {
+            streamCurrent();
+            targetStream.flush();
+        }
+        if (targetWriter != null) {
+            targetWriter.flush();
+        }
+    }
+
+    /**
+     * Flushes, but does not close the target.
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+
+    /**
+     * Get the number of bytes captured so far.
+     */
+    public int size() {
+        return size + position;
+    }
+
+    /**
+     * Get the captured bytes.
+     *
+     * A pending high surrogate at the end of the output is not included.
+     */
+    public byte[] toByteArray() {
+        byte[] bytes = new byte[size()];
+        int offset = 0;
+        for (byte[] chunk : chunks) {
+            System.arraycopy(chunk, 0, bytes, offset, chunk.length);
+            offset += chunk.length;
+        }
+        System.arraycopy(current, 0, bytes, offset, position);
+        return bytes;
+    }
+
+    /**
+     * Write captured bytes to a writer as characters.
+     *
+     * The bytes are decoded a chunk at a time, so that no string the size of the whole output is built.
+     *
+     * @param utf8 the UTF-8 bytes, as from {@link #toByteArray()}.
+     * @param out the writer to write to.
+     */
+    public static void writeTo(byte[] utf8, Writer out) throws IOException {
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        ByteBuffer in = ByteBuffer.wrap(utf8);
+        CharBuffer chars = CharBuffer.allocate(Math.min(utf8.length, DEFAULT_CHUNK_SIZE / 4) + 1);
+
+        while (true) {
+            boolean overflow = decoder.decode(in, chars, true).isOverflow();
+            if (!overflow) {
+                decoder.flush(chars);
+            }
+            chars.flip();
+            out.write(chars.array(), 0, chars.limit());
+            chars.clear();
+            if (!overflow) {
+                return;
+            }
+        }
+    }
+
+    private void encode(char c) throws IOException {
+        if (highSurrogate != 0) {
+            char high = highSurrogate;
+            highSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                int cp = Character.toCodePoint(high, c);
+                put((byte) (0xF0 | (cp >> 18)));
+                put((byte) (0x80 | ((cp >> 12) & 0x3F)));
+                put((byte) (0x80 | ((cp >> 6) & 0x3F)));
+                put((byte) (0x80 | (cp & 0x3F)));
+                return;
+            }
+            put((byte) '?');
+        }
+        if (c < 0x80) {
+            put((byte) c);
+        } else if (c < 0x800) {
+            put((byte) (0xC0 | (c >> 6)));
+            put((byte) (0x80 | (c & 0x3F)));
+        } else if (Character.isHighSurrogate(c)) {
+            highSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            put((byte) '?');
+        } else {
+            put((byte) (0xE0 | (c >> 12)));
+            put((byte) (0x80 | ((c >> 6) & 0x3F)));
+            put((byte) (0x80 | (c & 0x3F)));
+        }
+    }
+
+    private void put(byte b) throws IOException {
+        if (position == current.length) {
+            streamCurrent();
+            chunks.add(current);
+            size += current.length;
+            current = new byte[chunkSize];
+            position = 0;
+            streamed = 0;
+        }
+        current[position++] = b;
+    }
+
+    private void streamCurrent() throws IOException {
+        if (targetStream != null && streamed < position) {
+            targetStream.write(current, streamed, position - streamed);
+            streamed = position;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * A writer that encodes UTF-8 into a single reusable byte buffer, and writes the buffer to a target stream whenever it
+ * fills up or the writer is flushed.
+ *
+ * This does the job of an OutputStreamWriter with a fixed charset, without the intermediate char buffer or the
+ * CharsetEncoder, and {@link #append(CharSequence, int, int)} encodes straight from the sequence rather than going
+ * through {@link CharSequence#subSequence(int, int)}.
+ *
+ * Unpaired surrogates are encoded as '?', as {@link String#getBytes(java.nio.charset.Charset)} does. Not thread safe.
+ */
+public class Utf8StreamWriter extends Writer {
+    private static final int DEFAULT_BUFFER_SIZE = 8 * 1024;
+
+    private final OutputStream target;
+    private final byte[] buffer;
+
+    private int position;
+    private char highSurrogate;
+
+    public Utf8StreamWriter(OutputStream target) {
+        this(target, DEFAULT_BUFFER_SIZE);
+    }
+
+    Utf8StreamWriter(OutputStream target, int bufferSize) {
+        if (bufferSize < 4) {
+            throw new IllegalArgumentException("Buffer must hold at least one code point");
+        }
+        this.target = target;
+        this.buffer = new byte[bufferSize];
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        encode((char) c);
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        for (int i = off; i < off + len; i++) {
+            encode(cbuf[i]);
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        for (int i = off; i < off + len; i++) {
+            encode(str.charAt(i));
+        }
+    }
+
+    @Override
+    public Writer append(CharSequence csq) throws IOException {
+        if (csq == null) {
+            csq = "null";
+        }
+        return append(csq, 0, csq.length());
+    }
+
+    @Override
+    public Writer append(CharSequence csq, int start, int end) throws IOException {
+        if (csq == null) {
+            csq = "null";
+        }
+        for (int i = start; i < end; i++) {
+            encode(csq.charAt(i));
+        }
+        return this;
+    }
+
+    /**
+     * Write out the buffer and flush the target.
+     */
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        target.flush();
+    }
+
+    /**
+     * Flush, and close the target, as OutputStreamWriter does. A high surrogate left over from the last write has
+     * nothing left to pair with, so it is written as '?'.
+     */
+    @Override
+    public void close() throws IOException {
+        if (highSurrogate != 0) {
+            highSurrogate = 0;
+            if (position > buffer.length - 1) {
+                flushBuffer();
+            }
+            buffer[position++] = (byte) '?';
+        }
+        flush();
+        target.close();
+    }
+
+    private void encode(char c) throws IOException {
+        if (position > buffer.length - 4) {
+            flushBuffer();
+        }
+        if (c < 0x80 && highSurrogate == 0) {
+            buffer[position++] = (byte) c;
+            return;
+        }
+        if (highSurrogate != 0) {
+            char high = highSurrogate;
+            highSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                int cp = Character.toCodePoint(high, c);
+                buffer[position++] = (byte) (0xF0 | (cp >> 18));
+                buffer[position++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                buffer[position++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (cp & 0x3F));
+                return;
+            }
+            buffer[position++] = (byte) '?';
+            if (position > buffer.length - 3) {
+                flushBuffer();
+            }
+        }
+        if (c < 0x80) {
+            buffer[position++] = (byte) c;
+        } else if (c < 0x800) {
+            buffer[position++] = (byte) (0xC0 | (c >> 6));
+            buffer[position++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c)) {
+            highSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            buffer[position++] = (byte) '?';
+        } else {
+            buffer[position++] = (byte) (0xE0 | (c >> 12));
+            buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            buffer[position++] = (byte) (0x80 | (c & 0x3F));
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (position > 0) {
+            target.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+}
@@ -30,7 +30,10 @@ import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -127,19 +130,24 @@ public class DateServiceImpl implements DateService {
         FormatStyle dateFormat = date.getFormatStyle();
         FormatStyle timeFormat = time.getFormatStyle();
 
-        DateTimeFormatter formatter;
-
         if (dateFormat == null && timeFormat == null) {
             throw new IllegalArgumentException("Both date style and time style cannot be none");
-        } else if (dateFormat == null) {
-            formatter = DateTimeFormatter.ofLocalizedTime(timeFormat);
-        } else if (timeFormat == null) {
-            formatter = DateTimeFormatter.ofLocalizedDate(dateFormat);
-        } else {
-            formatter = DateTimeFormatter.ofLocalizedDateTime(dateFormat, timeFormat);
         }
 
-        return new DateServiceConverter(formatter.withLocale(locale));
+        ConverterKey key = new ConverterKey(locale, dateStyle, timeStyle, null);
+        DateConverter converter = converters.get(key);
+        if (converter == null) {
+            DateTimeFormatter formatter;
+            if (dateFormat == null) {
+                formatter = DateTimeFormatter.ofLocalizedTime(timeFormat);
+            } else if (timeFormat == null) {
+                formatter = DateTimeFormatter.ofLocalizedDate(dateFormat);
+            } else {
+                formatter = DateTimeFormatter.ofLocalizedDateTime(dateFormat, timeFormat);
+            }
+            converter = cache(key, new DateServiceConverter(formatter.withLocale(locale)));
+        }
+        return converter;
     }
 
     /**
@@ -169,7 +177,23 @@ public class DateServiceImpl implements DateService {
         if (pattern == null) {
             throw new IllegalArgumentException("Pattern must be provided");
         }
-        return new DateServiceConverter(DateTimeFormatter.ofPattern(pattern, locale));
+        ConverterKey key = new ConverterKey(locale, DateService.NONE, DateService.NONE, pattern);
+        DateConverter converter = converters.get(key);
+        if (converter == null) {
+            converter = cache(key, new DateServiceConverter(DateTimeFormatter.ofPattern(pattern, locale)));
+        }
+        return converter;
+    }
+
+    /**
+     * Keep a converter for later calls, unless there are already too many of them (patterns can come from anywhere).
+     */
+    private static DateConverter cache(ConverterKey key, DateConverter converter) {
+        if (converters.size() >= MAX_CONVERTERS) {
+            return converter;
+        }
+        DateConverter existing = converters.putIfAbsent(key, converter);
+        return existing != null ? existing : converter;
     }
 
     @Override
@@ -217,6 +241,50 @@ public class DateServiceImpl implements DateService {
         }
     }
 
+    /**
+     * The key for a cached converter: a locale with either styles or a pattern.
+     */
+    private static final class ConverterKey {
+        private final Locale locale;
+        private final int dateStyle;
+        private final int timeStyle;
+        private final String pattern;
+        private final int hashCode;
+
+        private ConverterKey(Locale locale, int dateStyle, int timeStyle, String pattern) {
+            this.locale = locale;
+            this.dateStyle = dateStyle;
+            this.timeStyle = timeStyle;
+            this.pattern = pattern;
+            this.hashCode = Objects.hash(locale, dateStyle, timeStyle, pattern);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ConverterKey)) {
+                return false;
+            }
+            ConverterKey other = (ConverterKey) obj;
+            return dateStyle == other.dateStyle && timeStyle == other.timeStyle && locale.equals(other.locale)
+                    && Objects.equals(pattern, other.pattern);
+        }
+    }
+
+    /**
+     * The maximum number of converters kept. Converters are immutable, so they are shared.
+     */
+    private static final int MAX_CONVERTERS = 4096;
+
+    private static final ConcurrentMap<ConverterKey, DateConverter> converters = new ConcurrentHashMap<>();
+
     private static Map<Integer, StyleType> intToStyleTypeMap = new ImmutableMap.Builder<Integer, StyleType>()
             .put(StyleType.SHORT.getIntStyle(), StyleType.SHORT)
             .put(StyleType.MEDIUM.getIntStyle(), StyleType.MEDIUM)
@@ -290,30 +358,36 @@ public class DateServiceImpl implements DateService {
         }
 
         /**
-         * Tries, in order: ISO_8601_DATETIME, ISO_8601_DATETIME_NO_SECONDS,
-         * ISO_8601_DATE If none parse, null is returned.
+         * Accepts, in one pass: ISO_8601_DATETIME, ISO_8601_DATETIME_NO_SECONDS,
+         * ISO_8601_DATETIME_SECONDS, ISO_8601_DATE. If none match, null is returned.
          */
         @Override
         public Date parse(String date, TimeZone timeZone) {
-            for (DateConverter format : isoConversions) {
-                try {
-                    return format.parse(date, timeZone);
-                } catch (DateTimeParseException | IllegalArgumentException e) {
-                    // try the next one
-                }
+            if (date == null || timeZone == null) {
+                return null;
             }
-            return null;
+            if (ISO8601Parser.isExtendedYear(date)) {
+                return parseExtended(date, timeZone);
+            }
+            return ISO8601Parser.parse(date, timeZone);
         }
 
         /**
-         * Tries, in order: ISO_8601_DATETIME, ISO_8601_DATETIME_NO_SECONDS,
-         * ISO_8601_DATE If none parse, null is returned.
+         * Accepts, in one pass: ISO_8601_DATETIME, ISO_8601_DATETIME_NO_SECONDS,
+         * ISO_8601_DATETIME_SECONDS, ISO_8601_DATE. If none match, null is returned.
          */
         @Override
         public Date parse(String date) {
+            return parse(date, ISO8601DateTimeConverter.ISO8601_DEFAULT_TIMEZONE);
+        }
+
+        /**
+         * Years with a sign or more than four digits are rare enough to leave to the formatters.
+         */
+        private Date parseExtended(String date, TimeZone timeZone) {
             for (DateConverter format : isoConversions) {
                 try {
-                    return format.parse(date);
+                    return format.parse(date, timeZone);
                 } catch (DateTimeParseException | IllegalArgumentException e) {
                     // try the next one
                 }
@@ -396,7 +470,7 @@ public class DateServiceImpl implements DateService {
      */
     private static class ISO8601DateTimeConverter extends DateServiceConverter {
 
-        private static TimeZone ISO8601_DEFAULT_TIMEZONE = TimeZone.getTimeZone("GMT");
+        private static final TimeZone ISO8601_DEFAULT_TIMEZONE = TimeZone.getTimeZone("GMT");
 
         protected ISO8601DateTimeConverter(DateTimeFormatter formatter) {
             super(formatter);
@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util.date;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.TimeZone;
+
+/**
+ * Single pass parser for the ISO-8601 variants accepted by the generic ISO-8601 converter.
+ *
+ * <pre>
+ * yyyy-MM-dd'T'HH:mm:ss.SSSXXX
+ * yyyy-MM-dd'T'HH:mm'Z'
+ * yyyy-MM-dd'T'HH:mm:ss'Z'
+ * yyyy-MM-dd
+ * </pre>
+ *
+ * The fields are resolved the way the equivalent DateTimeFormatters resolve them, i.e. smartly for date times (a day
+ * past the end of the month is moved to the last day, 24:00 is midnight of the next day) and strictly for dates. Note
+ * that the literal 'Z' of the second and third forms is not an offset, those are in the given time zone.
+ *
+ * Years are exactly four digits here. Extended years (with a sign or more digits) are left to the formatters, see
+ * {@link #isExtendedYear(String)}.
+ */
+final class ISO8601Parser {
+
+    private ISO8601Parser() {
+    }
+
+    /**
+     * Does the text start with a year that is not four plain digits.
+     */
+    static boolean isExtendedYear(String text) {
+        if (text.isEmpty()) {
+            return false;
+        }
+        char first = text.charAt(0);
+        return first == '+' || first == '-' || (text.length() > 4 && digits(text, 0, 5) >= 0);
+    }
+
+    /**
+     * Parse an ISO-8601 date or date time.
+     *
+     * @param text the text to parse.
+     * @param timeZone the time zone for text without an offset.
+     * @return the date, or null if the text is not in one of the accepted forms.
+     */
+    static Date parse(String text, TimeZone timeZone) {
+        int length = text.length();
+        if (length < 10 || text.charAt(4) != '-' || text.charAt(7) != '-') {
+            return null;
+        }
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 2);
+        int day = digits(text, 8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31) {
+            return null;
+        }
+        int monthLength = lengthOfMonth(year, month);
+
+        if (length == 10) {
+            if (day > monthLength) {
+                return null;
+            }
+            return Date.from(LocalDate.of(year, month, day).atStartOfDay(timeZone.toZoneId()).toInstant());
+        }
+
+        if (year == 0 || length < 17 || text.charAt(10) != 'T' || text.charAt(13) != ':') {
+            return null;
+        }
+        int hour = digits(text, 11, 2);
+        int minute = digits(text, 14, 2);
+        int second = 0;
+        int millis = 0;
+        ZoneOffset offset = null;
+        if (length == 17 && text.charAt(16) == 'Z') {
+            // yyyy-MM-dd'T'HH:mm'Z'
+        } else if (length >= 20 && text.charAt(16) == ':') {
+            second = digits(text, 17, 2);
+            if (length == 20 && text.charAt(19) == 'Z') {
+                // yyyy-MM-dd'T'HH:mm:ss'Z'
+            } else if (length >= 24 && text.charAt(19) == '.') {
+                millis = digits(text, 20, 3);
+                offset = parseOffset(text, 23);
+                if (millis < 0 || offset == null) {
+                    return null;
+                }
+            } else {
+                return null;
+            }
+        } else {
+            return null;
+        }
+        if (hour < 0 || hour > 24 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return null;
+        }
+
+        LocalDateTime dateTime;
+        if (hour == 24) {
+            if (minute != 0 || second != 0 || millis != 0) {
+                return null;
+            }
+            dateTime = LocalDate.of(year, month, Math.min(day, monthLength)).plusDays(1).atStartOfDay();
+        } else {
+            dateTime = LocalDateTime.of(year, month, Math.min(day, monthLength), hour, minute, second,
+                    millis * 1000000);
+        }
+        if (offset != null) {
+            return Date.from(dateTime.toInstant(offset));
+        }
+        return Date.from(dateTime.atZone(timeZone.toZoneId()).toInstant());
+    }
+
+    /**
+     * Parse an offset of the form 'Z' or +HH:MM, which must be the rest of the text.
+     */
+    private static ZoneOffset parseOffset(String text, int start) {
+        int length = text.length() - start;
+        if (length == 1 && text.charAt(start) == 'Z') {
+            return ZoneOffset.UTC;
+        }
+        if (length != 6 || text.charAt(start + 3) != ':') {
+            return null;
+        }
+        char sign = text.charAt(start);
+        if (sign != '+' && sign != '-') {
+            return null;
+        }
+        int hours = digits(text, start + 1, 2);
+        int minutes = digits(text, start + 4, 2);
+        if (hours < 0 || minutes < 0 || minutes > 59) {
+            return null;
+        }
+        int seconds = hours * 3600 + minutes * 60;
+        if (seconds > 18 * 3600) {
+            return null;
+        }
+        return ZoneOffset.ofTotalSeconds(sign == '-' ? -seconds : seconds);
+    }
+
+    /**
+     * Read a fixed number of ASCII digits.
+     *
+     * @return the value, or -1 if any of the characters is not a digit.
+     */
+    private static int digits(String text, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+        case 2:
+            return Year.isLeap(year) ? 29 : 28;
+        case 4:
+        case 6:
+        case 9:
+        case 11:
+            return 30;
+        default:
+            return 31;
+        }
+    }
+}
@@ -15,66 +15,52 @@
  */
 package org.auraframework.util.json;
 
-import static org.auraframework.util.json.JsonSerializers.ARRAY;
 import static org.auraframework.util.json.JsonSerializers.LITERAL;
-import static org.auraframework.util.json.JsonSerializers.STRING;
 
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentMap;
 
 /**
  * uses 2 maps to find serializers. first is direct class lookup (fast), second
- * is an instanceof lookup (slow)
+ * is an instanceof lookup (slow). The result for each class is kept in a
+ * {@link JsonSerializerDispatchTable}, so only the first value of a class pays
+ * for either.
  */
 public class ClassMapJsonSerializationContext extends BaseJsonSerializationContext {
 
-    private final Map<String, JsonSerializer<?>> serializersLookupMap;
-    private final Map<Class<?>, JsonSerializer<?>> serializersInstanceMap;
-    private final ConcurrentMap<String, JsonSerializer<?>> cache;
+    private final JsonSerializerDispatchTable dispatchTable;
 
+    public ClassMapJsonSerializationContext(Map<String, JsonSerializer<?>> serializersLookupMap,
+            Map<Class<?>, JsonSerializer<?>> serializersInstanceMap, boolean format, boolean refSupport,
+            int dataSizeLimit, int collectionSizeLimit) {
+        this(new JsonSerializerDispatchTable(serializersLookupMap, serializersInstanceMap), format, refSupport,
+                dataSizeLimit, collectionSizeLimit);
+    }
+
+    /**
+     * @deprecated the cache is not used any more, as the dispatch table built here remembers each class. Build a
+     *             {@link JsonSerializerDispatchTable} once and share it instead, as building one per context means
+     *             every context looks each class up again.
+     */
+    @Deprecated
     public ClassMapJsonSerializationContext(Map<String, JsonSerializer<?>> serializersLookupMap,
             Map<Class<?>, JsonSerializer<?>> serializersInstanceMap, ConcurrentMap<String, JsonSerializer<?>> cache,
             boolean format, boolean refSupport, int dataSizeLimit, int collectionSizeLimit) {
+        this(serializersLookupMap, serializersInstanceMap, format, refSupport, dataSizeLimit, collectionSizeLimit);
+    }
+
+    public ClassMapJsonSerializationContext(JsonSerializerDispatchTable dispatchTable, boolean format,
+            boolean refSupport, int dataSizeLimit, int collectionSizeLimit) {
         super(format, refSupport, dataSizeLimit, collectionSizeLimit, false);
-        this.serializersLookupMap = serializersLookupMap;
-        this.serializersInstanceMap = serializersInstanceMap;
-        this.cache = cache;
+        this.dispatchTable = dispatchTable;
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public <T> JsonSerializer<T> getSerializer(T o) {
-
         if (o == null) {
             return (JsonSerializer<T>) LITERAL;
         }
-        Class<?> c = o.getClass();
-        if (c.isArray()) {
-            return (JsonSerializer<T>) ARRAY;
-        } else if (c.isEnum()) {
-            return (JsonSerializer<T>) STRING;
-        }
-
-        JsonSerializer<T> s = (JsonSerializer<T>) cache.get(c.getName());
-        if (s != null) {
-            return s;
-        }
-
-        String className = c.getName();
-        s = (JsonSerializer<T>) serializersLookupMap.get(className);
-        if (s != null) {
-            cache.putIfAbsent(className, s);
-            return s;
-        }
-
-        for (Entry<Class<?>, JsonSerializer<?>> e : serializersInstanceMap.entrySet()) {
-            if (e.getKey().isAssignableFrom(c)) {
-                s = (JsonSerializer<T>) e.getValue();
-                cache.putIfAbsent(className, s);
-                return s;
-            }
-        }
-        return null;
+        return (JsonSerializer<T>) dispatchTable.get(o.getClass());
     }
 }
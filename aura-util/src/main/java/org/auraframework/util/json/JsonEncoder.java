@@ -16,12 +16,14 @@
 package org.auraframework.util.json;
 
 import java.io.DataOutputStream;
+import java.io.Flushable;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.math.BigDecimal;
 import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -37,10 +39,10 @@ import javax.annotation.Nonnull;
 
 import org.auraframework.util.AuraTextUtil;
 import org.auraframework.util.UncloseableOutputStream;
+import org.auraframework.util.Utf8StreamWriter;
 import org.auraframework.util.json.Serialization.ReferenceScope;
 import org.auraframework.util.json.Serialization.ReferenceType;
 
-import com.google.common.base.Charsets;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.io.CountingOutputStream;
@@ -125,6 +127,7 @@ public class JsonEncoder implements Json {
     private final DataOutputStream binaryOutput;
     private CountingOutputStream currentBinaryStream;
     private long currentBinaryStreamLength;
+    private JsonFragmentCache fragmentCache;
 
     /**
      * Create a Json Serialization context object that maintains information
@@ -282,7 +285,7 @@ public class JsonEncoder implements Json {
         if (out == null) {
             throw new IllegalArgumentException("out must not be null");
         }
-        final Writer writer = new OutputStreamWriter(out, Charsets.UTF_8);
+        final Writer writer = new Utf8StreamWriter(out);
         return new JsonEncoder(writer, out, context);
     }
 
@@ -591,26 +594,71 @@ public class JsonEncoder implements Json {
         if (serializer == null) {
             throw new JsonSerializerNotFoundException(value);
         }
-        ReferenceType rt = serializationContext.refSupport() ? serializer.getReferenceType(value) : ReferenceType.NONE;
+        // NoneSerializer fixes the reference type, so most values skip asking for it.
+        ReferenceType rt = !serializationContext.refSupport() || serializer instanceof JsonSerializers.NoneSerializer
+                ? ReferenceType.NONE : serializer.getReferenceType(value);
         if (rt != ReferenceType.NONE) {
+            ReferenceScope scope = serializer.getReferenceScope(value);
             Integer refId;
-            if ((refId = getRefId(serializer.getReferenceScope(value), value)) != null) {
+            if ((refId = getRefId(scope, value)) != null) {
                 // Output a simple reference
                 writeMapBegin();
                 writeMapEntry(ApplicationKey.SERIAL_REFID.toString(), refId);
                 writeMapEnd();
             } else {
-                refId = addReference(serializer.getReferenceScope(value), value);
+                refId = addReference(scope, value);
                 // Now manually output this 2-element map to avoid loop
                 writeMapBegin();
                 writeMapEntry(ApplicationKey.SERIAL_ID.toString(), refId);
                 writeMapKey(ApplicationKey.VALUE.toString());
-                serializer.serialize(this, value);
+                serialize(serializer, value);
                 writeMapEnd();
             }
         } else {
+            serialize(serializer, value);
+        }
+    }
+
+    /**
+     * Serialize a value, using the JSON from the fragment cache if there is one.
+     *
+     * Cached JSON is written without references, so that it can be written anywhere in any stream. The trade-off is
+     * that an object that would otherwise be written once and then referenced is written out in full in each fragment
+     * (and again in the rest of the stream), so the output can be larger than without the cache. Only set a cache for
+     * values that do not rely on references, or where the larger output is worth it. Formatted output is never
+     * cached, as the indent depends on where the value is written.
+     */
+    private void serialize(JsonSerializer<Object> serializer, Object value) throws IOException {
+        String key = null;
+        if (fragmentCache != null && !isFormatting() && !serializationContext.formatRootItems()) {
+            key = fragmentCache.getKey(value);
+        }
+        if (key == null) {
             serializer.serialize(this, value);
+            return;
+        }
+        String fragment = fragmentCache.get(value, key);
+        if (fragment == null) {
+            StringBuilder sb = new StringBuilder(1024);
+            serializationContext.pushRefSupport(false);
+            try {
+                serializer.serialize(new JsonEncoder(sb, null, serializationContext), value);
+            } finally {
+                serializationContext.popRefSupport();
+            }
+            fragment = sb.toString();
+            fragmentCache.put(value, key, fragment);
         }
+        out.append(fragment);
+    }
+
+    /**
+     * Set a cache for the JSON of values that are written repeatedly.
+     *
+     * @param fragmentCache the cache, or null to always serialize values.
+     */
+    public void setFragmentCache(JsonFragmentCache fragmentCache) {
+        this.fragmentCache = fragmentCache;
     }
 
     /**
@@ -633,7 +681,7 @@ public class JsonEncoder implements Json {
     @Override
     public void writeString(Object value) throws IOException {
         out.append('"');
-        out.append(AuraTextUtil.escapeForJSONString(value.toString()));
+        AuraTextUtil.appendEscapedJSONString(out, value.toString());
         out.append('"');
     }
 
@@ -648,18 +696,50 @@ public class JsonEncoder implements Json {
     public void writeDate(Date value) throws IOException {
         out.append('"');
         // Use the ISO DateTime format to write the date.
-        synchronized (ISO8601FORMAT) {
-            out.append(ISO8601FORMAT.format(value));
+        long millis = value.getTime();
+        if (millis >= ISO8601_FAST_MIN && millis < ISO8601_FAST_MAX) {
+            LocalDateTime time = LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000), 0, ZoneOffset.UTC);
+            appendDigits(time.getYear(), 4);
+            out.append('-');
+            appendDigits(time.getMonthValue(), 2);
+            out.append('-');
+            appendDigits(time.getDayOfMonth(), 2);
+            out.append('T');
+            appendDigits(time.getHour(), 2);
+            out.append(':');
+            appendDigits(time.getMinute(), 2);
+            out.append(':');
+            appendDigits(time.getSecond(), 2);
+            out.append('Z');
+        } else {
+            out.append(ISO8601FORMAT.get().format(value));
         }
         out.append('"');
     }
 
-    private static final SimpleDateFormat ISO8601FORMAT;
-    static {
-        ISO8601FORMAT = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'");
-        ISO8601FORMAT.setTimeZone(TimeZone.getTimeZone("GMT"));
+    private void appendDigits(int value, int width) throws IOException {
+        for (int divisor = width == 4 ? 1000 : 10; divisor > 0; divisor /= 10) {
+            out.append((char) ('0' + (value / divisor) % 10));
+        }
     }
 
+    /**
+     * The range of dates written directly from their fields, 1600-01-01 until 10000-01-01. Outside of it the
+     * proleptic calendar differs from the Julian one SimpleDateFormat uses, or the year no longer fits four digits,
+     * so those go through the formatter.
+     */
+    private static final long ISO8601_FAST_MIN = -11676096000000L;
+    private static final long ISO8601_FAST_MAX = 253402300800000L;
+
+    private static final ThreadLocal<SimpleDateFormat> ISO8601FORMAT = new ThreadLocal<SimpleDateFormat>() {
+        @Override
+        protected SimpleDateFormat initialValue() {
+            SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'");
+            format.setTimeZone(TimeZone.getTimeZone("GMT"));
+            return format;
+        }
+    };
+
     /**
      * Write a map in a predictable order
      *
@@ -867,7 +947,16 @@ public class JsonEncoder implements Json {
     }
 
     /**
-     * Writes out any buffered characters in the OutputStreamWriter to the
+     * Flush anything buffered to the underlying output, if it can be flushed.
+     */
+    public void flush() throws IOException {
+        if (out instanceof Flushable) {
+            ((Flushable) out).flush();
+        }
+    }
+
+    /**
+     * Writes out any buffered characters in the UTF-8 writer to the
      * binary OutputStream and then closes the OutputStream.<br>
      * <br>
      * Note that this method does nothing if Json was not created with an
@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util.json;
+
+/**
+ * A cache of the JSON for values that serialize the same way every time they are written in a given state.
+ *
+ * When set on a {@link JsonEncoder}, a value with a key is serialized once, without references, and the JSON is
+ * written out as is from then on.
+ *
+ * @see JsonEncoder#setFragmentCache(JsonFragmentCache)
+ */
+public interface JsonFragmentCache {
+    /**
+     * Get the key to cache the JSON for a value under.
+     *
+     * @param value the value being written.
+     * @return the key, or null if the JSON for the value should not be cached in the current state.
+     */
+    String getKey(Object value);
+
+    /**
+     * Get the JSON for a value.
+     *
+     * @param value the value being written.
+     * @param key the key from {@link #getKey(Object)}.
+     * @return the JSON, or null if it is not cached.
+     */
+    String get(Object value, String key);
+
+    /**
+     * Cache the JSON for a value.
+     *
+     * @param value the value being written.
+     * @param key the key from {@link #getKey(Object)}.
+     * @param json the JSON for the value.
+     */
+    void put(Object value, String key, String json);
+}
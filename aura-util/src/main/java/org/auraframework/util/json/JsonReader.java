@@ -17,7 +17,6 @@ package org.auraframework.util.json;
 
 import java.io.IOException;
 import java.io.Reader;
-import java.io.StringReader;
 
 /**
  * Parses a single top-level object and returns it as an Object. See the class
@@ -35,13 +34,7 @@ public class JsonReader {
      * boolean
      */
     public Object read(Reader reader) {
-        JsonStreamReader jsonStreamReader = new JsonStreamReader(reader);
-        try {
-            jsonStreamReader.next();
-        } catch (IOException e) {
-            throw new JsonStreamReader.JsonParseException(e);
-        }
-        return jsonStreamReader.getValue();
+        return read(new JsonStreamReader(reader));
     }
 
     /**
@@ -50,6 +43,15 @@ public class JsonReader {
      * String, BigDouble, boolean
      */
     public Object read(String string) {
-        return this.read(new StringReader(string));
+        return read(new JsonStreamReader(string));
+    }
+
+    private Object read(JsonStreamReader jsonStreamReader) {
+        try {
+            jsonStreamReader.next();
+        } catch (IOException e) {
+            throw new JsonStreamReader.JsonParseException(e);
+        }
+        return jsonStreamReader.getValue();
     }
 }
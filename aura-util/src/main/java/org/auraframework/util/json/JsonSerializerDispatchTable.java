@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util.json;
+
+import static org.auraframework.util.json.JsonSerializers.ARRAY;
+import static org.auraframework.util.json.JsonSerializers.STRING;
+
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * A per class table of serializers, built from a direct class name lookup map and an instanceof map.
+ *
+ * The serializer for a class is worked out the first time that class is seen, in the same order as the maps were
+ * always searched (arrays, enums, class name, then the first instanceof match), and kept in a ClassValue. After that
+ * a lookup is a single ClassValue get, with no class name hashing and no instanceof scan. Classes with no serializer
+ * are remembered as well.
+ *
+ * The maps must not change after the table is built, and a table is meant to be shared by every context that uses
+ * the same maps.
+ */
+public class JsonSerializerDispatchTable {
+    private final Map<String, JsonSerializer<?>> serializersLookupMap;
+    private final Map<Class<?>, JsonSerializer<?>> serializersInstanceMap;
+
+    private final ClassValue<JsonSerializer<?>> dispatch = new ClassValue<JsonSerializer<?>>() {
+        @Override
+        protected JsonSerializer<?> computeValue(Class<?> c) {
+            return find(c);
+        }
+    };
+
+    public JsonSerializerDispatchTable(Map<String, JsonSerializer<?>> serializersLookupMap,
+            Map<Class<?>, JsonSerializer<?>> serializersInstanceMap) {
+        this.serializersLookupMap = serializersLookupMap;
+        this.serializersInstanceMap = serializersInstanceMap;
+        for (Class<?> c : serializersInstanceMap.keySet()) {
+            dispatch.get(c);
+        }
+    }
+
+    /**
+     * Get the serializer for a class.
+     *
+     * @param c the class of the value to serialize.
+     * @return the serializer, or null if there is none.
+     */
+    public JsonSerializer<?> get(Class<?> c) {
+        return dispatch.get(c);
+    }
+
+    private JsonSerializer<?> find(Class<?> c) {
+        if (c.isArray()) {
+            return ARRAY;
+        } else if (c.isEnum()) {
+            return STRING;
+        }
+
+        JsonSerializer<?> s = serializersLookupMap.get(c.getName());
+        if (s != null) {
+            return s;
+        }
+
+        for (Entry<Class<?>, JsonSerializer<?>> e : serializersInstanceMap.entrySet()) {
+            if (e.getKey().isAssignableFrom(c)) {
+                return e.getValue();
+            }
+        }
+        return null;
+    }
+}
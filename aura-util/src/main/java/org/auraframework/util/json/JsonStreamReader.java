@@ -41,11 +41,10 @@ import static org.auraframework.util.json.JsonConstant.WHITESPACE;
 import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.PushbackReader;
 import java.io.Reader;
-import java.io.StringReader;
 import java.math.BigDecimal;
 import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -109,6 +108,9 @@ import javax.annotation.Nonnull;
 public class JsonStreamReader {
 
     private static final int MAX_LENGTH = 1000000;
+    private static final int BUFFER_SIZE = 8 * 1024;
+    private static final int PUSHBACK_SIZE = 2;
+    private static final int MAX_LONG_DIGITS = 18;
     private static JsonHandlerProvider defaultProvider = new JsonHandlerProviderImpl();
     private static Map<Character, Character> escapes = Maps.newHashMapWithExpectedSize(13);
     static {
@@ -125,16 +127,31 @@ public class JsonStreamReader {
         escapes.put('v', '\u000B');
     }
 
-    private final PushbackReader reader;
+    //
+    // The input is read through a window onto it. The reader is null when parsing a string, in which case the window
+    // is the whole string. The last PUSHBACK_SIZE characters are kept when the window moves, so they can be unread.
+    //
+    private final Reader reader;
+    private char[] buffer;
+    private int position;      // index of the next char to read in the buffer
+    private int limit;         // end of the chars in the buffer
+    private int readLimit;     // end of the chars that can be read without a refill or a length check
+    private int bufferStart;   // offset in the input of buffer[0]
+
+    //
+    // Line and column numbers are only needed for errors, comments and functions, so rather than tracking them for
+    // every char, the offsets of the newlines are recorded in bulk, when the window moves past them or a position is
+    // asked for. Once length limits are disabled, newlines before the last token are dropped.
+    //
+    private int[] newlines = new int[16];
+    private int newlineCount;
+    private int newlinesScanned;         // offset up to which newlines are recorded
+    private int newlinesDropped;
+    private int lastDroppedNewline = -1;
 
     private JsonConstant currentToken;
     private Object current;
-    private int charNum = 0;
-    private int colNum = 1; // current parse column number
-    private int prevColNum = 0; // max colNum of previously parsed line
-    private int lineNum = 1; // current parse line number (start at 1)
-    private int lastLineNum = 0;        // the line number before the last token.
-    private int lastColNum = 0;         // the column number before the last token.
+    private int lastOffset = -1;       // the offset of the last token, -1 before the first one.
     private JsonHandlerProvider provider;
     private final DataInputStream binaryInput;
     private boolean recursiveRead = true;
@@ -148,7 +165,8 @@ public class JsonStreamReader {
         if (reader == null) {
             throw new JsonParseException("Reader cannot be null");
         }
-        this.reader = new PushbackReader(reader, 2);
+        this.reader = reader;
+        this.buffer = new char[binaryInput == null ? BUFFER_SIZE : PUSHBACK_SIZE + 1];
         this.binaryInput = binaryInput == null ? null
                 : (binaryInput instanceof DataInputStream ? (DataInputStream) binaryInput : new DataInputStream(
                         binaryInput));
@@ -156,7 +174,15 @@ public class JsonStreamReader {
     }
 
     public JsonStreamReader(String string, JsonHandlerProvider provider) {
-        this(createStringReader(string), null, provider);
+        if (string == null) {
+            throw new JsonParseException("String cannot be null");
+        }
+        this.reader = null;
+        this.buffer = string.toCharArray();
+        this.limit = buffer.length;
+        this.binaryInput = null;
+        this.provider = provider;
+        updateReadLimit();
     }
 
     /**
@@ -211,13 +237,7 @@ public class JsonStreamReader {
      */
     public void disableLengthLimitsBecauseIAmStreamingAndMyMemoryUseIsNotProportionalToTheStreamLength() {
         lengthLimitsEnabled = false;
-    }
-
-    private static StringReader createStringReader(String string) {
-        if (string == null) {
-            throw new JsonParseException("String cannot be null");
-        }
-        return new StringReader(string);
+        updateReadLimit();
     }
 
     public JsonStreamReader(Reader reader) {
@@ -342,7 +362,7 @@ public class JsonStreamReader {
     }
 
     public int getCharNum() {
-        return charNum;
+        return bufferStart + position;
     }
 
     public boolean hasNext() throws IOException {
@@ -393,8 +413,7 @@ public class JsonStreamReader {
             return WHITESPACE;
         }
         markPosition(0);
-        int startLine = getLineNum();
-        int startCol = getColNum();
+        int startOffset = lastOffset;
 
         // Read and dispatch the next character
         char c = readChar();
@@ -491,7 +510,7 @@ public class JsonStreamReader {
         default:
         }
 
-        setPosition(startLine, startCol);
+        lastOffset = startOffset;
         currentToken = token;
         return token;
     }
@@ -554,6 +573,9 @@ public class JsonStreamReader {
     }
 
     private void readWhitespaceAndComments() throws IOException, JsonEndOfStreamException {
+        while (position < readLimit && Character.isWhitespace(buffer[position])) {
+            position++;
+        }
         char c;
         do {
             c = readChar();
@@ -642,14 +664,13 @@ public class JsonStreamReader {
 
         JsonConstant token;
         setHandlerProvider(provider.getArrayEntryHandlerProvider());
-        int line = getLineNum();
-        int col = getColNum();
+        int start = lastOffset;
 
         while ((token = next()) != ARRAY_END) {
             if (token == WHITESPACE) {
                 // whoops. unterminated array.
                 throw new JsonStreamParseException(String.format("Unterminated array at %d:%d", getLineNum(), getColNum()),
-                        line, col);
+                        lineAt(start), colAt(start));
             }
             // Any value
             try {
@@ -690,9 +711,26 @@ public class JsonStreamReader {
     }
 
     private String readString(JsonConstant delim, boolean keepEscapers) throws IOException, JsonEndOfStreamException {
-        StringBuilder sb = new StringBuilder();
-        boolean isEscaped = false;
         markPosition(1);
+
+        // Most strings have no escapes and fit in the buffer, so take them straight from it.
+        char quote = delim.getToken();
+        int start = position;
+        int i = start;
+        for (; i < readLimit; i++) {
+            char c = buffer[i];
+            if (c == quote) {
+                position = i + 1;
+                return new String(buffer, start, i - start);
+            } else if (c == '\\' || c == '\n') {
+                break;
+            }
+        }
+        StringBuilder sb = new StringBuilder(i - start + 16);
+        sb.append(buffer, start, i - start);
+        position = i;
+
+        boolean isEscaped = false;
         try {
             while (true) {
                 char c = readChar();
@@ -775,8 +813,9 @@ public class JsonStreamReader {
     }
 
     private JsFunction readFunction() throws IOException, JsonEndOfStreamException {
-        int line = lineNum;
-        int col = colNum;
+        int offset = bufferStart + position;
+        int line = lineAt(offset);
+        int col = colAt(offset);
         // We hint 'literal' to let the parser know that arbitrary literals are ok.
         JsonConstant next = next(LITERAL);
         String functionName = null;
@@ -862,6 +901,17 @@ public class JsonStreamReader {
     }
 
     private Number readNumber() throws IOException, JsonEndOfStreamException {
+        // If the number ends inside the buffer on something other than whitespace, decode it in place.
+        int start = position;
+        int end = start;
+        while (end < readLimit && JsonConstant.valueOf(buffer[end]) == LITERAL_START) {
+            end++;
+        }
+        if (end < readLimit && !Character.isWhitespace(buffer[end])) {
+            position = end;
+            return parseNumber(buffer, start, end - start);
+        }
+
         StringBuilder sb = new StringBuilder();
         while (hasNext()) {
             char c = readChar();
@@ -873,23 +923,60 @@ public class JsonStreamReader {
                 sb.append(c);
             }
         }
-        BigDecimal ret;
-        try {
-            String s = sb.toString();
+        char[] chars = new char[sb.length()];
+        sb.getChars(0, chars.length, chars, 0);
+        return parseNumber(chars, 0, chars.length);
+    }
+
+    /**
+     * Decode a number, as a BigDecimal, or as a Double for NaN and the infinities.
+     *
+     * Plain decimals with up to 18 digits are built from a long and a scale, which is what the BigDecimal constructor
+     * would end up with anyway. Anything else is left to the constructor.
+     */
+    private Number parseNumber(char[] chars, int offset, int length) {
+        char first = chars[offset];
+        if (first == 'N' || first == 'I' || (first == '-' && length > 1 && chars[offset + 1] == 'I')) {
+            String s = new String(chars, offset, length);
             if (s.equals("NaN")) {
                 return Double.NaN;
             } else {
-                boolean negative = s.charAt(0) == '-';
+                boolean negative = first == '-';
                 if ("Infinity".equals(negative ? s.substring(1) : s)) {
                     return negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
                 }
             }
-            ret = new BigDecimal(sb.toString());
+        }
+
+        int end = offset + length;
+        int i = first == '-' ? offset + 1 : offset;
+        long unscaled = 0;
+        int digits = 0;
+        int scale = -1;
+        for (; i < end; i++) {
+            char c = chars[i];
+            if (c >= '0' && c <= '9' && digits < MAX_LONG_DIGITS) {
+                unscaled = unscaled * 10 + (c - '0');
+                digits++;
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else if (c == '.' && scale < 0) {
+                scale = 0;
+            } else {
+                break;
+            }
+        }
+        if (i == end && digits > 0) {
+            return BigDecimal.valueOf(first == '-' ? -unscaled : unscaled, Math.max(scale, 0));
+        }
 
+        try {
+            return new BigDecimal(chars, offset, length);
         } catch (NumberFormatException e) {
-            throw new JsonStreamParseException("Could not parse a number", sb.toString(), getLineNum(), getColNum(), e);
+            throw new JsonStreamParseException("Could not parse a number", new String(chars, offset, length),
+                    getLineNum(), getColNum(), e);
         }
-        return ret;
     }
 
     /**
@@ -900,7 +987,19 @@ public class JsonStreamReader {
      * @throws IOException
      */
     private String readLiteralString() throws IOException, JsonEndOfStreamException {
-        StringBuilder sb = new StringBuilder();
+        // Take the literal straight from the buffer, unless it has escapes or runs past the end of it.
+        int start = position;
+        int i = start;
+        while (i < readLimit && buffer[i] != '\\' && JsonConstant.valueOf(buffer[i]) == LITERAL_START) {
+            i++;
+        }
+        if (i < readLimit && buffer[i] != '\\') {
+            position = i;
+            return new String(buffer, start, i - start);
+        }
+        StringBuilder sb = new StringBuilder(i - start + 16);
+        sb.append(buffer, start, i - start);
+        position = i;
         try {
             while (true) {
                 char c = readChar();
@@ -920,45 +1019,126 @@ public class JsonStreamReader {
     }
 
     private char readChar() throws IOException, JsonEndOfStreamException {
-        int i = reader.read();
-
-        if (i == -1) {
+        if (position < readLimit) {
+            return buffer[position++];
+        }
+        if (position == limit && !fill()) {
             throw new JsonEndOfStreamException("End of stream unexpectedly reached.");
         }
 
-        charNum++;
-
         // If we have a binary input stream and if length limits were disabled,
         // then don't validate the length because
         // we are streaming in, and memory use is supposed to be O(1) with
         // respect to the stream length by callers
         // that are using streaming
-        if (charNum > MAX_LENGTH && lengthLimitsEnabled) {
+        if (lengthLimitsEnabled && bufferStart + position >= MAX_LENGTH) {
             throw new JsonStreamParseException("Input too long.");
         }
+        return buffer[position++];
+    }
 
-        char c = (char) i;
+    private void unreadChar(char c) throws IOException {
+        buffer[--position] = c;
+    }
 
-        if (c == '\n') {
-            prevColNum = colNum;
-            lineNum++;
-            colNum = 1;
+    /**
+     * Read more of the input into the buffer, moving the window along if it is full.
+     *
+     * When there is a binary input, only a single char is read at a time, so that the reader never reads past the
+     * start of a binary stream.
+     *
+     * At the end of the input the window is left where it moved to, which is as valid a window as the one before it,
+     * so reading past the end again just returns false again.
+     *
+     * @return false if the end of the input has been reached.
+     */
+    private boolean fill() throws IOException {
+        if (reader == null) {
+            return false;
+        }
+        if (limit == buffer.length) {
+            int keep = Math.min(PUSHBACK_SIZE, limit);
+            int discard = limit - keep;
+            recordNewlines(bufferStart + discard);
+            System.arraycopy(buffer, discard, buffer, 0, keep);
+            bufferStart += discard;
+            position -= discard;
+            limit = keep;
+            if (!lengthLimitsEnabled) {
+                dropNewlinesBefore(lastOffset);
+            }
+        }
+        int read;
+        if (binaryInput != null) {
+            int c = reader.read();
+            if (c != -1) {
+                buffer[limit] = (char) c;
+            }
+            read = c == -1 ? -1 : 1;
         } else {
-            colNum++;
+            do {
+                read = reader.read(buffer, limit, buffer.length - limit);
+            } while (read == 0);
+        }
+        if (read > 0) {
+            limit += read;
         }
+        // the window may have moved even if nothing was read, so the read limit has to follow it either way
+        updateReadLimit();
+        return read > 0;
+    }
 
-        return c;
+    private void updateReadLimit() {
+        readLimit = lengthLimitsEnabled ? Math.min(limit, MAX_LENGTH - bufferStart) : limit;
     }
 
-    private void unreadChar(char c) throws IOException {
-        reader.unread(c);
-        charNum--;
-        if (c == '\n') {
-            colNum = prevColNum;
-            lineNum--;
-        } else {
-            colNum--;
+    /**
+     * Record the offsets of the newlines in the buffer, up to the given offset.
+     */
+    private void recordNewlines(int upTo) {
+        for (int i = newlinesScanned; i < upTo; i++) {
+            if (buffer[i - bufferStart] == '\n') {
+                if (newlineCount == newlines.length) {
+                    newlines = Arrays.copyOf(newlines, newlineCount * 2);
+                }
+                newlines[newlineCount++] = i;
+            }
+        }
+        newlinesScanned = Math.max(newlinesScanned, upTo);
+    }
+
+    /**
+     * Drop the recorded newlines that are not needed to find positions from the given offset on.
+     */
+    private void dropNewlinesBefore(int offset) {
+        int drop = 0;
+        while (drop < newlineCount - 1 && newlines[drop + 1] < offset) {
+            drop++;
         }
+        if (drop > 0) {
+            lastDroppedNewline = newlines[drop - 1];
+            newlinesDropped += drop;
+            newlineCount -= drop;
+            System.arraycopy(newlines, drop, newlines, 0, newlineCount);
+        }
+    }
+
+    /**
+     * Get the number of recorded newlines before an offset.
+     */
+    private int newlinesBefore(int offset) {
+        recordNewlines(Math.min(offset, bufferStart + limit));
+        int index = Arrays.binarySearch(newlines, 0, newlineCount, offset);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private int lineAt(int offset) {
+        return newlinesDropped + newlinesBefore(offset) + 1;
+    }
+
+    private int colAt(int offset) {
+        int before = newlinesBefore(offset);
+        return offset - (before > 0 ? newlines[before - 1] : lastDroppedNewline);
     }
 
     private char readEscapedChar() throws IOException, JsonEndOfStreamException {
@@ -980,8 +1160,7 @@ public class JsonStreamReader {
     private char readUnicodeEscapedChar() throws IOException, JsonEndOfStreamException {
 
         // Read the next 4 hex digits.
-        int line = lineNum;
-        int col = colNum;
+        int offset = bufferStart + position;
         StringBuilder sb = new StringBuilder(4);
         for (int i = 0; i < 4; i++) {
             sb.append(readChar());
@@ -990,13 +1169,15 @@ public class JsonStreamReader {
         try {
             c = (char) Integer.parseInt(sb.toString(), 16);
         } catch (NumberFormatException e) {
-            throw new JsonStreamParseException(e.getMessage(), sb.toString(), line, col, e);
+            throw new JsonStreamParseException(e.getMessage(), sb.toString(), lineAt(offset), colAt(offset), e);
         }
         return c;
     }
 
     public void close() throws IOException {
-        reader.close();
+        if (reader != null) {
+            reader.close();
+        }
     }
 
     private void assertTokenType(JsonConstant expected, JsonConstant actual) {
@@ -1011,22 +1192,16 @@ public class JsonStreamReader {
         }
     }
 
-    private void setPosition(int line, int col) {
-        lastLineNum = line;
-        lastColNum = col;
-    }
-
     private void markPosition(int offset) {
-        lastLineNum = lineNum;
-        lastColNum = colNum-offset;
+        lastOffset = bufferStart + position - offset;
     }
 
     public int getLineNum() {
-        return lastLineNum;
+        return lastOffset < 0 ? 0 : lineAt(lastOffset);
     }
 
     private int getColNum() {
-        return lastColNum;
+        return lastOffset < 0 ? 0 : colAt(lastOffset);
     }
 
     /**
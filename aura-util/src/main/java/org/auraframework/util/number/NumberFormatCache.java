@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util.number;
+
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.ibm.icu.text.DecimalFormat;
+import com.ibm.icu.text.NumberFormat;
+import com.ibm.icu.util.Currency;
+
+/**
+ * Cached number formats per locale.
+ *
+ * NumberFormat.getXxxInstance builds a new format from the locale data on every call, which is several times more
+ * expensive than cloning an existing format. This keeps one prototype per (kind, locale, currency) and hands out
+ * clones, so that callers get a format they own and may change (fraction digits, parse settings) as before.
+ */
+public final class NumberFormatCache {
+    /**
+     * The maximum number of prototypes kept. Past this, formats are created as if there were no cache.
+     */
+    private static final int MAX_SIZE = 4096;
+
+    private static final ConcurrentMap<Key, NumberFormat> prototypes = new ConcurrentHashMap<>();
+
+    private enum Kind {
+        NUMBER, DEFAULT, PERCENT, CURRENCY
+    }
+
+    private static final class Key {
+        private final Kind kind;
+        private final Locale locale;
+        private final Currency currency;
+        private final int hashCode;
+
+        private Key(Kind kind, Locale locale, Currency currency) {
+            this.kind = kind;
+            this.locale = locale;
+            this.currency = currency;
+            this.hashCode = Objects.hash(kind, locale, currency);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return kind == other.kind && locale.equals(other.locale) && Objects.equals(currency, other.currency);
+        }
+    }
+
+    private NumberFormatCache() {
+    }
+
+    /**
+     * Get a format equivalent to NumberFormat.getNumberInstance(locale).
+     */
+    public static NumberFormat getNumberInstance(Locale locale) {
+        return get(new Key(Kind.NUMBER, locale, null));
+    }
+
+    /**
+     * Get a format equivalent to NumberFormat.getInstance(locale).
+     */
+    public static NumberFormat getInstance(Locale locale) {
+        return get(new Key(Kind.DEFAULT, locale, null));
+    }
+
+    /**
+     * Get a format equivalent to NumberFormat.getPercentInstance(locale).
+     */
+    public static NumberFormat getPercentInstance(Locale locale) {
+        return get(new Key(Kind.PERCENT, locale, null));
+    }
+
+    /**
+     * Get a format equivalent to NumberFormat.getCurrencyInstance(locale).
+     */
+    public static DecimalFormat getCurrencyInstance(Locale locale) {
+        return (DecimalFormat) get(new Key(Kind.CURRENCY, locale, null));
+    }
+
+    /**
+     * Get a format equivalent to NumberFormat.getCurrencyInstance(locale) followed by setCurrency(currency).
+     *
+     * Note that setCurrency resets the fraction digits, so they should be set on the returned format afterwards.
+     */
+    public static DecimalFormat getCurrencyInstance(Locale locale, Currency currency) {
+        return (DecimalFormat) get(new Key(Kind.CURRENCY, locale, currency));
+    }
+
+    private static NumberFormat get(Key key) {
+        NumberFormat prototype = prototypes.get(key);
+        if (prototype == null) {
+            prototype = create(key);
+            if (prototypes.size() >= MAX_SIZE) {
+                return prototype;
+            }
+            NumberFormat existing = prototypes.putIfAbsent(key, prototype);
+            if (existing != null) {
+                prototype = existing;
+            }
+        }
+        return (NumberFormat) prototype.clone();
+    }
+
+    private static NumberFormat create(Key key) {
+        switch (key.kind) {
+        case NUMBER:
+            return NumberFormat.getNumberInstance(key.locale);
+        case PERCENT:
+            return NumberFormat.getPercentInstance(key.locale);
+        case CURRENCY:
+            NumberFormat format = NumberFormat.getCurrencyInstance(key.locale);
+            if (key.currency != null) {
+                format.setCurrency(key.currency);
+            }
+            return format;
+        default:
+            return NumberFormat.getInstance(key.locale);
+        }
+    }
+}
@@ -179,8 +179,14 @@ public class TypeUtil {
         return multiConverter.convert(to, value);
     }
 
+    /**
+     * Get the converter that {@link #convert(Object, Class, String, boolean)} uses for values of a class, so that
+     * values of the same class can be converted without looking it up again.
+     *
+     * @return the converter, or null if there is none.
+     */
     @SuppressWarnings("unchecked")
-    private static <F, T> Converter<F, T> getConverter(Class<F> from, Class<T> to, String of) {
+    public static <F, T> Converter<F, T> getConverter(Class<F> from, Class<T> to, String of) {
         TypeUtil typeUtil = get();
         String className = getAssignableHashMapClassName(from);
         if (of == null) {
@@ -200,8 +206,14 @@ public class TypeUtil {
         return null;
     }
 
+    /**
+     * Get the multi converter that {@link #convert(Object, Class, String, boolean)} uses for values of a class when
+     * there is no converter.
+     *
+     * @return the multi converter, or null if there is none.
+     */
     @SuppressWarnings("unchecked")
-    private static <T> MultiConverter<T> getMultiConverter(Class<?> from, Class<T> to) {
+    public static <T> MultiConverter<T> getMultiConverter(Class<?> from, Class<T> to) {
         TypeUtil typeUtil = get();
         String className = getAssignableHashMapClassName(from);
         Map<String, MultiConverter<?>> map = typeUtil.multiConverters.get(className);
@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+import org.auraframework.util.test.util.UnitTestCase;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import com.google.common.io.Files;
+
+/**
+ * Unit tests for {@link ServiceIndexProcessor}.
+ */
+public class ServiceIndexProcessorTest extends UnitTestCase {
+    private static final String HEADER = "# @Impl methods of @AuraConfiguration classes, see ServiceIndexProcessor";
+
+    private static final String CONFIG = "package configuration;\n"
+            + "import org.auraframework.util.ServiceLoaderImpl.*;\n"
+            + "@AuraConfiguration public class IndexedConfig {\n"
+            + "    @Impl public static Object first() { return null; }\n"
+            + "    @Impl(name = \"second\") @PrimaryImpl public static Object second() { return null; }\n"
+            + "    @Impl public Object notStatic() { return null; }\n"
+            + "    @Impl static Object notPublic() { return null; }\n"
+            + "    @Impl public static Object withArgs(String arg) { return null; }\n"
+            + "    public static Object notImpl() { return null; }\n"
+            + "    @AuraConfiguration public static class Nested {\n"
+            + "        @Impl public static Object nested() { return null; }\n"
+            + "    }\n"
+            + "}\n";
+
+    private static final String OTHER_CONFIG = "package configuration;\n"
+            + "import org.auraframework.util.ServiceLoaderImpl.*;\n"
+            + "@AuraConfiguration public class OtherConfig {\n"
+            + "    @Impl public static Object other() { return null; }\n"
+            + "}\n";
+
+    private static final String OUTSIDE_PACKAGE = "package elsewhere;\n"
+            + "import org.auraframework.util.ServiceLoaderImpl.*;\n"
+            + "@AuraConfiguration public class ElsewhereConfig {\n"
+            + "    @Impl public static Object ignored() { return null; }\n"
+            + "}\n";
+
+    @Test
+    public void testIndexListsPublicStaticImplMethods() throws Exception {
+        File output = Files.createTempDir();
+        try {
+            compile(output, source("configuration.IndexedConfig", CONFIG),
+                    source("elsewhere.ElsewhereConfig", OUTSIDE_PACKAGE));
+
+            assertEquals(ImmutableList.of(HEADER, "configuration.IndexedConfig#first",
+                    "configuration.IndexedConfig#second", "configuration.IndexedConfig$Nested#nested"),
+                    readIndex(output));
+        } finally {
+            IOUtil.delete(output);
+        }
+    }
+
+    @Test
+    public void testIndexKeepsEntriesOfClassesNotCompiledAgain() throws Exception {
+        File output = Files.createTempDir();
+        try {
+            compile(output, source("configuration.IndexedConfig", CONFIG));
+            compile(output, source("configuration.OtherConfig", OTHER_CONFIG));
+
+            assertEquals(ImmutableList.of(HEADER, "configuration.IndexedConfig#first",
+                    "configuration.IndexedConfig#second", "configuration.IndexedConfig$Nested#nested",
+                    "configuration.OtherConfig#other"), readIndex(output));
+        } finally {
+            IOUtil.delete(output);
+        }
+    }
+
+    @Test
+    public void testLoaderReadsIndexThatMatchesClasses() throws Exception {
+        File output = Files.createTempDir();
+        try (URLClassLoader loader = compileAndLoad(output)) {
+            Set<Method> methods = ServiceLoaderImpl.readIndex(indexUrl(output), new ClassLoader[] { loader });
+
+            Set<String> names = Sets.newHashSet();
+            for (Method method : methods) {
+                names.add(method.getName());
+            }
+            assertEquals(ImmutableSet.of("first", "second", "nested"), names);
+        } finally {
+            IOUtil.delete(output);
+        }
+    }
+
+    @Test
+    public void testLoaderRejectsIndexWithMethodThatIsGone() throws Exception {
+        File output = Files.createTempDir();
+        try (URLClassLoader loader = compileAndLoad(output)) {
+            Files.append("configuration.IndexedConfig#gone\n", new File(output, ServiceLoaderImpl.INDEX_RESOURCE),
+                    StandardCharsets.UTF_8);
+
+            assertNull(ServiceLoaderImpl.readIndex(indexUrl(output), new ClassLoader[] { loader }));
+        } finally {
+            IOUtil.delete(output);
+        }
+    }
+
+    @Test
+    public void testLoaderRejectsIndexMissingMethod() throws Exception {
+        File output = Files.createTempDir();
+        try (URLClassLoader loader = compileAndLoad(output)) {
+            Files.write(HEADER + "\nconfiguration.IndexedConfig#first\n",
+                    new File(output, ServiceLoaderImpl.INDEX_RESOURCE), StandardCharsets.UTF_8);
+
+            assertNull(ServiceLoaderImpl.readIndex(indexUrl(output), new ClassLoader[] { loader }));
+        } finally {
+            IOUtil.delete(output);
+        }
+    }
+
+    @Test
+    public void testLoaderRejectsIndexWithClassThatIsGone() throws Exception {
+        File output = Files.createTempDir();
+        try (URLClassLoader loader = compileAndLoad(output)) {
+            Files.append("configuration.GoneConfig#gone\n", new File(output, ServiceLoaderImpl.INDEX_RESOURCE),
+                    StandardCharsets.UTF_8);
+
+            assertNull(ServiceLoaderImpl.readIndex(indexUrl(output), new ClassLoader[] { loader }));
+        } finally {
+            IOUtil.delete(output);
+        }
+    }
+
+    private URLClassLoader compileAndLoad(File output) throws Exception {
+        compile(output, source("configuration.IndexedConfig", CONFIG));
+        return new URLClassLoader(new URL[] { output.toURI().toURL() }, ServiceLoaderImpl.class.getClassLoader());
+    }
+
+    private URL indexUrl(File output) throws Exception {
+        return new File(output, ServiceLoaderImpl.INDEX_RESOURCE).toURI().toURL();
+    }
+
+    private void compile(File output, JavaFileObject... sources) throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        URI annotations = ServiceLoaderImpl.class.getProtectionDomain().getCodeSource().getLocation().toURI();
+        String classpath = output.getPath() + File.pathSeparator + new File(annotations).getPath();
+        List<String> options = Arrays.asList("-d", output.getPath(), "-classpath", classpath);
+        JavaCompiler.CompilationTask task = compiler.getTask(null, null, null, options, null, Arrays.asList(sources));
+        task.setProcessors(Arrays.asList(new ServiceIndexProcessor()));
+        assertTrue("Compilation failed", task.call());
+    }
+
+    private List<String> readIndex(File output) throws Exception {
+        return Files.readLines(new File(output, ServiceLoaderImpl.INDEX_RESOURCE), StandardCharsets.UTF_8);
+    }
+
+    private JavaFileObject source(String className, final String code) {
+        return new SimpleJavaFileObject(URI.create("string:///" + className.replace('.', '/') + ".java"),
+                JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return code;
+            }
+        };
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.util.Arrays;
+
+import org.auraframework.util.test.util.UnitTestCase;
+import org.junit.Test;
+
+import com.google.common.base.Charsets;
+
+/**
+ * Test cases for the Utf8CapturingWriter
+ */
+public class Utf8CapturingWriterTest extends UnitTestCase {
+    private static final String MIXED = "abcéß€😀xyz";
+
+    @Test
+    public void testCapturesUtf8() throws Exception {
+        Utf8CapturingWriter writer = new Utf8CapturingWriter();
+        writer.write(MIXED);
+        assertTrue(Arrays.equals(MIXED.getBytes(Charsets.UTF_8), writer.toByteArray()));
+        assertEquals(MIXED.getBytes(Charsets.UTF_8).length, writer.size());
+    }
+
+    @Test
+    public void testSurrogatePairSplitAcrossWrites() throws Exception {
+        Utf8CapturingWriter writer = new Utf8CapturingWriter();
+        writer.write('\ud83d');
+        writer.write("\ude00");
+        assertTrue(Arrays.equals("😀".getBytes(Charsets.UTF_8), writer.toByteArray()));
+    }
+
+    @Test
+    public void testUnpairedSurrogatesMatchStringEncoding() throws Exception {
+        String unpaired = "a\ud83db\ude00c";
+        Utf8CapturingWriter writer = new Utf8CapturingWriter();
+        writer.write(unpaired);
+        assertTrue(Arrays.equals(unpaired.getBytes(Charsets.UTF_8), writer.toByteArray()));
+    }
+
+    @Test
+    public void testTeesToWriter() throws Exception {
+        StringWriter target = new StringWriter();
+        Utf8CapturingWriter writer = new Utf8CapturingWriter(target);
+        writer.write(MIXED);
+        writer.append("!");
+        assertEquals(MIXED + "!", target.toString());
+        assertEquals(MIXED + "!", new String(writer.toByteArray(), Charsets.UTF_8));
+    }
+
+    @Test
+    public void testStreamsChunksToOutputStream() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            sb.append(MIXED);
+        }
+        String expected = sb.toString();
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        Utf8CapturingWriter writer = new Utf8CapturingWriter(target);
+        writer.write(expected);
+        assertTrue("Full chunks should be streamed before a flush", target.size() > 0);
+        assertTrue("The last chunk should not be streamed before a flush", target.size() < writer.size());
+        writer.flush();
+        assertTrue(Arrays.equals(expected.getBytes(Charsets.UTF_8), target.toByteArray()));
+        assertTrue(Arrays.equals(expected.getBytes(Charsets.UTF_8), writer.toByteArray()));
+    }
+
+    @Test
+    public void testWriteToWriter() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            sb.append(MIXED);
+        }
+        String expected = sb.toString();
+        Utf8CapturingWriter writer = new Utf8CapturingWriter();
+        writer.write(expected);
+
+        StringWriter target = new StringWriter();
+        Utf8CapturingWriter.writeTo(writer.toByteArray(), target);
+        assertEquals(expected, target.toString());
+    }
+
+    @Test
+    public void testWriteToWriterWithNoBytes() throws Exception {
+        StringWriter target = new StringWriter();
+        Utf8CapturingWriter.writeTo(new byte[0], target);
+        assertEquals("", target.toString());
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+import org.auraframework.util.test.util.UnitTestCase;
+import org.junit.Test;
+
+import com.google.common.base.Charsets;
+
+/**
+ * Test cases for the Utf8StreamWriter
+ */
+public class Utf8StreamWriterTest extends UnitTestCase {
+    private static final String MIXED = "abcéß€😀xyz";
+
+    @Test
+    public void testWritesUtf8OnFlush() throws Exception {
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        Utf8StreamWriter writer = new Utf8StreamWriter(target);
+        writer.write(MIXED);
+        assertEquals("Nothing should be written before the buffer fills", 0, target.size());
+        writer.flush();
+        assertTrue(Arrays.equals(MIXED.getBytes(Charsets.UTF_8), target.toByteArray()));
+    }
+
+    @Test
+    public void testWritesFullBuffersAndMatchesStringEncoding() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            sb.append(MIXED).append("a\ud83db\ude00c");
+        }
+        String expected = sb.toString();
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        Utf8StreamWriter writer = new Utf8StreamWriter(target);
+        writer.write(expected);
+        assertTrue("Full buffers should be written before a flush", target.size() > 0);
+        writer.close();
+        assertTrue(Arrays.equals(expected.getBytes(Charsets.UTF_8), target.toByteArray()));
+    }
+
+    @Test
+    public void testAppendRangeAndSurrogatePairSplitAcrossWrites() throws Exception {
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        Utf8StreamWriter writer = new Utf8StreamWriter(target);
+        writer.append(new StringBuilder("xx€yy"), 2, 4);
+        writer.write('\ud83d');
+        writer.write("\ude00");
+        writer.flush();
+        assertEquals("€y😀", new String(target.toByteArray(), Charsets.UTF_8));
+    }
+
+    @Test
+    public void testUnpairedSurrogatesAreWrittenAsQuestionMarks() throws Exception {
+        String unpaired = "a\ude00b\ud83dc\ud83d\ud83d\ude00d\ud83d";
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        Utf8StreamWriter writer = new Utf8StreamWriter(target);
+        writer.write(unpaired);
+        writer.close();
+        assertEquals("a?b?c?\ud83d\ude00d?", new String(target.toByteArray(), Charsets.UTF_8));
+        assertTrue(Arrays.equals(unpaired.getBytes(Charsets.UTF_8), target.toByteArray()));
+    }
+}
@@ -519,4 +519,17 @@ public class DateServiceTest extends UnitTestCase {
         assertEquals(offsetEST, resultDate.getTime());
     }
 
+    @Test
+    public void testConvertersAreShared() {
+        DateService service = DateServiceImpl.get();
+
+        assertSame(service.getDateTimeStyleConverter(Locale.US, DateFormat.SHORT, DateFormat.LONG),
+                service.getDateTimeStyleConverter(Locale.US, DateFormat.SHORT, DateFormat.LONG));
+        assertSame(service.getPatternConverter(Locale.US, "yyyy/MM/dd"),
+                service.getPatternConverter(Locale.US, "yyyy/MM/dd"));
+        assertNotSame(service.getDateStyleConverter(Locale.US, DateFormat.SHORT),
+                service.getDateStyleConverter(Locale.FRANCE, DateFormat.SHORT));
+        assertNotSame(service.getDateStyleConverter(Locale.US, DateFormat.SHORT),
+                service.getTimeStyleConverter(Locale.US, DateFormat.SHORT));
+    }
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util.date;
+
+import java.util.TimeZone;
+
+import org.auraframework.util.test.util.UnitTestCase;
+import org.junit.Test;
+
+public class ISO8601ParserTest extends UnitTestCase {
+    private static final TimeZone GMT = TimeZone.getTimeZone("GMT");
+    private static final TimeZone EST = TimeZone.getTimeZone("EST");
+
+    @Test
+    public void testDateTimeWithOffset() {
+        assertEquals(1330423200123L, ISO8601Parser.parse("2012-02-28T10:00:00.123Z", EST).getTime());
+        assertEquals(1330403400000L, ISO8601Parser.parse("2012-02-28T10:00:00.000+05:30", EST).getTime());
+        assertEquals(1330441200000L, ISO8601Parser.parse("2012-02-28T10:00:00.000-05:00", GMT).getTime());
+    }
+
+    @Test
+    public void testLiteralZIsInTimeZone() {
+        assertEquals(1330423200000L, ISO8601Parser.parse("2012-02-28T10:00Z", GMT).getTime());
+        assertEquals(1330441200000L, ISO8601Parser.parse("2012-02-28T10:00Z", EST).getTime());
+        assertEquals(1330441259000L, ISO8601Parser.parse("2012-02-28T10:00:59Z", EST).getTime());
+    }
+
+    @Test
+    public void testDate() {
+        assertEquals(18000000L, ISO8601Parser.parse("1970-01-01", EST).getTime());
+        assertEquals(1330473600000L, ISO8601Parser.parse("2012-02-29", GMT).getTime());
+    }
+
+    @Test
+    public void testDateIsResolvedStrictly() {
+        assertNull(ISO8601Parser.parse("2013-02-29", GMT));
+        assertNull(ISO8601Parser.parse("2012-04-31", GMT));
+        assertNull(ISO8601Parser.parse("2012-13-01", GMT));
+    }
+
+    @Test
+    public void testDateTimeIsResolvedSmartly() {
+        // past the end of the month is the last day, 24:00 is the start of the next day.
+        assertEquals(ISO8601Parser.parse("2012-02-29T10:00Z", GMT), ISO8601Parser.parse("2012-02-31T10:00Z", GMT));
+        assertEquals(ISO8601Parser.parse("2012-03-01T00:00:00.000Z", GMT),
+                ISO8601Parser.parse("2012-02-29T24:00:00.000Z", GMT));
+        assertNull(ISO8601Parser.parse("2012-02-29T24:00:01.000Z", GMT));
+        assertNull(ISO8601Parser.parse("2012-02-32T10:00Z", GMT));
+        assertNull(ISO8601Parser.parse("0000-02-28T10:00Z", GMT));
+    }
+
+    @Test
+    public void testInvalidText() {
+        String[] invalid = { "", "2012", "2012-02-28T", "2012-02-28T10:00", "2012-02-28T10:00:00", "2012-2-28",
+                "2012-02-28 10:00Z", "2012-02-28t10:00Z", "2012-02-28T10:60Z", "2012-02-28T10:00:60Z",
+                "2012-02-28T10:00:00.00Z", "2012-02-28T10:00:00.0000Z", "2012-02-28T10:00:00.000z",
+                "2012-02-28T10:00:00.000+05", "2012-02-28T10:00:00.000+0500", "2012-02-28T10:00:00.000+19:00",
+                "2012-02-28T10:00:00.000+05:60", "2012-02-28T10:00Zx", "abcd-ef-gh" };
+        for (String text : invalid) {
+            assertNull(text, ISO8601Parser.parse(text, GMT));
+        }
+    }
+
+    @Test
+    public void testIsExtendedYear() {
+        assertTrue(ISO8601Parser.isExtendedYear("+12345-01-01"));
+        assertTrue(ISO8601Parser.isExtendedYear("-0001-01-01"));
+        assertTrue(ISO8601Parser.isExtendedYear("12345-01-01"));
+        assertFalse(ISO8601Parser.isExtendedYear("2012-01-01"));
+        assertFalse(ISO8601Parser.isExtendedYear(""));
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util.json;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.auraframework.util.test.perf.ThroughputBenchmark;
+
+/**
+ * Benchmark for serializer lookup and writeValue, comparing the class name map lookup that
+ * ClassMapJsonSerializationContext used to do with the {@link JsonSerializerDispatchTable}.
+ *
+ * The object graph looks like the return values of a boxcar of actions: a list of action results, each a map holding
+ * a list of records with strings, numbers, booleans, dates and enums. Run with the number of threads to scale to as
+ * argument.
+ */
+public class JsonSerializationBenchmark {
+    private static final int ACTIONS = 10;
+    private static final int RECORDS = 20;
+
+    public static void main(String[] args) throws Exception {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        ThroughputBenchmark benchmark = new ThroughputBenchmark("JSON serializer dispatch");
+
+        final List<Object> response = buildResponse();
+        final Object[] values = flatten(response);
+        final JsonSerializerDispatchTable table = new JsonSerializerDispatchTable(JsonSerializers.MAPPY_FASTY,
+                JsonSerializers.MAPPY_SLOWY);
+        final ConcurrentMap<String, JsonSerializer<?>> nameCache = new ConcurrentHashMap<>();
+
+        benchmark.measureScaling("lookup, class name map", maxThreads, new ThroughputBenchmark.Operation() {
+            @Override
+            public Object run() {
+                JsonSerializationContext context = new NameMapContext(nameCache);
+                Object last = null;
+                for (Object value : values) {
+                    last = context.getSerializer(value);
+                }
+                return last;
+            }
+        });
+        benchmark.measureScaling("lookup, dispatch table", maxThreads, new ThroughputBenchmark.Operation() {
+            @Override
+            public Object run() {
+                JsonSerializationContext context = new ClassMapJsonSerializationContext(table, false, false, -1, -1);
+                Object last = null;
+                for (Object value : values) {
+                    last = context.getSerializer(value);
+                }
+                return last;
+            }
+        });
+        benchmark.measureScaling("writeValue, class name map", maxThreads, new ThroughputBenchmark.Operation() {
+            @Override
+            public Object run() throws Exception {
+                return write(new NameMapContext(nameCache), response);
+            }
+        });
+        benchmark.measureScaling("writeValue, dispatch table", maxThreads, new ThroughputBenchmark.Operation() {
+            @Override
+            public Object run() throws Exception {
+                return write(new ClassMapJsonSerializationContext(table, false, false, -1, -1), response);
+            }
+        });
+
+        benchmark.print(System.out);
+    }
+
+    private static int write(JsonSerializationContext context, Object value) throws Exception {
+        StringBuilder sb = new StringBuilder(64 * 1024);
+        new JsonEncoder(sb, null, context).writeValue(value);
+        return sb.length();
+    }
+
+    private static List<Object> buildResponse() {
+        List<Object> actions = new ArrayList<>();
+        for (int i = 0; i < ACTIONS; i++) {
+            List<Object> records = new ArrayList<>();
+            for (int j = 0; j < RECORDS; j++) {
+                Map<String, Object> record = new LinkedHashMap<>();
+                record.put("Id", "a0" + i + "00000" + j);
+                record.put("Name", "Record <" + j + "> \"quoted\"");
+                record.put("Amount", new BigDecimal("1234.56"));
+                record.put("Count", Integer.valueOf(j));
+                record.put("Probability", Double.valueOf(j / 10.0));
+                record.put("IsClosed", Boolean.valueOf(j % 2 == 0));
+                record.put("CloseDate", new Date(1456790400000L + j * 86400000L));
+                record.put("Unit", TimeUnit.SECONDS);
+                record.put("Tags", new String[] { "one", "two" });
+                records.add(record);
+            }
+            Map<String, Object> returnValue = new LinkedHashMap<>();
+            returnValue.put("records", records);
+            returnValue.put("totalSize", Long.valueOf(RECORDS));
+
+            Map<String, Object> action = new LinkedHashMap<>();
+            action.put("id", i + ";a");
+            action.put("state", "SUCCESS");
+            action.put("returnValue", returnValue);
+            action.put("error", new ArrayList<>());
+            actions.add(action);
+        }
+        return actions;
+    }
+
+    private static Object[] flatten(Object root) {
+        List<Object> values = new ArrayList<>();
+        flatten(root, values);
+        return values.toArray();
+    }
+
+    private static void flatten(Object value, List<Object> values) {
+        values.add(value);
+        if (value instanceof Map) {
+            for (Object v : ((Map<?, ?>) value).values()) {
+                flatten(v, values);
+            }
+        } else if (value instanceof List) {
+            for (Object v : (List<?>) value) {
+                flatten(v, values);
+            }
+        }
+    }
+
+    /**
+     * The lookup ClassMapJsonSerializationContext did before the dispatch table.
+     */
+    private static class NameMapContext extends BaseJsonSerializationContext {
+        private final ConcurrentMap<String, JsonSerializer<?>> cache;
+
+        NameMapContext(ConcurrentMap<String, JsonSerializer<?>> cache) {
+            super(false, false, -1, -1, false);
+            this.cache = cache;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> JsonSerializer<T> getSerializer(T o) {
+            if (o == null) {
+                return (JsonSerializer<T>) JsonSerializers.LITERAL;
+            }
+            Class<?> c = o.getClass();
+            if (c.isArray()) {
+                return (JsonSerializer<T>) JsonSerializers.ARRAY;
+            } else if (c.isEnum()) {
+                return (JsonSerializer<T>) JsonSerializers.STRING;
+            }
+            JsonSerializer<T> s = (JsonSerializer<T>) cache.get(c.getName());
+            if (s != null) {
+                return s;
+            }
+            String className = c.getName();
+            s = (JsonSerializer<T>) JsonSerializers.MAPPY_FASTY.get(className);
+            if (s != null) {
+                cache.putIfAbsent(className, s);
+                return s;
+            }
+            for (Entry<Class<?>, JsonSerializer<?>> e : JsonSerializers.MAPPY_SLOWY.entrySet()) {
+                if (e.getKey().isAssignableFrom(c)) {
+                    s = (JsonSerializer<T>) e.getValue();
+                    cache.putIfAbsent(className, s);
+                    return s;
+                }
+            }
+            return null;
+        }
+    }
+}
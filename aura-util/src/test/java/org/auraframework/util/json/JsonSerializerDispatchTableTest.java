@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util.json;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.GregorianCalendar;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.auraframework.util.test.util.UnitTestCase;
+import org.junit.Test;
+
+public class JsonSerializerDispatchTableTest extends UnitTestCase {
+
+    private JsonSerializerDispatchTable getStandardTable() {
+        return new JsonSerializerDispatchTable(JsonSerializers.MAPPY_FASTY, JsonSerializers.MAPPY_SLOWY);
+    }
+
+    @Test
+    public void testLookupByClassName() {
+        JsonSerializerDispatchTable table = getStandardTable();
+        assertSame(JsonSerializers.STRING, table.get(String.class));
+        assertSame(JsonSerializers.COLLECTION, table.get(ArrayList.class));
+        assertSame(JsonSerializers.DATE, table.get(java.util.Date.class));
+    }
+
+    @Test
+    public void testLookupByInstanceof() {
+        JsonSerializerDispatchTable table = getStandardTable();
+        assertSame(JsonSerializers.MAP, table.get(TreeMap.class));
+        assertSame(JsonSerializers.LITERAL, table.get(AtomicInteger.class));
+        assertSame(JsonSerializers.COLLECTION, table.get(Collections.emptyList().getClass()));
+    }
+
+    @Test
+    public void testArraysAndEnums() {
+        JsonSerializerDispatchTable table = getStandardTable();
+        assertSame(JsonSerializers.ARRAY, table.get(String[].class));
+        assertSame(JsonSerializers.ARRAY, table.get(int[].class));
+        assertSame(JsonSerializers.STRING, table.get(TimeUnit.class));
+    }
+
+    @Test
+    public void testClassNameLookupWinsOverInstanceof() {
+        Map<String, JsonSerializer<?>> lookup = new LinkedHashMap<>();
+        lookup.put(GregorianCalendar.class.getName(), JsonSerializers.LITERAL);
+        Map<Class<?>, JsonSerializer<?>> instance = new LinkedHashMap<>();
+        instance.put(Calendar.class, JsonSerializers.CALENDAR);
+        JsonSerializerDispatchTable table = new JsonSerializerDispatchTable(lookup, instance);
+
+        assertSame(JsonSerializers.LITERAL, table.get(GregorianCalendar.class));
+        assertSame(JsonSerializers.CALENDAR, table.get(Calendar.class));
+    }
+
+    @Test
+    public void testFirstInstanceofMatchWins() {
+        Map<Class<?>, JsonSerializer<?>> instance = new LinkedHashMap<>();
+        instance.put(Iterable.class, JsonSerializers.STRING);
+        instance.put(ArrayList.class, JsonSerializers.COLLECTION);
+        JsonSerializerDispatchTable table = new JsonSerializerDispatchTable(
+                Collections.<String, JsonSerializer<?>> emptyMap(), instance);
+
+        assertSame(JsonSerializers.STRING, table.get(ArrayList.class));
+    }
+
+    @Test
+    public void testMissingSerializerIsNull() {
+        JsonSerializerDispatchTable table = getStandardTable();
+        assertNull(table.get(Object.class));
+        assertNull("Misses are remembered, and must stay misses", table.get(Object.class));
+    }
+
+    @Test
+    public void testContextUsesTable() {
+        ClassMapJsonSerializationContext context = new ClassMapJsonSerializationContext(getStandardTable(), false,
+                false, -1, -1);
+        assertSame(JsonSerializers.LITERAL, context.getSerializer(null));
+        assertSame(JsonSerializers.LITERAL, context.getSerializer(Integer.valueOf(1)));
+        assertSame(JsonSerializers.ARRAY, context.getSerializer(new Object[0]));
+    }
+
+    @SuppressWarnings("deprecation")
+    @Test
+    public void testDeprecatedContextConstructorBuildsTable() {
+        ClassMapJsonSerializationContext context = new ClassMapJsonSerializationContext(JsonSerializers.MAPPY_FASTY,
+                JsonSerializers.MAPPY_SLOWY, new ConcurrentHashMap<String, JsonSerializer<?>>(), false, false, -1,
+                -1);
+        assertSame(JsonSerializers.STRING, context.getSerializer("a"));
+        assertSame(JsonSerializers.MAP, context.getSerializer(new TreeMap<String, String>()));
+    }
+}
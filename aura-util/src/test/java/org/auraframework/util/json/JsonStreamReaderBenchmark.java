@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util.json;
+
+import java.io.StringReader;
+
+import org.auraframework.util.test.perf.ThroughputBenchmark;
+
+/**
+ * Throughput of JsonStreamReader on the payloads every /aura request parses: the aura.message with a boxcar of
+ * actions, and the aura.context.
+ *
+ * Run with the number of threads to scale to as argument. Compare runs before and after a change to the reader.
+ */
+public class JsonStreamReaderBenchmark {
+    private static final String CONTEXT = "{\"mode\":\"PROD\",\"fwuid\":\"Jd4Ej5Jsq8AK7CQNeU0QTQ\","
+            + "\"app\":\"one:one\",\"loaded\":{\"APPLICATION@markup://one:one\":\"dVqTEQsL1s8ZCV2nsCpZiw\","
+            + "\"COMPONENT@markup://force:outputField\":\"y7x5s7mQt_DyTc4Fv2w5rg\"},\"dn\":[],\"globals\":"
+            + "{\"density\":\"VIEW_ONE\",\"isVoiceOver\":false,\"srcdoc\":true},\"uad\":true}";
+
+    public static void main(String[] args) throws Exception {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        ThroughputBenchmark benchmark = new ThroughputBenchmark("JsonStreamReader");
+        final String message = buildMessage(20);
+
+        benchmark.measureScaling("aura.message (" + message.length() + " chars)", maxThreads,
+                new ThroughputBenchmark.Operation() {
+                    @Override
+                    public Object run() throws Exception {
+                        return new JsonReader().read(message);
+                    }
+                });
+        benchmark.measureScaling("aura.message through a Reader", maxThreads, new ThroughputBenchmark.Operation() {
+            @Override
+            public Object run() throws Exception {
+                return new JsonReader().read(new StringReader(message));
+            }
+        });
+        benchmark.measureScaling("aura.context (" + CONTEXT.length() + " chars)", maxThreads,
+                new ThroughputBenchmark.Operation() {
+                    @Override
+                    public Object run() throws Exception {
+                        return new JsonReader().read(CONTEXT);
+                    }
+                });
+
+        benchmark.print(System.out);
+    }
+
+    /**
+     * Build a message shaped like what the client sends, with a mix of record ids, text, numbers and nested params.
+     */
+    private static String buildMessage(int actions) {
+        StringBuilder sb = new StringBuilder("{\"actions\":[");
+        for (int i = 0; i < actions; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"id\":\"").append(100 + i).append(";a\",")
+                    .append("\"descriptor\":\"serviceComponent://ui.force.components.controllers.recordGlobalValueProvider.RecordGvpController/ACTION$getRecord\",")
+                    .append("\"callingDescriptor\":\"UNKNOWN\",")
+                    .append("\"params\":{\"recordDescriptor\":\"001B0000003r1sDIAQ.undefined.null.null.null.Id,Name,Owner.Name.VIEW.true.null\",")
+                    .append("\"pageSize\":").append(25 + i).append(",\"offset\":0,\"threshold\":0.75,")
+                    .append("\"filter\":\"Name LIKE 'Acme \\\"").append(i).append("\\\" \\u00e9t\\u00e9%'\",")
+                    .append("\"fields\":[\"Id\",\"Name\",\"Owner.Name\",\"LastModifiedDate\"],\"sortAscending\":true},")
+                    .append("\"storable\":true}");
+        }
+        return sb.append("]}").toString();
+    }
+}
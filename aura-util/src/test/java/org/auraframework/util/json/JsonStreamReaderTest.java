@@ -21,6 +21,7 @@ import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.io.StringReader;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -1035,6 +1036,130 @@ public class JsonStreamReaderTest extends UnitTestCase {
         reader.disableLengthLimitsBecauseIAmStreamingAndMyMemoryUseIsNotProportionalToTheStreamLength();
     }
 
+    /**
+     * Reading through a Reader that returns a few chars at a time has to give the same values as reading the whole
+     * string, with strings, literals and numbers split across refills.
+     */
+    @Test
+    public void testReadAcrossBufferRefills() throws Exception {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < 2000; i++) {
+            sb.append("{key").append(i).append(":'value\\'").append(i).append("',\n \"n\":").append(i).append(".25},");
+        }
+        sb.append("null]");
+        String input = sb.toString();
+
+        JsonStreamReader reader = new JsonStreamReader(new TrickleReader(input, 3));
+        reader.next();
+        assertEquals(parseAndRetrieve(input), reader.getValue());
+        assertEquals(input.length(), reader.getCharNum());
+    }
+
+    /**
+     * Positions are worked out when they are needed, so they have to be right after the buffer has moved on.
+     */
+    @Test
+    public void testErrorPositionAfterBufferRefills() throws Exception {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < 3000; i++) {
+            sb.append("'abcdef',\n");
+        }
+        sb.append("  'unterminated\n]");
+        try {
+            new JsonStreamReader(new TrickleReader(sb.toString(), 5)).next();
+            fail("Should have failed on the unterminated string");
+        } catch (JsonStreamParseException jspe) {
+            assertTrue(jspe.getMessage().startsWith("Unterminated string"));
+            assertEquals(3001, jspe.line);
+            assertEquals(3, jspe.col);
+        }
+    }
+
+    /**
+     * The binary constructor reads one char at a time into a tiny window, so the window moves on every read, including
+     * the ones that hit the end of the input.
+     */
+    @Test
+    public void testReadPastEndWithBinaryInput() throws Exception {
+        JsonStreamReader reader = new JsonStreamReader(new ByteArrayInputStream("\"a\" 7".getBytes(Charsets.UTF_8)));
+        assertEquals(JsonConstant.STRING, reader.next());
+        assertEquals("a", reader.getValue());
+        assertEquals(JsonConstant.NUMBER, reader.next());
+        assertEquals(new BigDecimal("7"), reader.getValue());
+        assertEquals(JsonConstant.WHITESPACE, reader.next());
+        assertEquals(JsonConstant.WHITESPACE, reader.next());
+    }
+
+    /**
+     * Input that exactly fills the buffer hits the end of the input right after the window has moved.
+     */
+    @Test
+    public void testReadPastEndAtBufferBoundary() throws Exception {
+        for (int length = 8 * 1024 - 1; length <= 8 * 1024 + 1; length++) {
+            char[] chars = new char[length];
+            Arrays.fill(chars, ' ');
+            chars[0] = '7';
+            JsonStreamReader reader = new JsonStreamReader(new StringReader(new String(chars)));
+            assertEquals(JsonConstant.NUMBER, reader.next());
+            assertEquals(new BigDecimal("7"), reader.getValue());
+            assertEquals(JsonConstant.WHITESPACE, reader.next());
+            assertEquals(JsonConstant.WHITESPACE, reader.next());
+            assertEquals(length, reader.getCharNum());
+        }
+    }
+
+    @Test
+    public void testNumbersKeepTheirScale() throws Exception {
+        assertEquals(new BigDecimal("1.50"), parseAndRetrieve("1.50,"));
+        assertEquals(new BigDecimal("-0.0"), parseAndRetrieve("-0.0,"));
+        assertEquals(new BigDecimal(".5"), parseAndRetrieve(".5,"));
+        assertEquals(new BigDecimal("12345678901234567890"), parseAndRetrieve("12345678901234567890,"));
+        assertEquals(new BigDecimal("1e5"), parseAndRetrieve("1e5,"));
+        assertEquals(Double.NEGATIVE_INFINITY, parseAndRetrieve("-Infinity,"));
+    }
+
+    @Test
+    public void testInputTooLong() throws Exception {
+        char[] chars = new char[1000001];
+        Arrays.fill(chars, 'x');
+        chars[0] = '"';
+        try {
+            parseAndRetrieve(new String(chars));
+            fail("Should have failed on the length limit");
+        } catch (JsonStreamParseException jspe) {
+            assertTrue(jspe.getMessage().startsWith("Input too long."));
+        }
+    }
+
+    /**
+     * A reader that only returns a few chars from each read.
+     */
+    private static class TrickleReader extends Reader {
+        private final String input;
+        private final int chunk;
+        private int position;
+
+        TrickleReader(String input, int chunk) {
+            this.input = input;
+            this.chunk = chunk;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) {
+            if (position == input.length()) {
+                return -1;
+            }
+            int count = Math.min(Math.min(len, chunk), input.length() - position);
+            input.getChars(position, position + count, cbuf, off);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
     /**
      * A convenience method to verify the functioning of JsonStreamReader. All
      * this method does is accepts a String, creates a stream with this and
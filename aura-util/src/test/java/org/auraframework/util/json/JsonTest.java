@@ -21,11 +21,14 @@ import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.Reader;
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TimeZone;
 import java.util.TreeMap;
 import java.util.UUID;
 
@@ -100,6 +103,34 @@ public class JsonTest extends UnitTestCase {
                 JsonEncoder.serialize("Быстрый Браун Фокс выросло за ленивый собака. Die schnelle Braun Fuchs sprang über den faulen Hund. השועל החום המהיר קפץ מעל הכלב העצלן."));
     }
 
+    @Test
+    public void testSerializeDate() throws IOException {
+        assertEquals("\"1970-01-01T00:00:00Z\"", JsonEncoder.serialize(new Date(0)));
+        assertEquals("\"2016-02-29T23:59:59Z\"", JsonEncoder.serialize(new Date(1456790399999L)));
+        assertEquals("\"1969-12-31T23:59:59Z\"", JsonEncoder.serialize(new Date(-1)));
+    }
+
+    @Test
+    public void testSerializeDateOutsideFastRangeMatchesSimpleDateFormat() throws IOException {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'");
+        format.setTimeZone(TimeZone.getTimeZone("GMT"));
+        for (long millis : new long[] { -20000000000000L, -11676096000001L, -11676096000000L, 253402300799999L,
+                253402300800000L }) {
+            Date date = new Date(millis);
+            assertEquals("\"" + format.format(date) + "\"", JsonEncoder.serialize(date));
+        }
+    }
+
+    @Test
+    public void testStreamToOutputStreamWritesUtf8() throws IOException {
+        String value = "Быстрый €😀 <!-- */";
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        JsonEncoder json = JsonEncoder.createJsonStream(bytes, false, false, false);
+        json.writeString(value);
+        json.close();
+        assertEquals(JsonEncoder.serialize(value), new String(bytes.toByteArray(), Charsets.UTF_8));
+    }
+
     @Test
     public void testSerializeArray() throws IOException {
         String[] s = new String[2];
@@ -798,4 +829,88 @@ public class JsonTest extends UnitTestCase {
         jsonSkipNull.close();
         assertEquals("fail with Json Stream Skip null", expect2, new String(baos.toByteArray(), Charsets.UTF_8) );
     }
+
+    /**
+     * A fragment cache that caches values of a single class.
+     */
+    private static class TestFragmentCache implements JsonFragmentCache {
+        private final Class<?> cachedClass;
+        private final Map<String, String> fragments = new TreeMap<>();
+
+        TestFragmentCache(Class<?> cachedClass) {
+            this.cachedClass = cachedClass;
+        }
+
+        @Override
+        public String getKey(Object value) {
+            return cachedClass.isInstance(value) ? "key" + value.hashCode() : null;
+        }
+
+        @Override
+        public String get(Object value, String key) {
+            return fragments.get(key);
+        }
+
+        @Override
+        public void put(Object value, String key, String json) {
+            fragments.put(key, json);
+        }
+    }
+
+    private static class Holder implements JsonSerializable {
+        private final Object value;
+
+        Holder(Object value) {
+            this.value = value;
+        }
+
+        @Override
+        public void serialize(Json json) throws IOException {
+            json.writeArray(new Object[] { value, value });
+        }
+    }
+
+    @Test
+    public void testFragmentCacheWritesCachedJson() throws IOException {
+        TestFragmentCache cache = new TestFragmentCache(JsonIdentitySerializableTest.class);
+        cache.put(null, "key1", "\"cached\"");
+        StringBuilder sb = new StringBuilder();
+        JsonEncoder json = new JsonEncoder(sb, false, true);
+        json.setFragmentCache(cache);
+
+        JsonIdentitySerializableTest value = new JsonIdentitySerializableTest(1);
+        json.writeArray(new Object[] { value, value });
+
+        assertEquals(String.format("[{\"%s\":1,\"%s\":\"cached\"},{\"%s\":1}]", Json.ApplicationKey.SERIAL_ID,
+                Json.ApplicationKey.VALUE, Json.ApplicationKey.SERIAL_REFID), sb.toString());
+    }
+
+    @Test
+    public void testFragmentCacheStoresJsonWithoutReferences() throws IOException {
+        TestFragmentCache cache = new TestFragmentCache(Holder.class);
+        StringBuilder sb = new StringBuilder();
+        JsonEncoder json = new JsonEncoder(sb, false, true);
+        json.setFragmentCache(cache);
+
+        Holder holder = new Holder(new JsonIdentitySerializableTest(1));
+        json.writeValue(holder);
+
+        String expected = "[\"JsonIdentitySerializableTest serialized string\","
+                + "\"JsonIdentitySerializableTest serialized string\"]";
+        assertEquals(expected, sb.toString());
+        assertEquals(expected, cache.get(holder, "key" + holder.hashCode()));
+    }
+
+    @Test
+    public void testFragmentCacheNotUsedWhenFormatting() throws IOException {
+        TestFragmentCache cache = new TestFragmentCache(JsonIdentitySerializableTest.class);
+        cache.put(null, "key1", "\"cached\"");
+        StringBuilder sb = new StringBuilder();
+        JsonEncoder json = new JsonEncoder(sb, true, false);
+        json.setFragmentCache(cache);
+
+        json.writeValue(new JsonIdentitySerializableTest(1));
+
+        assertEquals("\"JsonIdentitySerializableTest serialized string\"", sb.toString());
+    }
 }
@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util.number;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.auraframework.util.test.perf.ThroughputBenchmark;
+
+import com.ibm.icu.text.NumberFormat;
+
+/**
+ * Throughput of formatting numbers and currencies with new formats per call against cached formats, over a mix of
+ * locales like a list view rendered for users around the world would see.
+ *
+ * Run with the number of threads to scale to as argument.
+ */
+public class NumberFormatBenchmark {
+    private static final Locale[] LOCALES = { Locale.US, Locale.UK, Locale.GERMANY, Locale.FRANCE, Locale.JAPAN,
+            Locale.CHINA, new Locale("pt", "BR"), new Locale("es", "MX"), new Locale("hi", "IN"),
+            new Locale("ar", "EG"), new Locale("ru", "RU"), new Locale("de", "CH") };
+
+    public static void main(String[] args) throws Exception {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        ThroughputBenchmark benchmark = new ThroughputBenchmark("NumberFormat per locale");
+
+        benchmark.measureScaling("number, new instance", maxThreads, new ThroughputBenchmark.Operation() {
+            @Override
+            public Object run() {
+                return NumberFormat.getNumberInstance(randomLocale()).format(randomValue());
+            }
+        });
+        benchmark.measureScaling("number, cached", maxThreads, new ThroughputBenchmark.Operation() {
+            @Override
+            public Object run() {
+                return NumberFormatCache.getNumberInstance(randomLocale()).format(randomValue());
+            }
+        });
+        benchmark.measureScaling("currency, new instance", maxThreads, new ThroughputBenchmark.Operation() {
+            @Override
+            public Object run() {
+                NumberFormat nf = NumberFormat.getCurrencyInstance(randomLocale());
+                nf.setMinimumFractionDigits(2);
+                nf.setMaximumFractionDigits(2);
+                return nf.format(randomValue());
+            }
+        });
+        benchmark.measureScaling("currency, cached", maxThreads, new ThroughputBenchmark.Operation() {
+            @Override
+            public Object run() {
+                NumberFormat nf = NumberFormatCache.getCurrencyInstance(randomLocale());
+                nf.setMinimumFractionDigits(2);
+                nf.setMaximumFractionDigits(2);
+                return nf.format(randomValue());
+            }
+        });
+
+        benchmark.print(System.out);
+    }
+
+    private static Locale randomLocale() {
+        return LOCALES[ThreadLocalRandom.current().nextInt(LOCALES.length)];
+    }
+
+    private static double randomValue() {
+        return ThreadLocalRandom.current().nextDouble(-1000000, 1000000);
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util.number;
+
+import java.util.Locale;
+
+import org.auraframework.util.test.util.UnitTestCase;
+import org.junit.Test;
+
+import com.ibm.icu.text.DecimalFormat;
+import com.ibm.icu.text.NumberFormat;
+import com.ibm.icu.util.Currency;
+
+public class NumberFormatCacheTest extends UnitTestCase {
+    private static final Locale[] LOCALES = { Locale.US, Locale.GERMANY, Locale.FRANCE, Locale.JAPAN,
+            new Locale("ar", "EG"), new Locale("hi", "IN") };
+
+    @Test
+    public void testFormatsMatchNewInstances() {
+        for (Locale locale : LOCALES) {
+            assertEquals(NumberFormat.getNumberInstance(locale).format(1234567.891),
+                    NumberFormatCache.getNumberInstance(locale).format(1234567.891));
+            assertEquals(NumberFormat.getInstance(locale).format(-42.5),
+                    NumberFormatCache.getInstance(locale).format(-42.5));
+            assertEquals(NumberFormat.getPercentInstance(locale).format(0.125),
+                    NumberFormatCache.getPercentInstance(locale).format(0.125));
+            assertEquals(NumberFormat.getCurrencyInstance(locale).format(99.99),
+                    NumberFormatCache.getCurrencyInstance(locale).format(99.99));
+        }
+    }
+
+    @Test
+    public void testCurrencyInstanceUsesCurrency() {
+        Currency euro = Currency.getInstance("EUR");
+        DecimalFormat expected = (DecimalFormat) NumberFormat.getCurrencyInstance(Locale.US);
+        expected.setCurrency(euro);
+
+        DecimalFormat actual = NumberFormatCache.getCurrencyInstance(Locale.US, euro);
+
+        assertEquals(euro, actual.getCurrency());
+        assertEquals(expected.format(1234.5), actual.format(1234.5));
+        assertEquals(Currency.getInstance(Locale.US), NumberFormatCache.getCurrencyInstance(Locale.US).getCurrency());
+    }
+
+    @Test
+    public void testChangesToReturnedFormatAreNotShared() {
+        NumberFormat first = NumberFormatCache.getNumberInstance(Locale.US);
+        first.setMinimumFractionDigits(4);
+        first.setMaximumFractionDigits(4);
+
+        NumberFormat second = NumberFormatCache.getNumberInstance(Locale.US);
+
+        assertNotSame(first, second);
+        assertEquals("1.5000", first.format(1.5));
+        assertEquals("1.5", second.format(1.5));
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util.test.perf;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.collect.Lists;
+
+/**
+ * A small harness for throughput micro benchmarks.
+ *
+ * Benchmarks are plain classes with a main method, so that they never run as part of the test suites. Each
+ * operation is run by 1..N threads for a fixed time after a warmup, and the results are printed as operations per
+ * second.
+ */
+public final class ThroughputBenchmark {
+    private final String name;
+    private final long warmupMillis;
+    private final long measureMillis;
+    private final List<String> rows = Lists.newArrayList();
+
+    /**
+     * Something to measure. Implementations must be safe to call from several threads at once.
+     */
+    public interface Operation {
+        /**
+         * Run a single operation. The return value is consumed so the JIT cannot remove the work.
+         */
+        Object run() throws Exception;
+    }
+
+    public ThroughputBenchmark(String name, long warmupMillis, long measureMillis) {
+        this.name = name;
+        this.warmupMillis = warmupMillis;
+        this.measureMillis = measureMillis;
+    }
+
+    public ThroughputBenchmark(String name) {
+        this(name, 2000, 5000);
+    }
+
+    /**
+     * Measure an operation with a given number of threads, and record the result.
+     *
+     * @return the number of operations per second over all threads.
+     */
+    public long measure(String label, int threads, Operation op) throws Exception {
+        run(threads, warmupMillis, op);
+        long count = run(threads, measureMillis, op);
+        long opsPerSecond = count * 1000 / measureMillis;
+        rows.add(String.format("%-40s %4d threads %,16d ops/s", label, threads, opsPerSecond));
+        return opsPerSecond;
+    }
+
+    /**
+     * Measure an operation with 1, 2, 4, ... threads up to the given maximum.
+     */
+    public void measureScaling(String label, int maxThreads, Operation op) throws Exception {
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            measure(label, threads, op);
+        }
+    }
+
+    public void print(PrintStream out) {
+        out.println(name);
+        for (String row : rows) {
+            out.println(row);
+        }
+    }
+
+    private long run(int threads, long millis, final Operation op) throws Exception {
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final LongAdder count = new LongAdder();
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(threads);
+        final Exception[] failure = new Exception[1];
+        final Object[] sink = new Object[threads];
+
+        for (int i = 0; i < threads; i++) {
+            final int index = i;
+            Thread t = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        long local = 0;
+                        while (running.get()) {
+                            sink[index] = op.run();
+                            local++;
+                        }
+                        count.add(local);
+                    } catch (Exception e) {
+                        failure[0] = e;
+                        running.set(false);
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }, name + "-" + i);
+            t.setDaemon(true);
+            t.start();
+        }
+        start.countDown();
+        Thread.sleep(millis);
+        running.set(false);
+        done.await();
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+        return count.sum();
+    }
+}
@@ -42,6 +42,7 @@ import org.auraframework.service.MetricsService;
 import org.auraframework.service.RenderingService;
 import org.auraframework.service.SerializationService;
 import org.auraframework.service.ServerService;
+import org.auraframework.service.WarmupService;
 import org.auraframework.system.AuraContext;
 import org.auraframework.util.ServiceLocator;
 import org.auraframework.util.adapter.SourceControlAdapter;
@@ -122,6 +123,13 @@ public class Aura implements AuraDeprecated {
         return Aura.get(ServerService.class);
     }
 
+    /**
+     * Get the Warmup Service: for warming the caches for applications before taking traffic
+     */
+    public static WarmupService getWarmupService() {
+        return Aura.get(WarmupService.class);
+    }
+
     /**
      * Get the Config Adapter: Provides Aura with configuration from the host environment
      */
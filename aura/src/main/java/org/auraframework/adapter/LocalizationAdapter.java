@@ -56,6 +56,21 @@ public interface LocalizationAdapter extends AuraAdapter {
      */
     boolean labelExists(String section, String name);
 
+    /**
+     * Gets a key for everything that the labels returned by {@link #getLabel(String, String, Object...)} depend on
+     * in this context, typically the language locale. Labels resolved for an application are shared between
+     * requests with the same key.
+     *
+     * Shared labels are kept until the application changes or they are evicted, so a label changed at runtime is not
+     * seen by requests with a key that was already used. Adapters whose labels can change at runtime should put
+     * something that changes with them in the key, or return <code>null</code>.
+     *
+     * @return the key, or <code>null</code> if labels must not be shared between requests.
+     */
+    default String getLabelCacheKey() {
+        return null;
+    }
+
     /**
      * Gets a default AuraLocale instance for this context.
      * 
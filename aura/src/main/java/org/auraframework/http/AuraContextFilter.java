@@ -38,16 +38,14 @@ import org.apache.http.HttpHeaders;
 import org.auraframework.Aura;
 import org.auraframework.AuraDeprecated;
 import org.auraframework.adapter.ConfigAdapter;
+import org.auraframework.cache.Cache;
 import org.auraframework.def.ApplicationDef;
 import org.auraframework.def.BaseComponentDef;
-import org.auraframework.def.ComponentDef;
 import org.auraframework.def.DefDescriptor;
-import org.auraframework.def.DefDescriptor.DefType;
 import org.auraframework.http.RequestParam.BooleanParam;
 import org.auraframework.http.RequestParam.EnumParam;
 import org.auraframework.http.RequestParam.InvalidParamException;
 import org.auraframework.http.RequestParam.StringParam;
-import org.auraframework.service.DefinitionService;
 import org.auraframework.service.LoggingService;
 import org.auraframework.system.AuraContext;
 import org.auraframework.system.AuraContext.Authentication;
@@ -58,8 +56,6 @@ import org.auraframework.util.AuraTextUtil;
 import org.auraframework.util.json.JsonReader;
 import org.springframework.web.context.support.SpringBeanAutowiringSupport;
 
-import com.google.common.collect.Maps;
-
 public class AuraContextFilter implements Filter {
 
     public static final EnumParam<AuraContext.Mode> mode = new EnumParam<>(AuraServlet.AURA_PREFIX
@@ -79,8 +75,13 @@ public class AuraContextFilter implements Filter {
     private static final StringParam num = new StringParam(AuraServlet.AURA_PREFIX + "num", 0, false);
     private static final StringParam contextConfig = new StringParam(AuraServlet.AURA_PREFIX + "context", 0, false);
 
+    /** Default size of the parsed context cache, in number of entries */
+    private static final int CONTEXT_CONFIG_CACHE_SIZE = 1024;
+
     private String componentDir = null;
 
+    private volatile Cache<String, ContextConfig> contextConfigCache;
+
     private static final Log LOG = LogFactory.getLog(AuraContextFilter.class);
 
     private AuraTestFilter testFilter;
@@ -142,11 +143,11 @@ public class AuraContextFilter implements Filter {
         Format f = format.get(request);
         Authentication a = access.get(request, Authentication.AUTHENTICATED);
 
-        Map<String, Object> configMap = getConfigMap(request);
-        Mode m = getMode(request, configMap);
+        ContextConfig config = getContextConfig(request);
+        Mode m = getMode(request, config);
         boolean d = getDebugToolParam(request);
 
-        DefDescriptor<? extends BaseComponentDef> appDesc = getAppParam(request, configMap);
+        DefDescriptor<? extends BaseComponentDef> appDesc = getAppParam(request, config);
 
         if (componentDir != null) {
             System.setProperty("aura.componentDir", componentDir);
@@ -189,25 +190,25 @@ public class AuraContextFilter implements Filter {
         context.setNum(num.get(request));
         context.setRequestedLocales(requestedLocales);
         context.setClient(new Client(request.getHeader(HttpHeaders.USER_AGENT)));
-        if (configMap != null) {
-            getLoaded(context, configMap.get("loaded"));
-            @SuppressWarnings("unchecked")
-            List<Object> dns = (List<Object>) configMap.get("dn");
+        if (config != null) {
+            Map<DefDescriptor<?>, String> clientLoaded = config.getLoaded();
+            if (clientLoaded != null) {
+                context.setClientLoaded(clientLoaded);
+            }
+            List<Object> dns = config.getDynamicNamespaces();
             if (dns != null) {
                 for (Object dn : dns) {
                     context.addDynamicNamespace((String) dn);
                 }
             }
-            context.setFrameworkUID((String) configMap.get("fwuid"));
+            context.setFrameworkUID(config.getFrameworkUID());
 
-            @SuppressWarnings("unchecked")
-            Map<String, Object> styleContext = (Map<String, Object>) configMap.get("styleContext");
+            Map<String, Object> styleContext = config.getStyleContext();
             if (styleContext != null) {
                 context.setStyleContext(styleContext);
             }
 
-            @SuppressWarnings("unchecked")
-            Map<String, Object> gvp = (Map<String, Object>) configMap.get("globals");
+            Map<String, Object> gvp = config.getGlobals();
             if (gvp != null) {
                 for (Map.Entry<String, Object> entry : gvp.entrySet()) {
                     context.setGlobalValue(entry.getKey(), entry.getValue());
@@ -219,81 +220,80 @@ public class AuraContextFilter implements Filter {
     }
 
     /**
-     * Pull in the map of loaded defDescriptors and uids from the context.
+     * Get the parsed aura.context parameter, from the cache if the same string was seen before.
      */
-    private void getLoaded(AuraContext context, Object loadedEntry) {
-        if (loadedEntry == null || !(loadedEntry instanceof Map)) {
-            //
-            // If someone gives us bogus input, just ignore it.
-            //
-            return;
+    @SuppressWarnings("unchecked")
+    private ContextConfig getContextConfig(HttpServletRequest request) {
+        String config = contextConfig.get(request);
+        if (AuraTextUtil.isNullEmptyOrWhitespace(config)) {
+            return null;
         }
-        @SuppressWarnings("unchecked")
-        Map<String, String> loaded = (Map<String, String>) loadedEntry;
-        DefinitionService definitionService = Aura.getDefinitionService();
-        Map<DefDescriptor<?>, String> clientLoaded = Maps.newHashMap();
-
-        for (Map.Entry<String, String> entry : loaded.entrySet()) {
-            String uid = entry.getValue();
-            if (uid != null && !uid.equals("null")) {
-                String key = entry.getKey();
-                int posn = key.indexOf("@");
-                if (posn > 0) {
-                    String typeStr = key.substring(0, posn);
-                    String defStr = key.substring(posn + 1);
-                    DefType type = null;
-                    try {
-                        type = DefType.valueOf(typeStr);
-                    } catch (Throwable t) {
-                        // ignore unknown types...
-                        // We really should log these at a level where we can
-                        // see them, but, well, we don't have that now.
-                    }
-                    if (type != null) {
-                        DefDescriptor<?> ld = null;
-
-                        ld = definitionService.getDefDescriptor(defStr, type.getPrimaryInterface());
-                        clientLoaded.put(ld, uid);
-                    }
-                }
+        Cache<String, ContextConfig> cache = getContextConfigCache();
+        ContextConfig parsed = cache.getIfPresent(config);
+        if (parsed == null) {
+            String json = config;
+            if (json.startsWith(AuraTextUtil.urlencode("{"))) {
+                // Decode encoded context json. Serialized AuraContext json always starts with "{"
+                json = AuraTextUtil.urldecode(json);
+            }
+            Map<String, Object> configMap = (Map<String, Object>) new JsonReader().read(json);
+            if (configMap == null) {
+                return null;
             }
+            parsed = new ContextConfig(configMap);
+            cache.put(config, parsed);
         }
-        context.setClientLoaded(clientLoaded);
+        return parsed;
     }
 
-    @SuppressWarnings("unchecked")
-    private Map<String, Object> getConfigMap(HttpServletRequest request) {
-        Map<String, Object> configMap = null;
-        String config = contextConfig.get(request);
-        if (!AuraTextUtil.isNullEmptyOrWhitespace(config)) {
-            if (config.startsWith(AuraTextUtil.urlencode("{"))) {
-                // Decode encoded context json. Serialized AuraContext json always starts with "{"
-                config = AuraTextUtil.urldecode(config);
+    /**
+     * Get the cache of parsed context parameters, keyed by the raw parameter.
+     *
+     * The key is the whole string rather than a hash of it, as a collision would give a request the context of
+     * another. The cache records stats, so its hit rate is logged along with the other caches.
+     */
+    private Cache<String, ContextConfig> getContextConfigCache() {
+        Cache<String, ContextConfig> cache = contextConfigCache;
+        if (cache == null) {
+            synchronized (this) {
+                cache = contextConfigCache;
+                if (cache == null) {
+                    int size = Integer.getInteger("aura.cache.contextConfigCacheSize", CONTEXT_CONFIG_CACHE_SIZE);
+                    cache = Aura.getCachingService().<String, ContextConfig> getCacheBuilder()
+                            .setInitialSize(size)
+                            .setMaximumSize(size)
+                            .setRecordStats(true)
+                            .setName("contextConfigCache")
+                            .setSoftValues(true).build();
+                    contextConfigCache = cache;
+                }
             }
-            configMap = (Map<String, Object>) new JsonReader().read(config);
         }
-        return configMap;
+        return cache;
     }
 
-    private Mode getModeParam(HttpServletRequest request, Map<String, Object> configMap) {
+    private Mode getModeParam(HttpServletRequest request, ContextConfig config) {
         // Get the passed in mode param.
         // Check the aura.mode param first then fall back to the mode value
         // embedded in the aura.context param
         Mode m = null;
         m = mode.get(request);
-        if (m == null && configMap != null && configMap.containsKey("mode")) {
-            m = Mode.valueOf((String) configMap.get("mode"));
+        if (m == null && config != null && config.getMode() != null) {
+            m = Mode.valueOf(config.getMode());
         }
         return m;
     }
 
     protected Mode getModeParam(HttpServletRequest request) {
-        Map<String, Object> configMap = getConfigMap(request);
-        return getModeParam(request, configMap);
+        return getModeParam(request, getContextConfig(request));
     }
 
     protected Mode getMode(HttpServletRequest request, Map<String, Object> configMap) {
-        Mode m = getModeParam(request, configMap);
+        return getMode(request, configMap != null ? new ContextConfig(configMap) : null);
+    }
+
+    private Mode getMode(HttpServletRequest request, ContextConfig config) {
+        Mode m = getModeParam(request, config);
         ConfigAdapter configAdapter = Aura.getConfigAdapter();
 
         if (m == null) {
@@ -308,28 +308,18 @@ public class AuraContextFilter implements Filter {
         return m;
     }
 
-    private DefDescriptor<? extends BaseComponentDef> getAppParam(HttpServletRequest request, Map<String, Object> configMap) {
-        String appName = null;
-        String cmpName = null;
-
-        appName = app.get(request, null);
-        if (appName == null && configMap != null) {
-            appName = (String) configMap.get("app");
-            if (appName == null) {
-                cmpName = (String) configMap.get("cmp");
-            }
-        }
+    private DefDescriptor<? extends BaseComponentDef> getAppParam(HttpServletRequest request, ContextConfig config) {
+        String appName = app.get(request, null);
         if (appName != null) {
             return Aura.getDefinitionService().getDefDescriptor(appName, ApplicationDef.class);
-        } else if (cmpName != null) {
-            return Aura.getDefinitionService().getDefDescriptor(cmpName, ComponentDef.class);
+        } else if (config != null) {
+            return config.getAppDescriptor();
         }
         return null;
     }
 
     protected Mode getMode(HttpServletRequest request) {
-        Map<String, Object> configMap = getConfigMap(request);
-        return getMode(request, configMap);
+        return getMode(request, getContextConfig(request));
     }
 
     protected void endContext() {
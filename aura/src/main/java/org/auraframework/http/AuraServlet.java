@@ -16,9 +16,13 @@
 package org.auraframework.http;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.io.Reader;
 import java.io.StringReader;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Map;
@@ -26,6 +30,7 @@ import java.util.Map;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
 
 import org.apache.http.HttpHeaders;
 import org.auraframework.Aura;
@@ -35,6 +40,7 @@ import org.auraframework.def.BaseComponentDef;
 import org.auraframework.def.ComponentDef;
 import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.DefDescriptor.DefType;
+import org.auraframework.http.RequestParam.BooleanParam;
 import org.auraframework.http.RequestParam.EnumParam;
 import org.auraframework.http.RequestParam.StringParam;
 import org.auraframework.instance.Action;
@@ -51,6 +57,7 @@ import org.auraframework.throwable.AuraRuntimeException;
 import org.auraframework.throwable.ClientOutOfSyncException;
 import org.auraframework.throwable.SystemErrorException;
 import org.auraframework.throwable.quickfix.QuickFixException;
+import org.auraframework.util.json.JsonEncoder;
 import org.auraframework.util.json.JsonStreamReader.JsonParseException;
 
 import com.google.common.collect.Maps;
@@ -101,6 +108,7 @@ public class AuraServlet extends AuraBaseServlet {
     private final static StringParam formatAdapterParam = new StringParam(AURA_PREFIX + "formatAdapter", 0, false);
 
     private final static StringParam messageParam = new StringParam("message", 0, false);
+    private final static BooleanParam streamParam = new BooleanParam(AURA_PREFIX + "stream", false);
 
     // FIXME: is this really a good idea?
     private final static StringParam nocacheParam = new StringParam("nocache", 0, false);
@@ -121,6 +129,8 @@ public class AuraServlet extends AuraBaseServlet {
     @Override
     public void init() throws ServletException {
         super.init();
+        // Warm the applications in the startup manifest, if any, in the background.
+        Aura.getWarmupService().warmConfigured();
     }
 
     /**
@@ -401,6 +411,23 @@ public class AuraServlet extends AuraBaseServlet {
 
 
     /**
+     * Is the message the body of the request, rather than a form parameter?
+     *
+     * Such requests send the other parameters in the query string.
+     */
+    private static boolean isJsonBody(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return contentType != null
+                && contentType.regionMatches(true, 0, JsonEncoder.MIME_TYPE, 0, JsonEncoder.MIME_TYPE.length());
+    }
+
+    /**
+     * Run the actions in a message.
+     *
+     * The message is either the 'message' form parameter, or the whole body of the request when it is sent as
+     * application/json. The body is read as the message is parsed, so it is never held as a single string, and the
+     * length limit of the JSON reader applies as it is read.
+     *
      * @see javax.servlet.http.HttpServlet#doPost(javax.servlet.http.HttpServletRequest,
      *      javax.servlet.http.HttpServletResponse)
      */
@@ -414,6 +441,7 @@ public class AuraServlet extends AuraBaseServlet {
         AuraContext context = contextService.getCurrentContext();
         response.setCharacterEncoding(UTF_ENCODING);
         boolean written = false;
+        OutputStream out = null;
         servletUtilAdapter.setNoCache(response);
 
         //
@@ -427,9 +455,18 @@ public class AuraServlet extends AuraBaseServlet {
                 throw new AuraRuntimeException("Invalid request, post must use JSON");
             }
             response.setContentType(servletUtilAdapter.getContentType(Format.JSON));
-            String msg = messageParam.get(request);
-            if (msg == null) {
-                throw new AuraRuntimeException("Invalid request, no message");
+            Reader msg;
+            if (isJsonBody(request)) {
+                if (request.getCharacterEncoding() == null) {
+                    request.setCharacterEncoding(UTF_ENCODING);
+                }
+                msg = request.getReader();
+            } else {
+                String msgParam = messageParam.get(request);
+                if (msgParam == null) {
+                    throw new AuraRuntimeException("Invalid request, no message");
+                }
+                msg = new StringReader(msgParam);
             }
 
             String fwUID = Aura.getConfigAdapter().getAuraFrameworkNonce();
@@ -443,7 +480,7 @@ public class AuraServlet extends AuraBaseServlet {
 
             loggingService.startTimer(LoggingService.TIMER_DESERIALIZATION);
             try {
-                message = serializationService.read(new StringReader(msg), Message.class);
+                message = serializationService.read(msg, Message.class);
             } finally {
                 loggingService.stopTimer(LoggingService.TIMER_DESERIALIZATION);
             }
@@ -482,10 +519,10 @@ public class AuraServlet extends AuraBaseServlet {
                 attributes.put("token", getToken());
             }
 
-            PrintWriter out = response.getWriter();
+            out = response.getOutputStream();
             written = true;
-            out.write(CSRF_PROTECT);
-            serverService.run(message, context, out, attributes);
+            out.write(CSRF_PROTECT.getBytes(StandardCharsets.UTF_8));
+            serverService.run(message, context, out, attributes, streamParam.get(request));
         } catch (RequestParam.InvalidParamException ipe) {
             servletUtilAdapter.handleServletException(new SystemErrorException(ipe), false, context, request, response, false);
             return;
@@ -495,10 +532,30 @@ public class AuraServlet extends AuraBaseServlet {
         } catch (JsonParseException jpe) {
             servletUtilAdapter.handleServletException(new SystemErrorException(jpe), false, context, request, response, false);
         } catch (Exception e) {
-            servletUtilAdapter.handleServletException(e, false, context, request, response, written);
+            handleServletException(e, context, request, response, out, written);
         }
     }
 
+    /**
+     * Route an exception to the servlet util adapter. Once the response output stream has been handed out the
+     * response writer is no longer available, so the error is written to the stream instead.
+     */
+    private void handleServletException(Throwable t, AuraContext context, HttpServletRequest request,
+            HttpServletResponse response, OutputStream out, boolean written) throws IOException {
+        if (out == null) {
+            servletUtilAdapter.handleServletException(t, false, context, request, response, written);
+            return;
+        }
+        final PrintWriter writer = new PrintWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        servletUtilAdapter.handleServletException(t, false, context, request, new HttpServletResponseWrapper(response) {
+            @Override
+            public PrintWriter getWriter() {
+                return writer;
+            }
+        }, written);
+        writer.flush();
+    }
+
     /**
      * Get tag name from params.
      *
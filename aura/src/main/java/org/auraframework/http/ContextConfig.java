@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.http;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.auraframework.Aura;
+import org.auraframework.def.ApplicationDef;
+import org.auraframework.def.BaseComponentDef;
+import org.auraframework.def.ComponentDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.DefDescriptor.DefType;
+import org.auraframework.service.DefinitionService;
+
+import com.google.common.collect.Maps;
+
+/**
+ * The parsed aura.context parameter of a request.
+ *
+ * Clients send the same context string over and over, so AuraContextFilter keeps these in a cache keyed by the raw
+ * parameter. A config is shared by all requests that send the same string, so nothing in it may be changed. The
+ * descriptors are resolved the first time they are asked for, at the point where the filter used to resolve them, and
+ * then kept.
+ */
+final class ContextConfig {
+    private final String mode;
+    private final String app;
+    private final String cmp;
+    private final String fwuid;
+    private final Object loadedEntry;
+    private final List<Object> dynamicNamespaces;
+    private final Map<String, Object> styleContext;
+    private final Map<String, Object> globals;
+
+    private volatile DefDescriptor<? extends BaseComponentDef> appDescriptor;
+    private volatile Map<DefDescriptor<?>, String> loaded;
+
+    @SuppressWarnings("unchecked")
+    ContextConfig(Map<String, Object> configMap) {
+        this.mode = (String) configMap.get("mode");
+        this.app = (String) configMap.get("app");
+        this.cmp = (String) configMap.get("cmp");
+        this.fwuid = (String) configMap.get("fwuid");
+        this.loadedEntry = configMap.get("loaded");
+        this.dynamicNamespaces = unmodifiable((List<Object>) configMap.get("dn"));
+        this.styleContext = unmodifiable((Map<String, Object>) configMap.get("styleContext"));
+        this.globals = unmodifiable((Map<String, Object>) configMap.get("globals"));
+    }
+
+    private static <T> List<T> unmodifiable(List<T> list) {
+        return list != null ? Collections.unmodifiableList(list) : null;
+    }
+
+    private static <K, V> Map<K, V> unmodifiable(Map<K, V> map) {
+        return map != null ? Collections.unmodifiableMap(map) : null;
+    }
+
+    String getMode() {
+        return mode;
+    }
+
+    String getFrameworkUID() {
+        return fwuid;
+    }
+
+    List<Object> getDynamicNamespaces() {
+        return dynamicNamespaces;
+    }
+
+    Map<String, Object> getStyleContext() {
+        return styleContext;
+    }
+
+    Map<String, Object> getGlobals() {
+        return globals;
+    }
+
+    /**
+     * Get the descriptor of the app, or failing that the component, named by the context.
+     */
+    DefDescriptor<? extends BaseComponentDef> getAppDescriptor() {
+        DefDescriptor<? extends BaseComponentDef> descriptor = appDescriptor;
+        if (descriptor == null) {
+            if (app != null) {
+                descriptor = Aura.getDefinitionService().getDefDescriptor(app, ApplicationDef.class);
+            } else if (cmp != null) {
+                descriptor = Aura.getDefinitionService().getDefDescriptor(cmp, ComponentDef.class);
+            }
+            appDescriptor = descriptor;
+        }
+        return descriptor;
+    }
+
+    /**
+     * Get the map of loaded defDescriptors and uids from the context.
+     *
+     * @return the loaded map, or null if the context does not have a valid one.
+     */
+    Map<DefDescriptor<?>, String> getLoaded() {
+        Map<DefDescriptor<?>, String> clientLoaded = loaded;
+        if (clientLoaded == null) {
+            if (loadedEntry == null || !(loadedEntry instanceof Map)) {
+                //
+                // If someone gives us bogus input, just ignore it.
+                //
+                return null;
+            }
+            clientLoaded = Collections.unmodifiableMap(resolveLoaded(loadedEntry));
+            loaded = clientLoaded;
+        }
+        return clientLoaded;
+    }
+
+    private static Map<DefDescriptor<?>, String> resolveLoaded(Object loadedEntry) {
+        @SuppressWarnings("unchecked")
+        Map<String, String> loaded = (Map<String, String>) loadedEntry;
+        DefinitionService definitionService = Aura.getDefinitionService();
+        Map<DefDescriptor<?>, String> clientLoaded = Maps.newHashMap();
+
+        for (Map.Entry<String, String> entry : loaded.entrySet()) {
+            String uid = entry.getValue();
+            if (uid != null && !uid.equals("null")) {
+                String key = entry.getKey();
+                int posn = key.indexOf("@");
+                if (posn > 0) {
+                    String typeStr = key.substring(0, posn);
+                    String defStr = key.substring(posn + 1);
+                    DefType type = null;
+                    try {
+                        type = DefType.valueOf(typeStr);
+                    } catch (Throwable t) {
+                        // ignore unknown types...
+                        // We really should log these at a level where we can
+                        // see them, but, well, we don't have that now.
+                    }
+                    if (type != null) {
+                        DefDescriptor<?> ld = null;
+
+                        ld = definitionService.getDefDescriptor(defStr, type.getPrimaryInterface());
+                        clientLoaded.put(ld, uid);
+                    }
+                }
+            }
+        }
+        return clientLoaded;
+    }
+}
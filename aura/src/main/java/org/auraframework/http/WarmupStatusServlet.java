@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.http;
+
+import java.io.IOException;
+import java.util.Map;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.auraframework.Aura;
+import org.auraframework.service.WarmupService;
+import org.auraframework.util.json.JsonEncoder;
+
+import com.google.common.collect.Maps;
+import com.google.common.net.HttpHeaders;
+
+/**
+ * Endpoint reporting the progress of the {@link WarmupService}, for load balancer health checks.
+ *
+ * This responds with a 503 until every application queued by the first warmup has been warmed (or has failed to
+ * warm), and a 200 after, with the progress as JSON either way. A rewarm after a cache flush does not turn it back to
+ * a 503, as the node is already serving.
+ */
+@SuppressWarnings("serial")
+public class WarmupStatusServlet extends HttpServlet {
+
+    // KEEP THIS URL IN SYNC WITH THE SERVLET'S URL-MAPPING ENTRY IN WEB.XML!
+    public static final String URL = "/_/warmup";
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        WarmupService warmupService = Aura.getWarmupService();
+        boolean warmed = warmupService.isWarmed();
+        Map<String, Object> status = Maps.newLinkedHashMap();
+
+        status.put("warmed", warmed);
+        status.put("complete", warmupService.isComplete());
+        status.put("total", warmupService.getTotal());
+        status.put("completed", warmupService.getCompleted());
+        status.put("failed", warmupService.getFailed());
+
+        resp.setStatus(warmed ? HttpServletResponse.SC_OK : HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        resp.setContentType("application/json");
+        resp.setCharacterEncoding("UTF-8");
+        resp.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache, no-store");
+        JsonEncoder.serialize(status, resp.getWriter());
+    }
+}
@@ -17,6 +17,7 @@
 package org.auraframework.http.resource;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Set;
 
 import javax.servlet.http.HttpServletRequest;
@@ -24,9 +25,11 @@ import javax.servlet.http.HttpServletResponse;
 
 import org.auraframework.Aura;
 import org.auraframework.def.DefDescriptor;
+import org.auraframework.http.resource.EncodedResponse.Coding;
 import org.auraframework.service.ServerService;
 import org.auraframework.system.AuraContext;
 import org.auraframework.system.AuraContext.Format;
+import org.auraframework.throwable.quickfix.QuickFixException;
 
 public class AppCss extends AuraResourceImpl {
     private ServerService serverService = Aura.getServerService();
@@ -37,14 +40,34 @@ public class AppCss extends AuraResourceImpl {
 
     @Override
     public void write(HttpServletRequest request, HttpServletResponse response, AuraContext context) throws IOException {
-        Set<DefDescriptor<?>> dependencies = servletUtilAdapter.verifyTopLevel(request, response, context);
+        final Set<DefDescriptor<?>> dependencies = servletUtilAdapter.verifyTopLevel(request, response, context);
         if (dependencies == null) {
             return;
         }
+        OutputStream out = null;
         try {
-            serverService.writeAppCss(dependencies, response.getWriter());
+            String key = serverService.getAppCssCacheKey();
+            Coding coding = key != null ? Coding.negotiate(request) : Coding.IDENTITY;
+
+            if (key != null
+                    && EncodedResponse.checkNotModified(request, response, EncodedResponse.getETag(context, key, coding))) {
+                return;
+            }
+            if (coding == Coding.IDENTITY) {
+                out = response.getOutputStream();
+                serverService.writeAppCss(dependencies, out);
+            } else {
+                byte[] bytes = EncodedResponse.getCompressed(context, key, coding, new EncodedResponse.Body() {
+                    @Override
+                    public void write(OutputStream body) throws IOException, QuickFixException {
+                        serverService.writeAppCss(dependencies, body);
+                    }
+                });
+                out = response.getOutputStream();
+                EncodedResponse.write(response, out, coding, bytes);
+            }
         } catch (Throwable t) {
-            servletUtilAdapter.handleServletException(t, false, context, request, response, false);
+            EncodedResponse.handleServletException(servletUtilAdapter, t, context, request, response, out);
         }
     }
 
@@ -17,7 +17,7 @@
 package org.auraframework.http.resource;
 
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.OutputStream;
 import java.net.URL;
 import java.util.Set;
 
@@ -27,13 +27,15 @@ import javax.servlet.http.HttpServletResponse;
 import org.auraframework.Aura;
 import org.auraframework.adapter.ConfigAdapter;
 import org.auraframework.def.DefDescriptor;
+import org.auraframework.http.resource.EncodedResponse.Coding;
 import org.auraframework.service.ServerService;
 import org.auraframework.system.AuraContext;
 import org.auraframework.system.AuraContext.Format;
 import org.auraframework.throwable.AuraRuntimeException;
+import org.auraframework.throwable.quickfix.QuickFixException;
 import org.auraframework.util.resource.ResourceLoader;
 
-import com.google.common.base.Charsets;
+import com.google.common.hash.Hashing;
 import com.google.common.io.Resources;
 
 public class AppJs extends AuraResourceImpl {
@@ -44,33 +46,65 @@ public class AppJs extends AuraResourceImpl {
         super("app.js", Format.JS);
     }
     
-    private void prependBootstrapJsPayload (PrintWriter writer) {
-    	String tmp = "";
+    private byte[] getBootstrapJsPayload() {
         ResourceLoader resourceLoader = configAdapter.getResourceLoader();
-		try {
-			URL url = resourceLoader.getResource("js/prependAppJs.js");
-			tmp = Resources.toString(url, Charsets.UTF_8);
-		} catch (IOException e) {
-			throw new AuraRuntimeException(e);
-		}
-		
-		writer.append(tmp);
+        try {
+            URL url = resourceLoader.getResource("js/prependAppJs.js");
+            return Resources.toByteArray(url);
+        } catch (IOException e) {
+            throw new AuraRuntimeException(e);
+        }
     }
 
     @Override
     public void write(HttpServletRequest request, HttpServletResponse response, AuraContext context) throws IOException {
 
-        Set<DefDescriptor<?>> dependencies = servletUtilAdapter.verifyTopLevel(request, response, context);
+        final Set<DefDescriptor<?>> dependencies = servletUtilAdapter.verifyTopLevel(request, response, context);
         if (dependencies == null) {
             return;
         }
+        OutputStream out = null;
         try {
-        	PrintWriter writer = response.getWriter();
-        	prependBootstrapJsPayload(writer);
-            serverService.writeDefinitions(dependencies, writer);
+            final byte[] payload = getBootstrapJsPayload();
+            String key = getCacheKey(serverService.getDefinitionsCacheKey(), payload);
+            Coding coding = key != null ? Coding.negotiate(request) : Coding.IDENTITY;
+
+            if (key != null
+                    && EncodedResponse.checkNotModified(request, response, EncodedResponse.getETag(context, key, coding))) {
+                return;
+            }
+            if (coding == Coding.IDENTITY) {
+                out = response.getOutputStream();
+                out.write(payload);
+                serverService.writeDefinitions(dependencies, out);
+            } else {
+                byte[] bytes = EncodedResponse.getCompressed(context, key, coding, new EncodedResponse.Body() {
+                    @Override
+                    public void write(OutputStream body) throws IOException, QuickFixException {
+                        body.write(payload);
+                        serverService.writeDefinitions(dependencies, body);
+                    }
+                });
+                out = response.getOutputStream();
+                EncodedResponse.write(response, out, coding, bytes);
+            }
         } catch (Throwable t) {
-            servletUtilAdapter.handleServletException(t, false, context, request, response, false);
+            EncodedResponse.handleServletException(servletUtilAdapter, t, context, request, response, out);
+        }
+    }
+
+    /**
+     * Get the key of the whole body, the definitions and the script prepended to them, for the etag and the
+     * compressed cache.
+     *
+     * @param key the cache key of the definitions, or null if they are not cached.
+     * @param payload the prepended script.
+     */
+    static String getCacheKey(String key, byte[] payload) {
+        if (key == null) {
+            return null;
         }
+        return key + "@" + Hashing.md5().hashBytes(payload);
     }
 
     /**
@@ -18,6 +18,11 @@ package org.auraframework.http.resource;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Map;
@@ -26,16 +31,19 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.auraframework.Aura;
+import org.auraframework.adapter.LocalizationAdapter;
+import org.auraframework.cache.Cache;
 import org.auraframework.def.ApplicationDef;
 import org.auraframework.def.BaseComponentDef;
 import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.DefDescriptor.DefType;
-import org.auraframework.def.Definition;
+import org.auraframework.http.AuraResourceRewriteFilter;
 import org.auraframework.instance.Instance;
 import org.auraframework.service.DefinitionService;
 import org.auraframework.system.AuraContext;
 import org.auraframework.system.AuraContext.Format;
 import org.auraframework.throwable.quickfix.QuickFixException;
+import org.auraframework.util.AuraLocale;
 import org.auraframework.util.json.JsonEncoder;
 import org.auraframework.util.json.JsonSerializationContext;
 
@@ -51,29 +59,21 @@ public class Bootstrap extends AuraResourceImpl {
     private final static String PREPEND_JS = "window.Aura || (window.Aura = {});\nwindow.Aura.bootstrap || (window.Aura.bootstrap = {});\nwindow.Aura.appBootstrap = ";
     private final static String APPEND_JS = ";\n(function () {\n\twindow.Aura.bootstrap.execBootstrapJs = window.performance && window.performance.now ? window.performance.now() : Date.now();\n\twindow.Aura.appBootstrapReady = \"new\";\n\tif (window.Aura.afterBootstrapReady && window.Aura.afterBootstrapReady.length){\n\t\t for (var i = 0; i < window.Aura.afterBootstrapReady.length; i++) {\n\t\t\twindow.Aura.afterBootstrapReady[i]();\n\t\t}\n\t}\n}());";
 
+    /**
+     * Default number of bootstrap payloads kept for publicly cacheable apps.
+     */
+    private static final int DEFAULT_PAYLOAD_CACHE_SIZE = 256;
+
+    private volatile Cache<String, String> payloadCache;
+
     public Boolean loadLabels() throws QuickFixException {
-        AuraContext ctx = Aura.getContextService().getCurrentContext();
-        Map<DefDescriptor<? extends Definition>, Definition> defMap;
-
-        ctx.getDefRegistry().getDef(ctx.getApplicationDescriptor());
-        defMap = ctx.getDefRegistry().filterRegistry(null);
-        for (Map.Entry<DefDescriptor<? extends Definition>, Definition> entry : defMap.entrySet()) {
-            Definition def = entry.getValue();
-            if (def != null) {
-                def.retrieveLabels();
-            }
-        }
+        Aura.getLocalizationService().loadLabels();
         return Boolean.TRUE;
     }
     
     protected void setCacheHeaders(HttpServletResponse response, DefDescriptor<? extends BaseComponentDef> appDesc)
             throws QuickFixException {
-        Integer cacheExpiration = null;
-        if (appDesc.getDefType() == DefType.APPLICATION) {
-            // only app has bootstrap cache capability
-            ApplicationDef appDef = (ApplicationDef) appDesc.getDef();
-            cacheExpiration = appDef.getBootstrapPublicCacheExpiration();
-        }
+        Integer cacheExpiration = getPublicCacheExpiration(appDesc);
         if (cacheExpiration != null && cacheExpiration > 0) {
             servletUtilAdapter.setCacheTimeout(response, cacheExpiration.longValue() * 1000);
         } else {
@@ -81,6 +81,16 @@ public class Bootstrap extends AuraResourceImpl {
         }
     }
 
+    private Integer getPublicCacheExpiration(DefDescriptor<? extends BaseComponentDef> appDesc)
+            throws QuickFixException {
+        if (appDesc.getDefType() == DefType.APPLICATION) {
+            // only app has bootstrap cache capability
+            ApplicationDef appDef = (ApplicationDef) appDesc.getDef();
+            return appDef.getBootstrapPublicCacheExpiration();
+        }
+        return null;
+    }
+
     @Override
     public void write(HttpServletRequest request, HttpServletResponse response, AuraContext context)
             throws IOException {
@@ -95,28 +105,24 @@ public class Bootstrap extends AuraResourceImpl {
             if (Aura.getConfigAdapter().validateGetEncryptionKey(request.getParameter("ssid"))) {
                 setCacheHeaders(response, app);
 
-                Instance<?> appInstance = Aura.getInstanceService().getInstance(desc, getComponentAttributes(request));
-                definitionService.updateLoaded(desc);
-                loadLabels();
-
-                JsonSerializationContext serializationContext = context.getJsonSerializationContext();
-
-                WrappedPrintWriter out = new WrappedPrintWriter(response.getWriter());
-                out.append(PREPEND_JS);
-                JsonEncoder json = JsonEncoder.createJsonStream(out, serializationContext);
-                json.writeMapBegin();
-                json.writeMapKey("data");
-                json.writeMapBegin();
-                json.writeMapEntry("app", appInstance);
-                context.getInstanceStack().serializeAsPart(json);
-                json.writeMapEnd();
-                serializationContext.pushRefSupport(false);
-                json.writeMapEntry("md5", out.getMD5());
-                json.writeMapEntry("context", context);
-                json.writeMapEntry("token", Aura.getConfigAdapter().getCSRFToken());
-                serializationContext.popRefSupport();
-                json.writeMapEnd();
-                out.append(APPEND_JS);
+                Map<String, Object> attributes = getComponentAttributes(request);
+                String payloadKey = getPayloadKey(request, context, app, desc, attributes);
+                if (payloadKey != null) {
+                    Cache<String, String> cache = getPayloadCache();
+                    String payload = cache.getIfPresent(payloadKey);
+                    if (payload != null) {
+                        definitionService.updateLoaded(desc);
+                        response.getWriter().append(payload);
+                        return;
+                    }
+                    StringBuilder sb = new StringBuilder(8192);
+                    writePayload(sb, context, desc, attributes);
+                    payload = sb.toString();
+                    cache.put(payloadKey, payload);
+                    response.getWriter().append(payload);
+                } else {
+                    writePayload(response.getWriter(), context, desc, attributes);
+                }
             } else {
                 response.sendError(HttpServletResponse.SC_FORBIDDEN);
             }
@@ -126,47 +132,196 @@ public class Bootstrap extends AuraResourceImpl {
         }
     }
 
-    private static class WrappedPrintWriter implements Appendable {
-    	private final PrintWriter inner;
-    	private final MessageDigest m;
-    	
-    	WrappedPrintWriter(PrintWriter inner) {
-			try {
-				m = MessageDigest.getInstance("MD5");
-			} catch (NoSuchAlgorithmException e) {
-				throw new RuntimeException(e);
-			}
-			
-    		this.inner = inner;
-    	}
-
-		@Override
-		public Appendable append(CharSequence csq) throws IOException {
-			updateMD5(csq, 0, csq.length());
-			return inner.append(csq);
-		}
-
-		@Override
-		public Appendable append(CharSequence csq, int start, int end) throws IOException {
-			updateMD5(csq, start, end);
-			return inner.append(csq, start, end);
-		}
-
-		@Override
-		public Appendable append(char c) throws IOException {
-			updateMD5(String.valueOf(c), 0, 1);
-			return inner.append(c);
-		}
-		
-		public void updateMD5(CharSequence csq, int start, int end) {
-			byte[] data = csq.toString().getBytes();
-			m.update(data, 0, data.length);
-		}
-		
-		public String getMD5() {
-			BigInteger i = new BigInteger(1, m.digest());
-			return String.format("%1$032X", i);
-		}
+    private void writePayload(Appendable target, AuraContext context, DefDescriptor<?> desc,
+            Map<String, Object> attributes) throws IOException, QuickFixException {
+        Instance<?> appInstance = Aura.getInstanceService().getInstance(desc, attributes);
+        Aura.getDefinitionService().updateLoaded(desc);
+        loadLabels();
+
+        JsonSerializationContext serializationContext = context.getJsonSerializationContext();
+
+        DigestAppendable out = new DigestAppendable(target);
+        out.append(PREPEND_JS);
+        JsonEncoder json = JsonEncoder.createJsonStream(out, serializationContext);
+        json.writeMapBegin();
+        json.writeMapKey("data");
+        json.writeMapBegin();
+        json.writeMapEntry("app", appInstance);
+        context.getInstanceStack().serializeAsPart(json);
+        json.writeMapEnd();
+        serializationContext.pushRefSupport(false);
+        json.writeMapEntry("md5", out.getMD5());
+        json.writeMapEntry("context", context);
+        json.writeMapEntry("token", Aura.getConfigAdapter().getCSRFToken());
+        serializationContext.popRefSupport();
+        json.writeMapEnd();
+        out.append(APPEND_JS);
+    }
+
+    /**
+     * Get the key under which the complete bootstrap payload for this request may be cached.
+     *
+     * Only apps that allow their bootstrap to be publicly cached are candidates, since the payload must not depend on
+     * the user beyond what is in the key, and only when no component attributes were passed in and the localization
+     * adapter can key the labels. The key is made of the inputs the payload is built from: the app uid, the context
+     * as the request sent it (mode, loaded, globals), the framework uid, the label key and locale, the client type and
+     * the token. It is built on every request, including the ones that find a payload, so it takes the context
+     * parameter as sent rather than serializing the context.
+     *
+     * @return the key, or null if the payload must not be cached.
+     */
+    private String getPayloadKey(HttpServletRequest request, AuraContext context,
+            DefDescriptor<? extends BaseComponentDef> app, DefDescriptor<?> desc, Map<String, Object> attributes)
+            throws QuickFixException {
+        if (attributes != null && !attributes.isEmpty()) {
+            return null;
+        }
+        Integer cacheExpiration = getPublicCacheExpiration(app);
+        if (cacheExpiration == null || cacheExpiration <= 0) {
+            return null;
+        }
+        LocalizationAdapter localizationAdapter = Aura.getLocalizationAdapter();
+        String labelKey = localizationAdapter.getLabelCacheKey();
+        if (labelKey == null) {
+            return null;
+        }
+        String uid = context.getDefRegistry().getUid(null, desc);
+        if (uid == null) {
+            return null;
+        }
+        AuraLocale locale = localizationAdapter.getAuraLocale();
+        StringBuilder key = new StringBuilder(128);
+        key.append(uid).append('@').append(context.getMode()).append('@').append(context.getFrameworkUID());
+        key.append('@').append(request.getParameter(AuraResourceRewriteFilter.CONTEXT_PARAM));
+        key.append('@').append(labelKey).append('@').append(locale.getLocale());
+        key.append('@').append(locale.getTimeZone().getID());
+        key.append('@').append(context.getClient().getType());
+        key.append('@').append(Aura.getConfigAdapter().getCSRFToken());
+        return key.toString();
+    }
+
+    private Cache<String, String> getPayloadCache() {
+        Cache<String, String> cache = payloadCache;
+        if (cache == null) {
+            synchronized (this) {
+                cache = payloadCache;
+                if (cache == null) {
+                    int size = Integer.getInteger("aura.cache.bootstrapPayloadCacheSize", DEFAULT_PAYLOAD_CACHE_SIZE);
+                    cache = Aura.getCachingService().<String, String> getCacheBuilder()
+                            .setInitialSize(size)
+                            .setMaximumSize(size)
+                            .setRecordStats(true)
+                            .setName("bootstrapPayloadCache")
+                            .setSoftValues(true)
+                            .build();
+                    payloadCache = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * An appendable that keeps an MD5 digest of the UTF-8 encoding of everything appended to it.
+     *
+     * Characters are encoded into a reusable buffer, which is fed to the digest whenever it fills up, so that no byte
+     * arrays are allocated per append.
+     */
+    static class DigestAppendable implements Appendable {
+        private final Appendable inner;
+        private final MessageDigest m;
+        private final CharsetEncoder encoder;
+        private final ByteBuffer bytes = ByteBuffer.allocate(4096);
+        private char pending;
+
+        DigestAppendable(Appendable inner) {
+            try {
+                m = MessageDigest.getInstance("MD5");
+            } catch (NoSuchAlgorithmException e) {
+                throw new RuntimeException(e);
+            }
+            this.encoder = StandardCharsets.UTF_8.newEncoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            this.inner = inner;
+        }
+
+        @Override
+        public Appendable append(CharSequence csq) throws IOException {
+            if (csq == null) {
+                csq = "null";
+            }
+            updateMD5(csq, 0, csq.length());
+            inner.append(csq);
+            return this;
+        }
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) throws IOException {
+            if (csq == null) {
+                csq = "null";
+            }
+            updateMD5(csq, start, end);
+            inner.append(csq, start, end);
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) throws IOException {
+            if (c < 0x80 && pending == 0) {
+                if (!bytes.hasRemaining()) {
+                    drain();
+                }
+                bytes.put((byte) c);
+            } else {
+                updateMD5(String.valueOf(c), 0, 1);
+            }
+            inner.append(c);
+            return this;
+        }
+
+        private void updateMD5(CharSequence csq, int start, int end) {
+            CharBuffer in;
+            if (pending != 0) {
+                // a high surrogate left over from the last append.
+                in = CharBuffer.wrap(new StringBuilder(end - start + 1).append(pending).append(csq, start, end));
+                pending = 0;
+            } else {
+                in = CharBuffer.wrap(csq, start, end);
+            }
+            encode(in, false);
+            if (in.hasRemaining()) {
+                pending = in.get();
+            }
+        }
+
+        private void encode(CharBuffer in, boolean endOfInput) {
+            while (encoder.encode(in, bytes, endOfInput).isOverflow()) {
+                drain();
+            }
+        }
+
+        private void drain() {
+            bytes.flip();
+            m.update(bytes);
+            bytes.clear();
+        }
+
+        /**
+         * Get the digest of everything appended so far, and start over.
+         */
+        public String getMD5() {
+            CharBuffer rest = pending != 0 ? CharBuffer.wrap(new char[] { pending }) : CharBuffer.allocate(0);
+            pending = 0;
+            encode(rest, true);
+            while (encoder.flush(bytes).isOverflow()) {
+                drain();
+            }
+            drain();
+            encoder.reset();
+            BigInteger i = new BigInteger(1, m.digest());
+            return String.format("%1$032X", i);
+        }
     }
     
     private void writeError(Throwable t, HttpServletResponse response, AuraContext context) throws IOException {
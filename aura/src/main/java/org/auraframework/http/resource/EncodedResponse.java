@@ -0,0 +1,217 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.http.resource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.auraframework.adapter.ServletUtilAdapter;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.system.AuraContext;
+import org.auraframework.system.MasterDefRegistry;
+import org.auraframework.throwable.quickfix.QuickFixException;
+
+import com.google.common.base.Charsets;
+import com.google.common.hash.Hashing;
+import com.google.common.net.HttpHeaders;
+
+/**
+ * Pre-encoded responses for the largest resources.
+ *
+ * The UTF-8 output of app.js and app.css is already cached by the server service. This adds strong ETags derived from
+ * the cache keys, and compressed variants cached next to the UTF-8 bytes under the same uid based keys, so that most
+ * requests are answered with a 304 or a single copy of bytes that were compressed once.
+ *
+ * Compression is off unless enabled with -Daura.resources.compress=true, since a filter or proxy in front of the
+ * servlet usually compresses responses already, and compressing twice only costs time.
+ */
+final class EncodedResponse {
+    private static final boolean COMPRESS = Boolean.getBoolean("aura.resources.compress");
+
+    /**
+     * The content codings we can send.
+     */
+    enum Coding {
+        IDENTITY(null), GZIP("gzip"), DEFLATE("deflate");
+
+        private final String name;
+
+        private Coding(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Get the content coding to send for a request, IDENTITY unless compression is enabled.
+         */
+        static Coding negotiate(HttpServletRequest request) {
+            if (!COMPRESS || request == null) {
+                return IDENTITY;
+            }
+            return accepted(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        }
+
+        /**
+         * Get the content coding accepted by an Accept-Encoding header, preferring gzip over deflate.
+         */
+        static Coding accepted(String accept) {
+            if (accept == null) {
+                return IDENTITY;
+            }
+            Coding coding = IDENTITY;
+            for (String token : accept.split(",")) {
+                String[] parts = token.split(";");
+                String name = parts[0].trim();
+                if (parts.length > 1 && parts[1].trim().matches("q\\s*=\\s*0(\\.0*)?")) {
+                    continue;
+                }
+                if (GZIP.name.equalsIgnoreCase(name)) {
+                    return GZIP;
+                }
+                if (DEFLATE.name.equalsIgnoreCase(name)) {
+                    coding = DEFLATE;
+                }
+            }
+            return coding;
+        }
+
+        OutputStream wrap(OutputStream out) throws IOException {
+            switch (this) {
+            case GZIP:
+                return new GZIPOutputStream(out);
+            case DEFLATE:
+                return new DeflaterOutputStream(out);
+            default:
+                return out;
+            }
+        }
+    }
+
+    /**
+     * Writes the uncompressed body of a response.
+     */
+    interface Body {
+        void write(OutputStream out) throws IOException, QuickFixException;
+    }
+
+    private EncodedResponse() {
+    }
+
+    /**
+     * Get the entity tag for a cache key.
+     */
+    static String getETag(AuraContext context, String key, Coding coding) {
+        String hash = Hashing.md5().hashString(context.getFrameworkUID() + "@" + key, Charsets.UTF_8).toString();
+        return "\"" + hash + (coding.name != null ? "-" + coding.name : "") + "\"";
+    }
+
+    /**
+     * Set the validator headers for a response, answering with a 304 if the client already has the content.
+     *
+     * @return true if the response is complete.
+     */
+    static boolean checkNotModified(HttpServletRequest request, HttpServletResponse response, String etag) {
+        if (COMPRESS) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        response.setHeader(HttpHeaders.ETAG, etag);
+        String ifNoneMatch = request != null ? request.getHeader(HttpHeaders.IF_NONE_MATCH) : null;
+        if (ifNoneMatch != null) {
+            for (String tag : ifNoneMatch.split(",")) {
+                tag = tag.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(etag)) {
+                    response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get a compressed response body for the loading app, compressing and caching it on first use.
+     *
+     * @param key the cache key of the uncompressed body.
+     */
+    static byte[] getCompressed(AuraContext context, String key, Coding coding, Body body)
+            throws IOException, QuickFixException {
+        DefDescriptor<?> appDesc = context.getLoadingApplicationDescriptor();
+        String uid = context.getUid(appDesc);
+        MasterDefRegistry mdr = context.getDefRegistry();
+        String codingKey = key + "@" + coding.name;
+
+        byte[] bytes = mdr.getCachedBytes(uid, appDesc, codingKey);
+        if (bytes == null) {
+            bytes = compress(coding, body);
+            mdr.putCachedBytes(uid, appDesc, codingKey, bytes);
+        }
+        return bytes;
+    }
+
+    static byte[] compress(Coding coding, Body body) throws IOException, QuickFixException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = coding.wrap(bytes)) {
+            body.write(out);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Write a complete, encoded, response body.
+     */
+    static void write(HttpServletResponse response, OutputStream out, Coding coding, byte[] bytes)
+            throws IOException {
+        if (coding.name != null) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, coding.name);
+        }
+        response.setContentLength(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Route an exception to the servlet util adapter, even if the response output stream has been handed out, in
+     * which case the error has to be written to it as well.
+     *
+     * @param out the response output stream, or null if it has not been asked for.
+     */
+    static void handleServletException(ServletUtilAdapter servletUtilAdapter, Throwable t, AuraContext context,
+            HttpServletRequest request, HttpServletResponse response, OutputStream out) throws IOException {
+        if (out == null) {
+            servletUtilAdapter.handleServletException(t, false, context, request, response, false);
+            return;
+        }
+        final PrintWriter writer = new PrintWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        servletUtilAdapter.handleServletException(t, false, context, request, new HttpServletResponseWrapper(response) {
+            @Override
+            public PrintWriter getWriter() {
+                return writer;
+            }
+        }, false);
+        writer.flush();
+    }
+}
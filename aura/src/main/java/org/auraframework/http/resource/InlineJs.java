@@ -17,21 +17,54 @@
 package org.auraframework.http.resource;
 
 import java.io.IOException;
+import java.io.OutputStream;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
 import org.auraframework.def.BaseComponentDef;
 import org.auraframework.def.DefDescriptor;
+import org.auraframework.http.resource.EncodedResponse.Coding;
 import org.auraframework.instance.Component;
 import org.auraframework.system.AuraContext;
 import org.auraframework.system.AuraContext.Format;
 import org.auraframework.throwable.quickfix.QuickFixException;
+import org.auraframework.util.Utf8CapturingWriter;
+
+import com.google.common.hash.Hashing;
 
 public class InlineJs extends TemplateResource {
     public InlineJs() {
         super("inline.js", Format.JS);
     }
 
+    /**
+     * The inline js embeds the serialized context, so it is rendered for every request. It is encoded once, and
+     * validated with a digest of the content, so that unchanged content is answered with a 304.
+     */
+    @Override
+    protected <T extends BaseComponentDef> void writeResponse(HttpServletRequest request,
+            HttpServletResponse response, AuraContext context, T def) throws IOException, QuickFixException {
+        Utf8CapturingWriter out = new Utf8CapturingWriter();
+        // Prevents Mhtml Xss exploit:
+        out.write("\n    ");
+        writeTemplate(context, def, getComponentAttributes(request), out);
+        final byte[] bytes = out.toByteArray();
+
+        Coding coding = Coding.negotiate(request);
+        String key = "INLINEJS:" + Hashing.md5().hashBytes(bytes).toString();
+        if (EncodedResponse.checkNotModified(request, response, EncodedResponse.getETag(context, key, coding))) {
+            return;
+        }
+        EncodedResponse.write(response, response.getOutputStream(), coding,
+                EncodedResponse.compress(coding, new EncodedResponse.Body() {
+                    @Override
+                    public void write(OutputStream body) throws IOException {
+                        body.write(bytes);
+                    }
+                }));
+    }
+
     @Override
     protected void doRender(Component template, Appendable out) throws IOException, QuickFixException {
         renderingService.render(template, null, out);
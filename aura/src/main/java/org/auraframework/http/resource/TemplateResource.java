@@ -104,20 +104,28 @@ public abstract class TemplateResource extends AuraResourceImpl {
         try {
             loggingService.startTimer(LoggingService.TIMER_SERIALIZATION);
             loggingService.startTimer(LoggingService.TIMER_SERIALIZATION_AURA);
-            // Prevents Mhtml Xss exploit:
-            PrintWriter out = response.getWriter();
-            out.write("\n    ");
-            writeTemplate(context, def, getComponentAttributes(request), out);
+            writeResponse(request, response, context, def);
         } finally {
             loggingService.stopTimer(LoggingService.TIMER_SERIALIZATION_AURA);
             loggingService.stopTimer(LoggingService.TIMER_SERIALIZATION);
         }
     }
 
+    /**
+     * Write the rendered template to the response.
+     */
+    protected <T extends BaseComponentDef> void writeResponse(HttpServletRequest request,
+            HttpServletResponse response, AuraContext context, T def) throws IOException, QuickFixException {
+        // Prevents Mhtml Xss exploit:
+        PrintWriter out = response.getWriter();
+        out.write("\n    ");
+        writeTemplate(context, def, getComponentAttributes(request), out);
+    }
+
     protected abstract boolean shouldCacheHTMLTemplate(DefDescriptor<? extends BaseComponentDef> appDefDesc,
             HttpServletRequest request, AuraContext context) throws QuickFixException;
 
-    private <T extends BaseComponentDef> void writeTemplate(AuraContext context, T value,
+    protected <T extends BaseComponentDef> void writeTemplate(AuraContext context, T value,
             Map<String, Object> componentAttributes, Appendable out) throws IOException, QuickFixException {
 
         ComponentDef templateDef = value.getTemplateDef();
@@ -59,10 +59,27 @@ public interface CachingService extends AuraService {
 
     Cache<String, String> getAltStringsCache();
 
+    /**
+     * Get the cache of pre-encoded (UTF-8) output, keyed like the strings caches.
+     */
+    Cache<String, byte[]> getBytesCache();
+
     Cache<String, Set<DefDescriptor<?>>> getDescriptorFilterCache();
 
     Cache<String, DependencyEntry> getDepsCache();
 
+    /**
+     * Put a dependency entry in the dependency cache.
+     *
+     * The entry is also recorded in a reverse dependency index, from each descriptor in its dependency set to
+     * its uid, so that a source change only invalidates the cached entries (and the uid-keyed strings) that
+     * actually depend on the changed descriptor.
+     *
+     * @param key the key in the dependency cache.
+     * @param de the dependency entry, must have a uid and dependency set.
+     */
+    void putDependencyEntry(String key, DependencyEntry de);
+
     Cache<String, String> getClientLibraryOutputCache();
 
     Cache<DefDescriptor.DescriptorKey, DefDescriptor<? extends Definition>> getDefDescriptorByNameCache();
@@ -71,6 +88,22 @@ public interface CachingService extends AuraService {
 
     Lock getWriteLock();
 
+    /**
+     * Are registry reads lock free?
+     *
+     * When true, readers do not take the read lock, and instead stamp what they put in the shared caches with
+     * the cache generation they started with (see {@link #getCacheGeneration()}). Source changes then never wait
+     * on readers.
+     */
+    boolean isLockFreeReads();
+
+    /**
+     * Get the current cache generation.
+     *
+     * The generation is incremented on every source change, before any cache is invalidated.
+     */
+    long getCacheGeneration();
+
     void notifyDependentSourceChange(
             Collection<WeakReference<SourceListener>> listeners,
             DefDescriptor<?> source, SourceMonitorEvent event, String filePath);
@@ -26,6 +26,8 @@ import java.util.Date;
 import java.util.Locale;
 import java.util.TimeZone;
 
+import org.auraframework.throwable.quickfix.QuickFixException;
+
 import com.ibm.icu.util.Currency;
 
 /**
@@ -1197,4 +1199,10 @@ public interface LocalizationService extends AuraService {
      */
     String formatNumber(Number number, Locale locale, int minFractionDigits, int maxFractionDigits);
 
+    /**
+     * Resolve the labels used by the definitions loaded in the current context into its $Label value provider.
+     *
+     * @throws QuickFixException if a label reference is invalid.
+     */
+    void loadLabels() throws QuickFixException;
 }
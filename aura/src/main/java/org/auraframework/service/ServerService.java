@@ -16,6 +16,7 @@
 package org.auraframework.service;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
 import java.util.Map;
 import java.util.Set;
@@ -35,6 +36,14 @@ import org.auraframework.throwable.quickfix.QuickFixException;
  * and should be expanded to include more of the support routines from the servlets.
  */
 public interface ServerService extends AuraService {
+    /**
+     * The marker written around each action in a streamed response.
+     *
+     * It is a line comment, so the response as a whole is still what the client would otherwise decode, but the
+     * client can cut the actions out and decode them as they arrive.
+     */
+    String ACTION_BOUNDARY = "\n//ACTION\n";
+
     /**
      * Run an set of actions and write out the results.
      * 
@@ -57,6 +66,42 @@ public interface ServerService extends AuraService {
     void run(Message message, AuraContext context, Writer out, Map<?, ?> extras)
             throws QuickFixException, IOException;
 
+    /**
+     * Run an set of actions and write out the results, optionally streaming them.
+     * 
+     * When streaming, an {@link #ACTION_BOUNDARY} is written at the start of the actions and after each action, and
+     * the writer is flushed after each action, so that the client sees the results of fast actions without waiting
+     * for slow ones, and we do not hold on to the response.
+     * 
+     * @param message non-null, The message containing the actions.
+     * @param context non-null, the context to use.
+     * @param out non-null, where to write the output.
+     * @param extras (can be null) the extras to write.
+     * @param stream true to flush each action as it is written.
+     * @throws QuickFixException if there was a problem instantiating components.
+     * @throws IOException if it is unable to write the output.
+     */
+    void run(Message message, AuraContext context, Writer out, Map<?, ?> extras, boolean stream)
+            throws QuickFixException, IOException;
+
+    /**
+     * Run an set of actions and write out the results as UTF-8, optionally streaming them.
+     * 
+     * This is the same as {@link #run(Message, AuraContext, Writer, Map, boolean)}, but encodes straight into the
+     * stream rather than going through a response writer. The stream is flushed, but not closed, when done, so
+     * that anything written to it afterwards (e.g. an error) follows the actions.
+     * 
+     * @param message non-null, The message containing the actions.
+     * @param context non-null, the context to use.
+     * @param out non-null, where to write the output.
+     * @param extras (can be null) the extras to write.
+     * @param stream true to flush each action as it is written.
+     * @throws QuickFixException if there was a problem instantiating components.
+     * @throws IOException if it is unable to write the output.
+     */
+    void run(Message message, AuraContext context, OutputStream out, Map<?, ?> extras, boolean stream)
+            throws QuickFixException, IOException;
+
     /**
      * write out CSS.
      * 
@@ -68,6 +113,22 @@ public interface ServerService extends AuraService {
      */
     void writeAppCss(Set<DefDescriptor<?>> dependencies, Writer out) throws IOException, QuickFixException;
 
+    /**
+     * write out CSS, encoded as UTF-8.
+     * 
+     * This is the same as {@link #writeAppCss(Set, Writer)}, but lets a cached copy be written as is.
+     */
+    void writeAppCss(Set<DefDescriptor<?>> dependencies, OutputStream out) throws IOException, QuickFixException;
+
+    /**
+     * Get the key that the CSS for the current context is cached under.
+     * 
+     * The key changes whenever the CSS does, so it can be used to validate copies held by clients.
+     * 
+     * @return the key, or null if the CSS is not cached.
+     */
+    String getAppCssCacheKey();
+
     /**
      * write out SVG.
      * 
@@ -87,6 +148,20 @@ public interface ServerService extends AuraService {
      */
     void writeDefinitions(Set<DefDescriptor<?>> dependencies, Writer out) throws IOException, QuickFixException;
 
+    /**
+     * write out the complete set of definitions in JS, encoded as UTF-8.
+     * 
+     * This is the same as {@link #writeDefinitions(Set, Writer)}, but lets a cached copy be written as is.
+     */
+    void writeDefinitions(Set<DefDescriptor<?>> dependencies, OutputStream out) throws IOException, QuickFixException;
+
+    /**
+     * Get the key that the definitions for the current context are cached under.
+     * 
+     * The key changes whenever the definitions do, so it can be used to validate copies held by clients.
+     */
+    String getDefinitionsCacheKey();
+
     /**
      * Write out a set of components in JSON.
      * 
@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * Service for warming the caches for a set of applications before a server takes traffic.
+ * </p>
+ * <p>
+ * Warming an application compiles its dependencies and builds its definitions (app.js) and css (app.css), exactly as
+ * the first requests for them would. Applications are listed in a manifest, one per line, as the descriptor optionally
+ * followed by a mode, a user agent and an authentication, separated by tabs, e.g. as recorded from production
+ * traffic. Applications served to unauthenticated users must be listed as UNAUTHENTICATED to be warmed under the
+ * same keys. Blank lines and lines starting with '#' are ignored.
+ * </p>
+ * <p>
+ * Instances of all AuraServices should be retrieved from {@link org.auraframework.Aura}
+ * </p>
+ */
+public interface WarmupService extends AuraService {
+    /**
+     * Warm the applications in a manifest, in the background.
+     *
+     * This returns once the manifest is read. Progress is cumulative over all the manifests warmed.
+     *
+     * @param manifest the manifest, which is not closed.
+     * @throws IOException if the manifest cannot be read.
+     */
+    void warm(Reader manifest) throws IOException;
+
+    /**
+     * Warm the manifest named by the 'aura.warmup.manifest' system property, if there is one.
+     */
+    void warmConfigured();
+
+    /**
+     * Warm the last manifest again. This is called by the caching service after all the caches have been flushed.
+     */
+    void rewarm();
+
+    /**
+     * Get the number of applications queued for warming.
+     */
+    int getTotal();
+
+    /**
+     * Get the number of applications successfully warmed.
+     */
+    int getCompleted();
+
+    /**
+     * Get the number of applications that failed to warm.
+     */
+    int getFailed();
+
+    /**
+     * Is every queued application either warmed or failed.
+     */
+    boolean isComplete();
+
+    /**
+     * Has the first warmup finished?
+     *
+     * Once it has, this stays true, even while a {@link #rewarm()} is in progress, so that a node that is already
+     * serving is not reported as not ready again after a cache flush.
+     */
+    boolean isWarmed();
+
+    /**
+     * Wait for warming to complete.
+     *
+     * @return true if warming completed, false if the timeout expired first.
+     */
+    boolean awaitCompletion(long timeout, TimeUnit unit) throws InterruptedException;
+}
@@ -114,4 +114,14 @@ public interface DefRegistry<T extends Definition> extends Serializable {
      * by the implementation.
      */
     boolean isStatic();
+
+    /**
+     * Return true if getDef may be called from several threads at once.
+     *
+     * Parallel compiles only build definitions from registries that are thread safe, everything else is left to
+     * the compiling thread.
+     */
+    default boolean isThreadSafe() {
+        return false;
+    }
 }
@@ -142,6 +142,17 @@ public interface MasterDefRegistry {
     <T extends Definition> String getUid(String uid, DefDescriptor<T> descriptor) throws ClientOutOfSyncException,
             QuickFixException;
 
+    /**
+     * Get the UID for a descriptor that has already been compiled, without compiling anything.
+     *
+     * This also makes the UID based functions available for the descriptor, as {@link #getUid(String, DefDescriptor)}
+     * does.
+     *
+     * @param descriptor the top level descriptor for which we need the UID.
+     * @return the UID, or null if the descriptor has not been compiled (or failed to compile).
+     */
+    String getCachedUid(DefDescriptor<?> descriptor);
+
     /**
      * Get the dependencies for a descriptor.
      *
@@ -186,6 +197,40 @@ public interface MasterDefRegistry {
      */
     void putCachedString(String uid, DefDescriptor<?> descriptor, String key, String value);
 
+    /**
+     * Get named pre-encoded output from the cache for a def.
+     *
+     * @param uid the UID for the definition (must have called {@link #getUid(String, DefDescriptor<?>)}).
+     * @param descriptor the descriptor.
+     * @param key the key.
+     * @return the cached bytes, or null if there are none (or the def is not cacheable).
+     */
+    byte[] getCachedBytes(String uid, DefDescriptor<?> descriptor, String key);
+
+    /**
+     * Put named pre-encoded output in the cache for a def.
+     *
+     * @param uid the UID for the definition (must have called {@link #getUid(String, DefDescriptor<?>)}).
+     * @param descriptor the descriptor.
+     * @param key the key (must be unique).
+     * @param value the bytes to store, which must not be modified afterwards.
+     */
+    void putCachedBytes(String uid, DefDescriptor<?> descriptor, String key, byte[] value);
+
+    /**
+     * Get named pre-encoded output from the cache for a def, loading it if it is not there.
+     *
+     * Concurrent calls for the same key wait for a single load instead of each running the loader. When the def is
+     * not cacheable, the loader is simply called.
+     *
+     * @param uid the UID for the definition (must have called {@link #getUid(String, DefDescriptor<?>)}).
+     * @param descriptor the descriptor.
+     * @param key the key (must be unique).
+     * @param loader the loader for the bytes, which must not be modified afterwards.
+     */
+    byte[] getCachedBytes(String uid, DefDescriptor<?> descriptor, String key, Callable<byte[]> loader)
+            throws QuickFixException, IOException;
+
     /**
      * Returns list of client libraries for given uid
      *
@@ -21,10 +21,10 @@ import org.auraframework.util.test.util.UnitTestCase;
 import org.junit.Test;
 import org.mockito.Mockito;
 
-import java.io.Writer;
-import java.io.PrintWriter;
+import java.io.OutputStream;
 import java.util.HashSet;
 
+import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
@@ -77,9 +77,9 @@ public class AppCssTest extends UnitTestCase {
         Mockito.when(servletUtilAdapter.verifyTopLevel(Mockito.any(HttpServletRequest.class),
                     Mockito.any(HttpServletResponse.class), Mockito.any(AuraContext.class)))
             .thenReturn(new HashSet<DefDescriptor<?>>());
-        Mockito.doThrow(t).when(serverService).writeAppCss(Mockito.anySet(), Mockito.any(Writer.class));
-        PrintWriter writer = new PrintWriter(System.out);
-        Mockito.when(response.getWriter()).thenReturn(writer);
+        Mockito.doThrow(t).when(serverService).writeAppCss(Mockito.anySet(), Mockito.any(OutputStream.class));
+        ServletOutputStream out = Mockito.mock(ServletOutputStream.class);
+        Mockito.when(response.getOutputStream()).thenReturn(out);
 
         appCss.write(null, response, null);
 
@@ -88,8 +88,9 @@ public class AppCssTest extends UnitTestCase {
         //
         Mockito.verify(servletUtilAdapter, Mockito.times(1)).verifyTopLevel(Mockito.any(HttpServletRequest.class),
                 Mockito.any(HttpServletResponse.class), Mockito.any(AuraContext.class));
-        Mockito.verify(response, Mockito.times(1)).getWriter();
-        Mockito.verify(serverService, Mockito.times(1)).writeAppCss(Mockito.anySet(), Mockito.any(Writer.class));
+        Mockito.verify(response, Mockito.times(1)).getOutputStream();
+        Mockito.verify(serverService, Mockito.times(1)).getAppCssCacheKey();
+        Mockito.verify(serverService, Mockito.times(1)).writeAppCss(Mockito.anySet(), Mockito.any(OutputStream.class));
 
         //
         // And this is the expected call. This must stay.
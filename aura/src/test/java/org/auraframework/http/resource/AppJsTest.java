@@ -21,11 +21,12 @@ import org.auraframework.util.resource.ResourceLoader;
 import org.auraframework.util.test.util.UnitTestCase;
 import org.junit.Test;
 import org.mockito.Mockito;
-import java.io.PrintWriter;
-import java.io.Writer;
+import java.io.File;
+import java.io.OutputStream;
 import java.net.URL;
 import java.util.HashSet;
 
+import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
@@ -36,6 +37,8 @@ import org.auraframework.service.ServerService;
 import org.auraframework.system.AuraContext;
 import org.auraframework.system.AuraContext.Format;
 
+import com.google.common.base.Charsets;
+
 /**
  * Simple (non-integration) test case for {@link AppJs}, most useful for exercising hard-to-reach error
  * conditions. I would like this test to be in the "aura" module (vice "aura-impl"), but the configuration there isn't
@@ -59,6 +62,16 @@ public class AppJsTest extends UnitTestCase {
         assertEquals(Format.JS, new AppJs().getFormat());
     }
 
+    @Test
+    public void testCacheKeyIncludesPrependedScript() {
+        String key = AppJs.getCacheKey("JS:uid", "var a;".getBytes(Charsets.UTF_8));
+
+        assertEquals(key, AppJs.getCacheKey("JS:uid", "var a;".getBytes(Charsets.UTF_8)));
+        assertFalse(key.equals(AppJs.getCacheKey("JS:uid", "var b;".getBytes(Charsets.UTF_8))));
+        assertFalse(key.equals(AppJs.getCacheKey("JS:uid2", "var a;".getBytes(Charsets.UTF_8))));
+        assertNull(AppJs.getCacheKey(null, "var a;".getBytes(Charsets.UTF_8)));
+    }
+
     /**
      * Check for an exception being caught and routed to the exception handler.
      *
@@ -72,7 +85,9 @@ public class AppJsTest extends UnitTestCase {
         ServerService serverService = Mockito.mock(ServerService.class);
         ConfigAdapter configAdapter = Mockito.mock(ConfigAdapter.class);
         ResourceLoader loader = Mockito.mock(ResourceLoader.class);
-        URL url = new URL("http://foo.test.com");
+        File prepend = File.createTempFile("prependAppJs", ".js");
+        prepend.deleteOnExit();
+        URL url = prepend.toURI().toURL();
         
         AppJs appJs = new AppJs();
         Throwable t = new RuntimeException();
@@ -86,9 +101,9 @@ public class AppJsTest extends UnitTestCase {
         Mockito.when(servletUtilAdapter.verifyTopLevel(Mockito.any(HttpServletRequest.class),
                     Mockito.any(HttpServletResponse.class), Mockito.any(AuraContext.class)))
             .thenReturn(new HashSet<DefDescriptor<?>>());
-        Mockito.doThrow(t).when(serverService).writeDefinitions(Mockito.anySet(), Mockito.any(Writer.class));
-        PrintWriter writer = new PrintWriter(System.out);
-        Mockito.when(response.getWriter()).thenReturn(writer);
+        Mockito.doThrow(t).when(serverService).writeDefinitions(Mockito.anySet(), Mockito.any(OutputStream.class));
+        ServletOutputStream out = Mockito.mock(ServletOutputStream.class);
+        Mockito.when(response.getOutputStream()).thenReturn(out);
         
         Mockito.when(configAdapter.getResourceLoader()).thenReturn(loader);
         appJs.write(null, response, null);
@@ -98,8 +113,9 @@ public class AppJsTest extends UnitTestCase {
         //
         Mockito.verify(servletUtilAdapter, Mockito.times(1)).verifyTopLevel(Mockito.any(HttpServletRequest.class),
                 Mockito.any(HttpServletResponse.class), Mockito.any(AuraContext.class));
-        Mockito.verify(response, Mockito.times(1)).getWriter();
-        Mockito.verify(serverService, Mockito.times(1)).writeDefinitions(Mockito.anySet(), Mockito.any(Writer.class));
+        Mockito.verify(response, Mockito.times(1)).getOutputStream();
+        Mockito.verify(serverService, Mockito.times(1)).getDefinitionsCacheKey();
+        Mockito.verify(serverService, Mockito.times(1)).writeDefinitions(Mockito.anySet(), Mockito.any(OutputStream.class));
 
         //
         // And this is the expected call. This must stay.
@@ -15,6 +15,10 @@
  */
 package org.auraframework.http.resource;
 
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
 import javax.servlet.http.HttpServletResponse;
 
 import org.auraframework.adapter.ServletUtilAdapter;
@@ -42,7 +46,39 @@ public class BootstrapTest extends UnitTestCase {
         verifyCacheHeaders(600, true);
     }
     
-    
+    @Test
+    public void testDigestMatchesUtf8OfAppendedText() throws Exception {
+        StringBuilder target = new StringBuilder();
+        Bootstrap.DigestAppendable out = new Bootstrap.DigestAppendable(target);
+        String text = "{\"label\":\"caf\u00e9 \ud83d\ude00\"}";
+
+        // split the surrogate pair across appends, and append sub ranges.
+        out.append(text, 0, 16);
+        out.append(text.charAt(16));
+        out.append("xx" + text, 19, 20);
+        out.append(text.charAt(18));
+
+        assertEquals(text, target.toString());
+        assertEquals(md5(text), out.getMD5());
+    }
+
+    @Test
+    public void testDigestOverLargePayload() throws Exception {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            text.append("\u00e9l\u00e9ment ").append(i).append(',');
+        }
+        Bootstrap.DigestAppendable out = new Bootstrap.DigestAppendable(new StringBuilder());
+        out.append(text);
+
+        assertEquals(md5(text.toString()), out.getMD5());
+    }
+
+    private String md5(String text) throws Exception {
+        MessageDigest m = MessageDigest.getInstance("MD5");
+        return String.format("%1$032X", new BigInteger(1, m.digest(text.getBytes(StandardCharsets.UTF_8))));
+    }
+
     /**
      * Verify logic setting cache-related HTTP headers in response.
      * @param expirationSetting expiration setting on the app definition
@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.http.resource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.auraframework.http.resource.EncodedResponse.Coding;
+import org.auraframework.system.AuraContext;
+import org.auraframework.util.IOUtil;
+import org.auraframework.util.test.util.UnitTestCase;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.google.common.base.Charsets;
+import com.google.common.net.HttpHeaders;
+
+public class EncodedResponseTest extends UnitTestCase {
+    private static final String CONTENT = "$A.clientService.initDefs({});";
+
+    private HttpServletRequest getRequest(String header, String value) {
+        HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+        Mockito.when(request.getHeader(header)).thenReturn(value);
+        return request;
+    }
+
+    private AuraContext getContext() {
+        AuraContext context = Mockito.mock(AuraContext.class);
+        Mockito.when(context.getFrameworkUID()).thenReturn("fwuid");
+        return context;
+    }
+
+    private EncodedResponse.Body getBody() {
+        return new EncodedResponse.Body() {
+            @Override
+            public void write(OutputStream out) throws IOException {
+                out.write(CONTENT.getBytes(Charsets.UTF_8));
+            }
+        };
+    }
+
+    @Test
+    public void testAcceptedPrefersGzip() {
+        assertEquals(Coding.GZIP, Coding.accepted("deflate, gzip;q=0.8"));
+    }
+
+    @Test
+    public void testAcceptedDeflate() {
+        assertEquals(Coding.DEFLATE, Coding.accepted("deflate, br"));
+    }
+
+    @Test
+    public void testAcceptedIgnoresRefusedCodings() {
+        assertEquals(Coding.IDENTITY, Coding.accepted("gzip;q=0, br"));
+    }
+
+    @Test
+    public void testAcceptedWithoutHeader() {
+        assertEquals(Coding.IDENTITY, Coding.accepted(null));
+    }
+
+    @Test
+    public void testNegotiateIsIdentityUnlessEnabled() {
+        assertFalse(Boolean.getBoolean("aura.resources.compress"));
+        assertEquals(Coding.IDENTITY, Coding.negotiate(getRequest(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate")));
+    }
+
+    @Test
+    public void testETagDependsOnKeyAndCoding() {
+        AuraContext context = getContext();
+        String etag = EncodedResponse.getETag(context, "JS:MIN:uid", Coding.IDENTITY);
+
+        assertEquals(etag, EncodedResponse.getETag(context, "JS:MIN:uid", Coding.IDENTITY));
+        assertFalse(etag.equals(EncodedResponse.getETag(context, "JS:MIN:uid2", Coding.IDENTITY)));
+        assertFalse(etag.equals(EncodedResponse.getETag(context, "JS:MIN:uid", Coding.GZIP)));
+        assertTrue(etag.startsWith("\"") && etag.endsWith("\""));
+    }
+
+    @Test
+    public void testNotModifiedWhenETagMatches() {
+        String etag = EncodedResponse.getETag(getContext(), "JS:MIN:uid", Coding.GZIP);
+        HttpServletResponse response = Mockito.mock(HttpServletResponse.class);
+
+        assertTrue(EncodedResponse.checkNotModified(getRequest(HttpHeaders.IF_NONE_MATCH, "\"other\", W/" + etag),
+                response, etag));
+        Mockito.verify(response).setHeader(HttpHeaders.ETAG, etag);
+        Mockito.verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+    }
+
+    @Test
+    public void testModifiedWhenETagDiffers() {
+        String etag = EncodedResponse.getETag(getContext(), "JS:MIN:uid", Coding.GZIP);
+        HttpServletResponse response = Mockito.mock(HttpServletResponse.class);
+
+        assertFalse(EncodedResponse.checkNotModified(getRequest(HttpHeaders.IF_NONE_MATCH, "\"other\""),
+                response, etag));
+        Mockito.verify(response).setHeader(HttpHeaders.ETAG, etag);
+        Mockito.verify(response, Mockito.never()).setStatus(Mockito.anyInt());
+    }
+
+    @Test
+    public void testCompressGzip() throws Exception {
+        byte[] compressed = EncodedResponse.compress(Coding.GZIP, getBody());
+        String actual = IOUtil.readText(new InputStreamReader(
+                new GZIPInputStream(new ByteArrayInputStream(compressed)), Charsets.UTF_8));
+        assertEquals(CONTENT, actual);
+    }
+
+    @Test
+    public void testCompressDeflate() throws Exception {
+        byte[] compressed = EncodedResponse.compress(Coding.DEFLATE, getBody());
+        String actual = IOUtil.readText(new InputStreamReader(
+                new InflaterInputStream(new ByteArrayInputStream(compressed)), Charsets.UTF_8));
+        assertEquals(CONTENT, actual);
+    }
+}